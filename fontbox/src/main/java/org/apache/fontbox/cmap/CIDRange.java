@@ -44,6 +44,26 @@ class CIDRange
         this.codeLength = codeLength;
     }
 
+    /**
+     * Returns the first code of the CID range.
+     *
+     * @return the first code
+     */
+    public int getFrom()
+    {
+        return from;
+    }
+
+    /**
+     * Returns the last code of the CID range.
+     *
+     * @return the last code
+     */
+    public int getTo()
+    {
+        return to;
+    }
+
     /**
      * Returns the byte length of the codes of the CID range.
      * 
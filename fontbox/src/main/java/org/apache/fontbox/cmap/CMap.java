@@ -16,9 +16,13 @@
  */
 package org.apache.fontbox.cmap;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -55,14 +59,24 @@ public class CMap
 
     // Unicode mappings
     // one byte input values
-    private final Map<Integer, String> charToUnicodeOneByte = new HashMap<>();
-    // two byte input values
-    private final Map<Integer, String> charToUnicodeTwoBytes = new HashMap<>();
+    private final String[] charToUnicodeOneByte = new String[256];
+    // two byte input values, in pages of 256 values indexed by the high byte
+    private final String[][] charToUnicodeTwoBytes = new String[256][];
+    private boolean hasUnicodeMappings = false;
 
     // CID mappings
-    // map with all code to cid mappings organized by the origin byte length of the input value
+    // one byte input values, -1 if there is no mapping
+    private int[] codeToCidOneByte = null;
+    // two byte input values, in pages of 256 values indexed by the high byte, -1 if there is no
+    // mapping
+    private final int[][] codeToCidTwoBytes = new int[256][];
+    // map with the code to cid mappings of longer input values organized by the origin byte length
     private final Map<Integer, Map<Integer, Integer>> codeToCid = new HashMap<>();
     private final List<CIDRange> codeToCidRanges = new ArrayList<>();
+    private boolean hasCIDMappings = false;
+
+    // the CID ranges sorted for binary search, created when needed
+    private volatile CIDRangeLookup cidRangeLookup = null;
 
     // inverted map
     private final Map <String, byte[]> unicodeToByteCodes = new HashMap<>();
@@ -70,6 +84,10 @@ public class CMap
     private static final String SPACE = " ";
     private int spaceMapping = -1;
 
+    // header of the binary form, "CMAP" and the format version
+    private static final int BINARY_MAGIC = 0x434D4150;
+    private static final int BINARY_VERSION = 1;
+
     /**
      * Creates a new instance of CMap.
      */
@@ -84,7 +102,7 @@ public class CMap
      */
     public boolean hasCIDMappings()
     {
-        return !codeToCid.isEmpty() || !codeToCidRanges.isEmpty();
+        return hasCIDMappings;
     }
 
     /**
@@ -94,7 +112,7 @@ public class CMap
      */
     public boolean hasUnicodeMappings()
     {
-        return !charToUnicodeOneByte.isEmpty() || !charToUnicodeTwoBytes.isEmpty();
+        return hasUnicodeMappings;
     }
 
     /**
@@ -130,11 +148,16 @@ public class CMap
     {
         if (length == 1)
         {
-            return charToUnicodeOneByte.get(code);
+            return code >= 0 && code < 256 ? charToUnicodeOneByte[code] : null;
         }
         if (length == 2)
         {
-            return charToUnicodeTwoBytes.get(code);
+            if (code < 0 || code > 0xFFFF)
+            {
+                return null;
+            }
+            String[] page = charToUnicodeTwoBytes[code >> 8];
+            return page != null ? page[code & 0xFF] : null;
         }
         LOG.warn("Mappings with more than 2 bytes aren't supported");
         return null;
@@ -233,16 +256,12 @@ public class CMap
         {
             return 0;
         }
-        Integer cid = null;
-        if (codeToCid.containsKey(code.length))
-        {
-            cid = codeToCid.get(code.length).get(toInt(code));
-        }
-        if (cid == null)
+        if (code.length > 4)
         {
-            cid = toCIDFromRanges(code);
+            // too long for an int, only ranges can match
+            return toCIDFromRanges(code);
         }
-        return cid;
+        return toCID(toInt(code), code.length);
     }
 
     /**
@@ -285,12 +304,38 @@ public class CMap
         {
             return 0;
         }
-        Integer cid = null;
-        if (codeToCid.containsKey(length))
+        int cid = -1;
+        if (length == 1)
         {
-            cid = codeToCid.get(length).get(code);
+            if (codeToCidOneByte != null && code >= 0 && code < 256)
+            {
+                cid = codeToCidOneByte[code];
+            }
         }
-        return cid != null ? cid : toCIDFromRanges(code, length);
+        else if (length == 2)
+        {
+            if (code >= 0 && code <= 0xFFFF)
+            {
+                int[] page = codeToCidTwoBytes[code >> 8];
+                if (page != null)
+                {
+                    cid = page[code & 0xFF];
+                }
+            }
+        }
+        else
+        {
+            Map<Integer, Integer> codeToCidMap = codeToCid.get(length);
+            if (codeToCidMap != null)
+            {
+                Integer mapped = codeToCidMap.get(code);
+                if (mapped != null)
+                {
+                    cid = mapped;
+                }
+            }
+        }
+        return cid != -1 ? cid : toCIDFromRanges(code, length);
     }
 
     /**
@@ -302,15 +347,17 @@ public class CMap
 
     private int toCIDFromRanges(int code, int length)
     {
-        for (CIDRange range : codeToCidRanges)
+        if (codeToCidRanges.isEmpty())
         {
-            int ch = range.map(code, length);
-            if (ch != -1)
-            {
-                return ch;
-            }
+            return 0;
         }
-        return 0;
+        CIDRangeLookup lookup = cidRangeLookup;
+        if (lookup == null)
+        {
+            lookup = new CIDRangeLookup(codeToCidRanges);
+            cidRangeLookup = lookup;
+        }
+        return lookup.map(code, length);
     }
 
     /**
@@ -364,11 +411,12 @@ public class CMap
         int code = getCodeFromArray(codes, 0, codes.length);
         if (codes.length == 1)
         {
-            charToUnicodeOneByte.put(code, unicode);
+            charToUnicodeOneByte[code] = unicode;
+            hasUnicodeMappings = true;
         }
         else if (codes.length == 2)
         {
-            charToUnicodeTwoBytes.put(code, unicode);
+            putTwoByteUnicode(code, unicode);
         }
         else
         {
@@ -381,6 +429,18 @@ public class CMap
         }
     }
 
+    private void putTwoByteUnicode(int code, String unicode)
+    {
+        String[] page = charToUnicodeTwoBytes[code >> 8];
+        if (page == null)
+        {
+            page = new String[256];
+            charToUnicodeTwoBytes[code >> 8] = page;
+        }
+        page[code & 0xFF] = unicode;
+        hasUnicodeMappings = true;
+    }
+
     /**
      * Get the code bytes for an unicode string.
      *
@@ -400,15 +460,38 @@ public class CMap
      */
     void addCIDMapping(byte[] code, int cid)
     {
-        Map<Integer, Integer> codeToCidMap = codeToCid.get(code.length);
-        if (codeToCidMap == null)
+        addCIDMapping(toInt(code), code.length, cid);
+    }
+
+    private void addCIDMapping(int code, int length, int cid)
+    {
+        minCidLength = Math.min(minCidLength, length);
+        maxCidLength = Math.max(maxCidLength, length);
+        hasCIDMappings = true;
+        if (length == 1)
+        {
+            if (codeToCidOneByte == null)
+            {
+                codeToCidOneByte = new int[256];
+                Arrays.fill(codeToCidOneByte, -1);
+            }
+            codeToCidOneByte[code] = cid;
+        }
+        else if (length == 2)
         {
-            codeToCidMap = new HashMap<>();
-            codeToCid.put(code.length, codeToCidMap);
-            minCidLength = Math.min(minCidLength, code.length);
-            maxCidLength = Math.max(maxCidLength, code.length);
+            int[] page = codeToCidTwoBytes[code >> 8];
+            if (page == null)
+            {
+                page = new int[256];
+                Arrays.fill(page, -1);
+                codeToCidTwoBytes[code >> 8] = page;
+            }
+            page[code & 0xFF] = cid;
+        }
+        else
+        {
+            codeToCid.computeIfAbsent(length, k -> new HashMap<>()).put(code, cid);
         }
-        codeToCidMap.put(toInt(code), cid);
     }
 
     /**
@@ -437,6 +520,8 @@ public class CMap
             minCidLength = Math.min(minCidLength, length);
             maxCidLength = Math.max(maxCidLength, length);
         }
+        hasCIDMappings = true;
+        cidRangeLookup = null;
     }
 
     /**
@@ -460,28 +545,62 @@ public class CMap
     void useCmap(CMap cmap)
     {
         cmap.codespaceRanges.forEach(this::addCodespaceRange);
-        charToUnicodeOneByte.putAll(cmap.charToUnicodeOneByte);
-        charToUnicodeTwoBytes.putAll(cmap.charToUnicodeTwoBytes);
-        cmap.charToUnicodeOneByte.entrySet().forEach(entry ->
-            unicodeToByteCodes.put(entry.getValue(), new byte[] {(byte) (entry.getKey() % 0xFF)}));
-        cmap.charToUnicodeTwoBytes.entrySet().forEach(entry ->
-        {
-            Integer key = entry.getKey();
-            unicodeToByteCodes.put(entry.getValue(), 
-                    new byte[] {(byte) ((key >>> 8) & 0xFF), (byte) (key & 0xFF)});
-        });
-        cmap.codeToCid.forEach((key, value) ->
-        {
-            if (codeToCid.containsKey(key))
+        for (int code = 0; code < 256; code++)
+        {
+            String unicode = cmap.charToUnicodeOneByte[code];
+            if (unicode != null)
             {
-                codeToCid.get(key).putAll(value);
+                charToUnicodeOneByte[code] = unicode;
+                hasUnicodeMappings = true;
+                unicodeToByteCodes.put(unicode, new byte[] { (byte) code });
             }
-            else
+        }
+        for (int high = 0; high < 256; high++)
+        {
+            String[] page = cmap.charToUnicodeTwoBytes[high];
+            if (page == null)
             {
-                codeToCid.put(key, value);
+                continue;
             }
-        });
+            for (int low = 0; low < 256; low++)
+            {
+                if (page[low] != null)
+                {
+                    putTwoByteUnicode(high << 8 | low, page[low]);
+                    unicodeToByteCodes.put(page[low], new byte[] { (byte) high, (byte) low });
+                }
+            }
+        }
+        if (cmap.codeToCidOneByte != null)
+        {
+            for (int code = 0; code < 256; code++)
+            {
+                if (cmap.codeToCidOneByte[code] != -1)
+                {
+                    addCIDMapping(code, 1, cmap.codeToCidOneByte[code]);
+                }
+            }
+        }
+        for (int high = 0; high < 256; high++)
+        {
+            int[] page = cmap.codeToCidTwoBytes[high];
+            if (page == null)
+            {
+                continue;
+            }
+            for (int low = 0; low < 256; low++)
+            {
+                if (page[low] != -1)
+                {
+                    addCIDMapping(high << 8 | low, 2, page[low]);
+                }
+            }
+        }
+        cmap.codeToCid.forEach((length, map) ->
+            map.forEach((code, cid) -> addCIDMapping(code, length, cid)));
         codeToCidRanges.addAll(cmap.codeToCidRanges);
+        hasCIDMappings |= cmap.hasCIDMappings;
+        cidRangeLookup = null;
         maxCodeLength = Math.max(maxCodeLength, cmap.maxCodeLength);
         minCodeLength = Math.min(minCodeLength, cmap.minCodeLength);
         maxCidLength = Math.max(maxCidLength, cmap.maxCidLength);
@@ -645,4 +764,295 @@ public class CMap
     {
         return cmapName;
     }
+
+    /**
+     * Writes this CMap in a compact binary form which can be read by {@link #readBinary(DataInput)}
+     * much faster than the PostScript source can be parsed. This is used at build time to
+     * precompile the predefined CMaps.
+     *
+     * @param out the output
+     * @throws IOException if the CMap could not be written
+     */
+    void writeBinary(DataOutput out) throws IOException
+    {
+        out.writeInt(BINARY_MAGIC);
+        out.writeInt(BINARY_VERSION);
+        writeString(out, cmapName);
+        writeString(out, cmapVersion);
+        out.writeInt(cmapType);
+        writeString(out, registry);
+        writeString(out, ordering);
+        out.writeInt(supplement);
+        out.writeInt(wmode);
+        out.writeInt(minCodeLength);
+        out.writeInt(maxCodeLength);
+        out.writeInt(minCidLength);
+        out.writeInt(maxCidLength);
+        out.writeInt(spaceMapping);
+
+        out.writeInt(codespaceRanges.size());
+        for (CodespaceRange range : codespaceRanges)
+        {
+            writeBytes(out, range.getStartBytes());
+            writeBytes(out, range.getEndBytes());
+        }
+
+        List<Integer> codes = new ArrayList<>();
+        for (int code = 0; code < 256; code++)
+        {
+            if (charToUnicodeOneByte[code] != null)
+            {
+                codes.add(code);
+            }
+        }
+        out.writeInt(codes.size());
+        for (int code : codes)
+        {
+            out.writeByte(code);
+            out.writeUTF(charToUnicodeOneByte[code]);
+        }
+        codes.clear();
+        for (int code = 0; code <= 0xFFFF; code++)
+        {
+            if (toUnicode(code, 2) != null)
+            {
+                codes.add(code);
+            }
+        }
+        out.writeInt(codes.size());
+        for (int code : codes)
+        {
+            out.writeShort(code);
+            out.writeUTF(toUnicode(code, 2));
+        }
+        out.writeInt(unicodeToByteCodes.size());
+        for (Map.Entry<String, byte[]> entry : unicodeToByteCodes.entrySet())
+        {
+            out.writeUTF(entry.getKey());
+            writeBytes(out, entry.getValue());
+        }
+
+        codes.clear();
+        for (int code = 0; code <= 0xFFFF; code++)
+        {
+            if (code < 256 && codeToCidOneByte != null && codeToCidOneByte[code] != -1)
+            {
+                // one byte codes are marked by the high bit
+                codes.add(code | 0x10000);
+            }
+            int[] page = codeToCidTwoBytes[code >> 8];
+            if (page != null && page[code & 0xFF] != -1)
+            {
+                codes.add(code);
+            }
+        }
+        out.writeInt(codes.size());
+        for (int code : codes)
+        {
+            boolean oneByte = (code & 0x10000) != 0;
+            code &= 0xFFFF;
+            out.writeByte(oneByte ? 1 : 2);
+            out.writeShort(code);
+            out.writeInt(oneByte ? codeToCidOneByte[code] : codeToCidTwoBytes[code >> 8][code & 0xFF]);
+        }
+        out.writeInt(codeToCid.size());
+        for (Map.Entry<Integer, Map<Integer, Integer>> entry : codeToCid.entrySet())
+        {
+            out.writeByte(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Map.Entry<Integer, Integer> mapping : entry.getValue().entrySet())
+            {
+                out.writeInt(mapping.getKey());
+                out.writeInt(mapping.getValue());
+            }
+        }
+
+        out.writeInt(codeToCidRanges.size());
+        for (CIDRange range : codeToCidRanges)
+        {
+            out.writeInt(range.getFrom());
+            out.writeInt(range.getTo());
+            out.writeInt(range.map(range.getFrom(), range.getCodeLength()));
+            out.writeByte(range.getCodeLength());
+        }
+    }
+
+    /**
+     * Reads a CMap which was written by {@link #writeBinary(DataOutput)}.
+     *
+     * @param in the input
+     * @return the CMap
+     * @throws IOException if the data is not a CMap in the current binary format
+     */
+    static CMap readBinary(DataInput in) throws IOException
+    {
+        if (in.readInt() != BINARY_MAGIC || in.readInt() != BINARY_VERSION)
+        {
+            throw new IOException("Not a compiled CMap of version " + BINARY_VERSION);
+        }
+        CMap cmap = new CMap();
+        cmap.cmapName = readString(in);
+        cmap.cmapVersion = readString(in);
+        cmap.cmapType = in.readInt();
+        cmap.registry = readString(in);
+        cmap.ordering = readString(in);
+        cmap.supplement = in.readInt();
+        cmap.wmode = in.readInt();
+        int minCodeLength = in.readInt();
+        int maxCodeLength = in.readInt();
+        int minCidLength = in.readInt();
+        int maxCidLength = in.readInt();
+        cmap.spaceMapping = in.readInt();
+
+        int count = in.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            cmap.codespaceRanges.add(new CodespaceRange(readBytes(in), readBytes(in)));
+        }
+
+        count = in.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            cmap.charToUnicodeOneByte[in.readUnsignedByte()] = in.readUTF();
+            cmap.hasUnicodeMappings = true;
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            cmap.putTwoByteUnicode(in.readUnsignedShort(), in.readUTF());
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            cmap.unicodeToByteCodes.put(in.readUTF(), readBytes(in));
+        }
+
+        count = in.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            int length = in.readUnsignedByte();
+            int code = in.readUnsignedShort();
+            cmap.addCIDMapping(code, length, in.readInt());
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            int length = in.readUnsignedByte();
+            int size = in.readInt();
+            for (int j = 0; j < size; j++)
+            {
+                cmap.addCIDMapping(in.readInt(), length, in.readInt());
+            }
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            int from = in.readInt();
+            int to = in.readInt();
+            int cid = in.readInt();
+            cmap.codeToCidRanges.add(new CIDRange(from, to, cid, in.readUnsignedByte()));
+            cmap.hasCIDMappings = true;
+        }
+
+        cmap.minCodeLength = minCodeLength;
+        cmap.maxCodeLength = maxCodeLength;
+        cmap.minCidLength = minCidLength;
+        cmap.maxCidLength = maxCidLength;
+        return cmap;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException
+    {
+        out.writeBoolean(value != null);
+        if (value != null)
+        {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException
+    {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeBytes(DataOutput out, byte[] bytes) throws IOException
+    {
+        out.writeByte(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException
+    {
+        byte[] bytes = new byte[in.readUnsignedByte()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Immutable lookup table for the CID ranges. The ranges of each code length up to 4 bytes are
+     * sorted by their start code so that they can be found by a binary search. If ranges of a code
+     * length overlap, the first matching range in the order of the CMap wins, so these are
+     * scanned linearly as before.
+     */
+    private static final class CIDRangeLookup
+    {
+        private final CIDRange[] ranges;
+        private final CIDRange[][] sortedRanges = new CIDRange[4][];
+
+        CIDRangeLookup(List<CIDRange> cidRanges)
+        {
+            ranges = cidRanges.toArray(new CIDRange[0]);
+            for (int length = 1; length <= 4; length++)
+            {
+                final int codeLength = length;
+                CIDRange[] sorted = Arrays.stream(ranges)
+                        .filter(range -> range.getCodeLength() == codeLength)
+                        .sorted(Comparator.comparingInt(CIDRange::getFrom))
+                        .toArray(CIDRange[]::new);
+                boolean overlapping = false;
+                for (int i = 1; i < sorted.length && !overlapping; i++)
+                {
+                    overlapping = sorted[i].getFrom() <= sorted[i - 1].getTo();
+                }
+                sortedRanges[length - 1] = overlapping ? null : sorted;
+            }
+        }
+
+        int map(int code, int length)
+        {
+            CIDRange[] sorted = length >= 1 && length <= 4 ? sortedRanges[length - 1] : null;
+            if (sorted == null)
+            {
+                for (CIDRange range : ranges)
+                {
+                    int ch = range.map(code, length);
+                    if (ch != -1)
+                    {
+                        return ch;
+                    }
+                }
+                return 0;
+            }
+            int low = 0;
+            int high = sorted.length - 1;
+            while (low <= high)
+            {
+                int mid = (low + high) >>> 1;
+                CIDRange range = sorted[mid];
+                if (code < range.getFrom())
+                {
+                    high = mid - 1;
+                }
+                else if (code > range.getTo())
+                {
+                    low = mid + 1;
+                }
+                else
+                {
+                    return range.map(code, length);
+                }
+            }
+            return 0;
+        }
+    }
 }
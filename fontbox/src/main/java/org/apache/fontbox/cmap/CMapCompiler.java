@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.fontbox.cmap;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Build time tool which precompiles the predefined CMaps into the binary form read by
+ * {@link CMapParser#parsePredefined(String)}. Parsing the PostScript sources of the large CJK
+ * CMaps is expensive, the compiled CMaps are loaded with a single read instead. If a compiled
+ * CMap is missing, the source is parsed as before.
+ */
+public final class CMapCompiler
+{
+    private static final Log LOG = LogFactory.getLog(CMapCompiler.class);
+
+    private CMapCompiler()
+    {
+    }
+
+    /**
+     * Compiles all predefined CMaps in the given directory. Each CMap is written next to its
+     * source, with the suffix ".bin".
+     *
+     * @param args the directory of the predefined CMaps in the build output
+     * @throws IOException if a CMap could not be parsed or written
+     * @throws IllegalArgumentException if the arguments aren't a single directory
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 1)
+        {
+            throw new IllegalArgumentException(
+                    "usage: " + CMapCompiler.class.getName() + " <cmap directory>");
+        }
+        File directory = new File(args[0]);
+        File[] files = directory.listFiles();
+        if (files == null)
+        {
+            throw new IOException("Not a directory: " + directory);
+        }
+        int count = 0;
+        for (File file : files)
+        {
+            // the predefined CMaps have no suffix
+            String name = file.getName();
+            if (!file.isFile() || name.contains("."))
+            {
+                continue;
+            }
+            compile(name, new File(directory, name + CMapParser.COMPILED_SUFFIX));
+            count++;
+        }
+        LOG.info("Compiled " + count + " predefined CMaps in " + directory);
+    }
+
+    /**
+     * Parses the given predefined CMap from its source and writes the binary form.
+     *
+     * @param name the name of the predefined CMap
+     * @param target the target file
+     * @throws IOException if the CMap could not be parsed or written
+     */
+    static void compile(String name, File target) throws IOException
+    {
+        CMapParser parser = new CMapParser();
+        parser.setUseCompiledCMaps(false);
+        CMap cmap = parser.parsePredefined(name);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(target))))
+        {
+            cmap.writeBinary(out);
+        }
+    }
+}
@@ -17,6 +17,9 @@
 package org.apache.fontbox.cmap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -29,6 +32,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 /**
  * Parses a CMap stream.
@@ -37,13 +42,26 @@ import java.util.Map;
  */
 public class CMapParser
 {
+    private static final Log LOG = LogFactory.getLog(CMapParser.class);
+
+    /**
+     * File name suffix of the predefined CMaps which were precompiled at build time.
+     */
+    static final String COMPILED_SUFFIX = ".bin";
+
     private static final String MARK_END_OF_DICTIONARY = ">>";
     private static final String MARK_END_OF_ARRAY = "]";
 
+    // strings of a single character, in pages of 256 values indexed by the high byte
+    private static final String[][] SINGLE_CHAR_STRINGS = new String[256][];
+
     private final byte[] tokenParserByteBuffer = new byte[512];
 
     private boolean strictMode = false;
 
+    // use the precompiled predefined CMaps if available
+    private boolean useCompiledCMaps = true;
+
     /**
      * Creates a new instance of CMapParser.
      */
@@ -85,6 +103,11 @@ public class CMapParser
      */
     public CMap parsePredefined(String name) throws IOException
     {
+        CMap compiledCMap = readCompiledCMap(name);
+        if (compiledCMap != null)
+        {
+            return compiledCMap;
+        }
         try (InputStream input = new BufferedInputStream(getExternalCMap(name)))
         {
             // deactivate strict mode
@@ -159,6 +182,12 @@ public class CMapParser
 
     private void parseUsecmap(LiteralName useCmapName, CMap result) throws IOException
     {
+        CMap compiledCMap = readCompiledCMap(useCmapName.name);
+        if (compiledCMap != null)
+        {
+            result.useCmap(compiledCMap);
+            return;
+        }
         try (InputStream useStream = new BufferedInputStream(getExternalCMap(useCmapName.name)))
         {
             CMap useCMap = parse(useStream);
@@ -469,6 +498,65 @@ public class CMapParser
         return is;
     }
 
+    /**
+     * Reads the given predefined CMap from the binary form which was created at build time by
+     * {@link CMapCompiler}. The data is read in a single bulk read.
+     *
+     * @param name the name of the predefined CMap
+     * @return the CMap, or null if there is no compiled CMap and the source must be parsed.
+     */
+    private CMap readCompiledCMap(String name)
+    {
+        if (!useCompiledCMaps)
+        {
+            return null;
+        }
+        try (InputStream is = getCompiledCMap(name))
+        {
+            if (is == null)
+            {
+                return null;
+            }
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(Math.max(is.available(), 4096));
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1)
+            {
+                baos.write(buffer, 0, read);
+            }
+            return CMap.readBinary(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+        }
+        catch (IOException ex)
+        {
+            LOG.warn("Compiled CMap " + name + " could not be read, the source will be parsed", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Returns an input stream containing the given predefined CMap in the binary form created by
+     * {@link CMapCompiler}.
+     *
+     * @param name the name of the predefined CMap
+     * @return the input stream, or null if the CMap hasn't been compiled.
+     * @throws IOException if the compiled CMap can't be opened
+     */
+    InputStream getCompiledCMap(String name) throws IOException
+    {
+        return CMapParser.class.getResourceAsStream(name + COMPILED_SUFFIX);
+    }
+
+    /**
+     * Sets whether the precompiled predefined CMaps are used. The compiler itself must parse the
+     * sources, so that outdated compiled CMaps are never used.
+     *
+     * @param useCompiledCMaps true if the compiled CMaps are used
+     */
+    void setUseCompiledCMaps(boolean useCompiledCMaps)
+    {
+        this.useCompiledCMaps = useCompiledCMaps;
+    }
+
     private Object parseNextToken(PushbackInputStream is) throws IOException
     {
         Object retval = null;
@@ -746,9 +834,43 @@ public class CMapParser
 
     private String createStringFromBytes(byte[] bytes)
     {
+        if (bytes.length == 1)
+        {
+            return getSingleCharString((char) (bytes[0] & 0xFF));
+        }
+        if (bytes.length == 2)
+        {
+            char c = (char) ((bytes[0] & 0xFF) << 8 | (bytes[1] & 0xFF));
+            if (!Character.isSurrogate(c))
+            {
+                return getSingleCharString(c);
+            }
+        }
         return new String(bytes, bytes.length == 1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_16BE);
     }
 
+    /**
+     * Returns a shared string instance for the given character. Most CMap mappings are to a single
+     * character, this avoids having a separate string for every mapping in every CMap. Races are
+     * harmless, at worst an equal string is created twice.
+     */
+    private static String getSingleCharString(char c)
+    {
+        String[] page = SINGLE_CHAR_STRINGS[c >> 8];
+        if (page == null)
+        {
+            page = new String[256];
+            SINGLE_CHAR_STRINGS[c >> 8] = page;
+        }
+        String s = page[c & 0xFF];
+        if (s == null)
+        {
+            s = String.valueOf(c);
+            page[c & 0xFF] = s;
+        }
+        return s;
+    }
+
     /**
      * Internal class.
      */
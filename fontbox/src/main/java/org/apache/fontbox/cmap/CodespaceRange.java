@@ -60,6 +60,36 @@ public class CodespaceRange
         codeLength = endBytes.length;
     }
 
+    /**
+     * Returns the start bytes of the codespace.
+     *
+     * @return the start bytes
+     */
+    byte[] getStartBytes()
+    {
+        return toBytes(start);
+    }
+
+    /**
+     * Returns the end bytes of the codespace.
+     *
+     * @return the end bytes
+     */
+    byte[] getEndBytes()
+    {
+        return toBytes(end);
+    }
+
+    private static byte[] toBytes(int[] values)
+    {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++)
+        {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
     /**
      * Returns the length of the codes of the codespace.
      * 
@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.fontbox.ttf;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An implementation of the TTFDataStream that reads from a read-only memory-mapped file.
+ *
+ * <p>The mapping is shared by all streams created with {@link #duplicate()}, each of them having
+ * its own position. The data is neither copied onto the heap nor buffered, which keeps large
+ * fonts, e.g. CJK system fonts, cheap to open.</p>
+ */
+class MappedTTFDataStream extends TTFDataStream
+{
+    private final ByteBuffer buffer;
+    private final int dataLength;
+    private int currentPosition = 0;
+
+    /**
+     * Constructor. The file is mapped and closed again immediately, the mapping stays valid until
+     * it is garbage collected.
+     *
+     * @param file The font file.
+     *
+     * @throws IOException If the file could not be mapped, e.g. because it is larger than 2GB.
+     */
+    MappedTTFDataStream(File file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+            {
+                throw new IOException("Font file too large to be mapped: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        dataLength = buffer.limit();
+    }
+
+    private MappedTTFDataStream(ByteBuffer buffer)
+    {
+        // the position of the duplicate is only used for bulk reads of this stream
+        this.buffer = buffer.duplicate();
+        this.dataLength = buffer.limit();
+    }
+
+    /**
+     * Creates a new stream on the same mapping, positioned at the start of the data.
+     *
+     * @return a stream which can be used independently of this one.
+     */
+    MappedTTFDataStream duplicate()
+    {
+        return new MappedTTFDataStream(buffer);
+    }
+
+    /**
+     * Read an unsigned byte.
+     * @return An unsigned byte, or -1 at the end of the stream.
+     * @throws IOException If there is an error reading the data.
+     */
+    @Override
+    public int read() throws IOException
+    {
+        if (currentPosition >= dataLength)
+        {
+            return -1;
+        }
+        return buffer.get(currentPosition++) & 0xFF;
+    }
+
+    /**
+     * Read a signed 64-bit integer.
+     *
+     * @return eight bytes interpreted as a long.
+     * @throws IOException If there is an error reading the data.
+     */
+    @Override
+    public long readLong() throws IOException
+    {
+        checkAvailable(8);
+        long value = buffer.getLong(currentPosition);
+        currentPosition += 8;
+        return value;
+    }
+
+    /**
+     * Read an unsigned integer.
+     *
+     * @return An unsigned integer.
+     * @throws IOException If there is an error reading the data.
+     */
+    @Override
+    public long readUnsignedInt() throws IOException
+    {
+        checkAvailable(4);
+        long value = buffer.getInt(currentPosition) & 0xFFFFFFFFL;
+        currentPosition += 4;
+        return value;
+    }
+
+    /**
+     * Read an unsigned short.
+     *
+     * @return An unsigned short.
+     * @throws IOException If there is an error reading the data.
+     */
+    @Override
+    public int readUnsignedShort() throws IOException
+    {
+        checkAvailable(2);
+        int value = buffer.getShort(currentPosition) & 0xFFFF;
+        currentPosition += 2;
+        return value;
+    }
+
+    /**
+     * Read an signed short.
+     *
+     * @return An signed short.
+     * @throws IOException If there is an error reading the data.
+     */
+    @Override
+    public short readSignedShort() throws IOException
+    {
+        checkAvailable(2);
+        short value = buffer.getShort(currentPosition);
+        currentPosition += 2;
+        return value;
+    }
+
+    /**
+     * Read an unsigned short array.
+     *
+     * @param length The length of the array to read.
+     * @return An unsigned short array.
+     * @throws IOException If there is an error reading the data.
+     */
+    @Override
+    public int[] readUnsignedShortArray(int length) throws IOException
+    {
+        checkAvailable(2L * length);
+        int[] array = new int[length];
+        for (int i = 0; i < length; i++)
+        {
+            array[i] = buffer.getShort(currentPosition) & 0xFFFF;
+            currentPosition += 2;
+        }
+        return array;
+    }
+
+    private void checkAvailable(long count) throws EOFException
+    {
+        if (currentPosition + count > dataLength)
+        {
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Close the underlying resources. The mapping itself is released by the garbage collector.
+     *
+     * @throws IOException If there is an error closing the resources.
+     */
+    @Override
+    public void close() throws IOException
+    {
+    }
+
+    /**
+     * Seek into the datasource.
+     *
+     * @param pos The position to seek to.
+     * @throws IOException If the seek position is negative or larger than MAXINT.
+     */
+    @Override
+    public void seek(long pos) throws IOException
+    {
+        if (pos < 0 || pos > Integer.MAX_VALUE)
+        {
+            throw new IOException("Illegal seek position: " + pos);
+        }
+        currentPosition = (int) pos;
+    }
+
+    /**
+     * @see java.io.InputStream#read( byte[], int, int )
+     *
+     * @param b The buffer to write to.
+     * @param off The offset into the buffer.
+     * @param len The length into the buffer.
+     *
+     * @return The number of bytes read, or -1 at the end of the stream
+     *
+     * @throws IOException If there is an error reading from the stream.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        if (currentPosition >= dataLength)
+        {
+            return -1;
+        }
+        int amountRead = Math.min(len, dataLength - currentPosition);
+        buffer.position(currentPosition);
+        buffer.get(b, off, amountRead);
+        currentPosition += amountRead;
+        return amountRead;
+    }
+
+    /**
+     * Get the current position in the stream.
+     * @return The current position in the stream.
+     * @throws IOException If an error occurs while reading the stream.
+     */
+    @Override
+    public long getCurrentPosition() throws IOException
+    {
+        return currentPosition;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream getOriginalData() throws IOException
+    {
+        final ByteBuffer data = buffer.duplicate();
+        data.clear();
+        return new InputStream()
+        {
+            @Override
+            public int read()
+            {
+                return data.hasRemaining() ? data.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len)
+            {
+                if (len == 0)
+                {
+                    return 0;
+                }
+                if (!data.hasRemaining())
+                {
+                    return -1;
+                }
+                int amountRead = Math.min(len, data.remaining());
+                data.get(b, off, amountRead);
+                return amountRead;
+            }
+
+            @Override
+            public int available()
+            {
+                return data.remaining();
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getOriginalDataSize()
+    {
+        return dataLength;
+    }
+}
@@ -20,6 +20,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 /**
  * TrueType font file parser.
  * 
@@ -27,6 +30,15 @@ import java.io.InputStream;
  */
 public class TTFParser
 {
+    private static final Log LOG = LogFactory.getLog(TTFParser.class);
+
+    /**
+     * System property which, when set to "false", makes font files be read through a buffered
+     * {@link java.io.RandomAccessFile} instead of being memory-mapped. Mapped files can't be
+     * deleted on some platforms (e.g. Windows) until the mapping is garbage collected.
+     */
+    public static final String SYSPROP_MAPPED_FILES = "org.apache.fontbox.ttf.mappedfiles";
+
     private boolean isEmbedded = false;
     private boolean parseOnDemandOnly = false;
 
@@ -81,7 +93,7 @@ public class TTFParser
      */
     public TrueTypeFont parse(File ttfFile) throws IOException
     {
-        RAFDataStream raf = new RAFDataStream(ttfFile, "r");
+        TTFDataStream raf = openFile(ttfFile);
         try
         {
             return parse(raf);
@@ -94,6 +106,29 @@ public class TTFParser
         }
     }
 
+    /**
+     * Opens a font file, memory-mapped unless disabled with {@link #SYSPROP_MAPPED_FILES}.
+     *
+     * @param file The font file.
+     * @return the data stream of the file.
+     * @throws IOException If the file could not be opened.
+     */
+    static TTFDataStream openFile(File file) throws IOException
+    {
+        if (!"false".equalsIgnoreCase(System.getProperty(SYSPROP_MAPPED_FILES)))
+        {
+            try
+            {
+                return new MappedTTFDataStream(file);
+            }
+            catch (IOException | UnsupportedOperationException e)
+            {
+                LOG.debug("Could not map font file " + file + ", reading it instead", e);
+            }
+        }
+        return new RAFDataStream(file, "r");
+    }
+
     /**
      * Parse an input stream and return a TrueType font.
      *
@@ -16,6 +16,7 @@
  */
 package org.apache.fontbox.ttf;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -24,7 +25,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -62,6 +66,7 @@ public final class TTFSubsetter
     private final SortedSet<Integer> glyphIds; // new glyph ids
     private String prefix;
     private boolean hasAddedCompoundReferences;
+    private int[] sortedGlyphIds; // glyphIds as array, for the lookup of new glyph ids
 
     /**
      * Creates a subsetter for the given font.
@@ -456,7 +461,8 @@ public final class TTFSubsetter
     }
 
     /**
-     * Resolve compound glyph references.
+     * Resolve compound glyph references. The components of each glyph are cached by the font, so
+     * that they are read only once for all subsets of the same font.
      */
     private void addCompoundReferences() throws IOException
     {
@@ -466,103 +472,17 @@ public final class TTFSubsetter
         }
         hasAddedCompoundReferences = true;
 
-        boolean hasNested;
-        do
+        Deque<Integer> pending = new ArrayDeque<>(glyphIds);
+        while (!pending.isEmpty())
         {
-            GlyphTable g = ttf.getGlyph();
-            long[] offsets = ttf.getIndexToLocation().getOffsets();
-            InputStream is = ttf.getOriginalData();
-            Set<Integer> glyphIdsToAdd = null;
-            try
+            for (int componentGid : ttf.getGlyphComponents(pending.pop()))
             {
-                long isResult = is.skip(g.getOffset());
-                
-                if (Long.compare(isResult, g.getOffset()) != 0)
+                if (glyphIds.add(componentGid))
                 {
-                    LOG.debug("Tried skipping " + g.getOffset() + " bytes but skipped only " + isResult + " bytes");
+                    pending.push(componentGid);
                 }
-
-                long lastOff = 0L;
-                for (Integer glyphId : glyphIds)
-                {
-                    long offset = offsets[glyphId];
-                    long len = offsets[glyphId + 1] - offset;
-                    isResult = is.skip(offset - lastOff);
-                    
-                    if (Long.compare(isResult, offset - lastOff) != 0)
-                    {
-                        LOG.debug("Tried skipping " + (offset - lastOff) + " bytes but skipped only " + isResult + " bytes");
-                    }
-
-                    byte[] buf = new byte[(int)len];
-                    isResult = is.read(buf);
-
-                    if (Long.compare(isResult, len) != 0)
-                    {
-                        LOG.debug("Tried reading " + len + " bytes but only " + isResult + " bytes read");
-                    }
-                    
-                    // rewrite glyphIds for compound glyphs
-                    if (buf.length >= 2 && buf[0] == -1 && buf[1] == -1)
-                    {
-                        int off = 2*5;
-                        int flags;
-                        do
-                        {
-                            flags = (buf[off] & 0xff) << 8 | buf[off + 1] & 0xff;
-                            off +=2;
-                            int ogid = (buf[off] & 0xff) << 8 | buf[off + 1] & 0xff;
-                            if (!glyphIds.contains(ogid))
-                            {
-                                if (glyphIdsToAdd == null)
-                                {
-                                    glyphIdsToAdd = new TreeSet<>();
-                                }
-                                glyphIdsToAdd.add(ogid);
-                            }
-                            off += 2;
-                            // ARG_1_AND_2_ARE_WORDS
-                            if ((flags & 1 << 0) != 0)
-                            {
-                                off += 2 * 2;
-                            }
-                            else
-                            {
-                                off += 2;
-                            }
-                            // WE_HAVE_A_TWO_BY_TWO
-                            if ((flags & 1 << 7) != 0)
-                            {
-                                off += 2 * 4;
-                            }
-                            // WE_HAVE_AN_X_AND_Y_SCALE
-                            else if ((flags & 1 << 6) != 0)
-                            {
-                                off += 2 * 2;
-                            }
-                            // WE_HAVE_A_SCALE
-                            else if ((flags & 1 << 3) != 0)
-                            {
-                                off += 2;
-                            }
-                        }
-                        while ((flags & 1 << 5) != 0); // MORE_COMPONENTS
-
-                    }
-                    lastOff = offsets[glyphId + 1];
-                }
-            }
-            finally
-            {
-                is.close();
-            }
-            if (glyphIdsToAdd != null)
-            {
-                glyphIds.addAll(glyphIdsToAdd);
             }
-            hasNested = glyphIdsToAdd != null;
         }
-        while (hasNested);
     }
 
     // never returns null
@@ -584,6 +504,7 @@ public final class TTFSubsetter
             long prevEnd = 0;    // previously read glyph offset
             long newOffset = 0;  // new offset for the glyph in the subset font
             int newGid = 0;      // new GID in subset font
+            byte[] buf = new byte[1024]; // reused for all glyphs
 
             // for each glyph in the subset
             for (Integer gid : glyphIds)
@@ -599,8 +520,11 @@ public final class TTFSubsetter
                     LOG.debug("Tried skipping " + (offset - prevEnd) + " bytes but skipped only " + isResult + " bytes");
                 }
 
-                byte[] buf = new byte[(int)length];
-                isResult = is.read(buf);
+                if (buf.length < length)
+                {
+                    buf = new byte[(int) Math.max(length, 2L * buf.length)];
+                }
+                isResult = is.read(buf, 0, (int) length);
 
                 if (Long.compare(isResult, length) != 0)
                 {
@@ -608,7 +532,7 @@ public final class TTFSubsetter
                 }
 
                 // detect glyph type
-                if (buf.length >= 2 && buf[0] == -1 && buf[1] == -1)
+                if (length >= 2 && buf[0] == -1 && buf[1] == -1)
                 {
                     // compound glyph
                     int off = 2*5;
@@ -675,13 +599,13 @@ public final class TTFSubsetter
                     // offset to start next glyph
                     newOffset += off;
                 }
-                else if (buf.length > 0)
+                else if (length > 0)
                 {
                     // copy the entire glyph
-                    bos.write(buf, 0, buf.length);
+                    bos.write(buf, 0, (int) length);
 
                     // offset to start next glyph
-                    newOffset += buf.length;
+                    newOffset += length;
                 }
 
                 // 4-byte alignment
@@ -702,7 +626,18 @@ public final class TTFSubsetter
 
     private int getNewGlyphId(Integer oldGid)
     {
-        return glyphIds.headSet(oldGid).size();
+        if (sortedGlyphIds == null || sortedGlyphIds.length != glyphIds.size())
+        {
+            // the set only grows, so a different size means that it has changed
+            sortedGlyphIds = new int[glyphIds.size()];
+            int i = 0;
+            for (int gid : glyphIds)
+            {
+                sortedGlyphIds[i++] = gid;
+            }
+        }
+        int index = Arrays.binarySearch(sortedGlyphIds, oldGid);
+        return index >= 0 ? index : -1 - index;
     }
 
     private byte[] buildCmapTable() throws IOException
@@ -978,7 +913,8 @@ public final class TTFSubsetter
         
         addCompoundReferences();
 
-        try (DataOutputStream out = new DataOutputStream(os))
+        // the table directory is written with many small writes
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os)))
         {
             long[] newLoca = new long[glyphIds.size() + 1];
 
@@ -42,7 +42,7 @@ public class TrueTypeCollection implements Closeable
      */
     public TrueTypeCollection(File file) throws IOException
     {
-        this(new RAFDataStream(file, "r"));
+        this(TTFParser.openFile(file));
     }
 
     /**
@@ -116,6 +116,14 @@ public class TrueTypeCollection implements Closeable
             parser = new TTFParser(false, true);
         }
         stream.seek(fontOffsets[idx]);
+        if (stream instanceof MappedTTFDataStream)
+        {
+            // each font gets its own view of the shared mapping so that the fonts of a
+            // collection can be read independently of each other
+            MappedTTFDataStream fontStream = ((MappedTTFDataStream) stream).duplicate();
+            fontStream.seek(fontOffsets[idx]);
+            return parser.parse(fontStream);
+        }
         return parser.parse(new TTCDataStream(stream));
     }
 
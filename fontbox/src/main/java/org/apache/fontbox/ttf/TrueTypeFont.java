@@ -27,6 +27,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -44,6 +45,8 @@ public class TrueTypeFont implements FontBoxFont, Closeable
 
     private static final Log LOG = LogFactory.getLog(TrueTypeFont.class);
 
+    private static final int[] NO_COMPONENTS = new int[0];
+
     private float version;
     private int numberOfGlyphs = -1;
     private int unitsPerEm = -1;
@@ -54,6 +57,8 @@ public class TrueTypeFont implements FontBoxFont, Closeable
     private final Object lockReadtable = new Object();
     private final Object lockPSNames = new Object();
     private final List<String> enabledGsubFeatures = new ArrayList<>();
+    // component GIDs of each glyph, read on demand and shared by all subsetters of this font
+    private volatile AtomicReferenceArray<int[]> glyphComponents;
 
     /**
      * Constructor.  Clients should use the TTFParser to create a new TrueTypeFont object.
@@ -385,6 +390,113 @@ public class TrueTypeFont implements FontBoxFont, Closeable
         }
     }
 
+    /**
+     * Returns the GIDs of the direct components of a composite glyph, or an empty array for a
+     * simple glyph. The components of each glyph are read only once. Package-private, used by
+     * TTFSubsetter only.
+     *
+     * @param gid the glyph id
+     * @return the component GIDs, which must not be modified.
+     * @throws IOException if there was an error reading the glyph.
+     */
+    int[] getGlyphComponents(int gid) throws IOException
+    {
+        IndexToLocationTable loca = getIndexToLocation();
+        GlyphTable glyf = getGlyph();
+        if (loca == null || glyf == null)
+        {
+            return NO_COMPONENTS;
+        }
+        long[] offsets = loca.getOffsets();
+        if (gid < 0 || gid + 1 >= offsets.length)
+        {
+            return NO_COMPONENTS;
+        }
+        AtomicReferenceArray<int[]> components = glyphComponents;
+        if (components == null)
+        {
+            synchronized (lockReadtable)
+            {
+                components = glyphComponents;
+                if (components == null)
+                {
+                    components = new AtomicReferenceArray<>(offsets.length - 1);
+                    glyphComponents = components;
+                }
+            }
+        }
+        int[] result = components.get(gid);
+        if (result == null)
+        {
+            long length = offsets[gid + 1] - offsets[gid];
+            byte[] glyphData;
+            if (length < 2)
+            {
+                glyphData = new byte[0];
+            }
+            else
+            {
+                synchronized (data)
+                {
+                    long currentPosition = data.getCurrentPosition();
+                    data.seek(glyf.getOffset() + offsets[gid]);
+                    glyphData = data.read((int) length);
+                    data.seek(currentPosition);
+                }
+            }
+            result = parseGlyphComponents(glyphData);
+            components.set(gid, result);
+        }
+        return result;
+    }
+
+    private static int[] parseGlyphComponents(byte[] buf)
+    {
+        if (buf.length < 2 || buf[0] != -1 || buf[1] != -1)
+        {
+            return NO_COMPONENTS;
+        }
+        int[] result = new int[4];
+        int count = 0;
+        int off = 2 * 5;
+        int flags;
+        do
+        {
+            if (off + 4 > buf.length)
+            {
+                LOG.warn("Composite glyph description is truncated");
+                break;
+            }
+            flags = (buf[off] & 0xff) << 8 | buf[off + 1] & 0xff;
+            off += 2;
+            if (count == result.length)
+            {
+                result = Arrays.copyOf(result, count * 2);
+            }
+            result[count++] = (buf[off] & 0xff) << 8 | buf[off + 1] & 0xff;
+            off += 2;
+            // ARG_1_AND_2_ARE_WORDS
+            off += (flags & 1 << 0) != 0 ? 2 * 2 : 2;
+            // WE_HAVE_A_TWO_BY_TWO
+            if ((flags & 1 << 7) != 0)
+            {
+                off += 2 * 4;
+            }
+            // WE_HAVE_AN_X_AND_Y_SCALE
+            else if ((flags & 1 << 6) != 0)
+            {
+                off += 2 * 2;
+            }
+            // WE_HAVE_A_SCALE
+            else if ((flags & 1 << 3) != 0)
+            {
+                off += 2;
+            }
+        }
+        while ((flags & 1 << 5) != 0); // MORE_COMPONENTS
+        return Arrays.copyOf(result, count);
+    }
+
     /**
      * Returns the number of glyphs (MaximumProfile.numGlyphs).
      * 
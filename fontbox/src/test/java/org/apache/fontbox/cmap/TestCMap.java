@@ -16,7 +16,11 @@
  */
 package org.apache.fontbox.cmap;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 
@@ -45,6 +49,75 @@ class TestCMap
         assertEquals("a", cMap.toUnicode(bs));
     }
 
+    /**
+     * Check the CID lookup of single mappings and ranges of different code lengths.
+     */
+    @Test
+    void testCIDLookup()
+    {
+        CMap cMap = new CMap();
+        cMap.addCIDMapping(new byte[] { 0x20 }, 1);
+        cMap.addCIDMapping(new byte[] { 0x12, 0x34 }, 2);
+        cMap.addCIDMapping(new byte[] { 0x01, 0x02, 0x03 }, 3);
+        cMap.addCIDRange(new byte[] { 0x30, 0x00 }, new byte[] { 0x30, (byte) 0xFF }, 1000);
+        cMap.addCIDRange(new byte[] { 0x10, 0x00 }, new byte[] { 0x10, 0x0F }, 500);
+        cMap.addCIDRange(new byte[] { 0x40 }, new byte[] { 0x4F }, 100);
+        cMap.addCIDRange(new byte[] { 0x12, 0x30 }, new byte[] { 0x12, 0x3F }, 700);
+
+        assertTrue(cMap.hasCIDMappings());
+        assertEquals(1, cMap.toCID(new byte[] { 0x20 }));
+        assertEquals(1, cMap.toCID(0x20, 1));
+        assertEquals(0, cMap.toCID(0x20, 2));
+        // single mapping wins over the range
+        assertEquals(2, cMap.toCID(new byte[] { 0x12, 0x34 }));
+        assertEquals(703, cMap.toCID(0x1233, 2));
+        assertEquals(3, cMap.toCID(new byte[] { 0x01, 0x02, 0x03 }));
+        assertEquals(1000, cMap.toCID(0x3000, 2));
+        assertEquals(1255, cMap.toCID(new byte[] { 0x30, (byte) 0xFF }));
+        assertEquals(515, cMap.toCID(0x100F, 2));
+        assertEquals(0, cMap.toCID(0x1010, 2));
+        assertEquals(105, cMap.toCID(new byte[] { 0x45 }));
+        assertEquals(0, cMap.toCID(0x50, 1));
+
+        // ranges added after the first lookup are found too
+        cMap.addCIDRange(new byte[] { 0x50, 0x00 }, new byte[] { 0x50, 0x10 }, 2000);
+        assertEquals(2001, cMap.toCID(0x5001, 2));
+    }
+
+    /**
+     * Check that the first of overlapping CID ranges wins, as defined by the order in the CMap.
+     */
+    @Test
+    void testOverlappingCIDRanges()
+    {
+        CMap cMap = new CMap();
+        cMap.addCIDRange(new byte[] { 0x10, 0x00 }, new byte[] { 0x10, (byte) 0xFF }, 100);
+        cMap.addCIDRange(new byte[] { 0x10, 0x10 }, new byte[] { 0x10, 0x20 }, 5000);
+        assertEquals(116, cMap.toCID(0x1010, 2));
+        assertEquals(101, cMap.toCID(0x1001, 2));
+    }
+
+    /**
+     * Check the Unicode lookup and that it is kept by usecmap.
+     */
+    @Test
+    void testUnicodeLookupAndUseCmap()
+    {
+        CMap used = new CMap();
+        used.addCharMapping(new byte[] { 0x41 }, "A");
+        used.addCharMapping(new byte[] { 0x01, 0x02 }, "\u4E00");
+        CMap cMap = new CMap();
+        assertFalse(cMap.hasUnicodeMappings());
+        cMap.useCmap(used);
+        assertTrue(cMap.hasUnicodeMappings());
+        assertEquals("A", cMap.toUnicode(0x41));
+        assertEquals("\u4E00", cMap.toUnicode(0x0102));
+        assertEquals("\u4E00", cMap.toUnicode(new byte[] { 0x01, 0x02 }));
+        assertNull(cMap.toUnicode(0x0103));
+        assertNull(cMap.toUnicode(0x41, 2));
+        assertArrayEquals(new byte[] { 0x01, 0x02 }, cMap.getCodesFromUnicode("\u4E00"));
+    }
+
     /**
      * PDFBOX-3997: test unicode that is above the basic multilingual plane, here: helicopter
      * symbol, or D83D DE81 in the Noto Emoji font.
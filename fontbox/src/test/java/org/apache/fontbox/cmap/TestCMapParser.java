@@ -21,11 +21,19 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.junit.jupiter.api.Test;
 
@@ -211,6 +219,131 @@ class TestCMapParser
         assertNotNull(cMap, "Failed to parse predefined CMap Identity-V");
     }
 
+    /**
+     * Check that the binary form of the precompiled predefined CMaps gives the same mappings as
+     * the parsed source.
+     *
+     * @throws IOException If something went wrong
+     */
+    @Test
+    void testCompiledPredefinedMap() throws IOException
+    {
+        for (String name : new String[] { "UniJIS-UCS2-H", "Adobe-Japan1-UCS2", "90ms-RKSJ-V" })
+        {
+            CMapParser parser = new CMapParser();
+            parser.setUseCompiledCMaps(false);
+            CMap cMap = parser.parsePredefined(name);
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            cMap.writeBinary(new DataOutputStream(baos));
+            CMap compiledCMap = CMap.readBinary(
+                    new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+            assertSameMappings(cMap, compiledCMap);
+        }
+    }
+
+    /**
+     * Check that the predefined CMaps compiled by the build are used instead of the sources.
+     *
+     * @throws IOException If something went wrong
+     */
+    @Test
+    void testCompiledResourceLoaded() throws IOException
+    {
+        String name = "UniJIS-UCS2-H";
+        assertNotNull(CMapParser.class.getResource(name + CMapParser.COMPILED_SUFFIX),
+                "Predefined CMaps haven't been compiled by the build");
+        CMap cMap = new CMapParser()
+        {
+            @Override
+            protected InputStream getExternalCMap(String name) throws IOException
+            {
+                throw new IOException("The source of " + name + " must not be parsed");
+            }
+        }.parsePredefined(name);
+
+        CMapParser parser = new CMapParser();
+        parser.setUseCompiledCMaps(false);
+        assertSameMappings(parser.parsePredefined(name), cMap);
+    }
+
+    /**
+     * Check that a CMap written by the compiler is read, and that the source is parsed if there
+     * is no compiled CMap.
+     *
+     * @throws IOException If something went wrong
+     */
+    @Test
+    void testCompilerAndFallback() throws IOException
+    {
+        String name = "Adobe-Japan1-UCS2";
+        File dir = Files.createTempDirectory("pdfbox-cmap").toFile();
+        File source = new File(dir, name);
+        File target = new File(dir, name + CMapParser.COMPILED_SUFFIX);
+        try
+        {
+            // the compiler parses the CMaps of the classpath with the names of the directory
+            assertTrue(source.createNewFile());
+            CMapCompiler.main(new String[] { dir.getPath() });
+            assertTrue(target.length() > 0);
+            CMap compiledCMap = new CMapParser()
+            {
+                @Override
+                InputStream getCompiledCMap(String name) throws IOException
+                {
+                    return new FileInputStream(target);
+                }
+
+                @Override
+                protected InputStream getExternalCMap(String name) throws IOException
+                {
+                    throw new IOException("The source of " + name + " must not be parsed");
+                }
+            }.parsePredefined(name);
+
+            // no compiled CMap
+            CMap parsedCMap = new CMapParser()
+            {
+                @Override
+                InputStream getCompiledCMap(String name)
+                {
+                    return null;
+                }
+            }.parsePredefined(name);
+            assertSameMappings(parsedCMap, compiledCMap);
+        }
+        finally
+        {
+            target.delete();
+            source.delete();
+            dir.delete();
+        }
+        assertThrows(IllegalArgumentException.class, () -> CMapCompiler.main(new String[0]));
+    }
+
+    private static void assertSameMappings(CMap cMap, CMap compiledCMap) throws IOException
+    {
+        String name = cMap.getName();
+        assertEquals(name, compiledCMap.getName());
+        assertEquals(cMap.getWMode(), compiledCMap.getWMode());
+        assertEquals(cMap.getOrdering(), compiledCMap.getOrdering());
+        assertEquals(cMap.hasCIDMappings(), compiledCMap.hasCIDMappings());
+        assertEquals(cMap.hasUnicodeMappings(), compiledCMap.hasUnicodeMappings());
+        for (int code = 0; code <= 0xFFFF; code++)
+        {
+            assertEquals(cMap.toCID(code, 2), compiledCMap.toCID(code, 2), name);
+            assertEquals(cMap.toUnicode(code, 2), compiledCMap.toUnicode(code, 2), name);
+        }
+        for (int code = 0; code <= 0xFF; code++)
+        {
+            assertEquals(cMap.toCID(code, 1), compiledCMap.toCID(code, 1), name);
+            assertEquals(cMap.toUnicode(code, 1), compiledCMap.toUnicode(code, 1), name);
+        }
+        byte[] code = new byte[] { (byte) 0x82, (byte) 0xA0 };
+        assertEquals(cMap.readCode(new ByteArrayInputStream(code)),
+                compiledCMap.readCode(new ByteArrayInputStream(code)), name);
+    }
+
     @Test
     void testIdentitybfrange() throws IOException
     {
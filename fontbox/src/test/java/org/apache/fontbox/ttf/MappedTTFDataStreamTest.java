@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.fontbox.ttf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.fontbox.util.BoundingBox;
+import org.junit.jupiter.api.Test;
+
+class MappedTTFDataStreamTest
+{
+    private static final File TTF_FILE = new File("src/test/resources/ttf/LiberationSans-Regular.ttf");
+
+    /**
+     * Reads the same data through the mapped and the random access file implementation.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testSameDataAsRAF() throws IOException
+    {
+        try (MappedTTFDataStream mapped = new MappedTTFDataStream(TTF_FILE);
+             RAFDataStream raf = new RAFDataStream(TTF_FILE, "r"))
+        {
+            assertEquals(raf.getOriginalDataSize(), mapped.getOriginalDataSize());
+            for (long pos : new long[] { 0, 1, 12, 333, 4097 })
+            {
+                mapped.seek(pos);
+                raf.seek(pos);
+                assertEquals(raf.readUnsignedShort(), mapped.readUnsignedShort());
+                assertEquals(raf.readSignedShort(), mapped.readSignedShort());
+                assertEquals(raf.readUnsignedInt(), mapped.readUnsignedInt());
+                assertEquals(raf.readLong(), mapped.readLong());
+                assertEquals(raf.read(), mapped.read());
+                assertArrayEquals(raf.readUnsignedShortArray(5), mapped.readUnsignedShortArray(5));
+                assertArrayEquals(raf.read(100), mapped.read(100));
+                assertEquals(raf.getCurrentPosition(), mapped.getCurrentPosition());
+            }
+
+            mapped.seek(mapped.getOriginalDataSize() - 1);
+            mapped.read();
+            assertEquals(-1, mapped.read());
+            assertThrows(EOFException.class, mapped::readUnsignedShort);
+
+            try (InputStream input = mapped.getOriginalData())
+            {
+                assertEquals(mapped.getOriginalDataSize(), input.available());
+                byte[] header = new byte[4];
+                assertEquals(4, input.read(header));
+                assertArrayEquals(new byte[] { 0, 1, 0, 0 }, header);
+            }
+        }
+    }
+
+    /**
+     * Duplicates share the mapping but have their own position.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testDuplicate() throws IOException
+    {
+        try (MappedTTFDataStream mapped = new MappedTTFDataStream(TTF_FILE))
+        {
+            mapped.seek(100);
+            MappedTTFDataStream copy = mapped.duplicate();
+            assertEquals(0, copy.getCurrentPosition());
+            copy.seek(200);
+            assertEquals(100, mapped.getCurrentPosition());
+        }
+    }
+
+    /**
+     * Parse a font from a mapped file.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testParseMappedFont() throws IOException
+    {
+        try (TrueTypeFont mapped = new TTFParser().parse(new MappedTTFDataStream(TTF_FILE));
+             TrueTypeFont raf = new TTFParser().parse(new RAFDataStream(TTF_FILE, "r")))
+        {
+            assertEquals("LiberationSans", mapped.getName());
+            assertEquals(raf.getNumberOfGlyphs(), mapped.getNumberOfGlyphs());
+            int gid = raf.nameToGID("A");
+            assertEquals(gid, mapped.nameToGID("A"));
+            BoundingBox expected = raf.getGlyph().getGlyph(gid).getBoundingBox();
+            BoundingBox actual = mapped.getGlyph().getGlyph(gid).getBoundingBox();
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(raf.getAdvanceWidth(gid), mapped.getAdvanceWidth(gid));
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map.Entry;
 import org.apache.fontbox.util.autodetect.FontFileFinder;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -262,4 +263,71 @@ class TTFSubsetterTest
                     "UC dieresis path should not be empty");
         }
     }
+
+    /**
+     * The component GIDs used for the glyph closure of the subset must match the composite glyph
+     * descriptions of the glyph table.
+     *
+     * @throws java.io.IOException
+     */
+    @Test
+    void testGlyphComponents() throws IOException
+    {
+        try (TrueTypeFont ttf = new TTFParser().parse("src/test/resources/ttf/LiberationSans-Regular.ttf"))
+        {
+            GlyphTable glyphTable = ttf.getGlyph();
+            int composites = 0;
+            for (int gid = 0; gid < ttf.getNumberOfGlyphs(); gid++)
+            {
+                GlyphData glyph = glyphTable.getGlyph(gid);
+                int[] components = ttf.getGlyphComponents(gid);
+                if (glyph != null && glyph.getDescription().isComposite())
+                {
+                    GlyfCompositeDescript descript = (GlyfCompositeDescript) glyph.getDescription();
+                    assertEquals(descript.getComponentCount(), components.length, "GID " + gid);
+                    composites++;
+                }
+                else
+                {
+                    assertEquals(0, components.length, "GID " + gid);
+                }
+            }
+            assertTrue(composites > 0);
+        }
+    }
+
+    /**
+     * The subset must not depend on the order in which the characters are added.
+     *
+     * @throws java.io.IOException
+     */
+    @Test
+    void testSubsetIndependentOfOrder() throws IOException
+    {
+        try (TrueTypeFont ttf = new TTFParser().parse("src/test/resources/ttf/LiberationSans-Regular.ttf"))
+        {
+            String text = "\u00D6sterreich \u00C1rv\u00EDzt\u0171r\u0151";
+            TTFSubsetter forward = new TTFSubsetter(ttf);
+            TTFSubsetter backward = new TTFSubsetter(ttf);
+            for (int i = 0; i < text.length(); i++)
+            {
+                forward.add(text.charAt(i));
+                backward.add(text.charAt(text.length() - 1 - i));
+            }
+            ByteArrayOutputStream forwardBytes = new ByteArrayOutputStream();
+            forward.writeToStream(forwardBytes);
+            ByteArrayOutputStream backwardBytes = new ByteArrayOutputStream();
+            backward.writeToStream(backwardBytes);
+            assertArrayEquals(forwardBytes.toByteArray(), backwardBytes.toByteArray());
+
+            try (TrueTypeFont subset = new TTFParser(true).parse(
+                    new ByteArrayInputStream(forwardBytes.toByteArray())))
+            {
+                // the components of the accented glyphs are part of the subset
+                assertTrue(subset.nameToGID("acute") > 0 || subset.nameToGID("acute.uc") > 0);
+                assertTrue(subset.nameToGID("dieresis.uc") > 0);
+                assertFalse(subset.getPath("Odieresis").getBounds2D().isEmpty());
+            }
+        }
+    }
 }
@@ -24,12 +24,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccess;
 import org.apache.pdfbox.io.ScratchFile;
 
 /**
@@ -52,9 +54,10 @@ public class COSDocument extends COSBase implements Closeable
     /**
      * Maps ObjectKeys to a COSObject. Note that references to these objects
      * are also stored in COSDictionary objects that map a name to a specific object.
+     * The objects of a document may be dereferenced by several threads.
      */
     private final Map<COSObjectKey, COSObject> objectPool =
-        new HashMap<>();
+        new ConcurrentHashMap<>();
 
     /**
      * Maps object and generation id to object byte offsets.
@@ -166,6 +169,18 @@ public class COSDocument extends COSBase implements Closeable
         return stream;
     }
 
+    /**
+     * Creates a buffer for temporary data using the current configuration for scratch files. The
+     * buffer has to be closed when it is no longer needed.
+     * 
+     * @return the new buffer
+     * @throws IOException if the buffer can't be created
+     */
+    public RandomAccess createBuffer() throws IOException
+    {
+        return scratchFile.createBuffer();
+    }
+
     /**
      * Creates a new COSStream using the current configuration for scratch files. Not for public use. Only COSParser should
      * call this method.
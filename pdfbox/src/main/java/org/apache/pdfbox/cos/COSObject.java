@@ -29,11 +29,12 @@ import org.apache.commons.logging.LogFactory;
  */
 public class COSObject extends COSBase implements COSUpdateInfo
 {
-    private COSBase baseObject;
+    // volatile, as the object may be dereferenced by another thread
+    private volatile COSBase baseObject;
     private long objectNumber;
     private int generationNumber;
     private boolean needToBeUpdated;
-    private ICOSParser parser;
+    private volatile ICOSParser parser;
     private boolean isDereferenced = false;
 
     private static final Log LOG = LogFactory.getLog(COSObject.class);
@@ -100,27 +101,36 @@ public class COSObject extends COSBase implements COSUpdateInfo
     }
 
     /**
-     * This will get the object that this object encapsulates.
+     * This will get the object that this object encapsulates. The object is parsed when it is used for the first time.
+     * This is done while holding the lock of the parser, so that several threads can use the same object, but only
+     * one of them parses it.
      *
      * @return The encapsulated object.
      */
     public COSBase getObject()
     {
-        if (!isDereferenced && parser != null)
+        ICOSParser currentParser = parser;
+        if (currentParser != null)
         {
-            try
+            synchronized (currentParser)
             {
-                // mark as dereferenced to avoid endless recursions
-                isDereferenced = true;
-                baseObject = parser.dereferenceCOSObject(this);
-            }
-            catch (IOException e)
-            {
-                LOG.error("Can't dereference " + this, e);
-            }
-            finally
-            {
-                parser = null;
+                if (!isDereferenced && parser != null)
+                {
+                    try
+                    {
+                        // mark as dereferenced to avoid endless recursions
+                        isDereferenced = true;
+                        baseObject = currentParser.dereferenceCOSObject(this);
+                    }
+                    catch (IOException e)
+                    {
+                        LOG.error("Can't dereference " + this, e);
+                    }
+                    finally
+                    {
+                        parser = null;
+                    }
+                }
             }
         }
         return baseObject;
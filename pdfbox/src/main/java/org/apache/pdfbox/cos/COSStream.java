@@ -143,7 +143,10 @@ public class COSStream extends COSDictionary implements Closeable
         {
             if (randomAccessReadView != null)
             {
-                randomAccessReadView.seek(0);
+                synchronized (randomAccessReadView)
+                {
+                    randomAccessReadView.seek(0);
+                }
                 return new RandomAccessInputStream(randomAccessReadView);
             }
             else
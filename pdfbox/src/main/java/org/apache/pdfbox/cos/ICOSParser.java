@@ -24,7 +24,8 @@ public interface ICOSParser
 {
 
     /**
-     * Dereference the COSBase object which is referenced by the given COSObject.
+     * Dereference the COSBase object which is referenced by the given COSObject. The caller holds the lock of the
+     * parser, see {@link COSObject#getObject()}.
      * 
      * @param obj the COSObject which references the COSBase object to be dereferenced.
      * @return the referenced object
@@ -61,12 +61,17 @@ public class RandomAccessInputStream extends InputStream
     @Override
     public int read() throws IOException
     {
-        restorePosition();
-        if (input.isEOF())
+        int b;
+        // the input may be shared with other streams, e.g. of the same COSStream
+        synchronized (input)
         {
-            return -1;
+            restorePosition();
+            if (input.isEOF())
+            {
+                return -1;
+            }
+            b = input.read();
         }
-        int b = input.read();
         if (b != -1)
         {
             position += 1;
@@ -84,12 +89,16 @@ public class RandomAccessInputStream extends InputStream
     @Override
     public int read(byte[] b, int off, int len) throws IOException
     {
-        restorePosition();
-        if (input.isEOF())
+        int n;
+        synchronized (input)
         {
-            return -1;
+            restorePosition();
+            if (input.isEOF())
+            {
+                return -1;
+            }
+            n = input.read(b, off, len);
         }
-        int n = input.read(b, off, len);
         if (n != -1)
         {
             position += n;
@@ -111,8 +120,10 @@ public class RandomAccessInputStream extends InputStream
         {
             return 0;
         }
-        restorePosition();
-        input.seek(position + n);
+        synchronized (input)
+        {
+            input.seek(position + n);
+        }
         position += n;
         return n;
     }
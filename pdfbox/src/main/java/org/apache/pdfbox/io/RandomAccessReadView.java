@@ -87,7 +87,8 @@ public class RandomAccessReadView implements RandomAccessRead
         {
             throw new IOException("Invalid position " + newOffset);
         }
-        randomAccessRead.seek(startPosition + Math.min(newOffset, streamLength));
+        // the underlying source is moved by the next read, while holding its lock, as it may be
+        // shared with other views
         currentPosition = newOffset;
     }
 
@@ -101,8 +102,13 @@ public class RandomAccessReadView implements RandomAccessRead
         {
             return -1;
         }
-        restorePosition();
-        int readValue = randomAccessRead.read();
+        int readValue;
+        // the underlying source may be shared with other views
+        synchronized (randomAccessRead)
+        {
+            restorePosition();
+            readValue = randomAccessRead.read();
+        }
         if (readValue > -1)
         {
             currentPosition++;
@@ -120,8 +126,12 @@ public class RandomAccessReadView implements RandomAccessRead
         {
             return -1;
         }
-        restorePosition();
-        int readBytes = randomAccessRead.read(b, off, Math.min(len, available()));
+        int readBytes;
+        synchronized (randomAccessRead)
+        {
+            restorePosition();
+            readBytes = randomAccessRead.read(b, off, Math.min(len, available()));
+        }
         currentPosition += readBytes;
         return readBytes;
     }
@@ -165,8 +175,11 @@ public class RandomAccessReadView implements RandomAccessRead
     public void rewind(int bytes) throws IOException
     {
         checkClosed();
-        restorePosition();
-        randomAccessRead.rewind(bytes);
+        synchronized (randomAccessRead)
+        {
+            restorePosition();
+            randomAccessRead.rewind(bytes);
+        }
         currentPosition -= bytes;
     }
 
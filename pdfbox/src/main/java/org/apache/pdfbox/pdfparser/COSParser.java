@@ -24,6 +24,7 @@ import java.security.KeyStore;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -45,6 +46,7 @@ import org.apache.pdfbox.cos.COSStream;
 import org.apache.pdfbox.cos.ICOSParser;
 import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
 import org.apache.pdfbox.io.RandomAccessReadView;
 import org.apache.pdfbox.pdfparser.XrefTrailerResolver.XRefType;
 import org.apache.pdfbox.pdmodel.encryption.AccessPermission;
@@ -102,6 +104,10 @@ public class COSParser extends BaseParser implements ICOSParser
      * How many trailing bytes to read for EOF marker.
      */
     private static final int DEFAULT_TRAIL_BYTECOUNT = 2048;
+    /**
+     * How many decoded object streams are kept by default.
+     */
+    private static final int DEFAULT_OBJECT_STREAM_CACHE_SIZE = 16;
     /**
      * EOF-marker.
      */
@@ -131,6 +137,11 @@ public class COSParser extends BaseParser implements ICOSParser
      */
     private boolean isLenient = true;
 
+    /**
+     * Defer the checks of the offsets and of the page tree until the objects are used.
+     */
+    private boolean lazyOpen = false;
+
     protected boolean initialParseDone = false;
 
     private boolean trailerWasRebuild = false;
@@ -151,6 +162,31 @@ public class COSParser extends BaseParser implements ICOSParser
      */
     private int readTrailBytes = DEFAULT_TRAIL_BYTECOUNT; 
 
+    /**
+     * The maximum number of decoded object streams which are kept.
+     */
+    private int objectStreamCacheSize = DEFAULT_OBJECT_STREAM_CACHE_SIZE;
+
+    /**
+     * Parse all objects of an object stream when the first one is used.
+     */
+    private boolean parseObjectStreamsCompletely = false;
+
+    /**
+     * The decoded object streams, the least recently used one is removed first.
+     */
+    private final Map<Integer, DecodedObjectStream> decodedObjectStreams =
+            new LinkedHashMap<Integer, DecodedObjectStream>(16, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, DecodedObjectStream> eldest)
+        {
+            return size() > objectStreamCacheSize;
+        }
+    };
+
     private static final Log LOG = LogFactory.getLog(COSParser.class);
 
     /** 
@@ -218,6 +254,62 @@ public class COSParser extends BaseParser implements ICOSParser
         }
     }
 
+    /**
+     * Sets how many decoded object streams are kept, so that an object stream isn't decoded again for each of the
+     * objects it contains. The least recently used object stream is removed first. The default value is
+     * {@value #DEFAULT_OBJECT_STREAM_CACHE_SIZE}, 0 disables the cache.
+     * 
+     * @param size the maximum number of decoded object streams
+     * @throws IllegalArgumentException if the size is negative
+     */
+    public synchronized void setObjectStreamCacheSize(int size)
+    {
+        if (size < 0)
+        {
+            throw new IllegalArgumentException("Negative cache size: " + size);
+        }
+        objectStreamCacheSize = size;
+        if (size == 0)
+        {
+            decodedObjectStreams.clear();
+        }
+    }
+
+    /**
+     * Returns how many decoded object streams are kept, see {@link #setObjectStreamCacheSize(int)}.
+     * 
+     * @return the maximum number of decoded object streams
+     */
+    public int getObjectStreamCacheSize()
+    {
+        return objectStreamCacheSize;
+    }
+
+    /**
+     * Parse all objects of an object stream in one pass when the first of them is used, instead of parsing each object
+     * when it is used. This is faster if most of the objects are used, e.g. when rendering or saving the document,
+     * but the unused objects are kept in memory as well. The parsed objects are kept in the cache of the decoded
+     * object streams until they are used, so this has no effect if the cache is disabled, see
+     * {@link #setObjectStreamCacheSize(int)}.
+     * 
+     * @param parseCompletely true to parse all objects of an object stream at once
+     */
+    public void setParseObjectStreamsCompletely(boolean parseCompletely)
+    {
+        parseObjectStreamsCompletely = parseCompletely;
+    }
+
+    /**
+     * Returns true if all objects of an object stream are parsed at once, see
+     * {@link #setParseObjectStreamsCompletely(boolean)}.
+     * 
+     * @return true if all objects of an object stream are parsed at once
+     */
+    public boolean isParseObjectStreamsCompletely()
+    {
+        return parseObjectStreamsCompletely;
+    }
+
     /**
      * Read the trailer information and provide a COSDictionary containing the trailer information.
      * 
@@ -569,8 +661,41 @@ public class COSParser extends BaseParser implements ICOSParser
         this.isLenient = lenient;
     }
 
+    /**
+     * Change the lazy open flag. By default all offsets of the xref table are checked when the
+     * document is opened, which reads a part of every object, and the page tree of a document
+     * with a rebuilt trailer is walked to fix the page counts. When opening lazily, the offset of an
+     * object is checked when the object is parsed, and an object with a wrong offset is searched
+     * then. The page tree isn't walked, so that the time to open a huge document only depends on
+     * the objects which are actually used, e.g. the first page or the page count.
+     *
+     * <p>The drawback is that the page counts of a document with a broken xref table aren't fixed,
+     * and that a wrong offset is found later. This method can only be called before the parsing of
+     * the file.</p>
+     *
+     * @param lazyOpen true to defer the checks until the objects are used.
+     */
+    public void setLazyOpen(boolean lazyOpen)
+    {
+        if (initialParseDone)
+        {
+            throw new IllegalArgumentException("Cannot change lazy open after parsing");
+        }
+        this.lazyOpen = lazyOpen;
+    }
+
+    /**
+     * Returns the lazy open flag, see {@link #setLazyOpen(boolean)}.
+     *
+     * @return true if the checks are deferred until the objects are used.
+     */
+    public boolean isLazyOpen()
+    {
+        return lazyOpen;
+    }
+
     @Override
-    public COSBase dereferenceCOSObject(COSObject obj) throws IOException
+    public synchronized COSBase dereferenceCOSObject(COSObject obj) throws IOException
     {
         long currentPos = source.getPosition();
         COSBase parsedObj = parseObjectDynamically(obj.getObjectNumber(), obj.getGenerationNumber(),
@@ -612,6 +737,11 @@ public class COSParser extends BaseParser implements ICOSParser
             return pdfObject.getObject();
         }
         Long offsetOrObjstmObNr = getObjectOffset(objKey, requireExistingNotCompressedObj);
+        if (lazyOpen && isLenient && offsetOrObjstmObNr != null && offsetOrObjstmObNr > 0)
+        {
+            // the offset wasn't checked when the document was opened
+            offsetOrObjstmObNr = checkObjectOffset(objKey, offsetOrObjstmObNr);
+        }
         COSBase referencedObject = null;
         if (offsetOrObjstmObNr != null)
         {
@@ -665,6 +795,45 @@ public class COSParser extends BaseParser implements ICOSParser
         return offsetOrObjstmObNr;
     }
 
+    /**
+     * Check the offset of an object which is about to be parsed, see {@link #setLazyOpen(boolean)}.
+     * If the object is found with a greater generation number, the xref entry is moved to the
+     * corrected key. If the object isn't found at all, the offset of a brute force search is used.
+     * This is what {@link #checkXrefOffsets()} would have done for all objects.
+     *
+     * @param objKey the key of the object
+     * @param offset the offset from the xref table
+     * @return the checked or fixed offset, or null if the object can't be found with the given key
+     * @throws IOException if something went wrong
+     */
+    private Long checkObjectOffset(COSObjectKey objKey, Long offset) throws IOException
+    {
+        COSObjectKey foundObjectKey = findObjectKey(objKey, offset);
+        if (foundObjectKey == objKey)
+        {
+            return offset;
+        }
+        if (foundObjectKey != null)
+        {
+            // Generation was fixed, the object doesn't exist with the given generation
+            LOG.debug("Fixed generation number " + objKey + " -> " + foundObjectKey);
+            Map<COSObjectKey, Long> xrefTable = document.getXrefTable();
+            xrefTable.put(foundObjectKey, xrefTable.remove(objKey));
+            return null;
+        }
+        Long fixedOffset = getBFCOSObjectOffsets().get(objKey);
+        if (fixedOffset != null)
+        {
+            LOG.debug("Fixed offset " + offset + " -> " + fixedOffset + " for object " + objKey);
+            document.getXrefTable().put(objKey, fixedOffset);
+        }
+        else
+        {
+            LOG.warn("Object " + objKey + " not found at offset " + offset);
+        }
+        return fixedOffset;
+    }
+
     private COSBase parseFileObject(Long offsetOrObjstmObNr, final COSObjectKey objKey)
             throws IOException
     {
@@ -762,11 +931,10 @@ public class COSParser extends BaseParser implements ICOSParser
         if (objstmBaseObj instanceof COSStream)
         {
             // parse object stream
-            PDFObjectStreamParser parser = null;
             try
             {
-                parser = new PDFObjectStreamParser((COSStream) objstmBaseObj, document);
-                objectStreamObject = parser.parseObject(key.getNumber());
+                objectStreamObject = parseObjectStreamObject((COSStream) objstmBaseObj, objstmObjNr,
+                        key.getNumber());
                 if (objectStreamObject != null)
                 {
                     objectStreamObject.setKey(key);
@@ -787,6 +955,58 @@ public class COSParser extends BaseParser implements ICOSParser
         }
         return objectStreamObject;
     }
+
+    private COSBase parseObjectStreamObject(COSStream objstm, int objstmObjNr, long objectNumber)
+            throws IOException
+    {
+        if (objectStreamCacheSize == 0)
+        {
+            return new PDFObjectStreamParser(objstm, document).parseObject(objectNumber);
+        }
+        DecodedObjectStream decoded = decodedObjectStreams.get(objstmObjNr);
+        if (decoded == null)
+        {
+            decoded = new DecodedObjectStream(objstm);
+            decodedObjectStreams.put(objstmObjNr, decoded);
+        }
+        if (decoded.parsedObjects != null)
+        {
+            // the object is kept by the pool from now on
+            return decoded.parsedObjects.remove(objectNumber);
+        }
+        PDFObjectStreamParser parser = new PDFObjectStreamParser(objstm,
+                decoded.data.createView(0, decoded.data.length()), decoded.objectNumbers,
+                document);
+        if (parseObjectStreamsCompletely)
+        {
+            decoded.parsedObjects = parser.parseAllObjects();
+            // the decoded data isn't needed anymore
+            decoded.data = null;
+            return decoded.parsedObjects.remove(objectNumber);
+        }
+        return parser.parseObject(objectNumber);
+    }
+
+    /**
+     * An object stream which has been decoded, with the object numbers and the offsets of its objects, or with its
+     * parsed objects which haven't been used so far.
+     */
+    private static final class DecodedObjectStream
+    {
+        private RandomAccessReadBuffer data;
+        private final Map<Long, Integer> objectNumbers;
+        private Map<Long, COSBase> parsedObjects;
+
+        private DecodedObjectStream(COSStream stream) throws IOException
+        {
+            try (InputStream is = stream.createInputStream())
+            {
+                data = new RandomAccessReadBuffer(is);
+            }
+            objectNumbers = new PDFObjectStreamParser(stream, data.createView(0, data.length()),
+                    null, null).readObjectNumbers();
+        }
+    }
     
     /** 
      * Returns length value referred to or defined in given object. 
@@ -1192,8 +1412,9 @@ public class COSParser extends BaseParser implements ICOSParser
      */
     private void checkXrefOffsets() throws IOException
     {
-        // repair mode isn't available in non-lenient mode
-        if (!isLenient)
+        // repair mode isn't available in non-lenient mode, the offsets of a lazily opened
+        // document are checked when the objects are parsed
+        if (!isLenient || lazyOpen)
         {
             return;
         }
@@ -1932,13 +2153,14 @@ public class COSParser extends BaseParser implements ICOSParser
 
     /**
      * Check if all entries of the pages dictionary are present. Those which can't be dereferenced are removed.
+     * This is skipped if the document is opened lazily, see {@link #setLazyOpen(boolean)}.
      * 
      * @param root the root dictionary of the pdf
      * @throws java.io.IOException if the page tree root is null
      */
     protected void checkPages(COSDictionary root) throws IOException
     {
-        if (trailerWasRebuild)
+        if (trailerWasRebuild && !lazyOpen)
         {
             // check if all page objects are dereferenced
             COSDictionary pages = root.getCOSDictionary(COSName.PAGES);
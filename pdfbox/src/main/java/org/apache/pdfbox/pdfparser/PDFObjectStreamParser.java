@@ -17,13 +17,17 @@
 package org.apache.pdfbox.pdfparser;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.pdfbox.cos.COSBase;
 import org.apache.pdfbox.cos.COSDocument;
 import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.RandomAccessRead;
 
 /**
  * This will parse a PDF 1.5 object stream and extract the object with given object number from the stream.
@@ -35,6 +39,7 @@ public class PDFObjectStreamParser extends BaseParser
 {
     private final int numberOfObjects;
     private final int firstObject;
+    private final Map<Long, Integer> knownObjectNumbers;
 
     /**
      * Constructor.
@@ -45,8 +50,24 @@ public class PDFObjectStreamParser extends BaseParser
      */
     public PDFObjectStreamParser(COSStream stream, COSDocument document) throws IOException
     {
-        super(stream.createView());
+        this(stream, stream.createView(), null, document);
+    }
+
+    /**
+     * Constructor for an object stream which has already been decoded, so that the stream isn't decoded again.
+     *
+     * @param stream The stream to parse.
+     * @param decodedStream The decoded data of the stream, it is closed with the parser.
+     * @param objectNumbers The object numbers and offsets read before, or null if they have to be read.
+     * @param document The document for the current parsing.
+     * @throws IOException If there is an error initializing the stream.
+     */
+    PDFObjectStreamParser(COSStream stream, RandomAccessRead decodedStream,
+            Map<Long, Integer> objectNumbers, COSDocument document) throws IOException
+    {
+        super(decodedStream);
         this.document = document;
+        this.knownObjectNumbers = objectNumbers;
         // get mandatory number of objects
         numberOfObjects = stream.getInt(COSName.N);
         if (numberOfObjects == -1)
@@ -104,8 +125,40 @@ public class PDFObjectStreamParser extends BaseParser
         return streamObject;
     }
 
+    /**
+     * Parse all objects of the stream in one pass. The stream is closed after parsing the objects.
+     *
+     * @return a map of all object numbers and the corresponding parsed objects
+     * @throws IOException if there is an error while parsing the stream
+     */
+    public Map<Long, COSBase> parseAllObjects() throws IOException
+    {
+        Map<Long, COSBase> allObjects = new LinkedHashMap<>();
+        try
+        {
+            // parse the objects from front to back
+            List<Map.Entry<Long, Integer>> objectNumbers = new ArrayList<>(privateReadObjectNumbers().entrySet());
+            objectNumbers.sort(Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Integer> objectNumber : objectNumbers)
+            {
+                source.seek((long) firstObject + objectNumber.getValue());
+                allObjects.put(objectNumber.getKey(), parseDirObject());
+            }
+        }
+        finally
+        {
+            source.close();
+            document = null;
+        }
+        return allObjects;
+    }
+
     private Map<Long, Integer> privateReadObjectNumbers() throws IOException
     {
+        if (knownObjectNumbers != null)
+        {
+            return knownObjectNumbers;
+        }
         // don't initialize map using numberOfObjects as there might by less object numbers than expected
         Map<Long, Integer> objectNumbers = new HashMap<>();
         long firstObjectPosition = source.getPosition() + firstObject - 1;
@@ -16,18 +16,20 @@
  */
 package org.apache.pdfbox.pdfwriter;
 
-import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -58,7 +60,9 @@ import org.apache.pdfbox.cos.COSString;
 import org.apache.pdfbox.cos.COSUpdateInfo;
 import org.apache.pdfbox.cos.ICOSVisitor;
 import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccess;
 import org.apache.pdfbox.io.RandomAccessInputStream;
+import org.apache.pdfbox.io.RandomAccessOutputStream;
 import org.apache.pdfbox.io.RandomAccessRead;
 import org.apache.pdfbox.pdfparser.PDFXRefStream;
 import org.apache.pdfbox.pdfparser.xref.FreeXReference;
@@ -73,6 +77,7 @@ import org.apache.pdfbox.pdmodel.encryption.ProtectionPolicy;
 import org.apache.pdfbox.pdmodel.encryption.SecurityHandler;
 import org.apache.pdfbox.pdmodel.fdf.FDFDocument;
 import org.apache.pdfbox.pdmodel.interactive.digitalsignature.COSFilterInputStream;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.DigestSignatureInterface;
 import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureInterface;
 import org.apache.pdfbox.util.Hex;
 
@@ -82,7 +87,7 @@ import org.apache.pdfbox.util.Hex;
  * @author Michael Traut
  * @author Ben Litchfield
  */
-public class COSWriter implements ICOSVisitor
+public class COSWriter implements ICOSVisitor, Closeable
 {
     /**
      * The dictionary open token.
@@ -224,7 +229,7 @@ public class COSWriter implements ICOSVisitor
     private RandomAccessRead incrementalInput;
     private OutputStream incrementalOutput;
     private SignatureInterface signatureInterface;
-    private byte[] incrementPart;
+    private RandomAccess incrementBuffer;
     private COSArray byteRangeArray;
     private CompressParameters compressParameters = null;
     private boolean blockAddingObject = false;
@@ -266,10 +271,8 @@ public class COSWriter implements ICOSVisitor
      */
     public COSWriter(OutputStream outputStream, RandomAccessRead inputData) throws IOException
     {
-        // write to buffer instead of output
-        setOutput(new ByteArrayOutputStream());
-        setStandardOutput(new COSStandardOutputStream(output, inputData.length()));
-
+        // the increment is written to a buffer of the document instead of the output, see
+        // createIncrementBuffer()
         incrementalInput = inputData;
         incrementalOutput = outputStream;
         incrementalUpdate = true;
@@ -853,10 +856,39 @@ public class COSWriter implements ICOSVisitor
      */
     private void doWriteIncrement() throws IOException
     {
-        // write existing PDF
-        IOUtils.copy(new RandomAccessInputStream(incrementalInput), incrementalOutput);
-        // write the actual incremental update
-        incrementalOutput.write(((ByteArrayOutputStream) output).toByteArray());
+        try
+        {
+            // write existing PDF
+            IOUtils.copy(new RandomAccessInputStream(incrementalInput), incrementalOutput);
+            // write the actual incremental update
+            getStandardOutput().flush();
+            IOUtils.copy(new RandomAccessInputStream(incrementBuffer), incrementalOutput);
+        }
+        finally
+        {
+            releaseIncrementBuffer();
+        }
+    }
+
+    /**
+     * Creates the buffer for the incremental update. It uses the scratch file settings of the
+     * document and is patched with the byte range and the signature before being written.
+     */
+    private void createIncrementBuffer(COSDocument doc) throws IOException
+    {
+        incrementBuffer = doc.createBuffer();
+        setOutput(new RandomAccessOutputStream(incrementBuffer));
+        setStandardOutput(new COSStandardOutputStream(output, incrementalInput.length()));
+    }
+
+    private void releaseIncrementBuffer() throws IOException
+    {
+        if (incrementBuffer != null)
+        {
+            RandomAccess buffer = incrementBuffer;
+            incrementBuffer = null;
+            buffer.close();
+        }
     }
     
     private void doWriteSignature() throws IOException
@@ -882,35 +914,105 @@ public class COSWriter implements ICOSVisitor
                     ", byteRangeLength: " + byteRangeLength);
         }
 
-        // copy the new incremental data into a buffer (e.g. signature dict, trailer)
-        ByteArrayOutputStream byteOut = (ByteArrayOutputStream) output;
-        byteOut.flush();
-        incrementPart = byteOut.toByteArray();
+        // overwrite the reserve ByteRange in the buffer of the new incremental data
+        getStandardOutput().flush();
+        byte[] byteRangeBytes = new byte[(int) byteRangeLength];
+        Arrays.fill(byteRangeBytes, (byte) 0x20); // SPACE
+        byte[] byteRangeValue = byteRange.getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(byteRangeValue, 0, byteRangeBytes, 0, byteRangeValue.length);
+        incrementBuffer.seek(byteRangeOffset - inLength);
+        incrementBuffer.write(byteRangeBytes);
 
-        // overwrite the reserve ByteRange in the buffer
-        byte[] byteRangeBytes = byteRange.getBytes(StandardCharsets.ISO_8859_1);
-        for (int i = 0; i < byteRangeLength; i++)
+        if (signatureInterface instanceof DigestSignatureInterface)
         {
-            if (i >= byteRangeBytes.length)
+            try
             {
-                incrementPart[(int) (byteRangeOffset + i - inLength)] = 0x20; // SPACE
+                writeDigestSignature((DigestSignatureInterface) signatureInterface);
             }
-            else
+            finally
             {
-                incrementPart[(int) (byteRangeOffset + i - inLength)] = byteRangeBytes[i];
+                releaseIncrementBuffer();
             }
         }
+        else if (signatureInterface != null)
+        {
+            try
+            {
+                // sign the bytes, nothing is written to the output if the signer fails
+                byte[] signatureBytes = signatureInterface.sign(getDataToSign());
+                writeExternalSignature(signatureBytes);
+            }
+            finally
+            {
+                releaseIncrementBuffer();
+            }
+        }
+        // else signature should created externally and set via writeSignature()
+    }
 
-        if (signatureInterface != null)
+    /**
+     * Signs with a single pass over the original PDF: it is copied to the output and digested at
+     * the same time. Then the signed ranges of the increment are digested from the buffer, the
+     * signature is inserted and the increment is written.
+     */
+    private void writeDigestSignature(DigestSignatureInterface signer) throws IOException
+    {
+        MessageDigest messageDigest;
+        try
+        {
+            messageDigest = MessageDigest.getInstance(signer.getDigestAlgorithm());
+        }
+        catch (NoSuchAlgorithmException e)
         {
-            // data to be signed
-            final InputStream dataToSign = getDataToSign();
+            throw new IOException(e);
+        }
+        // the whole original PDF is part of the first signed range
+        IOUtils.copy(new RandomAccessInputStream(incrementalInput),
+                new DigestOutputStream(incrementalOutput, messageDigest));
+        try (InputStream signedIncrement = new COSFilterInputStream(
+                new RandomAccessInputStream(incrementBuffer), getSignedIncrementRange()))
+        {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = signedIncrement.read(buffer)) != -1)
+            {
+                messageDigest.update(buffer, 0, n);
+            }
+        }
+        insertSignature(signer.signDigest(messageDigest.digest()));
+        IOUtils.copy(new RandomAccessInputStream(incrementBuffer), incrementalOutput);
+    }
 
-            // sign the bytes
-            byte[] signatureBytes = signatureInterface.sign(dataToSign);
-            writeExternalSignature(signatureBytes);
+    /**
+     * Returns the signed ranges of the increment, which include /ByteRange but not /Contents.
+     */
+    private int[] getSignedIncrementRange() throws IOException
+    {
+        int incPartSigOffset = (int) (signatureOffset - incrementalInput.length());
+        int afterSigOffset = incPartSigOffset + (int) signatureLength;
+        return new int[]
+        {
+            0, incPartSigOffset,
+            afterSigOffset, (int) incrementBuffer.length() - afterSigOffset
+        };
+    }
+
+    /**
+     * Overwrites the /Contents placeholder in the buffer of the increment with the signature.
+     */
+    private void insertSignature(byte[] cmsSignature) throws IOException
+    {
+        byte[] signatureBytes = Hex.getBytes(cmsSignature);
+
+        // subtract 2 bytes because of the enclosing "<>"
+        if (signatureBytes.length > signatureLength - 2)
+        {
+            throw new IOException("Can't write signature, not enough space");
         }
-        // else signature should created externally and set via writeSignature()
+
+        long incPartSigOffset = signatureOffset - incrementalInput.length();
+        incrementBuffer.seek(incPartSigOffset + 1);
+        incrementBuffer.write(signatureBytes);
     }
 
     /**
@@ -928,22 +1030,13 @@ public class COSWriter implements ICOSVisitor
      */
     public InputStream getDataToSign() throws IOException
     {
-        if (incrementPart == null || incrementalInput == null)
+        if (incrementBuffer == null || incrementalInput == null)
         {
             throw new IllegalStateException("PDF not prepared for signing");
         }
-        // range of incremental bytes to be signed (includes /ByteRange but not /Contents)
-        int incPartSigOffset = (int) (signatureOffset - incrementalInput.length());
-        int afterSigOffset = incPartSigOffset + (int) signatureLength;
-        int[] range =
-        {
-            0, incPartSigOffset,
-            afterSigOffset, incrementPart.length - afterSigOffset
-        };
-
-        return new SequenceInputStream(
-                new RandomAccessInputStream(incrementalInput),
-                new COSFilterInputStream(incrementPart, range));
+        return new SequenceInputStream(new RandomAccessInputStream(incrementalInput),
+                new COSFilterInputStream(new RandomAccessInputStream(incrementBuffer),
+                        getSignedIncrementRange()));
     }
 
     /**
@@ -956,28 +1049,23 @@ public class COSWriter implements ICOSVisitor
     public void writeExternalSignature(byte[] cmsSignature) throws IOException
     {
 
-        if (incrementPart == null || incrementalInput == null)
+        if (incrementBuffer == null || incrementalInput == null)
         {
             throw new IllegalStateException("PDF not prepared for setting signature");
         }
-        byte[] signatureBytes = Hex.getBytes(cmsSignature);
+        insertSignature(cmsSignature);
 
-        // subtract 2 bytes because of the enclosing "<>"
-        if (signatureBytes.length > signatureLength - 2)
+        try
         {
-            throw new IOException("Can't write signature, not enough space");
+            // write the data to the incremental output stream
+            IOUtils.copy(new RandomAccessInputStream(incrementalInput), incrementalOutput);
+            IOUtils.copy(new RandomAccessInputStream(incrementBuffer), incrementalOutput);
+        }
+        finally
+        {
+            // prevent further use
+            releaseIncrementBuffer();
         }
-
-        // overwrite the signature Contents in the buffer
-        int incPartSigOffset = (int) (signatureOffset - incrementalInput.length());
-        System.arraycopy(signatureBytes, 0, incrementPart, incPartSigOffset + 1, signatureBytes.length);
-
-        // write the data to the incremental output stream
-        IOUtils.copy(new RandomAccessInputStream(incrementalInput), incrementalOutput);
-        incrementalOutput.write(incrementPart);
-
-        // prevent further use
-        incrementPart = null;
     }
 
     private void writeXrefRange(long x, long y) throws IOException
@@ -1566,7 +1654,7 @@ public class COSWriter implements ICOSVisitor
             idArray.add( secondID );
             trailer.setItem(COSName.ID, idArray);
         }
-        cosDoc.accept(this);
+        doWriteDocument(cosDoc);
     }
 
     /**
@@ -1581,7 +1669,36 @@ public class COSWriter implements ICOSVisitor
         fdfDocument = doc;
         willEncrypt = false;
         COSDocument cosDoc = fdfDocument.getDocument();
-        cosDoc.accept(this);
+        doWriteDocument(cosDoc);
+    }
+
+    private void doWriteDocument(COSDocument cosDoc) throws IOException
+    {
+        if (incrementalUpdate)
+        {
+            createIncrementBuffer(cosDoc);
+        }
+        try
+        {
+            cosDoc.accept(this);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            releaseIncrementBuffer();
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the buffer of an incremental update, if it hasn't been written yet, e.g. because
+     * an external signature was never set. The output stream isn't closed by this method.
+     *
+     * @throws IOException if the buffer can't be released
+     */
+    @Override
+    public void close() throws IOException
+    {
+        releaseIncrementBuffer();
     }
     /**
      * This will output the given byte getString as a PDF object.
@@ -0,0 +1,695 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdfwriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.pdfbox.contentstream.operator.OperatorName;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.util.NumberFormatUtil;
+
+/**
+ * A low level builder for content streams which writes numbers, names and operators directly into
+ * a growable byte buffer.
+ *
+ * <p>Unlike {@link org.apache.pdfbox.pdmodel.PDPageContentStream} it doesn't track the graphics
+ * state, doesn't manage resources and doesn't encode text: fonts and XObjects are referenced by
+ * the name returned by {@link org.apache.pdfbox.pdmodel.PDResources#add PDResources.add}, text
+ * has to be encoded beforehand, e.g. with {@link org.apache.pdfbox.pdmodel.font.PDFont#encode
+ * PDFont.encode}. Apart from the growth of the buffer no objects are allocated per operator,
+ * which makes it suitable for generating very large content streams.</p>
+ *
+ * <pre>
+ * ContentStreamBuilder builder = new ContentStreamBuilder();
+ * builder.beginText();
+ * builder.setFont(resources.add(font), 12);
+ * builder.newLineAtOffset(72, 720);
+ * builder.showText(font.encode("Hello"));
+ * builder.endText();
+ * try (OutputStream out = stream.createOutputStream(COSName.FLATE_DECODE))
+ * {
+ *     builder.writeTo(out);
+ * }
+ * </pre>
+ *
+ * <p>This class is not thread-safe.</p>
+ */
+public final class ContentStreamBuilder
+{
+    private static final int MAX_FRACTION_DIGITS = 5;
+    private static final byte[] HEX_DIGITS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
+            'A', 'B', 'C', 'D', 'E', 'F' };
+
+    private static final byte[] OP_SAVE = operatorBytes(OperatorName.SAVE);
+    private static final byte[] OP_RESTORE = operatorBytes(OperatorName.RESTORE);
+    private static final byte[] OP_CONCAT = operatorBytes(OperatorName.CONCAT);
+    private static final byte[] OP_MOVE_TO = operatorBytes(OperatorName.MOVE_TO);
+    private static final byte[] OP_LINE_TO = operatorBytes(OperatorName.LINE_TO);
+    private static final byte[] OP_CURVE_TO = operatorBytes(OperatorName.CURVE_TO);
+    private static final byte[] OP_CLOSE_PATH = operatorBytes(OperatorName.CLOSE_PATH);
+    private static final byte[] OP_APPEND_RECT = operatorBytes(OperatorName.APPEND_RECT);
+    private static final byte[] OP_STROKE = operatorBytes(OperatorName.STROKE_PATH);
+    private static final byte[] OP_FILL = operatorBytes(OperatorName.FILL_NON_ZERO);
+    private static final byte[] OP_FILL_AND_STROKE = operatorBytes(OperatorName.FILL_NON_ZERO_AND_STROKE);
+    private static final byte[] OP_CLIP = operatorBytes(OperatorName.CLIP_NON_ZERO);
+    private static final byte[] OP_END_PATH = operatorBytes(OperatorName.ENDPATH);
+    private static final byte[] OP_LINE_WIDTH = operatorBytes(OperatorName.SET_LINE_WIDTH);
+    private static final byte[] OP_STROKING_GRAY = operatorBytes(OperatorName.STROKING_COLOR_GRAY);
+    private static final byte[] OP_NON_STROKING_GRAY = operatorBytes(OperatorName.NON_STROKING_GRAY);
+    private static final byte[] OP_STROKING_RGB = operatorBytes(OperatorName.STROKING_COLOR_RGB);
+    private static final byte[] OP_NON_STROKING_RGB = operatorBytes(OperatorName.NON_STROKING_RGB);
+    private static final byte[] OP_DRAW_OBJECT = operatorBytes(OperatorName.DRAW_OBJECT);
+    private static final byte[] OP_BEGIN_TEXT = operatorBytes(OperatorName.BEGIN_TEXT);
+    private static final byte[] OP_END_TEXT = operatorBytes(OperatorName.END_TEXT);
+    private static final byte[] OP_SET_FONT = operatorBytes(OperatorName.SET_FONT_AND_SIZE);
+    private static final byte[] OP_MOVE_TEXT = operatorBytes(OperatorName.MOVE_TEXT);
+    private static final byte[] OP_SET_MATRIX = operatorBytes(OperatorName.SET_MATRIX);
+    private static final byte[] OP_NEXT_LINE = operatorBytes(OperatorName.NEXT_LINE);
+    private static final byte[] OP_SET_LEADING = operatorBytes(OperatorName.SET_TEXT_LEADING);
+    private static final byte[] OP_SHOW_TEXT = operatorBytes(OperatorName.SHOW_TEXT);
+    private static final byte[] OP_SHOW_TEXT_ADJUSTED = operatorBytes(OperatorName.SHOW_TEXT_ADJUSTED);
+
+    private final Map<COSName, byte[]> nameCache = new IdentityHashMap<>();
+    private final byte[] formatBuffer = new byte[32];
+    private byte[] buffer;
+    private int count;
+    private int maxFractionDigits = MAX_FRACTION_DIGITS;
+
+    /**
+     * Creates a builder with an initial capacity of 8 KB.
+     */
+    public ContentStreamBuilder()
+    {
+        this(8192);
+    }
+
+    /**
+     * Creates a builder.
+     *
+     * @param initialCapacity the initial size of the buffer in bytes.
+     */
+    public ContentStreamBuilder(int initialCapacity)
+    {
+        buffer = new byte[Math.max(64, initialCapacity)];
+    }
+
+    private static byte[] operatorBytes(String name)
+    {
+        byte[] op = Arrays.copyOf(name.getBytes(StandardCharsets.US_ASCII), name.length() + 1);
+        op[name.length()] = '\n';
+        return op;
+    }
+
+    /**
+     * Sets the maximum number of digits written for fractional numbers, the default is 5 as in PDPageContentStream.
+     *
+     * @param fractionDigits the number of digits, from 0 to 5.
+     * @throws IllegalArgumentException if the number is outside of the range.
+     */
+    public void setMaximumFractionDigits(int fractionDigits)
+    {
+        if (fractionDigits < 0 || fractionDigits > MAX_FRACTION_DIGITS)
+        {
+            throw new IllegalArgumentException("Fraction digits must be between 0 and "
+                    + MAX_FRACTION_DIGITS + ": " + fractionDigits);
+        }
+        maxFractionDigits = fractionDigits;
+    }
+
+    /**
+     * Writes a real number operand.
+     *
+     * @param real the number.
+     * @throws IllegalArgumentException if the parameter is not a finite number
+     */
+    public void operand(float real)
+    {
+        if (!Float.isFinite(real))
+        {
+            throw new IllegalArgumentException(real + " is not a finite number");
+        }
+        int byteCount = NumberFormatUtil.formatFloatFast(real, maxFractionDigits, formatBuffer);
+        if (byteCount == -1)
+        {
+            // only numbers beyond the range of long, which aren't valid in a PDF anyway
+            String text = new BigDecimal(real).setScale(maxFractionDigits, RoundingMode.HALF_UP)
+                    .stripTrailingZeros().toPlainString();
+            writeAscii(text);
+        }
+        else
+        {
+            write(formatBuffer, 0, byteCount);
+        }
+        write(' ');
+    }
+
+    /**
+     * Writes an integer operand.
+     *
+     * @param integer the number.
+     */
+    public void operand(int integer)
+    {
+        write(formatBuffer, 0, NumberFormatUtil.formatLongFast(integer, formatBuffer));
+        write(' ');
+    }
+
+    /**
+     * Writes a name operand. The encoded form of each name is computed once.
+     *
+     * @param name the name.
+     */
+    public void operand(COSName name)
+    {
+        byte[] bytes = nameCache.get(name);
+        if (bytes == null)
+        {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(name.getName().length() + 1);
+            try
+            {
+                name.writePDF(output);
+            }
+            catch (IOException e)
+            {
+                // can't happen with a ByteArrayOutputStream
+                throw new UncheckedIOException(e);
+            }
+            bytes = output.toByteArray();
+            nameCache.put(name, bytes);
+        }
+        write(bytes, 0, bytes.length);
+        write(' ');
+    }
+
+    /**
+     * Writes an operator which has no dedicated method. This allocates the bytes of the operator,
+     * the dedicated methods use precomputed ones.
+     *
+     * @param name the operator, see {@link OperatorName}.
+     */
+    public void operator(String name)
+    {
+        writeAscii(name);
+        write('\n');
+    }
+
+    /**
+     * q operator. Saves the graphics state.
+     */
+    public void saveGraphicsState()
+    {
+        write(OP_SAVE);
+    }
+
+    /**
+     * Q operator. Restores the graphics state.
+     */
+    public void restoreGraphicsState()
+    {
+        write(OP_RESTORE);
+    }
+
+    /**
+     * cm operator. Concatenates the given matrix with the CTM.
+     *
+     * @param a the a value of the matrix.
+     * @param b the b value of the matrix.
+     * @param c the c value of the matrix.
+     * @param d the d value of the matrix.
+     * @param e the e value of the matrix.
+     * @param f the f value of the matrix.
+     */
+    public void transform(float a, float b, float c, float d, float e, float f)
+    {
+        operand(a);
+        operand(b);
+        operand(c);
+        operand(d);
+        operand(e);
+        operand(f);
+        write(OP_CONCAT);
+    }
+
+    /**
+     * m operator. Moves the current point to the given coordinates.
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     */
+    public void moveTo(float x, float y)
+    {
+        operand(x);
+        operand(y);
+        write(OP_MOVE_TO);
+    }
+
+    /**
+     * l operator. Draws a line from the current point to the given coordinates.
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     */
+    public void lineTo(float x, float y)
+    {
+        operand(x);
+        operand(y);
+        write(OP_LINE_TO);
+    }
+
+    /**
+     * c operator. Appends a cubic Bézier curve to the current path.
+     *
+     * @param x1 x coordinate of the point 1
+     * @param y1 y coordinate of the point 1
+     * @param x2 x coordinate of the point 2
+     * @param y2 y coordinate of the point 2
+     * @param x3 x coordinate of the point 3
+     * @param y3 y coordinate of the point 3
+     */
+    public void curveTo(float x1, float y1, float x2, float y2, float x3, float y3)
+    {
+        operand(x1);
+        operand(y1);
+        operand(x2);
+        operand(y2);
+        operand(x3);
+        operand(y3);
+        write(OP_CURVE_TO);
+    }
+
+    /**
+     * h operator. Closes the current subpath.
+     */
+    public void closePath()
+    {
+        write(OP_CLOSE_PATH);
+    }
+
+    /**
+     * re operator. Adds a rectangle to the current path.
+     *
+     * @param x The lower left x coordinate.
+     * @param y The lower left y coordinate.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     */
+    public void addRect(float x, float y, float width, float height)
+    {
+        operand(x);
+        operand(y);
+        operand(width);
+        operand(height);
+        write(OP_APPEND_RECT);
+    }
+
+    /**
+     * S operator. Strokes the path.
+     */
+    public void stroke()
+    {
+        write(OP_STROKE);
+    }
+
+    /**
+     * f operator. Fills the path using the nonzero winding number rule.
+     */
+    public void fill()
+    {
+        write(OP_FILL);
+    }
+
+    /**
+     * B operator. Fills and then strokes the path.
+     */
+    public void fillAndStroke()
+    {
+        write(OP_FILL_AND_STROKE);
+    }
+
+    /**
+     * W n operators. Intersects the clipping path with the current path using the nonzero rule.
+     */
+    public void clip()
+    {
+        write(OP_CLIP);
+        write(OP_END_PATH);
+    }
+
+    /**
+     * w operator. Sets the line width.
+     *
+     * @param lineWidth the line width.
+     */
+    public void setLineWidth(float lineWidth)
+    {
+        operand(lineWidth);
+        write(OP_LINE_WIDTH);
+    }
+
+    /**
+     * G operator. Sets the stroking color in the DeviceGray color space.
+     *
+     * @param gray the gray value, from 0 to 1.
+     */
+    public void setStrokingColor(float gray)
+    {
+        operand(gray);
+        write(OP_STROKING_GRAY);
+    }
+
+    /**
+     * g operator. Sets the non stroking color in the DeviceGray color space.
+     *
+     * @param gray the gray value, from 0 to 1.
+     */
+    public void setNonStrokingColor(float gray)
+    {
+        operand(gray);
+        write(OP_NON_STROKING_GRAY);
+    }
+
+    /**
+     * RG operator. Sets the stroking color in the DeviceRGB color space.
+     *
+     * @param r the red component, from 0 to 1.
+     * @param g the green component, from 0 to 1.
+     * @param b the blue component, from 0 to 1.
+     */
+    public void setStrokingColor(float r, float g, float b)
+    {
+        operand(r);
+        operand(g);
+        operand(b);
+        write(OP_STROKING_RGB);
+    }
+
+    /**
+     * rg operator. Sets the non stroking color in the DeviceRGB color space.
+     *
+     * @param r the red component, from 0 to 1.
+     * @param g the green component, from 0 to 1.
+     * @param b the blue component, from 0 to 1.
+     */
+    public void setNonStrokingColor(float r, float g, float b)
+    {
+        operand(r);
+        operand(g);
+        operand(b);
+        write(OP_NON_STROKING_RGB);
+    }
+
+    /**
+     * Do operator. Draws the XObject with the given resource name.
+     *
+     * @param name the resource name of the XObject.
+     */
+    public void drawObject(COSName name)
+    {
+        operand(name);
+        write(OP_DRAW_OBJECT);
+    }
+
+    /**
+     * BT operator. Begins a text object.
+     */
+    public void beginText()
+    {
+        write(OP_BEGIN_TEXT);
+    }
+
+    /**
+     * ET operator. Ends a text object.
+     */
+    public void endText()
+    {
+        write(OP_END_TEXT);
+    }
+
+    /**
+     * Tf operator. Sets the font and size.
+     *
+     * @param font the resource name of the font.
+     * @param fontSize the font size.
+     */
+    public void setFont(COSName font, float fontSize)
+    {
+        operand(font);
+        operand(fontSize);
+        write(OP_SET_FONT);
+    }
+
+    /**
+     * Td operator. Moves to the start of the next line, offset from the start of the current line.
+     *
+     * @param tx The x translation.
+     * @param ty The y translation.
+     */
+    public void newLineAtOffset(float tx, float ty)
+    {
+        operand(tx);
+        operand(ty);
+        write(OP_MOVE_TEXT);
+    }
+
+    /**
+     * Tm operator. Sets the text matrix.
+     *
+     * @param a the a value of the matrix.
+     * @param b the b value of the matrix.
+     * @param c the c value of the matrix.
+     * @param d the d value of the matrix.
+     * @param e the e value of the matrix.
+     * @param f the f value of the matrix.
+     */
+    public void setTextMatrix(float a, float b, float c, float d, float e, float f)
+    {
+        operand(a);
+        operand(b);
+        operand(c);
+        operand(d);
+        operand(e);
+        operand(f);
+        write(OP_SET_MATRIX);
+    }
+
+    /**
+     * TL operator. Sets the text leading.
+     *
+     * @param leading The leading in unscaled text units.
+     */
+    public void setLeading(float leading)
+    {
+        operand(leading);
+        write(OP_SET_LEADING);
+    }
+
+    /**
+     * T* operator. Moves to the start of the next line.
+     */
+    public void newLine()
+    {
+        write(OP_NEXT_LINE);
+    }
+
+    /**
+     * Tj operator. Shows already encoded text, e.g. the result of
+     * {@link org.apache.pdfbox.pdmodel.font.PDFont#encode PDFont.encode}.
+     *
+     * @param encoded the encoded text.
+     */
+    public void showText(byte[] encoded)
+    {
+        showText(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Tj operator. Shows a part of already encoded text, which allows to keep the glyph codes of a
+     * whole page or document in a single array.
+     *
+     * @param encoded the encoded text.
+     * @param offset the offset of the first byte to show.
+     * @param length the number of bytes to show.
+     */
+    public void showText(byte[] encoded, int offset, int length)
+    {
+        writeString(encoded, offset, length);
+        write(' ');
+        write(OP_SHOW_TEXT);
+    }
+
+    /**
+     * TJ operator. Shows runs of already encoded text with individual glyph positioning.
+     *
+     * @param runs the encoded text runs.
+     * @param adjustments the adjustments after the runs in thousandths of a unit of text space,
+     * the adjustment at index i is applied after the run at index i, including the last run.
+     * Missing values are treated as no adjustment.
+     * @throws IllegalArgumentException if there are more adjustments than runs.
+     */
+    public void showTextWithPositioning(byte[][] runs, float[] adjustments)
+    {
+        if (adjustments.length > runs.length)
+        {
+            throw new IllegalArgumentException("More adjustments than text runs: "
+                    + adjustments.length + " > " + runs.length);
+        }
+        write('[');
+        for (int i = 0; i < runs.length; i++)
+        {
+            writeString(runs[i], 0, runs[i].length);
+            if (i < adjustments.length && adjustments[i] != 0)
+            {
+                operand(adjustments[i]);
+            }
+        }
+        write(']');
+        write(' ');
+        write(OP_SHOW_TEXT_ADJUSTED);
+    }
+
+    /**
+     * Writes a string the same way as {@link COSWriter#writeString(byte[], OutputStream)}: as a
+     * literal string if it is ASCII without EOL markers, otherwise as hex string.
+     */
+    private void writeString(byte[] bytes, int offset, int length)
+    {
+        boolean isASCII = true;
+        for (int i = offset; i < offset + length; i++)
+        {
+            byte b = bytes[i];
+            if (b < 0 || b == 0x0d || b == 0x0a)
+            {
+                isASCII = false;
+                break;
+            }
+        }
+        if (isASCII)
+        {
+            ensureCapacity(2 * length + 2);
+            buffer[count++] = '(';
+            for (int i = offset; i < offset + length; i++)
+            {
+                byte b = bytes[i];
+                if (b == '(' || b == ')' || b == '\\')
+                {
+                    buffer[count++] = '\\';
+                }
+                buffer[count++] = b;
+            }
+            buffer[count++] = ')';
+        }
+        else
+        {
+            ensureCapacity(2 * length + 2);
+            buffer[count++] = '<';
+            for (int i = offset; i < offset + length; i++)
+            {
+                buffer[count++] = HEX_DIGITS[(bytes[i] & 0xF0) >> 4];
+                buffer[count++] = HEX_DIGITS[bytes[i] & 0x0F];
+            }
+            buffer[count++] = '>';
+        }
+    }
+
+    private void writeAscii(String text)
+    {
+        ensureCapacity(text.length());
+        for (int i = 0; i < text.length(); i++)
+        {
+            buffer[count++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void write(int b)
+    {
+        ensureCapacity(1);
+        buffer[count++] = (byte) b;
+    }
+
+    private void write(byte[] bytes)
+    {
+        write(bytes, 0, bytes.length);
+    }
+
+    private void write(byte[] bytes, int offset, int length)
+    {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, count, length);
+        count += length;
+    }
+
+    private void ensureCapacity(int additional)
+    {
+        if (count + additional > buffer.length)
+        {
+            long newSize = Math.max(2L * buffer.length, (long) count + additional);
+            if (newSize > Integer.MAX_VALUE - 8)
+            {
+                throw new IllegalStateException("Content stream too large: " + newSize);
+            }
+            buffer = Arrays.copyOf(buffer, (int) newSize);
+        }
+    }
+
+    /**
+     * Returns the number of bytes written so far.
+     *
+     * @return the size of the content stream.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Discards the content, the buffer is kept for the next content stream.
+     */
+    public void reset()
+    {
+        count = 0;
+    }
+
+    /**
+     * Returns a copy of the content.
+     *
+     * @return the content stream data.
+     */
+    public byte[] toByteArray()
+    {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Writes the content to the given stream.
+     *
+     * @param output the stream to write to, it is not closed.
+     * @throws IOException If there is an error writing to the stream.
+     */
+    public void writeTo(OutputStream output) throws IOException
+    {
+        output.write(buffer, 0, count);
+    }
+}
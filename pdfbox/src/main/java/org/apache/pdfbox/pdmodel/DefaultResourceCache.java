@@ -19,8 +19,8 @@ package org.apache.pdfbox.pdmodel;
 
 import java.io.IOException;
 import java.lang.ref.SoftReference;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.pdfbox.cos.COSObject;
 import org.apache.pdfbox.pdmodel.documentinterchange.markedcontent.PDPropertyList;
 import org.apache.pdfbox.pdmodel.font.PDFont;
@@ -32,32 +32,32 @@ import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
 
 /**
  * A resource cached based on SoftReference, retains resources until memory pressure causes them
- * to be garbage collected.
+ * to be garbage collected. The cache can be used by several threads at the same time.
  *
  * @author John Hewson
  */
 public class DefaultResourceCache implements ResourceCache
 {
     private final Map<COSObject, SoftReference<PDFont>> fonts =
-            new HashMap<>();
+            new ConcurrentHashMap<>();
     
     private final Map<COSObject, SoftReference<PDColorSpace>> colorSpaces =
-            new HashMap<>();
+            new ConcurrentHashMap<>();
 
     private final Map<COSObject, SoftReference<PDXObject>> xobjects =
-            new HashMap<>();
+            new ConcurrentHashMap<>();
 
     private final Map<COSObject, SoftReference<PDExtendedGraphicsState>> extGStates =
-            new HashMap<>();
+            new ConcurrentHashMap<>();
 
     private final Map<COSObject, SoftReference<PDShading>> shadings =
-            new HashMap<>();
+            new ConcurrentHashMap<>();
 
     private final Map<COSObject, SoftReference<PDAbstractPattern>> patterns =
-            new HashMap<>();
+            new ConcurrentHashMap<>();
 
     private final Map<COSObject, SoftReference<PDPropertyList>> properties =
-            new HashMap<>();
+            new ConcurrentHashMap<>();
 
     @Override
     public PDFont getFont(COSObject indirect) throws IOException
@@ -1428,7 +1428,8 @@ abstract class PDAbstractContentStream implements Closeable
      */
     protected void writeOperand(int integer) throws IOException
     {
-        write(formatDecimal.format(integer));
+        int byteCount = NumberFormatUtil.formatLongFast(integer, formatBuffer);
+        outputStream.write(formatBuffer, 0, byteCount);
         outputStream.write(' ');
     }
 
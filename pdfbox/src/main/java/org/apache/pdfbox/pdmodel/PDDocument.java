@@ -40,6 +40,7 @@ import org.apache.pdfbox.cos.COSDocument;
 import org.apache.pdfbox.cos.COSInteger;
 import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSObjectKey;
 import org.apache.pdfbox.cos.COSUpdateInfo;
 import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.io.MemoryUsageSetting;
@@ -126,9 +127,15 @@ public class PDDocument implements Closeable
     // document-wide cached resources
     private ResourceCache resourceCache = new DefaultResourceCache();
 
+    // page index shared by the page trees of this document, see PDPageTree.getPageIndex()
+    private final PDPageTree.PageIndexHolder pageIndexHolder = new PDPageTree.PageIndexHolder();
+
     // to make sure only one signature is added
     private boolean signatureAdded = false;
 
+    // see makeReadOnly()
+    private volatile boolean readOnly = false;
+
     /**
      * Creates an empty PDF document.
      * You need to add at least one page for the document to be valid.
@@ -212,6 +219,7 @@ public class PDDocument implements Closeable
      */
     public void addPage(PDPage page)
     {
+        checkNotReadOnly();
         getPages().add(page);
     }
 
@@ -289,6 +297,7 @@ public class PDDocument implements Closeable
     public void addSignature(PDSignature sigObject, SignatureInterface signatureInterface,
                              SignatureOptions options) throws IOException
     {
+        checkNotReadOnly();
         if (signatureAdded)
         {
             throw new IllegalStateException("Only one signature may be added in a document");
@@ -614,6 +623,7 @@ public class PDDocument implements Closeable
      */
     public void removePage(PDPage page)
     {
+        checkNotReadOnly();
         getPages().remove(page);
     }
 
@@ -624,6 +634,7 @@ public class PDDocument implements Closeable
      */
     public void removePage(int pageNumber)
     {
+        checkNotReadOnly();
         getPages().remove(pageNumber);
     }
 
@@ -654,6 +665,7 @@ public class PDDocument implements Closeable
      */
     public PDPage importPage(PDPage page) throws IOException
     {
+        checkNotReadOnly();
         PDPage importedPage = new PDPage(new COSDictionary(page.getCOSObject()), resourceCache);
         PDStream dest = new PDStream(this, page.getContents(), COSName.FLATE_DECODE);
         importedPage.setContents(dest);
@@ -698,7 +710,10 @@ public class PDDocument implements Closeable
             if (infoDic == null)
             {
                 infoDic = new COSDictionary();
-                trailer.setItem(COSName.INFO, infoDic);
+                if (!readOnly)
+                {
+                    trailer.setItem(COSName.INFO, infoDic);
+                }
             }
             documentInformation = new PDDocumentInformation(infoDic);
         }
@@ -716,6 +731,7 @@ public class PDDocument implements Closeable
      */
     public void setDocumentInformation(PDDocumentInformation info)
     {
+        checkNotReadOnly();
         documentInformation = info;
         document.getTrailer().setItem(COSName.INFO, info.getCOSObject());
     }
@@ -777,6 +793,7 @@ public class PDDocument implements Closeable
      */
     public void setEncryptionDictionary(PDEncryption encryption)
     {
+        checkNotReadOnly();
         this.encryption = encryption;
     }
 
@@ -974,6 +991,7 @@ public class PDDocument implements Closeable
         {
             throw new IOException("Cannot save a document which has been closed");
         }
+        checkNotReadOnly();
 
         // object stream compression requires a cross reference stream.
         document.setIsXRefStream(compressParameters != null //
@@ -1013,6 +1031,7 @@ public class PDDocument implements Closeable
         {
             throw new IllegalStateException("document was not loaded from a file or a stream");
         }
+        checkNotReadOnly();
         COSWriter writer = new COSWriter(output, pdfSource);
         writer.write(this, signInterface);
     }
@@ -1043,6 +1062,7 @@ public class PDDocument implements Closeable
         {
             throw new IllegalStateException("document was not loaded from a file or a stream");
         }
+        checkNotReadOnly();
         COSWriter writer = new COSWriter(output, pdfSource, objectsToWrite);
         writer.write(this, signInterface);
     }
@@ -1090,6 +1110,7 @@ public class PDDocument implements Closeable
         {
             throw new IllegalStateException("document was not loaded from a file or a stream");
         }
+        checkNotReadOnly();
         // PDFBOX-3978: getLastSignatureDictionary() not helpful if signing into a template
         // that is not the last signature. So give higher priority to signature with update flag.
         PDSignature foundSignature = null;
@@ -1124,7 +1145,8 @@ public class PDDocument implements Closeable
      * <p>
      * This method is too slow to get all the pages from a large PDF document
      * (1000 pages or more). For such documents, use the iterator of
-     * {@link PDDocument#getPages()} instead.
+     * {@link PDDocument#getPages()} instead, or the page index of
+     * {@link PDPageTree#getPageIndex()} for random access.
      *
      * @param pageIndex the 0-based page index
      * @return the page at the given index.
@@ -1216,6 +1238,7 @@ public class PDDocument implements Closeable
      */
     public void protect(ProtectionPolicy policy) throws IOException
     {
+        checkNotReadOnly();
         if (isAllSecurityToBeRemoved())
         {
             LOG.warn("do not call setAllSecurityToBeRemoved(true) before calling protect(), "
@@ -1336,6 +1359,7 @@ public class PDDocument implements Closeable
      */
     public void setVersion(float newVersion)
     {
+        checkNotReadOnly();
         float currentVersion = getVersion();
         // nothing to do?
         if (Float.compare(newVersion,currentVersion) == 0)
@@ -1375,6 +1399,77 @@ public class PDDocument implements Closeable
      */
     public void setResourceCache(ResourceCache resourceCache)
     {
+        checkNotReadOnly();
         this.resourceCache = resourceCache;
+        // the pages of the index use the resource cache
+        pageIndexHolder.invalidate();
+    }
+
+    /**
+     * Makes this document a read-only snapshot, which can be read by several threads at the same time without
+     * external locking, e.g. to render or to extract the text of different pages in parallel, each thread with its
+     * own {@link org.apache.pdfbox.rendering.PDFRenderer PDFRenderer} or
+     * {@link org.apache.pdfbox.text.PDFTextStripper PDFTextStripper}.
+     * <p>
+     * All objects of the cross reference table are parsed by this method, so that the threads don't have to wait for
+     * each other when using them, and the page tree is sanitized and indexed, see {@link PDPageTree#getPageIndex()}. An object which is parsed later, e.g. of a broken cross reference table, is parsed
+     * by one thread while the others wait for it. Each stream is read with its own position, and the fonts, color
+     * spaces and other resources are shared by the threads through the {@link #getResourceCache() resource cache}.
+     * <p>
+     * From now on the methods which change the document throw an {@link IllegalStateException}, e.g. adding,
+     * removing and importing pages, signing, encrypting and saving. The AcroForm is returned without fixups, see
+     * {@link PDDocumentCatalog#getAcroForm(org.apache.pdfbox.pdmodel.fixup.PDDocumentFixup)}. The COS objects must not
+     * be changed either, this isn't checked. A read-only document can't be made writable again.
+     *
+     * @throws IOException if the document has been closed.
+     */
+    public void makeReadOnly() throws IOException
+    {
+        if (document.isClosed())
+        {
+            throw new IOException("Cannot make a document read-only which has been closed");
+        }
+        if (readOnly)
+        {
+            return;
+        }
+        for (COSObjectKey key : new ArrayList<>(document.getXrefTable().keySet()))
+        {
+            document.getObjectFromPool(key).getObject();
+        }
+        if (getDocumentCatalog().getCOSObject().getCOSDictionary(COSName.PAGES) != null)
+        {
+            // the page index sets the missing /Type of the pages now, and the pages are looked up
+            // with the index from now on, so that the shared page tree isn't changed by the readers
+            getPages().getPageIndex();
+        }
+        getCurrentAccessPermission();
+        readOnly = true;
+    }
+
+    /**
+     * Tells if the document is a read-only snapshot, see {@link #makeReadOnly()}.
+     *
+     * @return true if the document can't be changed anymore.
+     */
+    public boolean isReadOnly()
+    {
+        return readOnly;
+    }
+
+    private void checkNotReadOnly()
+    {
+        if (readOnly)
+        {
+            throw new IllegalStateException("The document is read-only");
+        }
+    }
+
+    /**
+     * Returns the holder of the page index of this document.
+     */
+    PDPageTree.PageIndexHolder getPageIndexHolder()
+    {
+        return pageIndexHolder;
     }
 }
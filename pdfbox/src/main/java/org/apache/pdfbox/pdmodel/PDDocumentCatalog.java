@@ -122,12 +122,18 @@ public class PDDocumentCatalog implements COSObjectable
      * Using <code>getAcroForm(PDDocumentFixup acroFormFixup)</code> might change the original content and
      * subsequent calls with <code>getAcroForm(null)</code> will return the changed content.
      * 
+     * No fixes are applied to a read-only document, see {@link PDDocument#makeReadOnly()}.
+     * 
      * @param acroFormFixup the fix up action or null
      * @return The document's AcroForm.
      */
     public PDAcroForm getAcroForm(PDDocumentFixup acroFormFixup)
     {
-        if (acroFormFixup != null && acroFormFixup != acroFormFixupApplied)
+        if (acroFormFixup != null && document != null && document.isReadOnly())
+        {
+            LOG.debug("AcroForm fixes aren't applied to a read-only document");
+        }
+        else if (acroFormFixup != null && acroFormFixup != acroFormFixupApplied)
         {
             acroFormFixup.apply();
             cachedAcroForm = null;
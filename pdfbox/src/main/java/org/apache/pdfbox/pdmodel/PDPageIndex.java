@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+
+/**
+ * A flattened, read-only snapshot of a page tree, see {@link PDPageTree#getPageIndex()}. It maps
+ * page numbers to pages and pages to page numbers in constant time.
+ *
+ * <p>The index doesn't change when the page tree is changed later. It can be used by several
+ * threads at the same time, as long as the pages aren't changed.</p>
+ */
+public final class PDPageIndex
+{
+    private final COSDictionary root;
+    private final int rootCount;
+    private final COSDictionary[] pages;
+    private final Map<COSDictionary, Integer> pageNumbers;
+    private final boolean consistent;
+    private final ResourceCache resourceCache;
+
+    private PDPageIndex(COSDictionary root, List<COSDictionary> pages, boolean consistent,
+            ResourceCache resourceCache)
+    {
+        this.root = root;
+        this.rootCount = root.getInt(COSName.COUNT, 0);
+        this.pages = pages.toArray(new COSDictionary[0]);
+        this.pageNumbers = new IdentityHashMap<>(pages.size());
+        for (int i = this.pages.length - 1; i >= 0; i--)
+        {
+            // a page which is in the tree more than once is found at its first position
+            this.pageNumbers.put(this.pages[i], i);
+        }
+        this.consistent = consistent;
+        this.resourceCache = resourceCache;
+    }
+
+    /**
+     * Builds the index in one depth-first traversal of the page tree. A missing /Type of a page is
+     * set, as done by {@link PDPageTree#get(int)}, so that the index doesn't change the pages later.
+     *
+     * @param tree the page tree.
+     * @param resourceCache the resource cache of the pages, may be null.
+     * @return the index.
+     */
+    static PDPageIndex build(PDPageTree tree, ResourceCache resourceCache)
+    {
+        List<COSDictionary> pages = new ArrayList<>();
+        Set<COSDictionary> ancestors = Collections.newSetFromMap(new IdentityHashMap<>());
+        boolean consistent = collect(tree, tree.getCOSObject(), pages, ancestors);
+        return new PDPageIndex(tree.getCOSObject(), pages, consistent, resourceCache);
+    }
+
+    /**
+     * Adds the pages below the given node.
+     *
+     * @return false if the /Count of a node doesn't match its pages or if the tree has cycles.
+     */
+    private static boolean collect(PDPageTree tree, COSDictionary node, List<COSDictionary> pages,
+            Set<COSDictionary> ancestors)
+    {
+        if (!ancestors.add(node))
+        {
+            // cycle, the kid isn't followed
+            return false;
+        }
+        boolean consistent = true;
+        int first = pages.size();
+        for (COSDictionary kid : tree.getKids(node))
+        {
+            if (tree.isPageTreeNode(kid))
+            {
+                consistent &= collect(tree, kid, pages, ancestors);
+            }
+            else
+            {
+                if (kid.getCOSName(COSName.TYPE) == null)
+                {
+                    kid.setItem(COSName.TYPE, COSName.PAGE);
+                }
+                pages.add(kid);
+            }
+        }
+        ancestors.remove(node);
+        return consistent && node.getInt(COSName.COUNT, 0) == pages.size() - first;
+    }
+
+    /**
+     * Returns the number of pages.
+     *
+     * @return the number of pages.
+     */
+    public int getCount()
+    {
+        return pages.length;
+    }
+
+    /**
+     * Returns the page at the given index.
+     *
+     * @param index zero-based index
+     * @return the page.
+     * @throws IllegalStateException if the index doesn't point to a valid page dictionary
+     * @throws IndexOutOfBoundsException if the index is negative or not less than the page count
+     */
+    public PDPage get(int index)
+    {
+        if (index < 0 || index >= pages.length)
+        {
+            throw new IndexOutOfBoundsException("Index out of bounds: " + index);
+        }
+        COSDictionary dict = pages[index];
+        COSName type = dict.getCOSName(COSName.TYPE);
+        if (type != null && !COSName.PAGE.equals(type))
+        {
+            throw new IllegalStateException("Expected 'Page' but found " + type);
+        }
+        return new PDPage(dict, resourceCache);
+    }
+
+    /**
+     * Returns the index of the given page, or -1 if it isn't in the index.
+     *
+     * @param page The page to search for.
+     * @return the zero-based index of the given page, or -1 if the page is not found.
+     */
+    public int indexOf(PDPage page)
+    {
+        Integer index = pageNumbers.get(page.getCOSObject());
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Tells whether the /Count entries of the page tree match the pages, only then the page numbers
+     * of the index are the same as those of a lookup in the tree.
+     */
+    boolean isConsistent()
+    {
+        return consistent;
+    }
+
+    /**
+     * Tells whether the index has been built for the given tree root and the page count of the
+     * root hasn't changed since.
+     */
+    boolean isCurrent(COSDictionary treeRoot)
+    {
+        return root == treeRoot && rootCount == treeRoot.getInt(COSName.COUNT, 0);
+    }
+}
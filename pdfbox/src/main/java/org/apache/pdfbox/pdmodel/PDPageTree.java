@@ -45,6 +45,7 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
     private static final Log LOG = LogFactory.getLog(PDPageTree.class);
     private final COSDictionary root;
     private final PDDocument document; // optional
+    private final PageIndexHolder pageIndexHolder;
 
     /**
      * Constructor for embedding.
@@ -56,6 +57,7 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
         root.setItem(COSName.KIDS, new COSArray());
         root.setItem(COSName.COUNT, COSInteger.ZERO);
         document = null;
+        pageIndexHolder = new PageIndexHolder();
     }
 
     /**
@@ -94,6 +96,7 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
             this.root = root;
         }
         this.document = document;
+        this.pageIndexHolder = document != null ? document.getPageIndexHolder() : new PageIndexHolder();
     }
 
     /**
@@ -133,7 +136,7 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
      * @param node page tree node
      * @return list of kids
      */
-    private List<COSDictionary> getKids(COSDictionary node)
+    List<COSDictionary> getKids(COSDictionary node)
     {
         List<COSDictionary> result = new ArrayList<>();
 
@@ -240,6 +243,12 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
      */
     public PDPage get(int index)
     {
+        PDPageIndex pageIndex = getEnabledPageIndex();
+        if (pageIndex != null && pageIndex.isConsistent() && index >= 0)
+        {
+            return pageIndex.get(index);
+        }
+
         COSDictionary dict = get(index + 1, root, 0);
 
         sanitizeType(dict);
@@ -336,7 +345,7 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
     /**
      * Returns true if the node is a page tree node (i.e. and intermediate).
      */
-    private boolean isPageTreeNode(COSDictionary node)
+    boolean isPageTreeNode(COSDictionary node)
     {
         // some files such as PDFBOX-2250-229205.pdf don't have Pages set as the Type, so we have
         // to check for the presence of Kids too
@@ -353,6 +362,12 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
      */
     public int indexOf(PDPage page)
     {
+        PDPageIndex pageIndex = getEnabledPageIndex();
+        if (pageIndex != null)
+        {
+            return pageIndex.indexOf(page);
+        }
+
         SearchContext context = new SearchContext(page);
         if (findPage(context, root))
         {
@@ -399,6 +414,76 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
         }
     }
 
+    /**
+     * Returns the page index of this page tree, which maps page numbers to pages and pages to page
+     * numbers in constant time. The index is built in one traversal of the tree the first time it
+     * is requested and kept by the document.
+     *
+     * <p>Once the index has been requested, {@link #get(int)} and {@link #indexOf(PDPage)} of all
+     * page trees of the document use it too. The index is rebuilt after the tree has been changed
+     * with the methods of this class, or when the page count of the root has changed. Changes of
+     * the page tree on the COS level which keep the page count aren't noticed.</p>
+     *
+     * <p>If the /Count entries of the page tree are wrong, {@link #get(int)} keeps using the
+     * /Count entries to find a page, as it does without index.</p>
+     *
+     * @return a read-only snapshot of the pages, which can be shared by several threads.
+     */
+    public PDPageIndex getPageIndex()
+    {
+        synchronized (pageIndexHolder)
+        {
+            pageIndexHolder.enabled = true;
+            PDPageIndex pageIndex = pageIndexHolder.pageIndex;
+            if (pageIndex == null || !pageIndex.isCurrent(root))
+            {
+                ResourceCache resourceCache = document != null ? document.getResourceCache() : null;
+                pageIndex = PDPageIndex.build(this, resourceCache);
+                pageIndexHolder.pageIndex = pageIndex;
+            }
+            return pageIndex;
+        }
+    }
+
+    /**
+     * Returns the current page index if it has been requested before, or null.
+     */
+    private PDPageIndex getEnabledPageIndex()
+    {
+        if (!pageIndexHolder.enabled)
+        {
+            return null;
+        }
+        PDPageIndex pageIndex = pageIndexHolder.pageIndex;
+        if (pageIndex != null && pageIndex.isCurrent(root))
+        {
+            return pageIndex;
+        }
+        return getPageIndex();
+    }
+
+    /**
+     * Drops the page index after a change of the tree, it is rebuilt when needed.
+     */
+    private void invalidatePageIndex()
+    {
+        pageIndexHolder.invalidate();
+    }
+
+    /**
+     * The page index of a document, shared by all page trees of the document.
+     */
+    static final class PageIndexHolder
+    {
+        private volatile boolean enabled;
+        private volatile PDPageIndex pageIndex;
+
+        void invalidate()
+        {
+            pageIndex = null;
+        }
+    }
+
     /**
      * Returns the number of leaf nodes (page objects) that are descendants of this root within the
      * page tree.
@@ -444,6 +529,7 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
         COSArray kids = parent.getCOSArray(COSName.KIDS);
         if (kids.removeObject(node))
         {
+            invalidatePageIndex();
             // update ancestor counts
             do
             {
@@ -473,6 +559,7 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
         // add to parent's kids
         COSArray kids = root.getCOSArray(COSName.KIDS);
         kids.add(node);
+        invalidatePageIndex();
 
         // update ancestor counts
         do
@@ -515,6 +602,7 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
         {
             throw new IllegalArgumentException("attempted to insert before orphan page");
         }
+        invalidatePageIndex();
         increaseParents(parentDict);
     }
 
@@ -547,6 +635,7 @@ public class PDPageTree implements COSObjectable, Iterable<PDPage>
         {
             throw new IllegalArgumentException("attempted to insert before orphan page");
         }
+        invalidatePageIndex();
         increaseParents(parentDict);
     }
 
@@ -21,17 +21,16 @@ import org.apache.fontbox.cmap.CMapParser;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * CMap resource loader and cache.
+ * CMap resource loader and cache. The predefined CMaps are immutable once parsed and shared by all
+ * documents.
  */
 final class CMapManager
 {
-    static final Map<String, CMap> cMapCache =
-            Collections.synchronizedMap(new HashMap<String, CMap>());
+    static final Map<String, CMap> cMapCache = new ConcurrentHashMap<>();
 
     private CMapManager()
     {
@@ -54,9 +53,9 @@ final class CMapManager
 
         CMap targetCmap = new CMapParser().parsePredefined(cMapName);
 
-        // limit the cache to predefined CMaps
-        cMapCache.put(targetCmap.getName(), targetCmap);
-        return targetCmap;
+        // limit the cache to predefined CMaps, keep the first one if parsed concurrently
+        CMap cachedCmap = cMapCache.putIfAbsent(cMapName, targetCmap);
+        return cachedCmap != null ? cachedCmap : targetCmap;
     }
 
     /**
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.fontbox.ttf.CmapLookup;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TTFSubsetter;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.fontbox.ttf.model.GsubData;
+
+/**
+ * A TrueType font which is parsed once and embedded as subset into many documents, see
+ * {@link PDType0Font#load(org.apache.pdfbox.pdmodel.PDDocument, EmbeddedFontTemplate)}.
+ *
+ * <p>The template holds the parsed font with its tables, the Unicode cmap and the GSUB data, which
+ * would otherwise be read again for every document. The subsets created for the documents are
+ * cached by their set of glyphs, documents using the same glyphs, e.g. generated from the same
+ * form letter, embed the cached subset without running the subsetter again.</p>
+ *
+ * <p>A template can be used by several threads at the same time. It has to be kept open as long
+ * as documents using it haven't been saved.</p>
+ */
+public final class EmbeddedFontTemplate implements Closeable
+{
+    private static final int DEFAULT_SUBSET_CACHE_SIZE = 64;
+
+    private final TrueTypeFont ttf;
+    private final boolean closeTTF;
+    private final boolean vertical;
+    private final GsubData gsubData;
+    private final CmapLookup cmapLookup;
+    private final Map<SubsetKey, byte[]> subsetCache;
+
+    private EmbeddedFontTemplate(TrueTypeFont ttf, boolean closeTTF, boolean vertical,
+            int subsetCacheSize) throws IOException
+    {
+        this.ttf = ttf;
+        this.closeTTF = closeTTF;
+        this.vertical = vertical;
+        if (vertical)
+        {
+            ttf.enableVerticalSubstitutions();
+        }
+        gsubData = ttf.getGsubData();
+        cmapLookup = ttf.getUnicodeCmapLookup();
+        // read the tables needed for embedding and subsetting once
+        ttf.getHeader();
+        ttf.getHorizontalHeader();
+        ttf.getHorizontalMetrics();
+        ttf.getIndexToLocation();
+        ttf.getGlyph();
+        ttf.getOS2Windows();
+        ttf.getPostScript();
+        ttf.getNaming();
+        if (vertical)
+        {
+            ttf.getVerticalHeader();
+            ttf.getVerticalMetrics();
+        }
+        subsetCache = new LinkedHashMap<SubsetKey, byte[]>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SubsetKey, byte[]> eldest)
+            {
+                return size() > subsetCacheSize;
+            }
+        };
+    }
+
+    /**
+     * Loads a TrueType font file as template for horizontal text.
+     *
+     * @param file the TrueType font file.
+     * @return the template, which has to be closed when it is no longer used.
+     * @throws IOException if the font can't be parsed.
+     */
+    public static EmbeddedFontTemplate load(File file) throws IOException
+    {
+        return load(file, false);
+    }
+
+    /**
+     * Loads a TrueType font file as template.
+     *
+     * @param file the TrueType font file.
+     * @param vertical true if the font is used for vertical text.
+     * @return the template, which has to be closed when it is no longer used.
+     * @throws IOException if the font can't be parsed.
+     */
+    public static EmbeddedFontTemplate load(File file, boolean vertical) throws IOException
+    {
+        return create(new TTFParser().parse(file), true, vertical);
+    }
+
+    /**
+     * Loads a TrueType font as template.
+     *
+     * @param input the TrueType font, it is closed before returning.
+     * @param vertical true if the font is used for vertical text.
+     * @return the template, which has to be closed when it is no longer used.
+     * @throws IOException if the font can't be parsed.
+     */
+    public static EmbeddedFontTemplate load(InputStream input, boolean vertical) throws IOException
+    {
+        return create(new TTFParser().parse(input), true, vertical);
+    }
+
+    /**
+     * Creates a template for an already parsed TrueType font. The font is not closed by the
+     * template and must not be used for vertical text elsewhere if the template is horizontal.
+     *
+     * @param ttf the TrueType font.
+     * @param vertical true if the font is used for vertical text.
+     * @return the template.
+     * @throws IOException if the font can't be read.
+     */
+    public static EmbeddedFontTemplate create(TrueTypeFont ttf, boolean vertical)
+            throws IOException
+    {
+        return create(ttf, false, vertical);
+    }
+
+    private static EmbeddedFontTemplate create(TrueTypeFont ttf, boolean closeTTF,
+            boolean vertical) throws IOException
+    {
+        try
+        {
+            return new EmbeddedFontTemplate(ttf, closeTTF, vertical, DEFAULT_SUBSET_CACHE_SIZE);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            if (closeTTF)
+            {
+                ttf.close();
+            }
+            throw e;
+        }
+    }
+
+    TrueTypeFont getTrueTypeFont()
+    {
+        return ttf;
+    }
+
+    boolean isVertical()
+    {
+        return vertical;
+    }
+
+    GsubData getGsubData()
+    {
+        return gsubData;
+    }
+
+    CmapLookup getCmapLookup()
+    {
+        return cmapLookup;
+    }
+
+    /**
+     * Returns the subset font for the glyphs of the given subsetter, from the cache if the same
+     * glyphs have been subset before.
+     *
+     * @param gidToCid the new to old GID map of the subsetter.
+     * @param subsetter the subsetter with the prefix already set.
+     * @return the subset font data, which must not be modified.
+     * @throws IOException if the subset can't be written.
+     */
+    byte[] getSubset(Map<Integer, Integer> gidToCid, TTFSubsetter subsetter) throws IOException
+    {
+        int[] oldGIDs = new int[gidToCid.size()];
+        for (int newGID = 0; newGID < oldGIDs.length; newGID++)
+        {
+            oldGIDs[newGID] = gidToCid.get(newGID);
+        }
+        SubsetKey key = new SubsetKey(oldGIDs);
+        byte[] subset;
+        synchronized (subsetCache)
+        {
+            subset = subsetCache.get(key);
+        }
+        if (subset == null)
+        {
+            // the prefix depends on the glyphs only, so the result is the same for equal keys
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            subsetter.writeToStream(out);
+            subset = out.toByteArray();
+            synchronized (subsetCache)
+            {
+                subsetCache.put(key, subset);
+            }
+        }
+        return subset;
+    }
+
+    /**
+     * Closes the font if it has been loaded by this template.
+     *
+     * @throws IOException if the font can't be closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        synchronized (subsetCache)
+        {
+            subsetCache.clear();
+        }
+        if (closeTTF)
+        {
+            ttf.close();
+        }
+    }
+
+    /**
+     * The original GIDs of a subset, sorted by new GID.
+     */
+    private static final class SubsetKey
+    {
+        private final int[] gids;
+        private final int hash;
+
+        SubsetKey(int[] gids)
+        {
+            this.gids = gids;
+            this.hash = Arrays.hashCode(gids);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof SubsetKey && Arrays.equals(gids, ((SubsetKey) obj).gids);
+        }
+    }
+}
@@ -16,21 +16,29 @@
  */
 package org.apache.pdfbox.pdmodel.font;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.AccessControlException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.fontbox.FontBoxFont;
@@ -54,9 +62,26 @@ import org.apache.fontbox.util.autodetect.FontFileFinder;
 final class FileSystemFontProvider extends FontProvider
 {
     private static final Log LOG = LogFactory.getLog(FileSystemFontProvider.class);
-    
+
+    /**
+     * System property for the number of threads used to parse the font files when the font
+     * cache is built or updated. Defaults to the number of available processors.
+     */
+    static final String SYSPROP_SCAN_THREADS =
+            "org.apache.pdfbox.pdmodel.font.filesystemfontprovider.threads";
+
+    // binary font cache, the name differs from the text cache of earlier versions so that
+    // both can coexist in the same directory
+    private static final String CACHE_FILE_NAME = ".pdfbox.fontcache";
+    private static final int CACHE_MAGIC = 0x50444643; // "PDFC"
+    private static final int CACHE_VERSION = 1;
+
+    // fewer files aren't worth the thread start-up costs
+    private static final int MIN_FILES_PER_THREAD = 8;
+
     private final List<FSFontInfo> fontInfoList = new ArrayList<>();
     private final FontCache cache;
+    private final File diskCacheFile;
 
     private static class FSFontInfo extends FontInfo
     {
@@ -315,42 +340,79 @@ final class FileSystemFontProvider extends FontProvider
      * Constructor.
      */
     FileSystemFontProvider(FontCache cache)
+    {
+        this(cache, null, null);
+    }
+
+    /**
+     * Constructor for the given font files and disk cache file.
+     *
+     * @param cache the cache of the parsed fonts.
+     * @param fontFiles the font files, or null to search the local system for fonts.
+     * @param diskCacheFile the disk cache file, or null to use the default location.
+     */
+    FileSystemFontProvider(FontCache cache, List<File> fontFiles, File diskCacheFile)
     {
         this.cache = cache;
+        this.diskCacheFile = diskCacheFile;
         try
         {
-            if (LOG.isTraceEnabled())
-            {
-                LOG.trace("Will search the local system for fonts");
-            }
+            List<File> files = fontFiles != null ? fontFiles : findFontFiles();
 
-            // scan the local system for font files
-            FontFileFinder fontFileFinder = new FontFileFinder();
-            List<URI> fonts = fontFileFinder.find();
-            List<File> files = new ArrayList<>(fonts.size());
-            for (URI font : fonts)
+            // load cached FontInfo objects, only files which are new or which have been
+            // modified since the cache was written need to be parsed
+            Map<String, CachedFontFile> cachedFiles = loadDiskCache();
+            List<CachedFontFile> entries = new ArrayList<>(files.size());
+            List<File> modified = new ArrayList<>();
+            for (File file : files)
             {
-                files.add(new File(font));
+                CachedFontFile entry = cachedFiles.remove(file.getAbsolutePath());
+                if (entry != null && entry.isUpToDate(file))
+                {
+                    entries.add(entry);
+                }
+                else
+                {
+                    entries.add(null);
+                    modified.add(file);
+                }
             }
 
-            if (LOG.isTraceEnabled())
+            if (!modified.isEmpty())
             {
-                LOG.trace("Found " + files.size() + " fonts on the local system");
+                if (modified.size() == files.size())
+                {
+                    LOG.warn("Building on-disk font cache, this may take a while");
+                }
+                else
+                {
+                    LOG.warn("Updating on-disk font cache for " + modified.size() + " new or " +
+                            "modified fonts");
+                }
+                Iterator<CachedFontFile> scanned = scanFonts(modified).iterator();
+                for (int i = 0; i < entries.size(); i++)
+                {
+                    if (entries.get(i) == null)
+                    {
+                        entries.set(i, scanned.next());
+                    }
+                }
             }
 
-            // load cached FontInfo objects
-            List<FSFontInfo> cachedInfos = loadDiskCache(files);
-            if (cachedInfos != null && !cachedInfos.isEmpty())
+            for (CachedFontFile entry : entries)
             {
-                fontInfoList.addAll(cachedInfos);
+                fontInfoList.addAll(entry.fontInfos);
             }
-            else
+
+            // files left in the map have been removed from the system
+            if (!modified.isEmpty() || !cachedFiles.isEmpty())
             {
-                LOG.warn("Building on-disk font cache, this may take a while");
-                scanFonts(files);
-                saveDiskCache();
-                LOG.warn("Finished building on-disk font cache, found " +
-                        fontInfoList.size() + " fonts");
+                saveDiskCache(entries);
+                if (modified.size() == files.size())
+                {
+                    LOG.warn("Finished building on-disk font cache, found " +
+                            fontInfoList.size() + " fonts");
+                }
             }
         }
         catch (AccessControlException e)
@@ -358,39 +420,175 @@ final class FileSystemFontProvider extends FontProvider
             LOG.error("Error accessing the file system", e);
         }
     }
-    
-    private void scanFonts(List<File> files)
+
+    private static List<File> findFontFiles()
+    {
+        if (LOG.isTraceEnabled())
+        {
+            LOG.trace("Will search the local system for fonts");
+        }
+
+        // scan the local system for font files
+        FontFileFinder fontFileFinder = new FontFileFinder();
+        List<URI> fonts = fontFileFinder.find();
+        List<File> files = new ArrayList<>(fonts.size());
+        for (URI font : fonts)
+        {
+            files.add(new File(font));
+        }
+
+        if (LOG.isTraceEnabled())
+        {
+            LOG.trace("Found " + files.size() + " fonts on the local system");
+        }
+        return files;
+    }
+
+    /**
+     * The cached fonts of a single font file, together with the modification time and the
+     * length the file had when it was parsed.
+     */
+    private static final class CachedFontFile
+    {
+        private final File file;
+        private final long lastModified;
+        private final long length;
+        private final List<FSFontInfo> fontInfos;
+
+        private CachedFontFile(File file, long lastModified, long length, List<FSFontInfo> fontInfos)
+        {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.fontInfos = fontInfos;
+        }
+
+        private boolean isUpToDate(File current)
+        {
+            return current.lastModified() == lastModified && current.length() == length;
+        }
+    }
+
+    /**
+     * Parses the given font files, using several threads if there are enough of them.
+     *
+     * @return the cache entries, in the same order as the given files
+     */
+    private List<CachedFontFile> scanFonts(List<File> files)
     {
         // to force a specific font for debug, add code like this here:
         // files = Collections.singletonList(new File("font filename"))
 
-        for (File file : files)
+        int threads = Math.min(getScanThreads(), files.size() / MIN_FILES_PER_THREAD);
+        List<CachedFontFile> entries = new ArrayList<>(files.size());
+        if (threads <= 1)
         {
-            try
+            for (File file : files)
             {
-                String filePath = file.getPath().toLowerCase();
-                if (filePath.endsWith(".ttf") || filePath.endsWith(".otf"))
-                {
-                    addTrueTypeFont(file);
-                }
-                else if (filePath.endsWith(".ttc") || filePath.endsWith(".otc"))
+                entries.add(scanFont(file));
+            }
+            return entries;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable ->
+        {
+            Thread thread = new Thread(runnable, "PDFBox font scan");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try
+        {
+            List<Future<CachedFontFile>> futures = new ArrayList<>(files.size());
+            for (File file : files)
+            {
+                futures.add(executor.submit(() -> scanFont(file)));
+            }
+            for (int i = 0; i < futures.size(); i++)
+            {
+                try
                 {
-                    addTrueTypeCollection(file);
+                    entries.add(futures.get(i).get());
                 }
-                else if (filePath.endsWith(".pfb"))
+                catch (ExecutionException e)
                 {
-                    addType1Font(file);
+                    LOG.error("Error parsing font " + files.get(i).getPath(), e.getCause());
+                    entries.add(scanFont(files.get(i)));
                 }
             }
-            catch (IOException e)
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            LOG.warn("Font scan interrupted, remaining fonts are scanned sequentially");
+            for (int i = entries.size(); i < files.size(); i++)
+            {
+                entries.add(scanFont(files.get(i)));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        return entries;
+    }
+
+    private static int getScanThreads()
+    {
+        String threads = System.getProperty(SYSPROP_SCAN_THREADS);
+        if (threads != null)
+        {
+            try
             {
-                LOG.error("Error parsing font " + file.getPath(), e);
+                return Integer.parseInt(threads);
+            }
+            catch (NumberFormatException e)
+            {
+                LOG.warn("Ignoring invalid value '" + threads + "' of " + SYSPROP_SCAN_THREADS, e);
             }
         }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Parses a single font file. Files which can't be parsed are cached without any fonts so
+     * that they aren't parsed again until they're modified.
+     */
+    private CachedFontFile scanFont(File file)
+    {
+        // read the file attributes before parsing so that a concurrent modification
+        // results in a rescan on the next start
+        long lastModified = file.lastModified();
+        long length = file.length();
+        List<FSFontInfo> fontInfos = new ArrayList<>(1);
+        try
+        {
+            String filePath = file.getPath().toLowerCase();
+            if (filePath.endsWith(".ttf") || filePath.endsWith(".otf"))
+            {
+                addTrueTypeFont(file, fontInfos);
+            }
+            else if (filePath.endsWith(".ttc") || filePath.endsWith(".otc"))
+            {
+                addTrueTypeCollection(file, fontInfos);
+            }
+            else if (filePath.endsWith(".pfb"))
+            {
+                addType1Font(file, fontInfos);
+            }
+        }
+        catch (IOException e)
+        {
+            LOG.error("Error parsing font " + file.getPath(), e);
+        }
+        return new CachedFontFile(file, lastModified, length, fontInfos);
     }
 
     private File getDiskCacheFile()
     {
+        if (diskCacheFile != null)
+        {
+            return diskCacheFile;
+        }
         String path = System.getProperty("pdfbox.fontcache");
         if (path == null || !new File(path).isDirectory() || !new File(path).canWrite())
         {
@@ -400,24 +598,28 @@ final class FileSystemFontProvider extends FontProvider
                 path = System.getProperty("java.io.tmpdir");
             }
         }
-        return new File(path, ".pdfbox.cache");
+        return new File(path, CACHE_FILE_NAME);
     }
 
     /**
      * Saves the font metadata cache to disk.
      */
-    private void saveDiskCache()
+    private void saveDiskCache(List<CachedFontFile> entries)
     {
         try
         {
             File file = getDiskCacheFile();
 
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file)))
+            // write to a temporary file first so that concurrent readers never see a partial cache
+            File tmpFile = new File(file.getPath() + ".tmp" + System.nanoTime());
+            try
             {
-                for (FSFontInfo fontInfo : fontInfoList)
+                try (DataOutputStream output = new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(tmpFile))))
                 {
-                    writeFontInfo(writer, fontInfo);
+                    writeDiskCache(output, entries);
                 }
+                Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
             }
             catch (IOException e)
             {
@@ -425,6 +627,13 @@ final class FileSystemFontProvider extends FontProvider
                 LOG.warn("Installed fonts information will have to be reloaded for each start");
                 LOG.warn("You can assign a directory to the 'pdfbox.fontcache' property");
             }
+            finally
+            {
+                if (tmpFile.exists() && !tmpFile.delete())
+                {
+                    LOG.debug("Couldn't delete temporary font cache file " + tmpFile);
+                }
+            }
         }
         catch (SecurityException e)
         {
@@ -432,69 +641,59 @@ final class FileSystemFontProvider extends FontProvider
         }
     }
 
-    private void writeFontInfo(BufferedWriter writer, FSFontInfo fontInfo) throws IOException
+    private static void writeDiskCache(DataOutputStream output, List<CachedFontFile> entries)
+            throws IOException
     {
-        writer.write(fontInfo.postScriptName.trim());
-        writer.write("|");
-        writer.write(fontInfo.format.toString());
-        writer.write("|");
-        if (fontInfo.cidSystemInfo != null)
-        {
-            writer.write(fontInfo.cidSystemInfo.getRegistry() + '-' +
-                            fontInfo.cidSystemInfo.getOrdering() + '-' +
-                            fontInfo.cidSystemInfo.getSupplement());
-        }
-        writer.write("|");
-        if (fontInfo.usWeightClass > -1)
-        {
-            writer.write(Integer.toHexString(fontInfo.usWeightClass));
-        }
-        writer.write("|");
-        if (fontInfo.sFamilyClass > -1)
-        {
-            writer.write(Integer.toHexString(fontInfo.sFamilyClass));
+        output.writeInt(CACHE_MAGIC);
+        output.writeInt(CACHE_VERSION);
+        output.writeInt(entries.size());
+        for (CachedFontFile entry : entries)
+        {
+            output.writeUTF(entry.file.getAbsolutePath());
+            output.writeLong(entry.lastModified);
+            output.writeLong(entry.length);
+            output.writeInt(entry.fontInfos.size());
+            for (FSFontInfo fontInfo : entry.fontInfos)
+            {
+                writeFontInfo(output, fontInfo);
+            }
         }
-        writer.write("|");
-        writer.write(Integer.toHexString(fontInfo.ulCodePageRange1));
-        writer.write("|");
-        writer.write(Integer.toHexString(fontInfo.ulCodePageRange2));
-        writer.write("|");
-        if (fontInfo.macStyle > -1)
+    }
+
+    private static void writeFontInfo(DataOutputStream output, FSFontInfo fontInfo)
+            throws IOException
+    {
+        output.writeBoolean(fontInfo instanceof FSIgnored);
+        output.writeUTF(fontInfo.postScriptName.trim());
+        output.writeByte(fontInfo.format.ordinal());
+        output.writeBoolean(fontInfo.cidSystemInfo != null);
+        if (fontInfo.cidSystemInfo != null)
         {
-            writer.write(Integer.toHexString(fontInfo.macStyle));
+            output.writeUTF(fontInfo.cidSystemInfo.getRegistry());
+            output.writeUTF(fontInfo.cidSystemInfo.getOrdering());
+            output.writeInt(fontInfo.cidSystemInfo.getSupplement());
         }
-        writer.write("|");
+        output.writeInt(fontInfo.usWeightClass);
+        output.writeInt(fontInfo.sFamilyClass);
+        output.writeInt(fontInfo.ulCodePageRange1);
+        output.writeInt(fontInfo.ulCodePageRange2);
+        output.writeInt(fontInfo.macStyle);
+        output.writeBoolean(fontInfo.panose != null);
         if (fontInfo.panose != null)
         {
-            byte[] bytes = fontInfo.panose.getBytes();
-            for (int i = 0; i < 10; i ++)
-            {
-                String str = Integer.toHexString(bytes[i]);
-                if (str.length() == 1)
-                {
-                    writer.write('0');
-                }
-                writer.write(str);
-            }
+            output.write(fontInfo.panose.getBytes(), 0, 10);
         }
-        writer.write("|");
-        writer.write(fontInfo.file.getAbsolutePath());
-        writer.newLine();
     }
 
     /**
      * Loads the font metadata cache from disk.
+     *
+     * @return the cached font files keyed by their absolute path, empty if there is no usable cache
      */
-    private List<FSFontInfo> loadDiskCache(List<File> files)
+    private Map<String, CachedFontFile> loadDiskCache()
     {
-        Set<String> pending = new HashSet<>(files.size());
-        for (File file : files)
-        {
-            pending.add(file.getAbsolutePath());
-        }
-        
-        List<FSFontInfo> results = new ArrayList<>();
-        
+        Map<String, CachedFontFile> results = new HashMap<>();
+
         // Get the disk cache
         File file = null;
         boolean fileExists = false;
@@ -510,100 +709,80 @@ final class FileSystemFontProvider extends FontProvider
 
         if (fileExists)
         {
-            try (BufferedReader reader = new BufferedReader(new FileReader(file)))
+            try (DataInputStream input = new DataInputStream(
+                    new ByteArrayInputStream(Files.readAllBytes(file.toPath()))))
             {
-                String line;
-                while ((line = reader.readLine()) != null)
+                if (input.readInt() != CACHE_MAGIC || input.readInt() != CACHE_VERSION)
                 {
-                    String[] parts = line.split("\\|", 10);
-                    if (parts.length < 10)
-                    {
-                        LOG.error("Incorrect line '" + line + "' in font disk cache is skipped");
-                        continue;
-                    }
-
-                    String postScriptName;
-                    FontFormat format;
-                    CIDSystemInfo cidSystemInfo = null;
-                    int usWeightClass = -1;
-                    int sFamilyClass = -1;
-                    int ulCodePageRange1;
-                    int ulCodePageRange2;
-                    int macStyle = -1;
-                    byte[] panose = null;
-                    File fontFile;
-                    
-                    postScriptName = parts[0];
-                    format = FontFormat.valueOf(parts[1]);
-                    if (parts[2].length() > 0)
-                    {
-                        String[] ros = parts[2].split("-");
-                        cidSystemInfo = new CIDSystemInfo(ros[0], ros[1], Integer.parseInt(ros[2]));
-                    }
-                    if (parts[3].length() > 0)
-                    {
-                        usWeightClass = (int)Long.parseLong(parts[3], 16);
-                    }
-                    if (parts[4].length() > 0)
-                    {
-                        sFamilyClass = (int)Long.parseLong(parts[4], 16);
-                    }
-                    ulCodePageRange1 = (int)Long.parseLong(parts[5], 16);
-                    ulCodePageRange2 = (int)Long.parseLong(parts[6], 16);
-                    if (parts[7].length() > 0)
-                    {
-                        macStyle = (int)Long.parseLong(parts[7], 16);
-                    }
-                    if (parts[8].length() > 0)
-                    {
-                        panose = new byte[10];
-                        for (int i = 0; i < 10; i ++)
-                        {
-                            String str = parts[8].substring(i * 2, i * 2 + 2);
-                            int b = Integer.parseInt(str, 16);
-                            panose[i] = (byte)(b & 0xff);
-                        }
-                    }
-                    fontFile = new File(parts[9]);
-                    if (fontFile.exists())
-                    {
-                        FSFontInfo info = new FSFontInfo(fontFile, format, postScriptName,
-                                cidSystemInfo, usWeightClass, sFamilyClass, ulCodePageRange1,
-                                ulCodePageRange2, macStyle, panose, this);
-                        results.add(info);
-                    }
-                    else
+                    LOG.warn("Unknown font cache format, font cache will be re-built");
+                    return results;
+                }
+                FontFormat[] formats = FontFormat.values();
+                int fileCount = input.readInt();
+                for (int i = 0; i < fileCount; i++)
+                {
+                    File fontFile = new File(input.readUTF());
+                    long lastModified = input.readLong();
+                    long length = input.readLong();
+                    int fontCount = input.readInt();
+                    List<FSFontInfo> fontInfos = new ArrayList<>(fontCount);
+                    for (int j = 0; j < fontCount; j++)
                     {
-                        LOG.debug("Font file " + fontFile.getAbsolutePath() + " not found, skipped");
+                        fontInfos.add(readFontInfo(input, fontFile, formats));
                     }
-                    pending.remove(fontFile.getAbsolutePath());
+                    results.put(fontFile.getAbsolutePath(),
+                            new CachedFontFile(fontFile, lastModified, length, fontInfos));
                 }
             }
-            catch (IOException e)
+            catch (IOException | RuntimeException e)
             {
                 LOG.error("Error loading font cache, will be re-built", e);
-                return null;
+                results.clear();
             }
         }
-        
-        if (!pending.isEmpty())
+
+        return results;
+    }
+
+    private FSFontInfo readFontInfo(DataInputStream input, File fontFile, FontFormat[] formats)
+            throws IOException
+    {
+        boolean ignored = input.readBoolean();
+        String postScriptName = input.readUTF();
+        FontFormat format = formats[input.readUnsignedByte()];
+        CIDSystemInfo cidSystemInfo = null;
+        if (input.readBoolean())
+        {
+            cidSystemInfo = new CIDSystemInfo(input.readUTF(), input.readUTF(), input.readInt());
+        }
+        int usWeightClass = input.readInt();
+        int sFamilyClass = input.readInt();
+        int ulCodePageRange1 = input.readInt();
+        int ulCodePageRange2 = input.readInt();
+        int macStyle = input.readInt();
+        byte[] panose = null;
+        if (input.readBoolean())
         {
-            // re-build the entire cache if we encounter un-cached fonts (could be optimised)
-            LOG.warn("New fonts found, font cache will be re-built");
-            return null;
+            panose = new byte[10];
+            input.readFully(panose);
         }
-        
-        return results;
+        if (ignored)
+        {
+            return new FSIgnored(fontFile, format, postScriptName);
+        }
+        return new FSFontInfo(fontFile, format, postScriptName, cidSystemInfo, usWeightClass,
+                sFamilyClass, ulCodePageRange1, ulCodePageRange2, macStyle, panose, this);
     }
 
     /**
      * Adds a TTC or OTC to the file cache. To reduce memory, the parsed font is not cached.
      */
-    private void addTrueTypeCollection(final File ttcFile) throws IOException
+    private void addTrueTypeCollection(final File ttcFile, final List<FSFontInfo> fontInfos)
+            throws IOException
     {
         try (TrueTypeCollection ttc = new TrueTypeCollection(ttcFile))
         {
-            ttc.processAllFonts(ttf -> addTrueTypeFontImpl(ttf, ttcFile));
+            ttc.processAllFonts(ttf -> addTrueTypeFontImpl(ttf, ttcFile, fontInfos));
         }
         catch (IOException e)
         {
@@ -614,7 +793,7 @@ final class FileSystemFontProvider extends FontProvider
     /**
      * Adds an OTF or TTF font to the file cache. To reduce memory, the parsed font is not cached.
      */
-    private void addTrueTypeFont(File ttfFile) throws IOException
+    private void addTrueTypeFont(File ttfFile, List<FSFontInfo> fontInfos) throws IOException
     {
         try
         {
@@ -622,13 +801,13 @@ final class FileSystemFontProvider extends FontProvider
             {
                 OTFParser parser = new OTFParser(false, true);
                 OpenTypeFont otf = parser.parse(ttfFile);
-                addTrueTypeFontImpl(otf, ttfFile);
+                addTrueTypeFontImpl(otf, ttfFile, fontInfos);
             }
             else
             {
                 TTFParser parser = new TTFParser(false, true);
                 TrueTypeFont ttf = parser.parse(ttfFile);
-                addTrueTypeFontImpl(ttf, ttfFile);
+                addTrueTypeFontImpl(ttf, ttfFile, fontInfos);
             }
         }
         catch (IOException e)
@@ -640,14 +819,15 @@ final class FileSystemFontProvider extends FontProvider
     /**
      * Adds an OTF or TTF font to the file cache. To reduce memory, the parsed font is not cached.
      */
-    private void addTrueTypeFontImpl(TrueTypeFont ttf, File file) throws IOException
+    private void addTrueTypeFontImpl(TrueTypeFont ttf, File file, List<FSFontInfo> fontInfos)
+            throws IOException
     {
         try
         {
             // read PostScript name, if any
             if (ttf.getName() != null && ttf.getName().contains("|"))
             {
-                fontInfoList.add(new FSIgnored(file, FontFormat.TTF, "*skippipeinname*"));
+                fontInfos.add(new FSIgnored(file, FontFormat.TTF, "*skippipeinname*"));
                 LOG.warn("Skipping font with '|' in name " + ttf.getName() + " in file " + file);
             }
             else if (ttf.getName() != null)
@@ -655,7 +835,7 @@ final class FileSystemFontProvider extends FontProvider
                 // ignore bitmap fonts
                 if (ttf.getHeader() == null)
                 {
-                    fontInfoList.add(new FSIgnored(file, FontFormat.TTF, ttf.getName()));
+                    fontInfos.add(new FSIgnored(file, FontFormat.TTF, ttf.getName()));
                     return;
                 }
                 int macStyle = ttf.getHeader().getMacStyle();
@@ -690,7 +870,7 @@ final class FileSystemFontProvider extends FontProvider
                         int supplement = cidFont.getSupplement();
                         ros = new CIDSystemInfo(registry, ordering, supplement);
                     }
-                    fontInfoList.add(new FSFontInfo(file, FontFormat.OTF, ttf.getName(), ros,
+                    fontInfos.add(new FSFontInfo(file, FontFormat.OTF, ttf.getName(), ros,
                             usWeightClass, sFamilyClass, ulCodePageRange1, ulCodePageRange2,
                             macStyle, panose, this));
                 }
@@ -710,7 +890,7 @@ final class FileSystemFontProvider extends FontProvider
                     }
                     
                     format = "TTF";
-                    fontInfoList.add(new FSFontInfo(file, FontFormat.TTF, ttf.getName(), ros,
+                    fontInfos.add(new FSFontInfo(file, FontFormat.TTF, ttf.getName(), ros,
                             usWeightClass, sFamilyClass, ulCodePageRange1, ulCodePageRange2,
                             macStyle, panose, this));
                 }
@@ -728,13 +908,13 @@ final class FileSystemFontProvider extends FontProvider
             }
             else
             {
-                fontInfoList.add(new FSIgnored(file, FontFormat.TTF, "*skipnoname*"));
+                fontInfos.add(new FSIgnored(file, FontFormat.TTF, "*skipnoname*"));
                 LOG.warn("Missing 'name' entry for PostScript name in font " + file);
             }
         }
         catch (IOException e)
         {
-            fontInfoList.add(new FSIgnored(file, FontFormat.TTF, "*skipexception*"));
+            fontInfos.add(new FSIgnored(file, FontFormat.TTF, "*skipexception*"));
             LOG.error("Could not load font file: " + file, e);
         }
         finally
@@ -746,18 +926,18 @@ final class FileSystemFontProvider extends FontProvider
     /**
      * Adds a Type 1 font to the file cache. To reduce memory, the parsed font is not cached.
      */
-    private void addType1Font(File pfbFile) throws IOException
+    private void addType1Font(File pfbFile, List<FSFontInfo> fontInfos) throws IOException
     {
         try (InputStream input = new FileInputStream(pfbFile))
         {
             Type1Font type1 = Type1Font.createWithPFB(input);
             if (type1.getName() != null && type1.getName().contains("|"))
             {
-                fontInfoList.add(new FSIgnored(pfbFile, FontFormat.PFB, "*skippipeinname*"));
+                fontInfos.add(new FSIgnored(pfbFile, FontFormat.PFB, "*skippipeinname*"));
                 LOG.warn("Skipping font with '|' in name " + type1.getName() + " in file " + pfbFile);
                 return;
             }
-            fontInfoList.add(new FSFontInfo(pfbFile, FontFormat.PFB, type1.getName(),
+            fontInfos.add(new FSFontInfo(pfbFile, FontFormat.PFB, type1.getName(),
                                             null, -1, -1, 0, 0, -1, null, this));
 
             if (LOG.isTraceEnabled())
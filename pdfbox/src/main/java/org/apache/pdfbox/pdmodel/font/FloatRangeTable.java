@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.font;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable table of metrics for ranges of CIDs, as defined by the /W and /W2 arrays of a
+ * CIDFont. Each range has the same number of float values. The ranges are kept in sorted primitive
+ * arrays, adjacent ranges with the same values are merged, and lookups are binary searches.
+ *
+ * <p>Instances are created with a {@link Builder}, which resolves overlapping ranges the same way
+ * as repeated map insertions would: the range that comes last wins.</p>
+ */
+final class FloatRangeTable
+{
+    private final int[] firsts;
+    private final int[] lasts;
+    private final float[] values;
+    private final int stride;
+
+    private FloatRangeTable(int[] firsts, int[] lasts, float[] values, int stride)
+    {
+        this.firsts = firsts;
+        this.lasts = lasts;
+        this.values = values;
+        this.stride = stride;
+    }
+
+    /**
+     * Returns the index of the range containing the given key.
+     *
+     * @param key the key, e.g. a CID.
+     * @return the index of the range, or -1 if no range contains the key.
+     */
+    int indexOf(int key)
+    {
+        int low = 0;
+        int high = firsts.length - 1;
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            if (firsts[mid] > key)
+            {
+                high = mid - 1;
+            }
+            else if (lasts[mid] < key)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a value of a range.
+     *
+     * @param index the index of the range as returned by {@link #indexOf(int)}.
+     * @param component the index of the value within the range, less than the stride.
+     * @return the value.
+     */
+    float getValue(int index, int component)
+    {
+        return values[index * stride + component];
+    }
+
+    /**
+     * Returns the first value for the given key.
+     *
+     * @param key the key, e.g. a CID.
+     * @param defaultValue the value to be returned if no range contains the key.
+     * @return the value.
+     */
+    float get(int key, float defaultValue)
+    {
+        int index = indexOf(key);
+        return index >= 0 ? values[index * stride] : defaultValue;
+    }
+
+    /**
+     * Returns the number of ranges.
+     *
+     * @return the number of ranges.
+     */
+    int getRangeCount()
+    {
+        return firsts.length;
+    }
+
+    /**
+     * Returns the first key of a range.
+     *
+     * @param index the index of the range.
+     * @return the first key.
+     */
+    int getFirst(int index)
+    {
+        return firsts[index];
+    }
+
+    /**
+     * Returns the last key of a range.
+     *
+     * @param index the index of the range.
+     * @return the last key, inclusive.
+     */
+    int getLast(int index)
+    {
+        return lasts[index];
+    }
+
+    /**
+     * Collects ranges in definition order.
+     */
+    static final class Builder
+    {
+        private final int stride;
+        private int[] firsts = new int[16];
+        private int[] lasts = new int[16];
+        private float[] values;
+        private int count;
+        private boolean ordered = true;
+
+        /**
+         * Constructor.
+         *
+         * @param stride the number of values per range.
+         */
+        Builder(int stride)
+        {
+            this.stride = stride;
+            values = new float[16 * stride];
+        }
+
+        /**
+         * Adds a range, empty ranges are ignored.
+         *
+         * @param first the first key.
+         * @param last the last key, inclusive.
+         * @param rangeValues the values of the range, as many as the stride.
+         */
+        void add(int first, int last, float... rangeValues)
+        {
+            if (last < first)
+            {
+                return;
+            }
+            if (count == firsts.length)
+            {
+                firsts = Arrays.copyOf(firsts, count * 2);
+                lasts = Arrays.copyOf(lasts, count * 2);
+                values = Arrays.copyOf(values, count * 2 * stride);
+            }
+            if (count > 0 && first <= lasts[count - 1])
+            {
+                ordered = false;
+            }
+            firsts[count] = first;
+            lasts[count] = last;
+            System.arraycopy(rangeValues, 0, values, count * stride, stride);
+            count++;
+        }
+
+        /**
+         * Creates the table.
+         *
+         * @return the immutable table.
+         */
+        FloatRangeTable build()
+        {
+            if (ordered)
+            {
+                return merge(firsts, lasts, values, count);
+            }
+            // resolve overlaps: walk backwards so that later ranges take precedence and only the
+            // parts not covered by a later range are kept of earlier ones
+            TreeMap<Integer, Integer> covered = new TreeMap<>();
+            TreeMap<Integer, Integer> pieces = new TreeMap<>();
+            for (int i = count - 1; i >= 0; i--)
+            {
+                long start = firsts[i];
+                int last = lasts[i];
+                Map.Entry<Integer, Integer> before = covered.floorEntry(firsts[i]);
+                if (before != null && before.getValue() >= start)
+                {
+                    start = before.getValue() + 1L;
+                }
+                while (start <= last)
+                {
+                    Map.Entry<Integer, Integer> next = covered.ceilingEntry((int) start);
+                    int end = next == null || next.getKey() > last ? last : next.getKey() - 1;
+                    if (start <= end)
+                    {
+                        pieces.put((int) start, i);
+                        covered.put((int) start, end);
+                    }
+                    if (next == null || next.getKey() > last)
+                    {
+                        break;
+                    }
+                    start = next.getValue() + 1L;
+                }
+            }
+            int n = pieces.size();
+            int[] resolvedFirsts = new int[n];
+            int[] resolvedLasts = new int[n];
+            float[] resolvedValues = new float[n * stride];
+            int k = 0;
+            for (Map.Entry<Integer, Integer> piece : pieces.entrySet())
+            {
+                resolvedFirsts[k] = piece.getKey();
+                resolvedLasts[k] = covered.get(piece.getKey());
+                System.arraycopy(values, piece.getValue() * stride, resolvedValues, k * stride,
+                        stride);
+                k++;
+            }
+            return merge(resolvedFirsts, resolvedLasts, resolvedValues, n);
+        }
+
+        private FloatRangeTable merge(int[] inFirsts, int[] inLasts, float[] inValues, int n)
+        {
+            int[] outFirsts = new int[n];
+            int[] outLasts = new int[n];
+            float[] outValues = new float[n * stride];
+            int m = 0;
+            for (int i = 0; i < n; i++)
+            {
+                if (m > 0 && inFirsts[i] == outLasts[m - 1] + 1
+                        && sameValues(outValues, (m - 1) * stride, inValues, i * stride))
+                {
+                    outLasts[m - 1] = inLasts[i];
+                    continue;
+                }
+                outFirsts[m] = inFirsts[i];
+                outLasts[m] = inLasts[i];
+                System.arraycopy(inValues, i * stride, outValues, m * stride, stride);
+                m++;
+            }
+            return new FloatRangeTable(Arrays.copyOf(outFirsts, m), Arrays.copyOf(outLasts, m),
+                    Arrays.copyOf(outValues, m * stride), stride);
+        }
+
+        private boolean sameValues(float[] a, int aOffset, float[] b, int bOffset)
+        {
+            for (int i = 0; i < stride; i++)
+            {
+                if (Float.compare(a[aOffset + i], b[bOffset + i]) != 0)
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
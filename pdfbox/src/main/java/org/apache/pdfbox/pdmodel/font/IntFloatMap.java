@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.font;
+
+/**
+ * A map from int keys to float values using open addressing with linear probing, so that neither
+ * keys nor values are boxed. This class is not thread-safe.
+ */
+final class IntFloatMap
+{
+    private int[] keys;
+    private float[] values;
+    private boolean[] used;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    IntFloatMap()
+    {
+        this(16);
+    }
+
+    /**
+     * Creates an empty map which can hold the given number of entries without rehashing.
+     *
+     * @param expectedSize the expected number of entries.
+     */
+    IntFloatMap(int expectedSize)
+    {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new float[capacity];
+        used = new boolean[capacity];
+    }
+
+    private static int hash(int key)
+    {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(int key)
+    {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (used[index])
+        {
+            if (keys[index] == key)
+            {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1 - index;
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key the key.
+     * @param defaultValue the value to be returned if the key isn't in the map.
+     * @return the value or the default value.
+     */
+    float get(int key, float defaultValue)
+    {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    /**
+     * Tells whether the given key is in the map.
+     *
+     * @param key the key.
+     * @return true if the map contains the key.
+     */
+    boolean containsKey(int key)
+    {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Sets the value of the given key.
+     *
+     * @param key the key.
+     * @param value the value.
+     */
+    void put(int key, float value)
+    {
+        int index = indexOf(key);
+        if (index >= 0)
+        {
+            values[index] = value;
+            return;
+        }
+        if (2 * (size + 1) > keys.length)
+        {
+            rehash(keys.length << 1);
+            index = indexOf(key);
+        }
+        index = -1 - index;
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        size++;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries.
+     */
+    int size()
+    {
+        return size;
+    }
+
+    private void rehash(int capacity)
+    {
+        int[] oldKeys = keys;
+        float[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[capacity];
+        values = new float[capacity];
+        used = new boolean[capacity];
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldUsed[i])
+            {
+                int index = -1 - indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                used[index] = true;
+            }
+        }
+    }
+}
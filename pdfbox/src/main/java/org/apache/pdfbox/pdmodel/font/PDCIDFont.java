@@ -18,8 +18,6 @@ package org.apache.pdfbox.pdmodel.font;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Map;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -47,12 +45,12 @@ public abstract class PDCIDFont implements COSObjectable, PDFontLike, PDVectorFo
 
     protected final PDType0Font parent;
 
-    private Map<Integer, Float> widths;
+    private FloatRangeTable widths;
     private float defaultWidth;
     private float averageWidth;
 
-    private final Map<Integer, Float> verticalDisplacementY = new HashMap<>(); // w1y
-    private final Map<Integer, Vector> positionVectors = new HashMap<>();     // v
+    // w1y, v1x, v1y for each CID range
+    private FloatRangeTable verticalMetrics;
     private final float[] dw2 = new float[] { 880, -1000 };
 
     protected final COSDictionary dict;
@@ -73,7 +71,7 @@ public abstract class PDCIDFont implements COSObjectable, PDFontLike, PDVectorFo
 
     private void readWidths()
     {
-        widths = new HashMap<>();
+        FloatRangeTable.Builder builder = new FloatRangeTable.Builder(1);
         COSArray wArray = dict.getCOSArray(COSName.W);
         if (wArray != null)
         {
@@ -100,7 +98,7 @@ public abstract class PDCIDFont implements COSObjectable, PDFontLike, PDVectorFo
                         if (widthBase instanceof COSNumber)
                         {
                             COSNumber width = (COSNumber) widthBase;
-                            widths.put(startRange + i, width.floatValue());
+                            builder.add(startRange + i, startRange + i, width.floatValue());
                         }
                         else
                         {
@@ -121,14 +119,11 @@ public abstract class PDCIDFont implements COSObjectable, PDFontLike, PDVectorFo
                     COSNumber rangeWidth = (COSNumber) rangeWidthBase;
                     int startRange = firstCode.intValue();
                     int endRange = secondCode.intValue();
-                    float width = rangeWidth.floatValue();
-                    for (int i = startRange; i <= endRange; i++)
-                    {
-                        widths.put(i, width);
-                    }
+                    builder.add(startRange, endRange, rangeWidth.floatValue());
                 }
             }
         }
+        widths = builder.build();
     }
 
     private void readVerticalDisplacements()
@@ -147,6 +142,7 @@ public abstract class PDCIDFont implements COSObjectable, PDFontLike, PDVectorFo
         }
 
         // vertical metrics for individual CIDs.
+        FloatRangeTable.Builder builder = new FloatRangeTable.Builder(3);
         COSArray w2Array = dict.getCOSArray(COSName.W2);
         if (w2Array != null)
         {
@@ -163,8 +159,7 @@ public abstract class PDCIDFont implements COSObjectable, PDFontLike, PDVectorFo
                         COSNumber w1y = (COSNumber) array.getObject(j);
                         COSNumber v1x = (COSNumber) array.getObject(++j);
                         COSNumber v1y = (COSNumber) array.getObject(++j);
-                        verticalDisplacementY.put(cid, w1y.floatValue());
-                        positionVectors.put(cid, new Vector(v1x.floatValue(), v1y.floatValue()));
+                        builder.add(cid, cid, w1y.floatValue(), v1x.floatValue(), v1y.floatValue());
                     }
                 }
                 else
@@ -174,14 +169,11 @@ public abstract class PDCIDFont implements COSObjectable, PDFontLike, PDVectorFo
                     COSNumber w1y = (COSNumber) w2Array.getObject(++i);
                     COSNumber v1x = (COSNumber) w2Array.getObject(++i);
                     COSNumber v1y = (COSNumber) w2Array.getObject(++i);
-                    for (int cid = first; cid <= last; cid++)
-                    {
-                        verticalDisplacementY.put(cid, w1y.floatValue());
-                        positionVectors.put(cid, new Vector(v1x.floatValue(), v1y.floatValue()));
-                    }
+                    builder.add(first, last, w1y.floatValue(), v1x.floatValue(), v1y.floatValue());
                 }
             }
         }
+        verticalMetrics = builder.build();
     }
 
     @Override
@@ -264,30 +256,26 @@ public abstract class PDCIDFont implements COSObjectable, PDFontLike, PDVectorFo
 
     private float getWidthForCID(int cid)
     {
-        Float width = widths.get(cid);
-        if (width == null)
-        {
-            width = getDefaultWidth();
-        }
-        return width;
+        int index = widths.indexOf(cid);
+        return index >= 0 ? widths.getValue(index, 0) : getDefaultWidth();
     }
 
     @Override
     public boolean hasExplicitWidth(int code) throws IOException
     {
-        return widths.get(codeToCID(code)) != null;
+        return widths.indexOf(codeToCID(code)) >= 0;
     }
 
     @Override
     public Vector getPositionVector(int code)
     {
         int cid = codeToCID(code);
-        Vector v = positionVectors.get(cid);
-        if (v == null)
+        int index = verticalMetrics.indexOf(cid);
+        if (index < 0)
         {
-            v = getDefaultPositionVector(cid);
+            return getDefaultPositionVector(cid);
         }
-        return v;
+        return new Vector(verticalMetrics.getValue(index, 1), verticalMetrics.getValue(index, 2));
     }
 
     /**
@@ -298,13 +286,8 @@ public abstract class PDCIDFont implements COSObjectable, PDFontLike, PDVectorFo
      */
     public float getVerticalDisplacementVectorY(int code)
     {
-        int cid = codeToCID(code);
-        Float w1y = verticalDisplacementY.get(cid);
-        if (w1y == null)
-        {
-            w1y = dw2[1];
-        }
-        return w1y;
+        int index = verticalMetrics.indexOf(codeToCID(code));
+        return index >= 0 ? verticalMetrics.getValue(index, 0) : dw2[1];
     }
 
     @Override
@@ -324,11 +307,13 @@ public abstract class PDCIDFont implements COSObjectable, PDFontLike, PDVectorFo
         {
             float totalWidths = 0.0f;
             int characterCount = 0;
-            if (widths != null)
+            for (int i = 0; i < widths.getRangeCount(); i++)
             {
-                for (Float width : widths.values())
+                float width = widths.getValue(i, 0);
+                if (width > 0)
                 {
-                    if (width > 0)
+                    // each CID of a range counts
+                    for (long cid = widths.getFirst(i); cid <= widths.getLast(i); cid++)
                     {
                         totalWidths += width;
                         ++characterCount;
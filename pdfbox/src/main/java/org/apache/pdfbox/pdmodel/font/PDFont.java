@@ -20,11 +20,9 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.fontbox.afm.FontMetrics;
@@ -63,7 +61,12 @@ public abstract class PDFont implements COSObjectable, PDFontLike
     private List<Float> widths;
     private float avgFontWidth;
     private float fontWidthOfSpace = -1f;
-    private final Map<Integer, Float> codeToWidthMap;
+
+    // widths of single byte codes, NaN if not known yet; racing threads compute the same value,
+    // which makes this safe for the shared standard 14 fonts
+    private final float[] codeToWidth = newWidthCache();
+    // widths of other codes, guarded by itself
+    private final IntFloatMap otherCodeToWidth = new IntFloatMap();
 
     /**
      * Constructor for embedding.
@@ -75,7 +78,6 @@ public abstract class PDFont implements COSObjectable, PDFontLike
         toUnicodeCMap = null;
         fontDescriptor = null;
         afmStandard14 = null;
-        codeToWidthMap = new HashMap<>();
     }
 
     /**
@@ -92,8 +94,6 @@ public abstract class PDFont implements COSObjectable, PDFontLike
             throw new IllegalArgumentException("No AFM for font " + baseFont);
         }
         fontDescriptor = PDType1FontEmbedder.buildFontDescriptor(afmStandard14);
-        // standard 14 fonts may be accessed concurrently, as they are singletons
-        codeToWidthMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -104,7 +104,6 @@ public abstract class PDFont implements COSObjectable, PDFontLike
     protected PDFont(COSDictionary fontDictionary)
     {
         dict = fontDictionary;
-        codeToWidthMap = new HashMap<>();
 
         // standard 14 fonts use an AFM
         afmStandard14 = Standard14Fonts.getAFM(getName()); // may be null (it usually is)
@@ -112,6 +111,13 @@ public abstract class PDFont implements COSObjectable, PDFontLike
         toUnicodeCMap = loadUnicodeCmap();
     }
 
+    private static float[] newWidthCache()
+    {
+        float[] cache = new float[256];
+        Arrays.fill(cache, Float.NaN);
+        return cache;
+    }
+
     private PDFontDescriptor loadFontDescriptor()
     {
         COSDictionary fd = dict.getCOSDictionary(COSName.FONT_DESC);
@@ -251,12 +257,33 @@ public abstract class PDFont implements COSObjectable, PDFontLike
     @Override
     public float getWidth(int code) throws IOException
     {
-        Float width = codeToWidthMap.get(code);
-        if (width != null)
+        if (code >= 0 && code < codeToWidth.length)
         {
+            float width = codeToWidth[code];
+            if (Float.isNaN(width))
+            {
+                width = computeWidth(code);
+                codeToWidth[code] = width;
+            }
             return width;
         }
-        
+        synchronized (otherCodeToWidth)
+        {
+            if (otherCodeToWidth.containsKey(code))
+            {
+                return otherCodeToWidth.get(code, 0);
+            }
+        }
+        float width = computeWidth(code);
+        synchronized (otherCodeToWidth)
+        {
+            otherCodeToWidth.put(code, width);
+        }
+        return width;
+    }
+
+    private float computeWidth(int code) throws IOException
+    {
         // Acrobat overrides the widths in the font program on the conforming reader's system with
         // the widths specified in the font dictionary." (Adobe Supplement to the ISO 32000)
         //
@@ -273,37 +300,26 @@ public abstract class PDFont implements COSObjectable, PDFontLike
             int idx = code - firstChar;
             if (siz > 0 && code >= firstChar && code <= lastChar && idx < siz)
             {
-                width = getWidths().get(idx);
-                if (width == null)
-                {
-                    width = 0f;
-                }
-                codeToWidthMap.put(code, width);
-                return width;
+                Float width = getWidths().get(idx);
+                return width == null ? 0f : width;
             }
 
             PDFontDescriptor fd = getFontDescriptor();
             if (fd != null)
             {
                 // get entry from /MissingWidth entry
-                width = fd.getMissingWidth();
-                codeToWidthMap.put(code, width);
-                return width;
+                return fd.getMissingWidth();
             }
         }
 
         // standard 14 font widths are specified by an AFM
         if (isStandard14())
         {
-            width = getStandard14Width(code);
-            codeToWidthMap.put(code, width);
-            return width;
+            return getStandard14Width(code);
         }
         
         // if there's nothing to override with, then obviously we fall back to the font
-        width = getWidthFromFont(code);
-        codeToWidthMap.put(code, width);
-        return width;
+        return getWidthFromFont(code);
     }
 
     /**
@@ -132,6 +132,23 @@ public class PDType0Font extends PDFont implements PDVectorFont
         }
     }
 
+    /**
+     * Private. Creates a new PDType0Font font for embedding a subset of a shared template.
+     */
+    private PDType0Font(PDDocument document, EmbeddedFontTemplate template) throws IOException
+    {
+        // vertical substitutions have already been enabled by the template
+        gsubData = template.getGsubData();
+        cmapLookup = template.getCmapLookup();
+
+        embedder = new PDCIDFontType2Embedder(document, dict, template.getTrueTypeFont(), true,
+                this, template.isVertical());
+        embedder.setTemplate(template);
+        descendantFont = embedder.getCIDFont();
+        readEncoding();
+        fetchCMapUCS2();
+    }
+
     /**
      * Loads a TTF to be embedded and subset into a document as a Type 0 font. If you are loading a
      * font for AcroForm, then use the 3-parameter constructor instead.
@@ -192,6 +209,22 @@ public class PDType0Font extends PDFont implements PDVectorFont
         return new PDType0Font(doc, ttf, embedSubset, false, false);
     }
 
+    /**
+     * Loads a shared font template to be embedded and subset into a document as a Type 0 font.
+     * The parsed font and the subsets are shared with all other documents using the template,
+     * which must not be closed before the document has been saved.
+     *
+     * @param doc The PDF document that will hold the embedded font.
+     * @param template A font template.
+     * @return A Type0 font with a CIDFontType2 descendant.
+     * @throws IOException If there is an error reading the font.
+     */
+    public static PDType0Font load(PDDocument doc, EmbeddedFontTemplate template)
+            throws IOException
+    {
+        return new PDType0Font(doc, template);
+    }
+
     /**
      * Loads a TTF to be embedded into a document as a vertical Type 0 font.
      *
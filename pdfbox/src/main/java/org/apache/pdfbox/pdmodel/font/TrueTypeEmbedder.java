@@ -63,6 +63,8 @@ abstract class TrueTypeEmbedder implements Subsetter
 
     private final Set<Integer> allGlyphIds = new HashSet<>();
 
+    private EmbeddedFontTemplate template;
+
     /**
      * Creates a new TrueType font for embedding.
      */
@@ -276,6 +278,14 @@ abstract class TrueTypeEmbedder implements Subsetter
         return fd;
     }
 
+    /**
+     * Sets the template whose subset cache is used when subsetting.
+     */
+    void setTemplate(EmbeddedFontTemplate template)
+    {
+        this.template = template;
+    }
+
     /**
      * Returns the font descriptor.
      */
@@ -337,12 +347,25 @@ abstract class TrueTypeEmbedder implements Subsetter
         subsetter.setPrefix(tag);
 
         // save the subset font
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        subsetter.writeToStream(out);
+        byte[] subset;
+        if (template != null)
+        {
+            subset = template.getSubset(gidToCid, subsetter);
+        }
+        else
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            subsetter.writeToStream(out);
+            subset = out.toByteArray();
+        }
 
         // re-build the embedded font
-        buildSubset(new ByteArrayInputStream(out.toByteArray()), tag, gidToCid);
-        ttf.close();
+        buildSubset(new ByteArrayInputStream(subset), tag, gidToCid);
+        // the font of a template is shared with other documents and closed by the template
+        if (template == null || ttf != template.getTrueTypeFont())
+        {
+            ttf.close();
+        }
     }
 
     /**
@@ -17,12 +17,18 @@
 package org.apache.pdfbox.pdmodel.font.encoding;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.pdfbox.io.IOUtils;
 
 import java.io.IOException;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +42,17 @@ public final class GlyphList
 {
     private static final Log LOG = LogFactory.getLog(GlyphList.class);
 
+    /**
+     * File name suffix of the glyph lists which were precompiled at build time.
+     */
+    static final String COMPILED_SUFFIX = ".bin";
+
+    static final String RESOURCE_PATH = "/org/apache/pdfbox/resources/glyphlist/";
+
+    // header of the binary form, "GLYL" and the format version
+    private static final int BINARY_MAGIC = 0x474C594C;
+    private static final int BINARY_VERSION = 1;
+
     // Adobe Glyph List (AGL)
     private static final GlyphList DEFAULT = load("glyphlist.txt", 4281);
     
@@ -47,15 +64,34 @@ public final class GlyphList
      */
     private static GlyphList load(String filename, int numberOfEntries)
     {
-        String path = "/org/apache/pdfbox/resources/glyphlist/" + filename;
+        String path = RESOURCE_PATH + filename;
+        return load(GlyphList.class.getResource(path + COMPILED_SUFFIX),
+                GlyphList.class.getResource(path), numberOfEntries);
+    }
+
+    /**
+     * Loads a glyph list from the binary form created by {@link GlyphListCompiler}, or from the
+     * text form if there is no compiled glyph list or if it can't be read.
+     *
+     * @param compiled the compiled glyph list, may be null.
+     * @param source the glyph list in Adobe format, may be null if there is a compiled glyph list.
+     * @param numberOfEntries number of expected values of the text form
+     */
+    static GlyphList load(URL compiled, URL source, int numberOfEntries)
+    {
+        GlyphList compiledGlyphList = loadCompiled(compiled);
+        if (compiledGlyphList != null)
+        {
+            return compiledGlyphList;
+        }
+        if (source == null)
+        {
+            throw new RuntimeException(new IOException("GlyphList not found"));
+        }
         //no need to use a BufferedInputSteam here, as GlyphList uses a BufferedReader
-        try (InputStream resourceAsStream = GlyphList.class.getResourceAsStream(path))
+        try (InputStream input = source.openStream())
         {
-            if (resourceAsStream == null)
-            {
-                throw new IOException("GlyphList '" + path + "' not found");
-            }
-            return new GlyphList(resourceAsStream, numberOfEntries);
+            return new GlyphList(input, numberOfEntries);
         }
         catch (IOException e)
         {
@@ -63,6 +99,31 @@ public final class GlyphList
         }
     }
 
+    /**
+     * Loads a glyph list which was precompiled at build time by {@link GlyphListCompiler}, with a
+     * single read.
+     *
+     * @return the glyph list, or null if there is no compiled glyph list and the text has to be
+     * parsed.
+     */
+    private static GlyphList loadCompiled(URL compiled)
+    {
+        if (compiled == null)
+        {
+            return null;
+        }
+        try (InputStream input = compiled.openStream())
+        {
+            byte[] data = IOUtils.toByteArray(input);
+            return new GlyphList(new DataInputStream(new ByteArrayInputStream(data)));
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Compiled glyph list " + compiled + " could not be read, the text will be parsed", e);
+            return null;
+        }
+    }
+
     /**
      * Returns the Adobe Glyph List (AGL).
      */
@@ -114,6 +175,57 @@ public final class GlyphList
         loadList(input);
     }
 
+    /**
+     * Creates a new GlyphList from its binary form.
+     *
+     * @param input the glyph list written by {@link #writeBinary(DataOutput)}
+     * @throws IOException if the data is not a glyph list in the current binary format
+     */
+    private GlyphList(DataInput input) throws IOException
+    {
+        if (input.readInt() != BINARY_MAGIC || input.readInt() != BINARY_VERSION)
+        {
+            throw new IOException("Not a compiled glyph list of version " + BINARY_VERSION);
+        }
+        int count = input.readInt();
+        nameToUnicode = new HashMap<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            nameToUnicode.put(input.readUTF(), input.readUTF());
+        }
+        count = input.readInt();
+        unicodeToName = new HashMap<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            unicodeToName.put(input.readUTF(), input.readUTF());
+        }
+    }
+
+    /**
+     * Writes this glyph list in a compact binary form, which is loaded faster than the text form
+     * can be parsed. This is used at build time to precompile the bundled glyph lists.
+     *
+     * @param output the output
+     * @throws IOException if the glyph list could not be written
+     */
+    void writeBinary(DataOutput output) throws IOException
+    {
+        output.writeInt(BINARY_MAGIC);
+        output.writeInt(BINARY_VERSION);
+        output.writeInt(nameToUnicode.size());
+        for (Map.Entry<String, String> entry : nameToUnicode.entrySet())
+        {
+            output.writeUTF(entry.getKey());
+            output.writeUTF(entry.getValue());
+        }
+        output.writeInt(unicodeToName.size());
+        for (Map.Entry<String, String> entry : unicodeToName.entrySet())
+        {
+            output.writeUTF(entry.getKey());
+            output.writeUTF(entry.getValue());
+        }
+    }
+
     private void loadList(InputStream input) throws IOException
     {
         try (BufferedReader in = new BufferedReader(new InputStreamReader(input, StandardCharsets.ISO_8859_1)))
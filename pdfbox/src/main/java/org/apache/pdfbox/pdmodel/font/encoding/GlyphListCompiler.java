@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.font.encoding;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Build time tool which precompiles the bundled glyph lists into the binary form which is loaded
+ * by {@link GlyphList}. If a compiled glyph list is missing, the text form is parsed as before.
+ */
+public final class GlyphListCompiler
+{
+    private static final Log LOG = LogFactory.getLog(GlyphListCompiler.class);
+
+    private static final String[] GLYPH_LISTS = { "glyphlist.txt", "zapfdingbats.txt" };
+
+    private GlyphListCompiler()
+    {
+    }
+
+    /**
+     * Compiles the bundled glyph lists in the given directory. Each glyph list is written next to
+     * its source, with the suffix ".bin".
+     *
+     * @param args the glyph list directory in the build output
+     * @throws IOException if a glyph list could not be parsed or written
+     * @throws IllegalArgumentException if the arguments aren't a single directory
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 1)
+        {
+            throw new IllegalArgumentException(
+                    "usage: " + GlyphListCompiler.class.getName() + " <glyphlist directory>");
+        }
+        File directory = new File(args[0]);
+        for (String name : GLYPH_LISTS)
+        {
+            File source = new File(directory, name);
+            GlyphList glyphList;
+            try (InputStream input = new FileInputStream(source))
+            {
+                glyphList = new GlyphList(input, 4096);
+            }
+            File target = new File(directory, name + GlyphList.COMPILED_SUFFIX);
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(target))))
+            {
+                glyphList.writeBinary(output);
+            }
+        }
+        LOG.info("Compiled " + GLYPH_LISTS.length + " glyph lists in " + directory);
+    }
+}
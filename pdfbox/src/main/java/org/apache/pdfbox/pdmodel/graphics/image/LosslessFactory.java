@@ -25,11 +25,22 @@ import java.awt.image.Raster;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CheckedOutputStream;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 import javax.imageio.stream.MemoryCacheImageOutputStream;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.pdfbox.cos.COSDictionary;
 import org.apache.pdfbox.cos.COSInteger;
 import org.apache.pdfbox.cos.COSName;
@@ -55,10 +66,58 @@ public final class LosslessFactory
      */
     static final boolean USE_PREDICTOR_ENCODER = true;
 
+    /**
+     * Encoder threads System Property. Set this to a value greater than 1 to split large images
+     * into row stripes that are filtered and deflated concurrently. The stripes are concatenated
+     * into a single zlib stream, so the result can be decoded by every reader. The default value
+     * is 1, i.e. everything is done on the calling thread. Example:
+     * {@code System.setProperty(LosslessFactory.SYSPROP_ENCODER_THREADS, "4");}
+     */
+    public static final String SYSPROP_ENCODER_THREADS =
+            "org.apache.pdfbox.pdmodel.graphics.image.losslessfactory.threads";
+
+    /**
+     * Classic encoding threshold System Property. RGB images encoded with the predictor are also
+     * encoded without predictor and the smaller result is kept, if the image has at most this
+     * number of pixels. The default value is 2500 (50 x 50 pixels). Set it to 0 to never do the
+     * second encoding.
+     */
+    public static final String SYSPROP_CLASSIC_MAX_PIXELS =
+            "org.apache.pdfbox.pdmodel.graphics.image.losslessfactory.classicmaxpixels";
+
+    private static final Log LOG = LogFactory.getLog(LosslessFactory.class);
+
+    private static final int DEFAULT_CLASSIC_MAX_PIXELS = 50 * 50;
+
+    /**
+     * Minimum number of rows of a stripe when encoding in parallel, smaller stripes aren't worth
+     * the thread overhead and the loss of compression at the stripe boundaries.
+     */
+    private static final int MIN_STRIPE_ROWS = 64;
+
     private LosslessFactory()
     {
     }
 
+    /**
+     * The threads which encode the row stripes, shared by all images so that no threads are
+     * created for every image. They are created when needed, the number of stripes of an image
+     * limits how many are used for it, and they end after being idle for a minute.
+     */
+    private static final class StripeExecutor
+    {
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable ->
+        {
+            Thread thread = new Thread(runnable, "PDFBox image encoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private StripeExecutor()
+        {
+        }
+    }
+
     /**
      * Creates a new lossless encoded image XObject from a BufferedImage.
      * <p>
@@ -78,6 +137,25 @@ public final class LosslessFactory
      */
     public static PDImageXObject createFromImage(PDDocument document, BufferedImage image)
             throws IOException
+    {
+        return createFromImage(document, image,
+                getIntProperty(SYSPROP_ENCODER_THREADS, 1),
+                getIntProperty(SYSPROP_CLASSIC_MAX_PIXELS, DEFAULT_CLASSIC_MAX_PIXELS));
+    }
+
+    /**
+     * Creates a new lossless encoded image XObject from a BufferedImage.
+     *
+     * @param document the document where the image will be created
+     * @param image the BufferedImage to embed
+     * @param threads the number of threads for the predictor encoding
+     * @param classicMaxPixels the maximum number of pixels up to which the classic encoding is
+     * also tried
+     * @return a new image XObject
+     * @throws IOException if something goes wrong
+     */
+    static PDImageXObject createFromImage(PDDocument document, BufferedImage image, int threads,
+            int classicMaxPixels) throws IOException
     {
         if (isGrayImage(image))
         {
@@ -87,12 +165,12 @@ public final class LosslessFactory
         // We try to encode the image with predictor
         if (USE_PREDICTOR_ENCODER)
         {
-            PDImageXObject pdImageXObject = new PredictorEncoder(document, image).encode();
+            PDImageXObject pdImageXObject = new PredictorEncoder(document, image).encode(threads);
             if (pdImageXObject != null)
             {
                 if (pdImageXObject.getColorSpace() == PDDeviceRGB.INSTANCE &&
                     pdImageXObject.getBitsPerComponent() < 16 &&
-                    image.getWidth() * image.getHeight() <= 50 * 50)
+                    (long) image.getWidth() * image.getHeight() <= classicMaxPixels)
                 {
                     // also create classic compressed image, compare sizes
                     PDImageXObject pdImageXObjectClassic = createFromRGBImage(image, document);
@@ -115,6 +193,24 @@ public final class LosslessFactory
         return createFromRGBImage(image, document);
     }
 
+    private static int getIntProperty(String key, int defaultValue)
+    {
+        String value = System.getProperty(key);
+        if (value == null)
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException ex)
+        {
+            LOG.warn("Invalid value for " + key + ", default " + defaultValue + " will be used", ex);
+            return defaultValue;
+        }
+    }
+
     private static boolean isGrayImage(BufferedImage image)
     {
         if (image.getTransparency() != Transparency.OPAQUE)
@@ -257,6 +353,41 @@ public final class LosslessFactory
                 width, height, bitsPerComponent, initColorSpace);
     }
 
+    /**
+     * Combines two Adler-32 checksums, as done by adler32_combine() in zlib.
+     *
+     * @param adler1 the checksum of the first sequence
+     * @param adler2 the checksum of the second sequence
+     * @param length2 the length of the second sequence
+     * @return the checksum of both sequences
+     */
+    static long adler32Combine(long adler1, long adler2, long length2)
+    {
+        final long base = 65521;
+        long rem = length2 % base;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = (rem * sum1) % base;
+        sum1 += (adler2 & 0xFFFF) + base - 1;
+        sum2 += ((adler1 >>> 16) & 0xFFFF) + ((adler2 >>> 16) & 0xFFFF) + base - rem;
+        if (sum1 >= base)
+        {
+            sum1 -= base;
+        }
+        if (sum1 >= base)
+        {
+            sum1 -= base;
+        }
+        if (sum2 >= (base << 1))
+        {
+            sum2 -= (base << 1);
+        }
+        if (sum2 >= base)
+        {
+            sum2 -= base;
+        }
+        return sum1 | (sum2 << 16);
+    }
+
     private static class PredictorEncoder
     {
         private final PDDocument document;
@@ -289,6 +420,20 @@ public final class LosslessFactory
          * Initialize the encoder and set all final fields
          */
         PredictorEncoder(PDDocument document, BufferedImage image)
+        {
+            this(document, image, null);
+        }
+
+        /**
+         * Initialize an encoder for a stripe of the image of the given encoder. It has its own row
+         * buffers but shares the alpha data, into which each stripe writes its own rows.
+         */
+        private PredictorEncoder(PredictorEncoder parent)
+        {
+            this(parent.document, parent.image, parent.alphaImageData);
+        }
+
+        private PredictorEncoder(PDDocument document, BufferedImage image, byte[] alphaImageData)
         {
             this.document = document;
             this.image = image;
@@ -307,7 +452,14 @@ public final class LosslessFactory
             this.imageType = image.getType();
             this.hasAlpha = image.getColorModel().getNumComponents() != image.getColorModel()
                     .getNumColorComponents();
-            this.alphaImageData = hasAlpha ? new byte[width * height * bytesPerComponent] : null;
+            if (alphaImageData != null)
+            {
+                this.alphaImageData = alphaImageData;
+            }
+            else
+            {
+                this.alphaImageData = hasAlpha ? new byte[width * height * bytesPerComponent] : null;
+            }
 
             // The rows have 1-byte encoding marker and width * BYTES_PER_PIXEL pixel-bytes
             int dataRowByteCount = width * bytesPerPixel + 1;
@@ -344,65 +496,161 @@ public final class LosslessFactory
          */
         PDImageXObject encode() throws IOException
         {
-            Raster imageRaster = image.getRaster();
-            final int elementsInRowPerPixel;
+            return encode(1);
+        }
 
-            // These variables store a row of the image each, the exact type depends
-            // on the image encoding. Can be a int[], short[] or byte[]
-            Object prevRow;
-            Object transferRow;
+        /**
+         * Tries to compress the image using a predictor.
+         *
+         * @param threads the number of threads to use. If more than one, the image is split into
+         * row stripes which are filtered and deflated concurrently.
+         * @return the image or null if it is not possible to encoded the image (e.g. not supported
+         * raster format etc.)
+         */
+        PDImageXObject encode(int threads) throws IOException
+        {
+            if (createTransferRow() == null)
+            {
+                // We can not handle this unknown format
+                return null;
+            }
 
-            switch (imageType)
+            // pre-size the output stream to half of the maximum size
+            ByteArrayOutputStream stream = new ByteArrayOutputStream(
+                    height * width * bytesPerPixel / 2);
+
+            int stripeCount = Math.min(threads, height / MIN_STRIPE_ROWS);
+            if (stripeCount > 1)
             {
-                case BufferedImage.TYPE_CUSTOM:
-                    switch (imageRaster.getTransferType())
-                    {
-                        case DataBuffer.TYPE_USHORT:
-                            elementsInRowPerPixel = componentsPerPixel;
-                            prevRow = new short[width * elementsInRowPerPixel];
-                            transferRow = new short[width * elementsInRowPerPixel];
-                            break;
-                        case DataBuffer.TYPE_BYTE:
-                            elementsInRowPerPixel = componentsPerPixel;
-                            prevRow = new byte[width * elementsInRowPerPixel];
-                            transferRow = new byte[width * elementsInRowPerPixel];
-                            break;
-                        default:
-                            return null;
-                    }
-                    break;
+                encodeStripes(stream, stripeCount);
+            }
+            else
+            {
+                Deflater deflater = new Deflater(Filter.getCompressionLevel());
+                try (DeflaterOutputStream zip = new DeflaterOutputStream(stream, deflater))
+                {
+                    encodeRows(0, height, zip);
+                }
+                finally
+                {
+                    deflater.end();
+                }
+            }
 
-                case BufferedImage.TYPE_3BYTE_BGR:
-                case BufferedImage.TYPE_4BYTE_ABGR:
-                    elementsInRowPerPixel = componentsPerPixel;
-                    prevRow = new byte[width * elementsInRowPerPixel];
-                    transferRow = new byte[width * elementsInRowPerPixel];
-                    break;
+            return preparePredictorPDImage(stream, bytesPerComponent * 8);
+        }
 
-                case BufferedImage.TYPE_INT_BGR:
-                case BufferedImage.TYPE_INT_ARGB:
-                case BufferedImage.TYPE_INT_RGB:
-                    elementsInRowPerPixel = 1;
-                    prevRow = new int[width * elementsInRowPerPixel];
-                    transferRow = new int[width * elementsInRowPerPixel];
-                    break;
+        /**
+         * Encodes the image in row stripes, each on its own thread. Every stripe is deflated
+         * without zlib wrapper and ends with a sync flush, the last one with the final block, so
+         * that the concatenation is a valid deflate stream. The zlib header and the Adler-32
+         * checksum combined from the checksums of the stripes are added here.
+         */
+        private void encodeStripes(ByteArrayOutputStream stream, int stripeCount)
+                throws IOException
+        {
+            int compressionLevel = Filter.getCompressionLevel();
+            int rowsPerStripe = (height + stripeCount - 1) / stripeCount;
+            List<Future<Stripe>> futures = new ArrayList<>(stripeCount);
+            try
+            {
+                for (int startRow = 0; startRow < height; startRow += rowsPerStripe)
+                {
+                    final int start = startRow;
+                    final int end = Math.min(height, startRow + rowsPerStripe);
+                    futures.add(StripeExecutor.INSTANCE.submit(() -> new PredictorEncoder(this)
+                            .encodeStripe(start, end, end == height, compressionLevel)));
+                }
+                writeZlibHeader(stream, compressionLevel);
+                long adler = 1;
+                for (Future<Stripe> future : futures)
+                {
+                    Stripe stripe = future.get();
+                    stripe.data.writeTo(stream);
+                    adler = adler32Combine(adler, stripe.adler, stripe.length);
+                }
+                stream.write((int) (adler >>> 24) & 0xFF);
+                stream.write((int) (adler >>> 16) & 0xFF);
+                stream.write((int) (adler >>> 8) & 0xFF);
+                stream.write((int) adler & 0xFF);
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Image encoding was interrupted");
+            }
+            catch (ExecutionException ex)
+            {
+                if (ex.getCause() instanceof IOException)
+                {
+                    throw (IOException) ex.getCause();
+                }
+                throw new IOException(ex.getCause());
+            }
+            finally
+            {
+                // only has an effect on the remaining stripes after a failure
+                for (Future<Stripe> future : futures)
+                {
+                    future.cancel(true);
+                }
+            }
+        }
 
-                default:
-                    // We can not handle this unknown format
-                    return null;
+        private Stripe encodeStripe(int startRow, int endRow, boolean last, int compressionLevel)
+                throws IOException
+        {
+            ByteArrayOutputStream stripeStream = new ByteArrayOutputStream(
+                    (endRow - startRow) * width * bytesPerPixel / 2);
+            Deflater deflater = new Deflater(compressionLevel, true);
+            try
+            {
+                DeflaterOutputStream zip = new DeflaterOutputStream(stripeStream, deflater, true);
+                CheckedOutputStream checked = new CheckedOutputStream(zip, new Adler32());
+                long length = encodeRows(startRow, endRow, checked);
+                if (last)
+                {
+                    zip.finish();
+                }
+                else
+                {
+                    // sync flush, ends on a byte boundary without a final block
+                    zip.flush();
+                }
+                return new Stripe(stripeStream, checked.getChecksum().getValue(), length);
+            }
+            finally
+            {
+                deflater.end();
             }
+        }
 
-            final int elementsInTransferRow = width * elementsInRowPerPixel;
+        /**
+         * Filters the given rows and writes them to the output stream.
+         *
+         * @return the number of bytes written
+         */
+        private long encodeRows(int startRow, int endRow, OutputStream out) throws IOException
+        {
+            Raster imageRaster = image.getRaster();
+            final int elementsInRowPerPixel = getElementsInRowPerPixel();
 
-            // pre-size the output stream to half of the maximum size
-            ByteArrayOutputStream stream = new ByteArrayOutputStream(
-                    height * width * bytesPerPixel / 2);
-            Deflater deflater = new Deflater(Filter.getCompressionLevel());
-            DeflaterOutputStream zip = new DeflaterOutputStream(stream, deflater);
+            // These variables store a row of the image each, the exact type depends
+            // on the image encoding. Can be a int[], short[] or byte[]
+            Object prevRow = createTransferRow();
+            Object transferRow = createTransferRow();
+            if (startRow > 0)
+            {
+                // the first row of a stripe is predicted from the last row of the previous one
+                imageRaster.getDataElements(0, startRow - 1, width, 1, prevRow);
+            }
+
+            final int elementsInTransferRow = width * elementsInRowPerPixel;
 
-            int alphaPtr = 0;
+            int alphaPtr = startRow * width * bytesPerComponent;
+            long written = 0;
 
-            for (int rowNum = 0; rowNum < height; rowNum++)
+            for (int rowNum = startRow; rowNum < endRow; rowNum++)
             {
                 imageRaster.getDataElements(0, rowNum, width, 1, transferRow);
 
@@ -488,17 +736,91 @@ public final class LosslessFactory
                 byte[] rowToWrite = chooseDataRowToWrite();
 
                 // Write and compress the row as long it is hot (CPU cache wise)
-                zip.write(rowToWrite, 0, rowToWrite.length);
+                out.write(rowToWrite, 0, rowToWrite.length);
+                written += rowToWrite.length;
 
                 // We swap prev and transfer row, so that we have the prev row for the next row.
                 Object temp = prevRow;
                 prevRow = transferRow;
                 transferRow = temp;
             }
-            zip.close();
-            deflater.end();
+            return written;
+        }
 
-            return preparePredictorPDImage(stream, bytesPerComponent * 8);
+        private int getElementsInRowPerPixel()
+        {
+            switch (imageType)
+            {
+                case BufferedImage.TYPE_INT_BGR:
+                case BufferedImage.TYPE_INT_ARGB:
+                case BufferedImage.TYPE_INT_RGB:
+                    return 1;
+                default:
+                    return componentsPerPixel;
+            }
+        }
+
+        /**
+         * Creates an array for a row of the image, the exact type depends on the image encoding.
+         *
+         * @return a int[], short[] or byte[], or null if the image format is not supported.
+         */
+        private Object createTransferRow()
+        {
+            int elementsInRow = width * getElementsInRowPerPixel();
+            switch (imageType)
+            {
+                case BufferedImage.TYPE_CUSTOM:
+                    switch (transferType)
+                    {
+                        case DataBuffer.TYPE_USHORT:
+                            return new short[elementsInRow];
+                        case DataBuffer.TYPE_BYTE:
+                            return new byte[elementsInRow];
+                        default:
+                            return null;
+                    }
+
+                case BufferedImage.TYPE_3BYTE_BGR:
+                case BufferedImage.TYPE_4BYTE_ABGR:
+                    return new byte[elementsInRow];
+
+                case BufferedImage.TYPE_INT_BGR:
+                case BufferedImage.TYPE_INT_ARGB:
+                case BufferedImage.TYPE_INT_RGB:
+                    return new int[elementsInRow];
+
+                default:
+                    return null;
+            }
+        }
+
+        private static void writeZlibHeader(OutputStream out, int compressionLevel)
+                throws IOException
+        {
+            // CMF: deflate with 32K window, FLG: compression level hint and check bits
+            int cmf = 0x78;
+            int flevel;
+            if (compressionLevel == Deflater.DEFAULT_COMPRESSION || compressionLevel == 6)
+            {
+                flevel = 2;
+            }
+            else if (compressionLevel < 2)
+            {
+                flevel = 0;
+            }
+            else if (compressionLevel < 6)
+            {
+                flevel = 1;
+            }
+            else
+            {
+                flevel = 3;
+            }
+            int flg = flevel << 6;
+            flg += 31 - ((cmf << 8) + flg) % 31;
+            out.write(cmf);
+            out.write(flg);
         }
 
         private void copyIntToBytes(int[] transferRow, int indexInTranferRow, byte[] targetValues,
@@ -713,5 +1035,22 @@ public final class LosslessFactory
             }
             return sum;
         }
+
+        /**
+         * The deflated data of a stripe and the Adler-32 checksum of its uncompressed data.
+         */
+        private static class Stripe
+        {
+            private final ByteArrayOutputStream data;
+            private final long adler;
+            private final long length;
+
+            Stripe(ByteArrayOutputStream data, long adler, long length)
+            {
+                this.data = data;
+                this.adler = adler;
+                this.length = length;
+            }
+        }
     }
 }
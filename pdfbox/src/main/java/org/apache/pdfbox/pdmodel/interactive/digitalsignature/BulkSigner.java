@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.interactive.digitalsignature;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.visible.PDVisibleSigProperties;
+
+/**
+ * Signs many documents with the same signer and the same signature settings.
+ *
+ * <p>The visible signature template, if any, is built only once and parsed again for each document,
+ * the documents are signed by the threads of an executor. The {@link SignatureInterface} is
+ * called by several threads at the same time and must be thread-safe, e.g. by using a pool of
+ * signers.</p>
+ *
+ * <pre>
+ * try (BulkSigner bulkSigner = new BulkSigner(signer, 8))
+ * {
+ *     List&lt;CompletableFuture&lt;Void&gt;&gt; results = new ArrayList&lt;&gt;();
+ *     for (File file : files)
+ *     {
+ *         results.add(bulkSigner.sign(file, new File(outDir, file.getName())));
+ *     }
+ *     CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+ * }
+ * </pre>
+ */
+public class BulkSigner implements Closeable
+{
+    private final SignatureInterface signatureInterface;
+    private final ExecutorService executor;
+    private final boolean ownExecutor;
+
+    private Supplier<PDSignature> signatureFactory = BulkSigner::createDefaultSignature;
+    private byte[] visualSignature;
+    private int preferredSignatureSize;
+    private int page;
+    private long shutdownTimeout = 10;
+    private TimeUnit shutdownTimeoutUnit = TimeUnit.MINUTES;
+
+    /**
+     * Creates a bulk signer with its own thread pool, which is shut down by {@link #close()}.
+     *
+     * @param signatureInterface the thread-safe signer.
+     * @param threads the number of documents which are signed at the same time.
+     */
+    public BulkSigner(SignatureInterface signatureInterface, int threads)
+    {
+        this(signatureInterface, Executors.newFixedThreadPool(Math.max(1, threads)), true);
+    }
+
+    /**
+     * Creates a bulk signer which uses the given executor. The executor isn't shut down by
+     * {@link #close()}.
+     *
+     * @param signatureInterface the thread-safe signer.
+     * @param executor the executor used to sign the documents.
+     */
+    public BulkSigner(SignatureInterface signatureInterface, ExecutorService executor)
+    {
+        this(signatureInterface, executor, false);
+    }
+
+    private BulkSigner(SignatureInterface signatureInterface, ExecutorService executor,
+            boolean ownExecutor)
+    {
+        this.signatureInterface = signatureInterface;
+        this.executor = executor;
+        this.ownExecutor = ownExecutor;
+    }
+
+    /**
+     * Sets the factory for the signature dictionaries, it is called once per document. The default
+     * creates an Adobe.PPKLite / adbe.pkcs7.detached signature with the current sign date.
+     *
+     * @param signatureFactory the factory.
+     */
+    public void setSignatureFactory(Supplier<PDSignature> signatureFactory)
+    {
+        this.signatureFactory = signatureFactory;
+    }
+
+    /**
+     * Builds the visible signature template once for all documents.
+     *
+     * @param properties the visible signature properties, {@link PDVisibleSigProperties#buildSignature()}
+     * must have been called.
+     * @throws IOException if the template can't be read.
+     */
+    public void setVisualSignature(PDVisibleSigProperties properties) throws IOException
+    {
+        setVisualSignature(properties.getVisibleSignature());
+    }
+
+    /**
+     * Reads the visible signature template once for all documents.
+     *
+     * @param template the visible signature template, it is closed by this method.
+     * @throws IOException if the template can't be read.
+     */
+    public void setVisualSignature(InputStream template) throws IOException
+    {
+        try (InputStream input = template)
+        {
+            visualSignature = IOUtils.toByteArray(input);
+        }
+    }
+
+    /**
+     * Set the preferred size of the signature.
+     *
+     * @param size the size of the signature in bytes. Only values above 0 will be considered.
+     */
+    public void setPreferredSignatureSize(int size)
+    {
+        preferredSignatureSize = size;
+    }
+
+    /**
+     * Set the 0-based number of the page of the visible signature.
+     *
+     * @param page the page number
+     */
+    public void setPage(int page)
+    {
+        this.page = page;
+    }
+
+    /**
+     * Sets how long {@link #close()} waits for the documents which are still being signed by the
+     * own thread pool before cancelling them. The default is 10 minutes.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit the unit of the timeout.
+     */
+    public void setShutdownTimeout(long timeout, TimeUnit unit)
+    {
+        this.shutdownTimeout = timeout;
+        this.shutdownTimeoutUnit = unit;
+    }
+
+    /**
+     * Signs a file asynchronously. The output file is deleted if the signing fails.
+     *
+     * @param input the file to be signed.
+     * @param output the file to write the signed document to, it must not be the input file.
+     * @return a future which completes when the signed document has been written.
+     */
+    public CompletableFuture<Void> sign(File input, File output)
+    {
+        return CompletableFuture.runAsync(() ->
+        {
+            try (PDDocument document = Loader.loadPDF(input))
+            {
+                try (OutputStream outputStream = new FileOutputStream(output))
+                {
+                    sign(document, outputStream);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    // don't leave an unsigned or incomplete file behind
+                    if (output.exists() && !output.delete())
+                    {
+                        e.addSuppressed(new IOException("Could not delete " + output));
+                    }
+                    throw e;
+                }
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException("Signing of " + input + " failed", e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Signs a document asynchronously.
+     *
+     * @param input the document to be signed.
+     * @param output the stream to write the signed document to, it is closed when done.
+     * @return a future which completes when the signed document has been written.
+     */
+    public CompletableFuture<Void> sign(byte[] input, OutputStream output)
+    {
+        return CompletableFuture.runAsync(() ->
+        {
+            // the output is the first resource so that it is closed when the input can't be loaded
+            try (OutputStream outputStream = output;
+                 PDDocument document = Loader.loadPDF(input))
+            {
+                sign(document, outputStream);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException("Signing failed", e);
+            }
+        }, executor);
+    }
+
+    private void sign(PDDocument document, OutputStream output) throws IOException
+    {
+        try (SignatureOptions options = new SignatureOptions())
+        {
+            options.setPreferredSignatureSize(preferredSignatureSize);
+            options.setPage(page);
+            if (visualSignature != null)
+            {
+                // the template is parsed for each document as its objects become part of it
+                options.setVisualSignature(new ByteArrayInputStream(visualSignature));
+            }
+            document.addSignature(signatureFactory.get(), signatureInterface, options);
+            document.saveIncremental(output);
+        }
+    }
+
+    private static PDSignature createDefaultSignature()
+    {
+        PDSignature signature = new PDSignature();
+        signature.setFilter(PDSignature.FILTER_ADOBE_PPKLITE);
+        signature.setSubFilter(PDSignature.SUBFILTER_ADBE_PKCS7_DETACHED);
+        signature.setSignDate(Calendar.getInstance());
+        return signature;
+    }
+
+    /**
+     * Shuts down the own thread pool after all submitted documents have been signed. The documents
+     * which aren't signed within the shutdown timeout are cancelled, see
+     * {@link #setShutdownTimeout(long, TimeUnit)}.
+     *
+     * @throws IOException if the documents weren't signed in time or the waiting is interrupted.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (ownExecutor)
+        {
+            executor.shutdown();
+            try
+            {
+                if (!executor.awaitTermination(shutdownTimeout, shutdownTimeoutUnit))
+                {
+                    executor.shutdownNow();
+                    throw new IOException("The documents weren't signed within " + shutdownTimeout
+                            + " " + shutdownTimeoutUnit.toString().toLowerCase(Locale.US));
+                }
+            }
+            catch (InterruptedException e)
+            {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the signing threads", e);
+            }
+        }
+    }
+}
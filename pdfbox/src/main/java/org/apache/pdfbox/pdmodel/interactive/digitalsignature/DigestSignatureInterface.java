@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.interactive.digitalsignature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A {@link SignatureInterface} which signs the message digest of the signed byte ranges instead
+ * of reading them itself. When a document is saved incrementally with such a signer, the digest
+ * is computed while the original PDF is copied to the output, so that the original is read only
+ * once.
+ * <p>
+ * As the original PDF is written before the signature is created, the output only contains the
+ * original PDF if {@link #signDigest(byte[])} fails, and must be discarded.
+ * </p>
+ */
+public interface DigestSignatureInterface extends SignatureInterface
+{
+    /**
+     * Returns the name of the message digest algorithm, as used by
+     * {@link MessageDigest#getInstance(String)}, e.g. "SHA-256".
+     *
+     * @return the name of the digest algorithm
+     */
+    String getDigestAlgorithm();
+
+    /**
+     * Creates a cms signature for the given message digest of the content.
+     *
+     * @param digest the message digest of the signed byte ranges
+     * @return signature as a byte array
+     * @throws IOException if the signature can't be created
+     */
+    byte[] signDigest(byte[] digest) throws IOException;
+
+    /**
+     * Computes the message digest of the content and signs it with {@link #signDigest(byte[])}.
+     *
+     * @param content is the content as a (Filter)InputStream
+     * @return signature as a byte array
+     * @throws IOException if the content can't be read or the signature can't be created
+     */
+    @Override
+    default byte[] sign(InputStream content) throws IOException
+    {
+        MessageDigest messageDigest;
+        try
+        {
+            messageDigest = MessageDigest.getInstance(getDigestAlgorithm());
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException(e);
+        }
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = content.read(buffer)) != -1)
+        {
+            messageDigest.update(buffer, 0, n);
+        }
+        return signDigest(messageDigest.digest());
+    }
+}
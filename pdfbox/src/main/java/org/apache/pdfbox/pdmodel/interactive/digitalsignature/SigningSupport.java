@@ -51,6 +51,11 @@ public class SigningSupport implements ExternalSigningSupport, Closeable
     @Override
     public void close() throws IOException
     {
-        cosWriter = null;
+        if (cosWriter != null)
+        {
+            // release the buffer of the increment if the signature was never set
+            cosWriter.close();
+            cosWriter = null;
+        }
     }
 }
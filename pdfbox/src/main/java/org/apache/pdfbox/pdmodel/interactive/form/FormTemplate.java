@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.interactive.form;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSDocument;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSObjectKey;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+/**
+ * A form template which is prepared once and then filled many times.
+ *
+ * <p>Compiling a template applies the AcroForm fixups (default resources, missing appearances,
+ * orphan widgets) a single time and stores the result uncompressed, so that each filled document
+ * only parses the objects it actually touches. The fields are indexed by their fully qualified
+ * name and resolved directly from the object pool of the filled document instead of walking the
+ * field tree.</p>
+ *
+ * <p>Instances are immutable and can be used by several threads at the same time, each
+ * {@link #fill(Map) fill} call works on its own {@link PDDocument}.</p>
+ *
+ * <pre>
+ * FormTemplate template = FormTemplate.compile(Loader.loadPDF(new File("form.pdf")));
+ * try (PDDocument filled = template.fill(values))
+ * {
+ *     filled.save(output);
+ * }
+ * </pre>
+ */
+public final class FormTemplate
+{
+    private final byte[] pdf;
+    private final Map<String, COSObjectKey[]> fieldIndex;
+
+    private FormTemplate(byte[] pdf, Map<String, COSObjectKey[]> fieldIndex)
+    {
+        this.pdf = pdf;
+        this.fieldIndex = fieldIndex;
+    }
+
+    /**
+     * Compiles the given document into a template. The AcroForm fixups are applied to the
+     * document if they haven't been applied yet, it can be closed afterwards.
+     *
+     * @param document the document containing the form.
+     * @return the compiled template.
+     * @throws IOException if the document has no AcroForm or can't be saved.
+     */
+    public static FormTemplate compile(PDDocument document) throws IOException
+    {
+        if (document.getDocumentCatalog().getAcroForm() == null)
+        {
+            throw new IOException("The document doesn't contain an AcroForm");
+        }
+        // store the fixed up form without object streams so that a filled document
+        // parses single objects only
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        document.save(output, CompressParameters.NO_COMPRESSION);
+        byte[] pdf = output.toByteArray();
+
+        try (PDDocument template = Loader.loadPDF(pdf))
+        {
+            PDAcroForm acroForm = template.getDocumentCatalog().getAcroForm(null);
+            Map<String, COSObjectKey[]> fieldIndex = new LinkedHashMap<>();
+            indexFields(acroForm, acroForm.getCOSObject().getCOSArray(COSName.FIELDS),
+                    new ArrayList<>(), fieldIndex);
+            return new FormTemplate(pdf, Collections.unmodifiableMap(fieldIndex));
+        }
+    }
+
+    /**
+     * Compiles the given PDF into a template.
+     *
+     * @param pdf the PDF containing the form.
+     * @return the compiled template.
+     * @throws IOException if the PDF can't be parsed or has no AcroForm.
+     */
+    public static FormTemplate compile(byte[] pdf) throws IOException
+    {
+        try (PDDocument document = Loader.loadPDF(pdf))
+        {
+            return compile(document);
+        }
+    }
+
+    /**
+     * Indexes the fields of the given /Fields or /Kids array the same way as {@link PDFieldTree}
+     * does. Fields which are direct objects can't be resolved from the object pool and aren't
+     * indexed, they are looked up by name.
+     */
+    private static void indexFields(PDAcroForm acroForm, COSArray fields, List<COSObjectKey> path,
+            Map<String, COSObjectKey[]> fieldIndex)
+    {
+        if (fields == null)
+        {
+            return;
+        }
+        for (int i = 0; i < fields.size(); i++)
+        {
+            COSBase item = fields.get(i);
+            if (!(item instanceof COSObject) || ((COSObject) item).getKey() == null)
+            {
+                continue;
+            }
+            COSObjectKey key = ((COSObject) item).getKey();
+            if (path.contains(key))
+            {
+                // loop in the field hierarchy
+                continue;
+            }
+            path.add(key);
+            COSObjectKey[] fieldPath = path.toArray(new COSObjectKey[path.size()]);
+            PDField field = resolveField(acroForm, fieldPath);
+            if (field != null)
+            {
+                fieldIndex.putIfAbsent(field.getFullyQualifiedName(), fieldPath);
+                if (field instanceof PDNonTerminalField)
+                {
+                    indexFields(acroForm, field.getCOSObject().getCOSArray(COSName.KIDS), path,
+                            fieldIndex);
+                }
+            }
+            path.remove(path.size() - 1);
+        }
+    }
+
+    /**
+     * Creates the field at the end of the given key path, together with its parents.
+     */
+    private static PDField resolveField(PDAcroForm acroForm, COSObjectKey[] path)
+    {
+        COSDocument document = acroForm.getDocument().getDocument();
+        PDField field = null;
+        for (COSObjectKey key : path)
+        {
+            if (field != null && !(field instanceof PDNonTerminalField))
+            {
+                return null;
+            }
+            COSBase base = document.getObjectFromPool(key).getObject();
+            if (!(base instanceof COSDictionary))
+            {
+                return null;
+            }
+            field = PDField.fromDictionary(acroForm, (COSDictionary) base, (PDNonTerminalField) field);
+            if (field == null)
+            {
+                return null;
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Returns the fully qualified names of the indexed fields, in field tree order.
+     *
+     * @return the field names.
+     */
+    public Set<String> getFieldNames()
+    {
+        return fieldIndex.keySet();
+    }
+
+    /**
+     * Creates a new document from the template and sets the given field values.
+     *
+     * @param values the field values keyed by the fully qualified field name.
+     * @return the filled document, which has to be closed by the caller.
+     * @throws IOException if a field doesn't exist or a value can't be set.
+     */
+    public PDDocument fill(Map<String, String> values) throws IOException
+    {
+        return fill(values, false);
+    }
+
+    /**
+     * Creates a new document from the template, sets the given field values and optionally
+     * flattens the form.
+     *
+     * @param values the field values keyed by the fully qualified field name.
+     * @param flatten true if all fields shall be flattened.
+     * @return the filled document, which has to be closed by the caller.
+     * @throws IOException if a field doesn't exist or a value can't be set.
+     */
+    public PDDocument fill(Map<String, String> values, boolean flatten) throws IOException
+    {
+        PDDocument document = Loader.loadPDF(pdf);
+        try
+        {
+            // the fixups have already been applied when compiling
+            PDAcroForm acroForm = document.getDocumentCatalog().getAcroForm(null);
+            for (Map.Entry<String, String> entry : values.entrySet())
+            {
+                getField(acroForm, entry.getKey()).setValue(entry.getValue());
+            }
+            if (flatten)
+            {
+                acroForm.flatten();
+            }
+            return document;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            document.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a new document from the template, sets the given field values, optionally flattens
+     * the form and saves the result.
+     *
+     * @param values the field values keyed by the fully qualified field name.
+     * @param flatten true if all fields shall be flattened.
+     * @param output the stream to save the filled document to, it is not closed.
+     * @throws IOException if a field doesn't exist, a value can't be set or the document can't be
+     * saved.
+     */
+    public void fill(Map<String, String> values, boolean flatten, OutputStream output)
+            throws IOException
+    {
+        try (PDDocument document = fill(values, flatten))
+        {
+            document.save(output);
+        }
+    }
+
+    private PDField getField(PDAcroForm acroForm, String name) throws IOException
+    {
+        COSObjectKey[] path = fieldIndex.get(name);
+        PDField field = path != null ? resolveField(acroForm, path) : acroForm.getField(name);
+        if (field == null)
+        {
+            throw new IOException("Field '" + name + "' not found in form template");
+        }
+        return field;
+    }
+}
@@ -241,37 +241,57 @@ public final class PDAcroForm implements COSObjectable
             refreshAppearances(fields);
         }
 
-        // the content stream to write to
-        PDPageContentStream contentStream;
-
         Map<COSDictionary,Set<COSDictionary>> pagesWidgetsMap = buildPagesWidgetsMap(fields);
         
         // preserve all non widget annotations
         for (PDPage page : document.getPages())
         {
             Set<COSDictionary> widgetsForPageMap = pagesWidgetsMap.get(page.getCOSObject());
+            if (widgetsForPageMap == null)
+            {
+                // no widget to be flattened on this page
+                continue;
+            }
+            flattenPage(page, widgetsForPageMap);
+        }
+        
+        // remove the fields
+        removeFields(fields);
+        
+        // remove XFA for hybrid forms
+        dictionary.removeItem(COSName.XFA);
+    }
 
-            // indicates if the original content stream
-            // has been wrapped in a q...Q pair.
-            boolean isContentStreamWrapped = false;
+    /**
+     * Draws the visible widgets of a page into a single appended content stream and removes them
+     * from the annotations of the page.
+     */
+    private void flattenPage(PDPage page, Set<COSDictionary> widgetsForPageMap) throws IOException
+    {
+        // the content stream to write to, created for the first visible widget only. Wrapping
+        // the original content stream in a q...Q pair is done once when it is created.
+        PDPageContentStream contentStream = null;
 
-            List<PDAnnotation> annotations = new ArrayList<>();
-                       
+        List<PDAnnotation> annotations = new ArrayList<>();
+        try
+        {
             for (PDAnnotation annotation: page.getAnnotations())
-            {                
-                if (widgetsForPageMap == null || !widgetsForPageMap.contains(annotation.getCOSObject()))
+            {
+                if (!widgetsForPageMap.contains(annotation.getCOSObject()))
                 {
-                    annotations.add(annotation);                 
+                    annotations.add(annotation);
                 }
                 else if (isVisibleAnnotation(annotation))
                 {
-                    contentStream = new PDPageContentStream(document, page, AppendMode.APPEND, true, !isContentStreamWrapped);
-                    isContentStreamWrapped = true;
+                    if (contentStream == null)
+                    {
+                        contentStream = new PDPageContentStream(document, page, AppendMode.APPEND, true, true);
+                    }
 
                     PDAppearanceStream appearanceStream = annotation.getNormalAppearanceStream();
-                    
+
                     PDFormXObject fieldObject = new PDFormXObject(appearanceStream.getCOSObject());
-                    
+
                     contentStream.saveGraphicsState();
 
                     // see https://stackoverflow.com/a/54091766/1729265 for an explanation
@@ -283,17 +303,17 @@ public final class PDAcroForm implements COSObjectable
                     contentStream.transform(transformationMatrix);
                     contentStream.drawForm(fieldObject);
                     contentStream.restoreGraphicsState();
-                    contentStream.close();
-                }    
+                }
             }
-            page.setAnnotations(annotations);
         }
-        
-        // remove the fields
-        removeFields(fields);
-        
-        // remove XFA for hybrid forms
-        dictionary.removeItem(COSName.XFA);
+        finally
+        {
+            if (contentStream != null)
+            {
+                contentStream.close();
+            }
+        }
+        page.setAnnotations(annotations);
     }
 
     private boolean isVisibleAnnotation(PDAnnotation annotation)
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.rendering;
+
+import java.awt.Dimension;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Vector;
+
+/**
+ * A page image which is rendered in horizontal bands when its pixels are requested. Only the
+ * last rendered band is kept, so image writers which read the image from top to bottom, e.g.
+ * row by row or strip by strip, need the memory of one band instead of that of the whole page.
+ *
+ * <p>The tiles of the image are the bands. Each band is rendered by
+ * {@link PDFRenderer#renderImageBand(int, float, ImageType, RenderDestination, int, int)}. A band
+ * is rendered again if it is requested after another band, so reading the image in another order
+ * is slow.</p>
+ *
+ * <p>As the methods of {@link RenderedImage} can't throw an IOException, a failure of the
+ * rendering is thrown as an {@link UncheckedIOException}. The image must only be used by one
+ * thread, and the document must not be used by other threads while the image is read.</p>
+ */
+public final class BandedPageImage implements RenderedImage
+{
+    private final PDFRenderer renderer;
+    private final int pageIndex;
+    private final float scale;
+    private final ImageType imageType;
+    private final RenderDestination destination;
+    private final int width;
+    private final int height;
+    private final int bandHeight;
+    private final ColorModel colorModel;
+    private final SampleModel sampleModel;
+
+    private BufferedImage band;
+    private int bandIndex = -1;
+
+    /**
+     * Creates the banded image of a page.
+     *
+     * @param renderer the renderer of the document.
+     * @param pageIndex the zero-based index of the page.
+     * @param scale the scaling factor, where 1 = 72 DPI.
+     * @param imageType the type of the image.
+     * @param destination controlling visibility of optional content groups.
+     * @param bandHeight the number of rows of a band.
+     * @throws IllegalArgumentException if the band height is less than 1.
+     */
+    public BandedPageImage(PDFRenderer renderer, int pageIndex, float scale, ImageType imageType,
+            RenderDestination destination, int bandHeight)
+    {
+        if (bandHeight < 1)
+        {
+            throw new IllegalArgumentException("The band height must be at least 1: " + bandHeight);
+        }
+        this.renderer = renderer;
+        this.pageIndex = pageIndex;
+        this.scale = scale;
+        this.imageType = imageType;
+        this.destination = destination;
+        Dimension size = renderer.getImageSize(pageIndex, scale);
+        this.width = size.width;
+        this.height = size.height;
+        this.bandHeight = Math.min(bandHeight, height);
+        this.colorModel = new BufferedImage(1, 1, imageType.toBufferedImageType()).getColorModel();
+        this.sampleModel = colorModel.createCompatibleSampleModel(width, this.bandHeight);
+    }
+
+    /**
+     * Returns the band with the given index, rendering it if it isn't the last rendered band.
+     * The last band may have less rows than the others.
+     */
+    private BufferedImage getBand(int index)
+    {
+        if (index != bandIndex)
+        {
+            // release the previous band before the next one is rendered
+            band = null;
+            bandIndex = -1;
+            try
+            {
+                band = renderer.renderImageBand(pageIndex, scale, imageType, destination,
+                        index * bandHeight, bandHeight);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+            bandIndex = index;
+        }
+        return band;
+    }
+
+    @Override
+    public Vector<RenderedImage> getSources()
+    {
+        return null;
+    }
+
+    @Override
+    public Object getProperty(String name)
+    {
+        return Image.UndefinedProperty;
+    }
+
+    @Override
+    public String[] getPropertyNames()
+    {
+        return null;
+    }
+
+    @Override
+    public ColorModel getColorModel()
+    {
+        return colorModel;
+    }
+
+    @Override
+    public SampleModel getSampleModel()
+    {
+        return sampleModel;
+    }
+
+    @Override
+    public int getWidth()
+    {
+        return width;
+    }
+
+    @Override
+    public int getHeight()
+    {
+        return height;
+    }
+
+    @Override
+    public int getMinX()
+    {
+        return 0;
+    }
+
+    @Override
+    public int getMinY()
+    {
+        return 0;
+    }
+
+    @Override
+    public int getNumXTiles()
+    {
+        return 1;
+    }
+
+    @Override
+    public int getNumYTiles()
+    {
+        return (height + bandHeight - 1) / bandHeight;
+    }
+
+    @Override
+    public int getMinTileX()
+    {
+        return 0;
+    }
+
+    @Override
+    public int getMinTileY()
+    {
+        return 0;
+    }
+
+    @Override
+    public int getTileWidth()
+    {
+        return width;
+    }
+
+    @Override
+    public int getTileHeight()
+    {
+        return bandHeight;
+    }
+
+    @Override
+    public int getTileGridXOffset()
+    {
+        return 0;
+    }
+
+    @Override
+    public int getTileGridYOffset()
+    {
+        return 0;
+    }
+
+    /**
+     * Returns the band with the given index. The raster of the last band is cut at the bottom of
+     * the page image.
+     */
+    @Override
+    public Raster getTile(int tileX, int tileY)
+    {
+        if (tileX != 0 || tileY < 0 || tileY >= getNumYTiles())
+        {
+            throw new IllegalArgumentException("Invalid tile " + tileX + ", " + tileY);
+        }
+        return getBand(tileY).getRaster().createTranslatedChild(0, tileY * bandHeight);
+    }
+
+    @Override
+    public Raster getData()
+    {
+        return getData(new Rectangle(0, 0, width, height));
+    }
+
+    @Override
+    public Raster getData(Rectangle rect)
+    {
+        WritableRaster raster = Raster.createWritableRaster(
+                sampleModel.createCompatibleSampleModel(rect.width, rect.height),
+                new Point(rect.x, rect.y));
+        return copyData(raster);
+    }
+
+    @Override
+    public WritableRaster copyData(WritableRaster raster)
+    {
+        if (raster == null)
+        {
+            raster = Raster.createWritableRaster(
+                    sampleModel.createCompatibleSampleModel(width, height), null);
+        }
+        int minY = Math.max(raster.getMinY(), 0);
+        int maxY = Math.min(raster.getMinY() + raster.getHeight(), height);
+        for (int y = minY - minY % bandHeight; y < maxY; y += bandHeight)
+        {
+            // copies the intersection of the band and the raster
+            raster.setRect(getTile(0, y / bandHeight));
+        }
+        return raster;
+    }
+}
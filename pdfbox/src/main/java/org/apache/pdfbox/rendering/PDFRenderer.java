@@ -17,6 +17,7 @@
 package org.apache.pdfbox.rendering;
 
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.DisplayMode;
 import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
@@ -65,6 +66,10 @@ public class PDFRenderer
 
     private BufferedImage pageImage;
 
+    // the height of the whole page image and the first row of pageImage in it
+    private int pageImageHeight;
+    private int pageImageY;
+
     private static boolean kcmsLogged = false;
 
     private float imageDownscalingOptimizationThreshold = 0.5f;
@@ -278,18 +283,95 @@ public class PDFRenderer
         float widthPt = cropbBox.getWidth();
         float heightPt = cropbBox.getHeight();
 
-        // PDFBOX-4306 avoid single blank pixel line on the right or on the bottom
-        int widthPx = (int) Math.max(Math.floor(widthPt * scale), 1);
-        int heightPx = (int) Math.max(Math.floor(heightPt * scale), 1);
+        Dimension size = getImageSize(page, scale);
 
         // PDFBOX-4518 the maximum size (w*h) of a buffered image is limited to Integer.MAX_VALUE
-        if ((long) widthPx * (long) heightPx > Integer.MAX_VALUE)
+        if ((long) size.width * (long) size.height > Integer.MAX_VALUE)
         {
             throw new IOException("Maximum size of image exceeded (w * h * scale ^ 2) = "//
                     + widthPt + " * " + heightPt + " * " + scale + " ^ 2 > " + Integer.MAX_VALUE);
         }
+        return renderImage(page, scale, imageType, destination, size, 0, size.height);
+    }
+
+    /**
+     * Returns a horizontal band of the given page as an RGB or ARGB image at the given scale, i.e.
+     * the rows y to y + height - 1 of the image returned by
+     * {@link #renderImage(int, float, ImageType, RenderDestination)}. The band is cut at the bottom
+     * of the page image.
+     * <p>
+     * Rendering a large page in bands needs only the memory of one band, but the page content is
+     * processed once for each band. The anti-aliased edges of shapes which cross the border of a
+     * band may differ slightly from those of the page image, as Java2D clips the shapes to the
+     * band before they are rasterized.
+     *
+     * @param pageIndex the zero-based index of the page to be converted
+     * @param scale the scaling factor, where 1 = 72 DPI
+     * @param imageType the type of image to return
+     * @param destination controlling visibility of optional content groups
+     * @param y the first row of the band in the page image
+     * @param height the height of the band
+     * @return the rendered band
+     * @throws IOException if the PDF cannot be read
+     * @throws IllegalArgumentException if y isn't a row of the page image or if the height is less
+     * than 1
+     */
+    public BufferedImage renderImageBand(int pageIndex, float scale, ImageType imageType,
+            RenderDestination destination, int y, int height) throws IOException
+    {
+        PDPage page = document.getPage(pageIndex);
+        Dimension size = getImageSize(page, scale);
+        if (y < 0 || y >= size.height || height < 1)
+        {
+            throw new IllegalArgumentException("Invalid band at row " + y + " with height "
+                    + height + " for a page image with height " + size.height);
+        }
+        int bandHeight = Math.min(height, size.height - y);
+        if ((long) size.width * (long) bandHeight > Integer.MAX_VALUE)
+        {
+            throw new IOException("Maximum size of image exceeded (w * h) = " + size.width
+                    + " * " + bandHeight + " > " + Integer.MAX_VALUE);
+        }
+        return renderImage(page, scale, imageType, destination, size, y, bandHeight);
+    }
+
+    /**
+     * Returns the size of the image of the given page at the given scale, as rendered by
+     * {@link #renderImage(int, float, ImageType, RenderDestination)}.
+     *
+     * @param pageIndex the zero-based index of the page
+     * @param scale the scaling factor, where 1 = 72 DPI
+     * @return the width and height of the page image in pixels
+     */
+    public Dimension getImageSize(int pageIndex, float scale)
+    {
+        return getImageSize(document.getPage(pageIndex), scale);
+    }
+
+    private static Dimension getImageSize(PDPage page, float scale)
+    {
+        PDRectangle cropbBox = page.getCropBox();
+
+        // PDFBOX-4306 avoid single blank pixel line on the right or on the bottom
+        int widthPx = (int) Math.max(Math.floor(cropbBox.getWidth() * scale), 1);
+        int heightPx = (int) Math.max(Math.floor(cropbBox.getHeight() * scale), 1);
 
+        // swap width and height
         int rotationAngle = page.getRotation();
+        if (rotationAngle == 90 || rotationAngle == 270)
+        {
+            return new Dimension(heightPx, widthPx);
+        }
+        return new Dimension(widthPx, heightPx);
+    }
+
+    /**
+     * Renders the rows bandY to bandY + bandHeight - 1 of the page image with the given size.
+     */
+    private BufferedImage renderImage(PDPage page, float scale, ImageType imageType,
+            RenderDestination destination, Dimension size, int bandY, int bandHeight)
+            throws IOException
+    {
 
         int bimType = imageType.toBufferedImageType();
         if (imageType != ImageType.ARGB && hasBlendMode(page))
@@ -301,18 +383,11 @@ public class PDFRenderer
             bimType = BufferedImage.TYPE_INT_ARGB;
         }
 
-        // swap width and height
-        BufferedImage image;
-        if (rotationAngle == 90 || rotationAngle == 270)
-        {
-            image = new BufferedImage(heightPx, widthPx, bimType);
-        }
-        else
-        {
-            image = new BufferedImage(widthPx, heightPx, bimType);
-        }
+        BufferedImage image = new BufferedImage(size.width, bandHeight, bimType);
 
         pageImage = image;
+        pageImageHeight = size.height;
+        pageImageY = bandY;
 
         // use a transparent background if the image type supports alpha
         Graphics2D g = image.createGraphics();
@@ -325,7 +400,8 @@ public class PDFRenderer
             g.setBackground(Color.WHITE);
         }
         g.clearRect(0, 0, image.getWidth(), image.getHeight());
-        
+
+        g.translate(0, -bandY);
         transform(g, page, scale, scale);
 
         // the end-user may provide a custom PageDrawer
@@ -571,6 +647,16 @@ public class PDFRenderer
         return pageImage;
     }
 
+    /**
+     * Returns the row of the page image for the given y coordinate, which is measured in pixels
+     * from the bottom of the page. This takes into account that the page image may be a band of
+     * the page, see {@link #renderImageBand(int, float, ImageType, RenderDestination, int, int)}.
+     */
+    int getPageImageRow(int y)
+    {
+        return pageImageHeight - pageImageY - y;
+    }
+
     private static void suggestKCMS()
     {
         String cmmProperty = System.getProperty("sun.java2d.cmm");
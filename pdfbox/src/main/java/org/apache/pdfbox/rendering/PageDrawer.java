@@ -1647,7 +1647,7 @@ public class PageDrawer extends PDFGraphicsStreamEngine
                     backdropImage = renderer.getPageImage();
                     needsBackdrop = backdropImage != null;
                     backdropX = minX;
-                    backdropY = (backdropImage != null) ? (backdropImage.getHeight() - maxY) : 0;
+                    backdropY = (backdropImage != null) ? renderer.getPageImageRow(maxY) : 0;
                 }
                 else
                 {
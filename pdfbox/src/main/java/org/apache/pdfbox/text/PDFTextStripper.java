@@ -16,6 +16,7 @@
  */
 package org.apache.pdfbox.text;
 
+import java.awt.geom.Point2D;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -46,6 +47,7 @@ import org.apache.pdfbox.pdmodel.PDPageTree;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
 import org.apache.pdfbox.pdmodel.interactive.pagenavigation.PDThreadBead;
+import org.apache.pdfbox.util.Matrix;
 import org.apache.pdfbox.util.QuickSort;
 
 /**
@@ -136,6 +138,7 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
     private PDOutlineItem endBookmark = null;
     private boolean suppressDuplicateOverlappingText = true;
     private boolean shouldSeparateByBeads = true;
+    private boolean separateByAngle = false;
     private boolean sortByPosition = false;
     private boolean addMoreFormatting = false;
 
@@ -164,7 +167,16 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
      */
     protected ArrayList<List<TextPosition>> charactersByArticle = new ArrayList<>();
 
-    private final Map<String, TreeMap<Float, TreeSet<Float>>> characterListMapping = new HashMap<>();
+    private Map<String, TreeMap<Float, TreeSet<Float>>> characterListMapping = new HashMap<>();
+
+    /**
+     * The text of the current page grouped by the angle of the text direction, only set while a
+     * page is processed with {@link #setSeparateByAngle(boolean)}.
+     */
+    private Map<Integer, AngleGroup> angleGroups = null;
+    private int angleGroupArticleSections;
+    private float cropBoxLowerLeftX;
+    private float cropBoxLowerLeftY;
 
     protected PDDocument document;
     protected Writer output;
@@ -327,6 +339,12 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
                 && (startBookmarkPageNumber == -1 || currentPageNo >= startBookmarkPageNumber)
                 && (endBookmarkPageNumber == -1 || currentPageNo <= endBookmarkPageNumber))
         {
+            if (separateByAngle)
+            {
+                processPageByAngle(page);
+                return;
+            }
+
             startPage(page);
 
             int numberOfArticleSections = 1;
@@ -365,6 +383,99 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
         }
     }
 
+    /**
+     * Processes the page once and writes the text of each text direction angle as if the page had
+     * been rotated so that the text is horizontal, see {@link #setSeparateByAngle(boolean)}.
+     */
+    private void processPageByAngle(PDPage page) throws IOException
+    {
+        angleGroupArticleSections = 1;
+        if (shouldSeparateByBeads)
+        {
+            fillBeadRectangles(page);
+            angleGroupArticleSections += beadRectangles.size() * 2;
+        }
+        PDRectangle cropBox = page.getCropBox();
+        cropBoxLowerLeftX = cropBox.getLowerLeftX();
+        cropBoxLowerLeftY = cropBox.getLowerLeftY();
+
+        ArrayList<List<TextPosition>> pageCharactersByArticle = charactersByArticle;
+        Map<String, TreeMap<Float, TreeSet<Float>>> pageCharacterListMapping = characterListMapping;
+        angleGroups = new TreeMap<>();
+        try
+        {
+            super.processPage(page);
+            Map<Integer, AngleGroup> groups = angleGroups;
+            angleGroups = null;
+            for (AngleGroup group : groups.values())
+            {
+                charactersByArticle = group.charactersByArticle;
+                startPage(page);
+                writePage();
+                endPage(page);
+            }
+        }
+        finally
+        {
+            angleGroups = null;
+            charactersByArticle = pageCharactersByArticle;
+            characterListMapping = pageCharacterListMapping;
+        }
+    }
+
+    /**
+     * Selects the group of the angle of the given text and returns the text as it would be if the
+     * page had been rotated so that the text is horizontal.
+     */
+    private TextPosition toAngleGroup(TextPosition text)
+    {
+        // angles are rounded to the closest integer to avoid that similarly angled glyphs are
+        // treated separately due to floating point arithmetic
+        Matrix m = text.getTextMatrix().clone();
+        m.concatenate(text.getFont().getFontMatrix());
+        int angle = (int) Math.round(Math.toDegrees(Math.atan2(m.getShearY(), m.getScaleY())));
+        angle = (angle + 360) % 360;
+
+        AngleGroup group = angleGroups.computeIfAbsent(angle,
+                key -> new AngleGroup(angleGroupArticleSections));
+        charactersByArticle = group.charactersByArticle;
+        characterListMapping = group.characterListMapping;
+
+        if (angle == 0 && text.getRotation() == 0)
+        {
+            return text;
+        }
+        // rotate around the origin of the user space, the text positions are relative to the
+        // lower left corner of the crop box; the page rotation is ignored
+        Matrix rotation = Matrix.getTranslateInstance(cropBoxLowerLeftX, cropBoxLowerLeftY);
+        rotation = rotation.multiply(Matrix.getRotateInstance(-Math.toRadians(angle), 0, 0));
+        rotation = rotation.multiply(Matrix.getTranslateInstance(-cropBoxLowerLeftX, -cropBoxLowerLeftY));
+        Matrix textMatrix = text.getTextMatrix().multiply(rotation);
+        Point2D.Float end = rotation.transformPoint(text.getEndX(), text.getEndY());
+        return new TextPosition(0, text.getPageWidth(), text.getPageHeight(), textMatrix,
+                end.x, end.y, text.getHeight(), end.x - textMatrix.getTranslateX(),
+                text.getWidthOfSpace(), text.getUnicode(), text.getCharacterCodes(), text.getFont(),
+                text.getFontSize(), (int) text.getFontSizeInPt());
+    }
+
+    /**
+     * The text of one text direction angle of a page.
+     */
+    private static final class AngleGroup
+    {
+        private final ArrayList<List<TextPosition>> charactersByArticle;
+        private final Map<String, TreeMap<Float, TreeSet<Float>>> characterListMapping = new HashMap<>();
+
+        private AngleGroup(int numberOfArticleSections)
+        {
+            charactersByArticle = new ArrayList<>(numberOfArticleSections);
+            for (int i = 0; i < numberOfArticleSections; i++)
+            {
+                charactersByArticle.add(new ArrayList<>());
+            }
+        }
+    }
+
     private void fillBeadRectangles(PDPage page)
     {
         beadRectangles = new ArrayList<>();
@@ -778,6 +889,10 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
     @Override
     protected void processTextPosition(TextPosition text)
     {
+        if (angleGroups != null)
+        {
+            text = toAngleGroup(text);
+        }
         boolean showCharacter = true;
         if (suppressDuplicateOverlappingText)
         {
@@ -1093,6 +1208,31 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
         shouldSeparateByBeads = aShouldSeparateByBeads;
     }
 
+    /**
+     * This will tell if the text stripper should separate the text by the angle of its direction.
+     *
+     * @return If the text will be grouped by angle.
+     */
+    public boolean getSeparateByAngle()
+    {
+        return separateByAngle;
+    }
+
+    /**
+     * Set if the text stripper should group the text of each page by the angle of the text
+     * direction, e.g. for skewed scans or rotated table headers. The angles are rounded to whole
+     * degrees. The text of each angle is written as a page of its own, in the order of the angles
+     * from 0 to 359 degrees, as if the page had been rotated so that the text is horizontal. The
+     * page rotation is ignored and pages without text aren't written at all. Each page is only
+     * parsed once. The default value is false.
+     *
+     * @param separateByAngle The new grouping by angle.
+     */
+    public void setSeparateByAngle(boolean separateByAngle)
+    {
+        this.separateByAngle = separateByAngle;
+    }
+
     /**
      * Get the bookmark where text extraction should end, inclusive. Default is null.
      *
@@ -114,6 +114,31 @@ public class NumberFormatUtil
         return offset;
     }
 
+    /**
+     * Fast variant to format an integer value to a ASCII-string without going through
+     * {@link java.text.NumberFormat}. The format will fail if the value is {@link Long#MIN_VALUE}.
+     *
+     * @param value The value to format
+     * @param asciiBuffer The output buffer to write the formatted value to, at least 20 bytes long
+     *
+     * @return The number of bytes used in the buffer or {@code -1} if formatting failed
+     */
+    public static int formatLongFast(long value, byte[] asciiBuffer)
+    {
+        if (value == Long.MIN_VALUE)
+        {
+            return -1;
+        }
+        int offset = 0;
+        long number = value;
+        if (number < 0)
+        {
+            asciiBuffer[offset++] = '-';
+            number = -number;
+        }
+        return formatPositiveNumber(number, getExponent(number), false, asciiBuffer, offset);
+    }
+
     /**
      * Formats a positive integer number starting with the digit at {@code 10^exp}.
      *
@@ -17,6 +17,7 @@
 package org.apache.pdfbox.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
@@ -26,20 +27,43 @@ import java.util.Set;
 
 /**
  * Map implementation with a smallest possible memory usage.
- * It should only be used for maps with small number of items
- * (e.g. &lt;30) since most operations have an O(n) complexity.
- * Thus it should be used in cases with large number of map
- * objects, each having only few items.
+ * Maps with a small number of items are kept in a single array
+ * and most operations have an O(n) complexity. Thus it is suited
+ * for cases with large number of map objects, each having only few items.
+ * 
+ * <p>If a map grows beyond {@value #HASH_THRESHOLD} items, an open addressing
+ * hash index is added to the array so that lookups and insertions
+ * don't depend on the number of items, e.g. for large resource or name
+ * dictionaries. Keys are compared by identity first, which is the common case
+ * for interned keys like COSName. The order of insertion is kept in both cases.</p>
  * 
  * <p><code>null</code> is not supported for keys or values.</p>
  */
 public class SmallMap<K, V> implements Map<K, V>
 {
     /**
-     * stores key-value pair as 2 objects; key first; in case of empty map this might be <code>null</code>
+     * the number of items above which the hash index is used.
+     */
+    static final int HASH_THRESHOLD = 16;
+
+    /**
+     * stores key-value pair as 2 objects; key first; in case of empty map this might be <code>null</code>.
+     * Without hash index the array has exactly the size needed for the items, with hash index it
+     * may have free space at its end.
      */
     private Object[] mapArr;
 
+    /**
+     * number of items.
+     */
+    private int size;
+
+    /**
+     * open addressing hash table with the position of each item within the map-array plus 1,
+     * <code>0</code> marks a free slot; <code>null</code> as long as the map is small.
+     */
+    private int[] hashIndex;
+
     /** Creates empty map. */
     public SmallMap()
     {
@@ -62,9 +86,25 @@ public class SmallMap<K, V> implements Map<K, V>
             return -1;
         }
         
+        if (hashIndex != null)
+        {
+            int mask = hashIndex.length - 1;
+            for (int slot = hash(key) & mask; hashIndex[slot] != 0; slot = (slot + 1) & mask)
+            {
+                int aIdx = (hashIndex[slot] - 1) << 1;
+                Object other = mapArr[aIdx];
+                if (other == key || key.equals(other))
+                {
+                    return aIdx;
+                }
+            }
+            return -1;
+        }
+
         for ( int aIdx = 0; aIdx < mapArr.length; aIdx+=2 )
         {
-            if (key.equals(mapArr[aIdx]))
+            Object other = mapArr[aIdx];
+            if (other == key || key.equals(other))
             {
                 return aIdx;
             }
@@ -72,6 +112,49 @@ public class SmallMap<K, V> implements Map<K, V>
         
         return -1;
     }
+
+    private static int hash(Object key)
+    {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Adds the item at the given position of the map-array to the hash index.
+     */
+    private void addToHashIndex(int itemIdx)
+    {
+        int mask = hashIndex.length - 1;
+        int slot = hash(mapArr[itemIdx << 1]) & mask;
+        while (hashIndex[slot] != 0)
+        {
+            slot = (slot + 1) & mask;
+        }
+        hashIndex[slot] = itemIdx + 1;
+    }
+
+    /**
+     * Creates the hash index for the current items, with a map-array which can hold at least the
+     * given number of items.
+     */
+    private void buildHashIndex(int capacity)
+    {
+        int arrLen = Math.max(capacity, size) << 1;
+        if (mapArr == null)
+        {
+            mapArr = new Object[arrLen];
+        }
+        else if (mapArr.length < arrLen)
+        {
+            mapArr = Arrays.copyOf(mapArr, arrLen);
+        }
+        // keep the load factor below 0.5
+        hashIndex = new int[Integer.highestOneBit(Math.max(capacity, size) << 1) << 1];
+        for (int itemIdx = 0; itemIdx < size; itemIdx++)
+        {
+            addToHashIndex(itemIdx);
+        }
+    }
     
     /**
      * Returns index of value within map-array or <code>-1</code>
@@ -84,7 +167,7 @@ public class SmallMap<K, V> implements Map<K, V>
             return -1;
         }
         
-        for ( int aIdx = 1; aIdx < mapArr.length; aIdx+=2 )
+        for ( int aIdx = 1; aIdx < size << 1; aIdx+=2 )
         {
             if (value.equals(mapArr[aIdx]))
             {
@@ -98,13 +181,13 @@ public class SmallMap<K, V> implements Map<K, V>
     @Override
     public int size()
     {
-        return mapArr == null ? 0 : mapArr.length >> 1;
+        return size;
     }
 
     @Override
     public boolean isEmpty()
     {
-        return (mapArr == null) || (mapArr.length == 0);
+        return size == 0;
     }
 
     @Override
@@ -139,13 +222,32 @@ public class SmallMap<K, V> implements Map<K, V>
         if (mapArr == null)
         {
             mapArr = new Object[] { key, value };
+            size = 1;
             return null;
         }
         else
         {
             int kIdx = findKey(key);
             
-            if (kIdx < 0)
+            if (kIdx < 0 && hashIndex == null && size == HASH_THRESHOLD)
+            {
+                // the map becomes large
+                buildHashIndex(size << 1);
+            }
+            if (kIdx < 0 && hashIndex != null)
+            {
+                // key unknown, append to the array and the hash index
+                if (mapArr.length == size << 1)
+                {
+                    buildHashIndex(size << 1);
+                }
+                mapArr[size << 1] = key;
+                mapArr[(size << 1) + 1] = value;
+                addToHashIndex(size);
+                size++;
+                return null;
+            }
+            else if (kIdx < 0)
             {
                 // key unknown
                 int oldLen = mapArr.length;
@@ -154,6 +256,7 @@ public class SmallMap<K, V> implements Map<K, V>
                 newMapArr[oldLen] = key;
                 newMapArr[oldLen+1] = value;
                 mapArr = newMapArr;
+                size++;
                 return null;
             }
             else
@@ -182,10 +285,29 @@ public class SmallMap<K, V> implements Map<K, V>
         V oldValue = (V) mapArr[kIdx+1];
         int oldLen = mapArr.length;
         
-        if (oldLen == 2)
+        if (size == 1)
         {
             // was last entry
-            mapArr = null;
+            clear();
+        }
+        else if (hashIndex != null)
+        {
+            // move the following items, the positions in the hash index have to be rebuilt
+            int usedLen = size << 1;
+            System.arraycopy(mapArr, kIdx+2, mapArr, kIdx, usedLen - kIdx - 2);
+            mapArr[usedLen-2] = null;
+            mapArr[usedLen-1] = null;
+            size--;
+            if (size <= HASH_THRESHOLD / 2)
+            {
+                // back to a small map
+                mapArr = Arrays.copyOf(mapArr, size << 1);
+                hashIndex = null;
+            }
+            else
+            {
+                buildHashIndex(mapArr.length >> 1);
+            }
         }
         else
         {
@@ -193,6 +315,7 @@ public class SmallMap<K, V> implements Map<K, V>
             System.arraycopy(mapArr, 0, newMapArr, 0, kIdx);
             System.arraycopy(mapArr, kIdx+2, newMapArr, kIdx, oldLen - kIdx - 2);
             mapArr = newMapArr;
+            size--;
         }
         
         return oldValue;
@@ -201,7 +324,19 @@ public class SmallMap<K, V> implements Map<K, V>
     @Override
     public final void putAll(Map<? extends K, ? extends V> otherMap)
     {
-        if ((mapArr == null) || (mapArr.length == 0))
+        if (hashIndex != null || size + otherMap.size() > HASH_THRESHOLD)
+        {
+            // the map becomes large or is already
+            if (hashIndex == null || mapArr.length < (size + otherMap.size()) << 1)
+            {
+                buildHashIndex(size + otherMap.size());
+            }
+            for (Entry<? extends K, ? extends V> entry : otherMap.entrySet())
+            {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+        else if ((mapArr == null) || (mapArr.length == 0))
         {
             // existing map is empty
             mapArr = new Object[otherMap.size() << 1];
@@ -216,6 +351,7 @@ public class SmallMap<K, V> implements Map<K, V>
                 mapArr[aIdx++] = entry.getKey();
                 mapArr[aIdx++] = entry.getValue();
             }
+            size = otherMap.size();
         }
         else
         {
@@ -256,6 +392,7 @@ public class SmallMap<K, V> implements Map<K, V>
             }
             
             mapArr = newMapArr;
+            size = newIdx >> 1;
         }
     }
 
@@ -263,6 +400,8 @@ public class SmallMap<K, V> implements Map<K, V>
     public void clear()
     {
         mapArr = null;
+        hashIndex = null;
+        size = 0;
     }
 
     /**
@@ -282,7 +421,7 @@ public class SmallMap<K, V> implements Map<K, V>
         }
         
         Set<K> keys = new LinkedHashSet<>();
-        for (int kIdx = 0; kIdx < mapArr.length; kIdx+=2)
+        for (int kIdx = 0; kIdx < size << 1; kIdx+=2)
         {
             keys.add((K)mapArr[kIdx]);
         }
@@ -305,8 +444,8 @@ public class SmallMap<K, V> implements Map<K, V>
             return Collections.emptySet();
         }
         
-        List<V> values = new ArrayList<>(mapArr.length >> 1);
-        for (int vIdx = 1; vIdx < mapArr.length; vIdx+=2)
+        List<V> values = new ArrayList<>(size);
+        for (int vIdx = 1; vIdx < size << 1; vIdx+=2)
         {
             values.add((V)mapArr[vIdx]);
         }
@@ -378,7 +517,7 @@ public class SmallMap<K, V> implements Map<K, V>
         }
         
         Set<java.util.Map.Entry<K, V>> entries = new LinkedHashSet<>();
-        for (int kIdx = 0; kIdx < mapArr.length; kIdx+=2)
+        for (int kIdx = 0; kIdx < size << 1; kIdx+=2)
         {
             entries.add(new SmallMapEntry(kIdx));
         }
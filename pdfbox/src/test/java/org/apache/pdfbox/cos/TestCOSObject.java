@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.cos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.pdfbox.io.RandomAccessReadView;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unittests for {@link COSObject}
+ */
+class TestCOSObject
+{
+    /**
+     * Test that an object which is used by several threads at the same time is parsed once.
+     */
+    @Test
+    void testConcurrentDereference() throws Exception
+    {
+        COSDictionary parsed = new COSDictionary();
+        AtomicInteger parseCount = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        ICOSParser parser = new ICOSParser()
+        {
+            @Override
+            public COSBase dereferenceCOSObject(COSObject obj) throws IOException
+            {
+                parseCount.incrementAndGet();
+                started.countDown();
+                try
+                {
+                    // give the other threads time to use the object as well
+                    Thread.sleep(100);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return parsed;
+            }
+
+            @Override
+            public RandomAccessReadView createRandomAccessReadView(long startPosition,
+                    long streamLength)
+            {
+                return null;
+            }
+        };
+        COSObject object = new COSObject(new COSObjectKey(1, 0), parser);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<COSBase>> futures = new ArrayList<>();
+            futures.add(executor.submit(object::getObject));
+            started.await();
+            for (int i = 0; i < 3; i++)
+            {
+                futures.add(executor.submit(object::getObject));
+            }
+            for (Future<COSBase> future : futures)
+            {
+                assertSame(parsed, future.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertEquals(1, parseCount.get());
+        assertSame(parsed, object.getObject());
+    }
+}
@@ -22,13 +22,26 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.filter.Filter;
 import org.apache.pdfbox.filter.FilterFactory;
 import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDStream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -188,6 +201,94 @@ class TestCOSStream
         return encoded.toByteArray();
     }
 
+    /**
+     * Tests that several threads can read the streams of the same document at the same time, each
+     * stream with several readers.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testConcurrentReads() throws Exception
+    {
+        Random random = new Random(42);
+        List<byte[]> contents = new ArrayList<>();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument())
+        {
+            for (int i = 0; i < 8; i++)
+            {
+                byte[] content = new byte[20000 + 1000 * i];
+                random.nextBytes(content);
+                contents.add(content);
+                PDStream stream = new PDStream(document);
+                try (OutputStream os = stream.createOutputStream())
+                {
+                    os.write(content);
+                }
+                PDPage page = new PDPage();
+                page.setContents(stream);
+                document.addPage(page);
+            }
+            document.save(baos, CompressParameters.NO_COMPRESSION);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (PDDocument document = Loader.loadPDF(baos.toByteArray()))
+        {
+            List<COSStream> streams = new ArrayList<>();
+            for (PDPage page : document.getPages())
+            {
+                streams.add((COSStream) page.getCOSObject().getDictionaryObject(COSName.CONTENTS));
+            }
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++)
+            {
+                int first = t;
+                futures.add(executor.submit(() ->
+                {
+                    for (int run = 0; run < 20; run++)
+                    {
+                        for (int i = 0; i < streams.size(); i++)
+                        {
+                            int index = (first + i) % streams.size();
+                            assertReadsSameBytes(streams.get(index), contents.get(index));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private static void assertReadsSameBytes(COSStream stream, byte[] expected) throws IOException
+    {
+        try (InputStream is = stream.createRawInputStream())
+        {
+            Assertions.assertArrayEquals(expected, IOUtils.toByteArray(is));
+        }
+        try (RandomAccessRead view = stream.createView())
+        {
+            byte[] actual = new byte[expected.length];
+            // small reads and seeks, so that the readers of the stream interleave
+            int position = 0;
+            while (position < actual.length)
+            {
+                view.seek(position);
+                int read = view.read(actual, position, Math.min(97, actual.length - position));
+                position += read;
+            }
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+
     private COSStream createStream(byte[] testString, COSBase filters) throws IOException
     {
         COSStream stream = new COSStream();
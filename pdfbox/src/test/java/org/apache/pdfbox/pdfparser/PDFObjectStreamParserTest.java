@@ -20,8 +20,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
 
+import org.apache.pdfbox.cos.COSBase;
 import org.apache.pdfbox.cos.COSBoolean;
 import org.apache.pdfbox.cos.COSInteger;
 import org.apache.pdfbox.cos.COSName;
@@ -51,4 +54,23 @@ class PDFObjectStreamParserTest
         objectStreamParser = new PDFObjectStreamParser(stream, null);
         assertEquals(COSBoolean.FALSE, objectStreamParser.parseObject(numbers[1]));
     }
+
+    @Test
+    void testParseAllObjects() throws IOException
+    {
+        COSStream stream = new COSStream();
+        stream.setItem(COSName.N, COSInteger.THREE);
+        stream.setItem(COSName.FIRST, COSInteger.get(13));
+        OutputStream outputStream = stream.createOutputStream();
+        outputStream.write("6 11 2 0 4 5 true false 42".getBytes());
+        outputStream.close();
+        PDFObjectStreamParser objectStreamParser = new PDFObjectStreamParser(stream, null);
+        Map<Long, COSBase> objects = objectStreamParser.parseAllObjects();
+        assertEquals(3, objects.size());
+        // in the order of the offsets
+        assertEquals(Arrays.asList(2L, 4L, 6L), new ArrayList<>(objects.keySet()));
+        assertEquals(COSBoolean.TRUE, objects.get(2L));
+        assertEquals(COSBoolean.FALSE, objects.get(4L));
+        assertEquals(COSInteger.get(42), objects.get(6L));
+    }
 }
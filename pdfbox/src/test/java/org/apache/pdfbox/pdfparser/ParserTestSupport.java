@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdfparser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+/**
+ * Helpers for the parser tests, also used by the tests of the preflight module.
+ */
+public final class ParserTestSupport
+{
+    private ParserTestSupport()
+    {
+    }
+
+    /**
+     * Creates a document with A4 pages showing "Page 1", "Page 2", ... in Helvetica.
+     *
+     * @param pageCount the number of pages
+     * @return the new document, not saved yet
+     * @throws IOException if the content streams can't be written
+     */
+    public static PDDocument createDocument(int pageCount) throws IOException
+    {
+        PDDocument document = new PDDocument();
+        for (int i = 0; i < pageCount; i++)
+        {
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+            try (PDPageContentStream cs = new PDPageContentStream(document, page))
+            {
+                cs.beginText();
+                cs.setFont(PDType1Font.HELVETICA, 12);
+                cs.newLineAtOffset(50, 700);
+                cs.showText("Page " + (i + 1));
+                cs.endText();
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Creates a document like {@link #createDocument(int)} and saves it without compression, so
+     * that all objects are at the top level and listed in a classic xref table.
+     *
+     * @param pageCount the number of pages
+     * @return the saved document
+     * @throws IOException if the document can't be created or saved
+     */
+    public static byte[] createUncompressedDocument(int pageCount) throws IOException
+    {
+        try (PDDocument document = createDocument(pageCount))
+        {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            document.save(baos, CompressParameters.NO_COMPRESSION);
+            return baos.toByteArray();
+        }
+    }
+
+    /**
+     * Records the pages of 4096 bytes which have been read, and the order in which they are read
+     * first, as a file on a network storage would be read with a page cache.
+     */
+    public static class PageRecordingBuffer extends RandomAccessReadBuffer
+    {
+        private final Set<Long> readPages = new HashSet<>();
+        private final List<Long> pageOrder = new ArrayList<>();
+
+        public PageRecordingBuffer(byte[] bytes)
+        {
+            super(bytes);
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            recordPages(getPosition(), 1);
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int offset, int length) throws IOException
+        {
+            recordPages(getPosition(), length);
+            return super.read(b, offset, length);
+        }
+
+        private void recordPages(long position, int length) throws IOException
+        {
+            long end = Math.min(position + length, length());
+            for (long page = position / 4096; page * 4096 < end; page++)
+            {
+                if (readPages.add(page))
+                {
+                    pageOrder.add(page);
+                }
+            }
+        }
+
+        /**
+         * Returns the number of different pages which have been read.
+         */
+        public int getReadPages()
+        {
+            return readPages.size();
+        }
+
+        /**
+         * Returns how often a page is read first after a page with a greater offset.
+         */
+        public int getBackwardReads()
+        {
+            int count = 0;
+            for (int i = 1; i < pageOrder.size(); i++)
+            {
+                if (pageOrder.get(i) < pageOrder.get(i - 1))
+                {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
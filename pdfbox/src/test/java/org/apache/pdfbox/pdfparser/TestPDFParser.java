@@ -17,19 +17,33 @@
 
 package org.apache.pdfbox.pdfparser;
 
+import static org.apache.pdfbox.pdfparser.ParserTestSupport.createUncompressedDocument;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSObjectKey;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdfparser.ParserTestSupport.PageRecordingBuffer;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
 import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.pdfbox.util.DateConverter;
 import org.junit.jupiter.api.Test;
 
@@ -348,4 +362,147 @@ class TestPDFParser
         }
     }
 
+    /**
+     * Test that a lazily opened document only reads the objects which are used.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testLazyOpen() throws IOException
+    {
+        byte[] bytes = createUncompressedDocument(300);
+        PageRecordingBuffer eagerSource = new PageRecordingBuffer(bytes);
+        PageRecordingBuffer lazySource = new PageRecordingBuffer(bytes);
+        PDFParser lazyParser = new PDFParser(lazySource);
+        lazyParser.setLazyOpen(true);
+        try (PDDocument eager = new PDFParser(eagerSource).parse();
+             PDDocument lazy = lazyParser.parse())
+        {
+            int openedPages = lazySource.getReadPages();
+            assertTrue(openedPages * 2 < eagerSource.getReadPages(),
+                    openedPages + " of " + eagerSource.getReadPages());
+            assertEquals(300, lazy.getNumberOfPages());
+            assertEquals(getText(eager, 300), getText(lazy, 300));
+        }
+        assertThrows(IllegalArgumentException.class, () -> lazyParser.setLazyOpen(false));
+    }
+
+    /**
+     * Test that the wrong offset of an object is fixed when the object is used.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testLazyOpenWithWrongOffset() throws IOException
+    {
+        byte[] bytes = createUncompressedDocument(20);
+        // point the xref entry of each 7th object behind its object number
+        String pdf = new String(bytes, StandardCharsets.ISO_8859_1);
+        int xref = pdf.lastIndexOf("\nxref") + 1;
+        int entries = pdf.indexOf('\n', pdf.indexOf('\n', xref) + 1) + 1;
+        for (int objNr = 7; pdf.indexOf("\n" + objNr + " 0 obj") > 0; objNr += 7)
+        {
+            int entry = entries + 20 * objNr;
+            long offset = Long.parseLong(pdf.substring(entry, entry + 10));
+            byte[] wrongOffset = String.format("%010d", offset + 1).getBytes(StandardCharsets.ISO_8859_1);
+            System.arraycopy(wrongOffset, 0, bytes, entry, 10);
+        }
+
+        PDFParser lazyParser = new PDFParser(new RandomAccessReadBuffer(bytes));
+        lazyParser.setLazyOpen(true);
+        try (PDDocument eager = Loader.loadPDF(bytes);
+             PDDocument lazy = lazyParser.parse())
+        {
+            assertEquals(20, lazy.getNumberOfPages());
+            for (int i = 1; i <= 20; i++)
+            {
+                assertEquals("Page " + i, getText(eager, i).trim());
+                assertEquals(getText(eager, i), getText(lazy, i));
+            }
+        }
+    }
+
+    /**
+     * Test that a wrong generation number is fixed the same way when the object is used as when
+     * the document is opened.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testLazyOpenWithWrongGeneration() throws IOException
+    {
+        byte[] bytes = createUncompressedDocument(5);
+        long objNr;
+        try (PDDocument document = Loader.loadPDF(bytes))
+        {
+            COSObject contents = (COSObject) document.getPage(2).getCOSObject()
+                    .getItem(COSName.CONTENTS);
+            objNr = contents.getObjectNumber();
+        }
+        // increment the generation number of the content stream of the 3rd page
+        String pdf = new String(bytes, StandardCharsets.ISO_8859_1);
+        bytes[pdf.indexOf("\n" + objNr + " 0 obj") + String.valueOf(objNr).length() + 2] = '1';
+
+        PDFParser lazyParser = new PDFParser(new RandomAccessReadBuffer(bytes));
+        lazyParser.setLazyOpen(true);
+        try (PDDocument eager = Loader.loadPDF(bytes);
+             PDDocument lazy = lazyParser.parse())
+        {
+            for (PDDocument document : new PDDocument[] { eager, lazy })
+            {
+                assertEquals("Page 2", getText(document, 2).trim());
+                assertEquals("", getText(document, 3).trim());
+                Map<COSObjectKey, Long> xrefTable = document.getDocument().getXrefTable();
+                assertFalse(xrefTable.containsKey(new COSObjectKey(objNr, 0)));
+                assertTrue(xrefTable.containsKey(new COSObjectKey(objNr, 1)));
+            }
+        }
+    }
+
+    /**
+     * Test that the objects of the object streams are the same with and without the cache of the decoded object
+     * streams.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testObjectStreamCache() throws IOException
+    {
+        byte[] bytes;
+        try (PDDocument document = Loader.loadPDF(createUncompressedDocument(50)))
+        {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            document.save(baos, CompressParameters.DEFAULT_COMPRESSION);
+            bytes = baos.toByteArray();
+        }
+        PDFParser uncached = new PDFParser(new RandomAccessReadBuffer(bytes));
+        uncached.setObjectStreamCacheSize(0);
+        PDFParser cached = new PDFParser(new RandomAccessReadBuffer(bytes));
+        cached.setObjectStreamCacheSize(1);
+        PDFParser complete = new PDFParser(new RandomAccessReadBuffer(bytes));
+        complete.setParseObjectStreamsCompletely(true);
+        try (PDDocument expected = uncached.parse();
+             PDDocument actual1 = cached.parse();
+             PDDocument actual2 = complete.parse())
+        {
+            assertEquals(50, expected.getNumberOfPages());
+            String text = getText(expected, 1, 50);
+            assertEquals(text, getText(actual1, 1, 50));
+            assertEquals(text, getText(actual2, 1, 50));
+        }
+        assertThrows(IllegalArgumentException.class, () -> cached.setObjectStreamCacheSize(-1));
+    }
+
+    private static String getText(PDDocument document, int page) throws IOException
+    {
+        return getText(document, page, page);
+    }
+
+    private static String getText(PDDocument document, int startPage, int endPage) throws IOException
+    {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        return stripper.getText(document);
+    }
 }
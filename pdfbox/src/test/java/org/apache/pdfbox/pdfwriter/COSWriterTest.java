@@ -16,11 +16,28 @@
  */
 package org.apache.pdfbox.pdfwriter;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdfparser.PDFParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.DigestSignatureInterface;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.ExternalSigningSupport;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.PDSignature;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureInterface;
 import org.junit.jupiter.api.Test;
 
 class COSWriterTest
@@ -48,4 +65,249 @@ class COSWriterTest
             }));
         }
     }
+
+    /**
+     * Check that the result is the same regardless of how much of the data the signer reads.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testSignatureOutput() throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument doc = new PDDocument())
+        {
+            doc.addPage(new PDPage());
+            doc.save(baos);
+        }
+        byte[] original = baos.toByteArray();
+        byte[] cms = { 1, 2, 3, 4 };
+
+        for (int readLimit : new int[] { Integer.MAX_VALUE, 100, 0 })
+        {
+            ByteArrayOutputStream signed = new ByteArrayOutputStream();
+            ByteArrayOutputStream signedData = new ByteArrayOutputStream();
+            try (PDDocument doc = Loader.loadPDF(original))
+            {
+                doc.addSignature(createSignature(), content ->
+                {
+                    copy(content, signedData, readLimit);
+                    return cms;
+                });
+                doc.saveIncremental(signed);
+            }
+            checkSignedPDF(original, signed.toByteArray(), signedData.toByteArray(), cms);
+        }
+
+        // external signing
+        ByteArrayOutputStream signed = new ByteArrayOutputStream();
+        ByteArrayOutputStream signedData = new ByteArrayOutputStream();
+        try (PDDocument doc = Loader.loadPDF(original))
+        {
+            doc.addSignature(createSignature());
+            ExternalSigningSupport externalSigning = doc.saveIncrementalForExternalSigning(signed);
+            copy(externalSigning.getContent(), signedData, Integer.MAX_VALUE);
+            externalSigning.setSignature(cms);
+        }
+        checkSignedPDF(original, signed.toByteArray(), signedData.toByteArray(), cms);
+    }
+
+    /**
+     * Nothing is written if the signer fails or if an external signature is never set.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testNoOutputWithoutSignature() throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument doc = new PDDocument())
+        {
+            doc.addPage(new PDPage());
+            doc.save(baos);
+        }
+        byte[] original = baos.toByteArray();
+
+        ByteArrayOutputStream signed = new ByteArrayOutputStream();
+        try (PDDocument doc = Loader.loadPDF(original))
+        {
+            doc.addSignature(createSignature(), content ->
+            {
+                copy(content, new ByteArrayOutputStream(), 100);
+                throw new IOException("signing failed");
+            });
+            assertThrows(IOException.class, () -> doc.saveIncremental(signed));
+        }
+        assertEquals(0, signed.size());
+
+        try (PDDocument doc = Loader.loadPDF(original))
+        {
+            doc.addSignature(createSignature());
+            ExternalSigningSupport externalSigning = doc.saveIncrementalForExternalSigning(signed);
+            copy(externalSigning.getContent(), new ByteArrayOutputStream(), Integer.MAX_VALUE);
+        }
+        assertEquals(0, signed.size());
+    }
+
+    /**
+     * Check that the original PDF is read only once with a signer of the digest, and that the
+     * digest is the one of the signed content.
+     *
+     * @throws IOException
+     * @throws NoSuchAlgorithmException
+     */
+    @Test
+    void testDigestSignature() throws IOException, NoSuchAlgorithmException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument doc = new PDDocument())
+        {
+            doc.addPage(new PDPage());
+            doc.save(baos);
+        }
+        byte[] original = baos.toByteArray();
+        byte[] cms = { 1, 2, 3, 4 };
+
+        ByteArrayOutputStream signed = new ByteArrayOutputStream();
+        ByteArrayOutputStream digest = new ByteArrayOutputStream();
+        long digestReads = saveSigned(original, new DigestSignatureInterface()
+        {
+            @Override
+            public String getDigestAlgorithm()
+            {
+                return "SHA-256";
+            }
+
+            @Override
+            public byte[] signDigest(byte[] bytes) throws IOException
+            {
+                digest.write(bytes);
+                return cms;
+            }
+        }, signed);
+        long streamReads = saveSigned(original, content ->
+        {
+            copy(content, new ByteArrayOutputStream(), Integer.MAX_VALUE);
+            return cms;
+        }, new ByteArrayOutputStream());
+        // the signer of the content reads the original a second time
+        assertEquals(original.length, streamReads - digestReads);
+
+        byte[] result = signed.toByteArray();
+        checkSignedPDF(original, result, new byte[0], cms);
+        try (PDDocument doc = Loader.loadPDF(result))
+        {
+            byte[] signedContent = doc.getLastSignatureDictionary().getSignedContent(result);
+            assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(signedContent),
+                    digest.toByteArray());
+        }
+
+        // a failing signer leaves only the original PDF in the output
+        ByteArrayOutputStream unsigned = new ByteArrayOutputStream();
+        try (PDDocument doc = Loader.loadPDF(original))
+        {
+            doc.addSignature(createSignature(), new DigestSignatureInterface()
+            {
+                @Override
+                public String getDigestAlgorithm()
+                {
+                    return "SHA-256";
+                }
+
+                @Override
+                public byte[] signDigest(byte[] bytes) throws IOException
+                {
+                    throw new IOException("signing failed");
+                }
+            });
+            assertThrows(IOException.class, () -> doc.saveIncremental(unsigned));
+        }
+        assertArrayEquals(original, unsigned.toByteArray());
+    }
+
+    /**
+     * Saves a signed increment of the given PDF and returns the number of bytes read from the
+     * original while saving.
+     */
+    private static long saveSigned(byte[] original, SignatureInterface signer, OutputStream output)
+            throws IOException
+    {
+        ReadCountingBuffer source = new ReadCountingBuffer(original);
+        try (PDDocument doc = new PDFParser(source).parse())
+        {
+            doc.addSignature(createSignature(), signer);
+            source.bytesRead = 0;
+            doc.saveIncremental(output);
+            return source.bytesRead;
+        }
+    }
+
+    private static PDSignature createSignature()
+    {
+        PDSignature signature = new PDSignature();
+        signature.setFilter(PDSignature.FILTER_ADOBE_PPKLITE);
+        signature.setSubFilter(PDSignature.SUBFILTER_ADBE_PKCS7_DETACHED);
+        return signature;
+    }
+
+    private static void copy(InputStream input, ByteArrayOutputStream output, int limit)
+            throws IOException
+    {
+        byte[] buffer = new byte[7];
+        int n;
+        while (output.size() < limit
+                && (n = input.read(buffer, 0, Math.min(buffer.length, limit - output.size()))) != -1)
+        {
+            output.write(buffer, 0, n);
+        }
+    }
+
+    private static void checkSignedPDF(byte[] original, byte[] result, byte[] signedData,
+            byte[] cms) throws IOException
+    {
+        // the original revision is unchanged
+        assertArrayEquals(original, Arrays.copyOf(result, original.length));
+        try (PDDocument doc = Loader.loadPDF(result))
+        {
+            PDSignature signature = doc.getLastSignatureDictionary();
+            assertArrayEquals(cms, Arrays.copyOf(signature.getContents(), cms.length));
+            byte[] signedContent = signature.getSignedContent(result);
+            assertArrayEquals(Arrays.copyOf(signedContent, signedData.length), signedData);
+        }
+    }
+
+    /**
+     * Counts the bytes which have been read.
+     */
+    private static class ReadCountingBuffer extends RandomAccessReadBuffer
+    {
+        private long bytesRead;
+
+        ReadCountingBuffer(byte[] bytes)
+        {
+            super(bytes);
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            int b = super.read();
+            if (b != -1)
+            {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int offset, int length) throws IOException
+        {
+            int n = super.read(b, offset, length);
+            if (n > 0)
+            {
+                bytesRead += n;
+            }
+            return n;
+        }
+    }
 }
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdfwriter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the ContentStreamBuilder class.
+ */
+class ContentStreamBuilderTest
+{
+    @Test
+    void testNumbersAndNames()
+    {
+        ContentStreamBuilder builder = new ContentStreamBuilder(1);
+        builder.operand(0);
+        builder.operand(-123);
+        builder.operand(Integer.MIN_VALUE);
+        builder.operand(1.5f);
+        builder.operand(-0.00004f);
+        builder.operand(0.12345f);
+        builder.operand(1e20f);
+        builder.operand(COSName.getPDFName("A B"));
+        builder.operand(COSName.getPDFName("A B"));
+        builder.operator("BX");
+        assertEquals("0 -123 -2147483648 1.5 -0.00004 0.12345 100000002004087734272 /A#20B /A#20B BX\n",
+                new String(builder.toByteArray(), StandardCharsets.US_ASCII));
+
+        builder.reset();
+        builder.setMaximumFractionDigits(4);
+        builder.operand(0.12345f);
+        assertEquals("0.1235 ", new String(builder.toByteArray(), StandardCharsets.US_ASCII));
+
+        assertThrows(IllegalArgumentException.class, () -> builder.operand(Float.NaN));
+        assertThrows(IllegalArgumentException.class, () -> builder.setMaximumFractionDigits(6));
+    }
+
+    @Test
+    void testText()
+    {
+        ContentStreamBuilder builder = new ContentStreamBuilder();
+        builder.beginText();
+        builder.setFont(COSName.getPDFName("F1"), 12);
+        builder.showText("a(b)\\".getBytes(StandardCharsets.US_ASCII));
+        builder.showText(new byte[] { 0, 1, (byte) 0xAB, 0x0a }, 2, 2);
+        builder.showTextWithPositioning(new byte[][] { { 'A' }, { 'V' } }, new float[] { -80 });
+        builder.showTextWithPositioning(new byte[][] { { 'A' }, { 'V' } }, new float[] { 0, 120 });
+        builder.endText();
+        assertEquals("BT\n/F1 12 Tf\n(a\\(b\\)\\\\) Tj\n<AB0A> Tj\n[(A)-80 (V)] TJ\n"
+                + "[(A)(V)120 ] TJ\nET\n",
+                new String(builder.toByteArray(), StandardCharsets.US_ASCII));
+
+        assertThrows(IllegalArgumentException.class, () -> builder.showTextWithPositioning(
+                new byte[][] { { 'A' } }, new float[] { 10, 20 }));
+    }
+
+    /**
+     * The graphics operators produce the same output as PDPageContentStream.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testSameAsPageContentStream() throws IOException
+    {
+        try (PDDocument doc = new PDDocument())
+        {
+            PDPage page = new PDPage();
+            doc.addPage(page);
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page,
+                    PDPageContentStream.AppendMode.OVERWRITE, false))
+            {
+                cs.saveGraphicsState();
+                cs.transform(new org.apache.pdfbox.util.Matrix(1, 0, 0, 1, 10.25f, -3));
+                cs.setLineWidth(0.5f);
+                cs.setStrokingColor(0.1f, 0.2f, 0.3f);
+                cs.setNonStrokingColor(0.75f);
+                cs.addRect(1, 2, 3.333333f, 4);
+                cs.moveTo(5, 6);
+                cs.lineTo(7, 8);
+                cs.curveTo(1, 2, 3, 4, 5, 6);
+                cs.closePath();
+                cs.fillAndStroke();
+                cs.restoreGraphicsState();
+            }
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            try (java.io.InputStream in = page.getContents())
+            {
+                org.apache.pdfbox.io.IOUtils.copy(in, expected);
+            }
+
+            ContentStreamBuilder builder = new ContentStreamBuilder();
+            builder.saveGraphicsState();
+            builder.transform(1, 0, 0, 1, 10.25f, -3);
+            builder.setLineWidth(0.5f);
+            builder.setStrokingColor(0.1f, 0.2f, 0.3f);
+            builder.setNonStrokingColor(0.75f);
+            builder.addRect(1, 2, 3.333333f, 4);
+            builder.moveTo(5, 6);
+            builder.lineTo(7, 8);
+            builder.curveTo(1, 2, 3, 4, 5, 6);
+            builder.closePath();
+            builder.fillAndStroke();
+            builder.restoreGraphicsState();
+            assertEquals(new String(expected.toByteArray(), StandardCharsets.US_ASCII),
+                    new String(builder.toByteArray(), StandardCharsets.US_ASCII));
+
+            PDStream stream = new PDStream(doc);
+            try (OutputStream out = stream.createOutputStream(COSName.FLATE_DECODE))
+            {
+                builder.writeTo(out);
+            }
+            assertArrayEquals(builder.toByteArray(), stream.toByteArray());
+        }
+    }
+}
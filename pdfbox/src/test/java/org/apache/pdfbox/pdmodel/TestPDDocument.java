@@ -16,20 +16,38 @@
  */
 package org.apache.pdfbox.pdmodel;
 
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -233,4 +251,120 @@ class TestPDDocument
 
         Locale.setDefault(defaultLocale);
     }
+
+    /**
+     * Test that the pages of a read-only document can be rendered and extracted by several threads.
+     *
+     * @throws Exception if something went wrong
+     */
+    @Test
+    void testReadOnlyConcurrentReads() throws Exception
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument doc = new PDDocument())
+        {
+            PDFont font;
+            try (InputStream is = TestPDDocument.class.getResourceAsStream(
+                    "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf"))
+            {
+                font = PDType0Font.load(doc, is);
+            }
+            for (int i = 0; i < 24; i++)
+            {
+                PDPage page = new PDPage(new PDRectangle(200, 100));
+                doc.addPage(page);
+                try (PDPageContentStream cs = new PDPageContentStream(doc, page))
+                {
+                    cs.beginText();
+                    cs.setFont(font, 12);
+                    cs.newLineAtOffset(10, 50);
+                    cs.showText("Page " + (i + 1));
+                    cs.setFont(PDType1Font.HELVETICA, 10);
+                    cs.newLineAtOffset(0, -20);
+                    cs.showText("Helvetica " + i * i);
+                    cs.endText();
+                }
+                // a missing /Type is set when the page is looked up
+                page.getCOSObject().removeItem(COSName.TYPE);
+            }
+            doc.save(baos);
+        }
+        byte[] pdf = baos.toByteArray();
+
+        List<byte[]> expectedContents = new ArrayList<>();
+        List<String> expectedTexts = new ArrayList<>();
+        List<BufferedImage> expectedImages = new ArrayList<>();
+        try (PDDocument doc = Loader.loadPDF(pdf))
+        {
+            PDFRenderer renderer = new PDFRenderer(doc);
+            for (int i = 0; i < doc.getNumberOfPages(); i++)
+            {
+                try (InputStream is = doc.getPage(i).getContents())
+                {
+                    expectedContents.add(IOUtils.toByteArray(is));
+                }
+                expectedTexts.add(getText(doc, i));
+                expectedImages.add(renderer.renderImage(i));
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (PDDocument doc = Loader.loadPDF(pdf))
+        {
+            COSArray kids = doc.getPages().getCOSObject().getCOSArray(COSName.KIDS);
+            assertNull(((COSDictionary) kids.getObject(0)).getCOSName(COSName.TYPE));
+            doc.makeReadOnly();
+            assertTrue(doc.isReadOnly());
+            // the page tree isn't changed by the readers
+            for (int i = 0; i < kids.size(); i++)
+            {
+                assertEquals(COSName.PAGE, ((COSDictionary) kids.getObject(i)).getCOSName(COSName.TYPE));
+            }
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < doc.getNumberOfPages(); i++)
+            {
+                int pageIndex = i;
+                futures.add(executor.submit(() ->
+                {
+                    PDPage page = doc.getPage(pageIndex);
+                    try (InputStream is = page.getContents())
+                    {
+                        assertArrayEquals(expectedContents.get(pageIndex), IOUtils.toByteArray(is));
+                    }
+                    assertEquals(expectedTexts.get(pageIndex), getText(doc, pageIndex));
+                    BufferedImage image = new PDFRenderer(doc).renderImage(pageIndex);
+                    BufferedImage expected = expectedImages.get(pageIndex);
+                    for (int y = 0; y < expected.getHeight(); y++)
+                    {
+                        for (int x = 0; x < expected.getWidth(); x++)
+                        {
+                            assertEquals(expected.getRGB(x, y), image.getRGB(x, y));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+
+            assertThrows(IllegalStateException.class, () -> doc.addPage(new PDPage()));
+            assertThrows(IllegalStateException.class, () -> doc.removePage(0));
+            assertThrows(IllegalStateException.class, () -> doc.save(new ByteArrayOutputStream()));
+            assertEquals(24, doc.getNumberOfPages());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private static String getText(PDDocument doc, int pageIndex) throws IOException
+    {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(pageIndex + 1);
+        stripper.setEndPage(pageIndex + 1);
+        return stripper.getText(doc);
+    }
 }
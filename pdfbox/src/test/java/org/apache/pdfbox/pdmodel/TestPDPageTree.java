@@ -17,10 +17,15 @@
 package org.apache.pdfbox.pdmodel;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
 
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
 
@@ -125,4 +130,94 @@ class TestPDPageTree
                     "Page three should be placed at index 2.");
         }
     }
+
+    @Test
+    void pageIndexMultipleLevel() throws IOException
+    {
+        doc = Loader
+                .loadPDF(TestPDPageTree.class.getResourceAsStream("page_tree_multiple_levels.pdf"));
+        int count = doc.getNumberOfPages();
+        PDPage[] expected = new PDPage[count];
+        for (int i = 0; i < count; i++)
+        {
+            expected[i] = doc.getPage(i);
+        }
+        PDPageIndex pageIndex = doc.getPages().getPageIndex();
+        assertEquals(count, pageIndex.getCount());
+        for (int i = 0; i < count; i++)
+        {
+            assertSame(expected[i].getCOSObject(), pageIndex.get(i).getCOSObject());
+            assertSame(expected[i].getCOSObject(), doc.getPage(i).getCOSObject());
+            assertEquals(i, pageIndex.indexOf(expected[i]));
+            assertEquals(i, doc.getPages().indexOf(expected[i]));
+        }
+        assertEquals(-1, pageIndex.indexOf(new PDPage()));
+        assertThrows(IndexOutOfBoundsException.class, () -> pageIndex.get(count));
+        assertThrows(IndexOutOfBoundsException.class, () -> doc.getPage(count));
+        assertSame(pageIndex, doc.getPages().getPageIndex());
+    }
+
+    @Test
+    void pageIndexAfterChanges() throws IOException
+    {
+        try (PDDocument document = new PDDocument())
+        {
+            PDPage pageOne = new PDPage();
+            PDPage pageTwo = new PDPage();
+            PDPage pageThree = new PDPage();
+            PDPage pageFour = new PDPage();
+            document.addPage(pageOne);
+            document.addPage(pageTwo);
+
+            PDPageIndex before = document.getPages().getPageIndex();
+            document.getPages().insertBefore(pageThree, pageTwo);
+            document.getPages().insertAfter(pageFour, pageOne);
+            assertEquals(2, before.getCount());
+            assertEquals(1, before.indexOf(pageTwo));
+
+            assertEquals(0, document.getPages().indexOf(pageOne));
+            assertEquals(1, document.getPages().indexOf(pageFour));
+            assertEquals(2, document.getPages().indexOf(pageThree));
+            assertEquals(3, document.getPages().indexOf(pageTwo));
+
+            document.removePage(pageFour);
+            document.getPages().remove(pageTwo);
+            document.addPage(pageFour);
+            assertSame(pageThree.getCOSObject(), document.getPage(1).getCOSObject());
+            assertSame(pageFour.getCOSObject(), document.getPage(2).getCOSObject());
+            assertEquals(3, document.getPages().getPageIndex().getCount());
+            assertEquals(-1, document.getPages().indexOf(pageTwo));
+        }
+    }
+
+    @Test
+    void pageIndexWithWrongCount() throws IOException
+    {
+        try (PDDocument document = new PDDocument())
+        {
+            PDPageTree pages = document.getPages();
+            COSDictionary node = new COSDictionary();
+            node.setItem(COSName.TYPE, COSName.PAGES);
+            node.setItem(COSName.PARENT, pages.getCOSObject());
+            COSArray kids = new COSArray();
+            node.setItem(COSName.KIDS, kids);
+            // the node claims one page but has two
+            node.setInt(COSName.COUNT, 1);
+            COSDictionary first = new COSDictionary();
+            COSDictionary second = new COSDictionary();
+            kids.add(first);
+            kids.add(second);
+            pages.getCOSObject().getCOSArray(COSName.KIDS).add(node);
+            pages.getCOSObject().setInt(COSName.COUNT, 1);
+
+            PDPageIndex pageIndex = pages.getPageIndex();
+            assertEquals(2, pageIndex.getCount());
+            assertSame(second, pageIndex.get(1).getCOSObject());
+            assertEquals(COSName.PAGE, first.getCOSName(COSName.TYPE));
+            // the tree lookup still follows /Count
+            assertSame(first, document.getPage(0).getCOSObject());
+            assertThrows(IndexOutOfBoundsException.class, () -> document.getPage(1));
+            assertEquals(1, document.getPages().indexOf(new PDPage(second)));
+        }
+    }
 }
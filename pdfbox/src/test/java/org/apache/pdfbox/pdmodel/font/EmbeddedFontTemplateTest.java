@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.font;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the EmbeddedFontTemplate class.
+ */
+class EmbeddedFontTemplateTest
+{
+    private static final String TTF = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+
+    @Test
+    void testEmbedConcurrently() throws Exception
+    {
+        String[] texts = { "Hello World", "Hello World", "Dear Sir or Madam", "Hello World" };
+        List<byte[]> pdfs = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (EmbeddedFontTemplate template = EmbeddedFontTemplate.load(
+                PDFont.class.getResourceAsStream(TTF), false))
+        {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (String text : texts)
+            {
+                results.add(executor.submit(() -> createPDF(template, text)));
+            }
+            for (Future<byte[]> result : results)
+            {
+                pdfs.add(result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        List<byte[]> fontFiles = new ArrayList<>();
+        for (int i = 0; i < texts.length; i++)
+        {
+            try (PDDocument doc = Loader.loadPDF(pdfs.get(i)))
+            {
+                assertEquals(texts[i], new PDFTextStripper().getText(doc).trim());
+                PDType0Font font = (PDType0Font) doc.getPage(0).getResources()
+                        .getFont(COSName.getPDFName("F1"));
+                assertEquals(texts[i].replace(" ", "").chars().distinct().count() + 2,
+                        ((PDCIDFontType2) font.getDescendantFont()).getTrueTypeFont()
+                                .getNumberOfGlyphs());
+                fontFiles.add(font.getDescendantFont().getFontDescriptor().getFontFile2()
+                        .toByteArray());
+            }
+        }
+        // same glyphs, same subset
+        assertArrayEquals(fontFiles.get(0), fontFiles.get(1));
+        assertArrayEquals(fontFiles.get(0), fontFiles.get(3));
+        assertNotEquals(fontFiles.get(0).length, fontFiles.get(2).length);
+    }
+
+    /**
+     * The font of the template must stay open after a document has been saved, also when it is
+     * read from the file instead of being memory-mapped.
+     */
+    @Test
+    void testEmbedIntoSeveralDocumentsFromFile() throws Exception
+    {
+        File file = File.createTempFile("pdfbox", ".ttf");
+        String mappedFiles = System.getProperty(TTFParser.SYSPROP_MAPPED_FILES);
+        System.setProperty(TTFParser.SYSPROP_MAPPED_FILES, "false");
+        try
+        {
+            try (InputStream is = PDFont.class.getResourceAsStream(TTF))
+            {
+                Files.copy(is, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (EmbeddedFontTemplate template = EmbeddedFontTemplate.load(file))
+            {
+                for (String text : new String[] { "Hello World", "Dear Sir or Madam" })
+                {
+                    try (PDDocument doc = Loader.loadPDF(createPDF(template, text)))
+                    {
+                        assertEquals(text, new PDFTextStripper().getText(doc).trim());
+                    }
+                    // the glyphs of the next text haven't been read yet
+                    TrueTypeFont ttf = template.getTrueTypeFont();
+                    for (char c : text.replace(" ", "").toCharArray())
+                    {
+                        int gid = template.getCmapLookup().getGlyphId(c);
+                        assertNotNull(ttf.getGlyph().getGlyph(gid));
+                    }
+                }
+            }
+        }
+        finally
+        {
+            if (mappedFiles == null)
+            {
+                System.clearProperty(TTFParser.SYSPROP_MAPPED_FILES);
+            }
+            else
+            {
+                System.setProperty(TTFParser.SYSPROP_MAPPED_FILES, mappedFiles);
+            }
+            Files.delete(file.toPath());
+        }
+    }
+
+    private static byte[] createPDF(EmbeddedFontTemplate template, String text) throws IOException
+    {
+        try (PDDocument doc = new PDDocument())
+        {
+            PDPage page = new PDPage();
+            doc.addPage(page);
+            PDType0Font font = PDType0Font.load(doc, template);
+            page.setResources(new PDResources());
+            page.getResources().put(COSName.getPDFName("F1"), font);
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page))
+            {
+                cs.beginText();
+                cs.setFont(font, 12);
+                cs.newLineAtOffset(50, 700);
+                cs.showText(text);
+                cs.endText();
+            }
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            doc.save(baos);
+            return baos.toByteArray();
+        }
+    }
+}
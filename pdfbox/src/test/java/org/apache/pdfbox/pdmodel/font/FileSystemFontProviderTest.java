@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.font;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the disk cache of the FileSystemFontProvider class.
+ */
+class FileSystemFontProviderTest
+{
+    private static final String LIBERATION_SANS =
+            "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+    private static final String LOHIT_BENGALI = "/org/apache/pdfbox/ttf/Lohit-Bengali.ttf";
+
+    private File dir;
+    private File cacheFile;
+    private File sansFile;
+    private File bengaliFile;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        dir = Files.createTempDirectory("pdfbox-fontcache").toFile();
+        cacheFile = new File(dir, "fontcache");
+        sansFile = new File(dir, "sans.ttf");
+        bengaliFile = new File(dir, "bengali.ttf");
+        copy(LIBERATION_SANS, sansFile);
+        copy(LOHIT_BENGALI, bengaliFile);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        File[] files = dir.listFiles();
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    /**
+     * The fonts are read from the cache when the font files haven't changed.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testCacheRoundTrip() throws IOException
+    {
+        List<String> scanned = getPostScriptNames(createProvider());
+        assertEquals(Arrays.asList("LiberationSans", "Lohit-Bengali"), scanned);
+        assertTrue(cacheFile.isFile());
+
+        // the file can't be parsed any more, but the cache entry is still up to date
+        overwriteKeepingTimestamp(sansFile);
+        FileSystemFontProvider provider = createProvider();
+        assertEquals(scanned, getPostScriptNames(provider));
+        FontInfo sans = provider.getFontInfo().get(0);
+        assertEquals(FontFormat.TTF, sans.getFormat());
+        assertEquals(400, sans.getWeightClass());
+        assertNotNull(sans.getPanose());
+    }
+
+    /**
+     * Only changed files are parsed again, removed files are dropped from the cache.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testIncrementalRescan() throws IOException
+    {
+        createProvider();
+
+        // replace a font with another one
+        copy(LOHIT_BENGALI, sansFile);
+        sansFile.setLastModified(sansFile.lastModified() + 2000);
+        assertEquals(Arrays.asList("Lohit-Bengali", "Lohit-Bengali"),
+                getPostScriptNames(createProvider()));
+
+        // remove a font
+        Files.delete(bengaliFile.toPath());
+        assertEquals(Collections.singletonList("Lohit-Bengali"),
+                getPostScriptNames(createProvider()));
+
+        // the cache doesn't contain the removed font, so it is found again after being restored
+        copy(LIBERATION_SANS, bengaliFile);
+        assertEquals(Arrays.asList("Lohit-Bengali", "LiberationSans"),
+                getPostScriptNames(createProvider()));
+    }
+
+    /**
+     * All files are parsed again when the cache can't be read.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testCorruptCache() throws IOException
+    {
+        List<String> expected = getPostScriptNames(createProvider());
+        byte[] cache = Files.readAllBytes(cacheFile.toPath());
+
+        // truncated
+        Files.write(cacheFile.toPath(), Arrays.copyOf(cache, cache.length / 2));
+        assertEquals(expected, getPostScriptNames(createProvider()));
+        assertEquals(cache.length, cacheFile.length());
+
+        // garbage after the header and the number of files
+        byte[] garbage = cache.clone();
+        Arrays.fill(garbage, 12, garbage.length, (byte) 0xFF);
+        Files.write(cacheFile.toPath(), garbage);
+        assertEquals(expected, getPostScriptNames(createProvider()));
+        assertEquals(cache.length, cacheFile.length());
+
+        // unknown format
+        Files.write(cacheFile.toPath(), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        assertEquals(expected, getPostScriptNames(createProvider()));
+        assertEquals(cache.length, cacheFile.length());
+    }
+
+    private FileSystemFontProvider createProvider()
+    {
+        List<File> files = new ArrayList<>();
+        for (File file : Arrays.asList(sansFile, bengaliFile))
+        {
+            if (file.exists())
+            {
+                files.add(file);
+            }
+        }
+        return new FileSystemFontProvider(new FontCache(), files, cacheFile);
+    }
+
+    private static List<String> getPostScriptNames(FileSystemFontProvider provider)
+    {
+        List<String> names = new ArrayList<>();
+        for (FontInfo info : provider.getFontInfo())
+        {
+            names.add(info.getPostScriptName());
+        }
+        return names;
+    }
+
+    private static void copy(String resource, File file) throws IOException
+    {
+        try (InputStream is = FileSystemFontProviderTest.class.getResourceAsStream(resource))
+        {
+            Files.copy(is, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void overwriteKeepingTimestamp(File file) throws IOException
+    {
+        long lastModified = file.lastModified();
+        Files.write(file.toPath(), new byte[(int) file.length()]);
+        assertTrue(file.setLastModified(lastModified));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.font;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the primitive metric tables FloatRangeTable and IntFloatMap.
+ */
+class FloatRangeTableTest
+{
+    @Test
+    void testOrderedRangesAreMerged()
+    {
+        FloatRangeTable.Builder builder = new FloatRangeTable.Builder(1);
+        builder.add(1, 1, 500);
+        builder.add(2, 2, 500);
+        builder.add(3, 10, 500);
+        builder.add(12, 11, 700); // empty
+        builder.add(20, 30, 250);
+        FloatRangeTable table = builder.build();
+
+        assertEquals(2, table.getRangeCount());
+        assertEquals(500, table.get(1, -1));
+        assertEquals(500, table.get(10, -1));
+        assertEquals(-1, table.get(11, -1));
+        assertEquals(-1, table.get(0, -1));
+        assertEquals(250, table.get(25, -1));
+        assertEquals(-1, table.get(31, -1));
+    }
+
+    /**
+     * Overlapping ranges give the same result as putting every key into a map in definition
+     * order.
+     */
+    @Test
+    void testOverlappingRangesLikeMap()
+    {
+        Random random = new Random(4711);
+        for (int round = 0; round < 50; round++)
+        {
+            FloatRangeTable.Builder builder = new FloatRangeTable.Builder(3);
+            Map<Integer, float[]> expected = new HashMap<>();
+            int ranges = 1 + random.nextInt(30);
+            for (int r = 0; r < ranges; r++)
+            {
+                int first = random.nextInt(200);
+                int last = first + random.nextInt(40) - 5;
+                float[] values = { random.nextInt(3), random.nextInt(2), r };
+                builder.add(first, last, values);
+                for (int cid = first; cid <= last; cid++)
+                {
+                    expected.put(cid, values);
+                }
+            }
+            FloatRangeTable table = builder.build();
+            for (int cid = -1; cid < 260; cid++)
+            {
+                float[] values = expected.get(cid);
+                int index = table.indexOf(cid);
+                if (values == null)
+                {
+                    assertEquals(-1, index, "cid " + cid);
+                }
+                else
+                {
+                    assertTrue(index >= 0, "cid " + cid);
+                    for (int i = 0; i < 3; i++)
+                    {
+                        assertEquals(values[i], table.getValue(index, i), "cid " + cid);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testIntFloatMap()
+    {
+        IntFloatMap map = new IntFloatMap(2);
+        Map<Integer, Float> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++)
+        {
+            int key = random.nextInt(3000) - 1000;
+            float value = random.nextFloat();
+            map.put(key, value);
+            expected.put(key, value);
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = -1000; key < 2000; key++)
+        {
+            Float value = expected.get(key);
+            assertEquals(value != null, map.containsKey(key));
+            assertEquals(value != null ? value : -1f, map.get(key, -1));
+        }
+        assertFalse(map.containsKey(Integer.MIN_VALUE));
+    }
+}
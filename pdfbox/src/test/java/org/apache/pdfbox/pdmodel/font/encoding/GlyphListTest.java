@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.font.encoding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the compiled glyph lists.
+ */
+class GlyphListTest
+{
+    private static final String[] NAMES = { "A", "Euro", "afii57636", "uni20AC", "a100", "g123" };
+
+    /**
+     * Check that the glyph lists compiled by the build are loaded.
+     */
+    @Test
+    void testCompiledResourceLoaded()
+    {
+        for (String name : new String[] { "glyphlist.txt", "zapfdingbats.txt" })
+        {
+            URL compiled = GlyphList.class.getResource(
+                    GlyphList.RESOURCE_PATH + name + GlyphList.COMPILED_SUFFIX);
+            assertNotNull(compiled, "Glyph lists haven't been compiled by the build");
+            // no source, so the compiled glyph list must be used
+            GlyphList glyphList = GlyphList.load(compiled, null, 0);
+            GlyphList expected = name.startsWith("glyphlist") ? GlyphList.getAdobeGlyphList()
+                    : GlyphList.getZapfDingbats();
+            assertSameMappings(expected, glyphList);
+        }
+    }
+
+    /**
+     * Check that a glyph list written by the compiler is read, and that the text is parsed if
+     * there is no compiled glyph list or if it can't be read.
+     *
+     * @throws IOException If something went wrong
+     */
+    @Test
+    void testCompilerAndFallback() throws IOException
+    {
+        File dir = Files.createTempDirectory("pdfbox-glyphlist").toFile();
+        File[] files = new File[4];
+        try
+        {
+            int i = 0;
+            for (String name : new String[] { "glyphlist.txt", "zapfdingbats.txt" })
+            {
+                files[i] = new File(dir, name);
+                try (InputStream is = GlyphList.class.getResourceAsStream(
+                        GlyphList.RESOURCE_PATH + name))
+                {
+                    Files.copy(is, files[i].toPath());
+                }
+                files[i + 1] = new File(dir, name + GlyphList.COMPILED_SUFFIX);
+                i += 2;
+            }
+            GlyphListCompiler.main(new String[] { dir.getPath() });
+
+            URL source = files[0].toURI().toURL();
+            URL compiled = files[1].toURI().toURL();
+            assertTrue(files[1].length() > 0);
+            GlyphList parsed = GlyphList.load(null, source, 4281);
+            assertSameMappings(GlyphList.getAdobeGlyphList(), parsed);
+            assertSameMappings(parsed, GlyphList.load(compiled, null, 0));
+
+            // not a compiled glyph list, the text is parsed
+            assertSameMappings(parsed, GlyphList.load(source, source, 4281));
+        }
+        finally
+        {
+            for (File file : files)
+            {
+                if (file != null)
+                {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> GlyphListCompiler.main(new String[0]));
+    }
+
+    private static void assertSameMappings(GlyphList expected, GlyphList actual)
+    {
+        for (String name : NAMES)
+        {
+            assertEquals(expected.toUnicode(name), actual.toUnicode(name), name);
+            String unicode = expected.toUnicode(name);
+            if (unicode != null)
+            {
+                assertEquals(expected.codePointToName(unicode.codePointAt(0)),
+                        actual.codePointToName(unicode.codePointAt(0)), name);
+            }
+        }
+    }
+}
@@ -35,6 +35,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Hashtable;
 import java.util.Random;
+import java.util.zip.Adler32;
 import javax.imageio.ImageIO;
 
 import org.apache.pdfbox.Loader;
@@ -671,4 +672,59 @@ class LosslessFactoryTest
 
         doWritePDF(document, ximage, TESTRESULTSDIR, "png16bit.pdf");
     }
+
+    /**
+     * Tests that encoding in parallel row stripes gives the same image as the sequential
+     * encoding, including the soft mask.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testCreateLosslessFromImageInStripes() throws IOException
+    {
+        PDDocument document = new PDDocument();
+        int width = 237;
+        int height = 611;
+        BufferedImage argbImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(4711);
+        for (int y = 0; y < height; ++y)
+        {
+            for (int x = 0; x < width; ++x)
+            {
+                int alpha = (x + y) % 256;
+                argbImage.setRGB(x, y, (alpha << 24) | (x * y + random.nextInt(16)) & 0xFFFFFF);
+            }
+        }
+
+        PDImageXObject ximage = LosslessFactory.createFromImage(document, argbImage, 4, 0);
+        validate(ximage, 8, width, height, "png", PDDeviceRGB.INSTANCE.getName());
+        checkIdent(argbImage, ximage.getImage());
+        checkIdentRGB(argbImage, ximage.getOpaqueImage());
+
+        PDImageXObject ximageSequential = LosslessFactory.createFromImage(document, argbImage, 1, 0);
+        checkIdent(ximageSequential.getImage(), ximage.getImage());
+
+        assertNotNull(ximage.getSoftMask());
+        validate(ximage.getSoftMask(), 8, width, height, "png", PDDeviceGray.INSTANCE.getName());
+
+        doWritePDF(document, ximage, TESTRESULTSDIR, "stripes.pdf");
+    }
+
+    /**
+     * Tests the zlib algorithm for combining Adler-32 checksums.
+     */
+    @Test
+    void testAdler32Combine()
+    {
+        byte[] data = new byte[100000];
+        new Random(42).nextBytes(data);
+        Adler32 adler = new Adler32();
+        adler.update(data);
+        Adler32 adler1 = new Adler32();
+        adler1.update(data, 0, 12345);
+        Adler32 adler2 = new Adler32();
+        adler2.update(data, 12345, data.length - 12345);
+        assertEquals(adler.getValue(), LosslessFactory.adler32Combine(
+                adler1.getValue(), adler2.getValue(), data.length - 12345));
+    }
 }
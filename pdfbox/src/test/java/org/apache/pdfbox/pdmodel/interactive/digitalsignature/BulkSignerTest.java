@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.interactive.digitalsignature;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the BulkSigner class.
+ */
+class BulkSignerTest
+{
+    /**
+     * Signs several documents concurrently with a signer which returns the SHA-256 digest of the
+     * signed content instead of a CMS signature.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testSignConcurrently() throws IOException
+    {
+        List<byte[]> originals = new ArrayList<>();
+        for (int i = 1; i <= 6; i++)
+        {
+            try (PDDocument doc = new PDDocument())
+            {
+                for (int p = 0; p < i; p++)
+                {
+                    doc.addPage(new PDPage());
+                }
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                doc.save(baos);
+                originals.add(baos.toByteArray());
+            }
+        }
+
+        List<ByteArrayOutputStream> outputs = new ArrayList<>();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        try (BulkSigner bulkSigner = new BulkSigner(BulkSignerTest::digest, 3))
+        {
+            bulkSigner.setPreferredSignatureSize(100);
+            for (byte[] original : originals)
+            {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                outputs.add(output);
+                results.add(bulkSigner.sign(original, output));
+            }
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+
+        for (int i = 0; i < originals.size(); i++)
+        {
+            byte[] signed = outputs.get(i).toByteArray();
+            byte[] original = originals.get(i);
+            assertArrayEquals(original, Arrays.copyOf(signed, original.length));
+            try (PDDocument doc = Loader.loadPDF(signed))
+            {
+                assertEquals(i + 1, doc.getNumberOfPages());
+                assertEquals(1, doc.getSignatureDictionaries().size());
+                PDSignature signature = doc.getLastSignatureDictionary();
+                assertEquals(PDSignature.SUBFILTER_ADBE_PKCS7_DETACHED.getName(),
+                        signature.getSubFilter());
+                byte[] expected = digest(signature.getSignedContent(signed));
+                assertArrayEquals(expected,
+                        Arrays.copyOf(signature.getContents(signed), expected.length));
+            }
+        }
+    }
+
+    /**
+     * A failing document completes its future exceptionally.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testSignFailure() throws IOException
+    {
+        CompletableFuture<Void> result;
+        try (BulkSigner bulkSigner = new BulkSigner(BulkSignerTest::digest, 1))
+        {
+            result = bulkSigner.sign(new byte[] { 1, 2, 3 }, new ByteArrayOutputStream());
+        }
+        assertThrows(CompletionException.class, result::join);
+    }
+
+    /**
+     * The output stream is closed and the output file is deleted when the signing fails.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testSignFailureCleanup() throws IOException
+    {
+        File input = File.createTempFile("pdfbox", ".pdf");
+        File output = File.createTempFile("pdfbox-signed", ".pdf");
+        try
+        {
+            try (PDDocument doc = new PDDocument())
+            {
+                doc.addPage(new PDPage());
+                doc.save(input);
+            }
+            AtomicBoolean closed = new AtomicBoolean();
+            CompletableFuture<Void> fileResult;
+            CompletableFuture<Void> streamResult;
+            try (BulkSigner bulkSigner = new BulkSigner(content ->
+            {
+                throw new IOException("signing failed");
+            }, 1))
+            {
+                fileResult = bulkSigner.sign(input, output);
+                streamResult = bulkSigner.sign(new byte[] { 1, 2, 3 }, new ByteArrayOutputStream()
+                {
+                    @Override
+                    public void close()
+                    {
+                        closed.set(true);
+                    }
+                });
+            }
+            assertThrows(CompletionException.class, fileResult::join);
+            assertFalse(output.exists());
+            assertThrows(CompletionException.class, streamResult::join);
+            assertTrue(closed.get());
+        }
+        finally
+        {
+            input.delete();
+            output.delete();
+        }
+    }
+
+    /**
+     * Closing doesn't wait longer than the shutdown timeout for a signer which never returns.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testCloseTimeout() throws Exception
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument doc = new PDDocument())
+        {
+            doc.addPage(new PDPage());
+            doc.save(baos);
+        }
+        CountDownLatch signing = new CountDownLatch(1);
+        BulkSigner bulkSigner = new BulkSigner(content ->
+        {
+            signing.countDown();
+            try
+            {
+                new CountDownLatch(1).await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("interrupted");
+        }, 1);
+        bulkSigner.setShutdownTimeout(100, TimeUnit.MILLISECONDS);
+        CompletableFuture<Void> result = bulkSigner.sign(baos.toByteArray(),
+                new ByteArrayOutputStream());
+        signing.await();
+        assertThrows(IOException.class, bulkSigner::close);
+        assertThrows(CompletionException.class, result::join);
+    }
+
+    private static byte[] digest(InputStream content) throws IOException
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256").digest(IOUtils.toByteArray(content));
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    private static byte[] digest(byte[] content) throws IOException
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException(e);
+        }
+    }
+}
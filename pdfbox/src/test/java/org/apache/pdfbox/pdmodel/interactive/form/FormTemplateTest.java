@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.pdmodel.interactive.form;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the FormTemplate class.
+ */
+class FormTemplateTest
+{
+    private static final File IN_DIR = new File("src/test/resources/org/apache/pdfbox/pdmodel/interactive/form");
+
+    @Test
+    void testFieldIndex() throws IOException
+    {
+        FormTemplate template;
+        List<String> expected = new ArrayList<>();
+        try (PDDocument doc = Loader.loadPDF(new File(IN_DIR, "AcroFormsBasicFields.pdf")))
+        {
+            template = FormTemplate.compile(doc);
+            for (PDField field : doc.getDocumentCatalog().getAcroForm().getFieldTree())
+            {
+                if (!expected.contains(field.getFullyQualifiedName()))
+                {
+                    expected.add(field.getFullyQualifiedName());
+                }
+            }
+        }
+        assertEquals(expected, new ArrayList<>(template.getFieldNames()));
+
+        assertThrows(IOException.class,
+                () -> template.fill(Collections.singletonMap("NoSuchField", "value")));
+    }
+
+    @Test
+    void testFillConcurrently() throws Exception
+    {
+        FormTemplate template = FormTemplate.compile(
+                Files.readAllBytes(new File(IN_DIR, "AcroFormsBasicFields.pdf").toPath()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+            {
+                String value = "value " + i;
+                results.add(executor.submit(() ->
+                {
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    template.fill(Collections.singletonMap("TextField", value), false, baos);
+                    return baos.toByteArray();
+                }));
+            }
+            for (int i = 0; i < results.size(); i++)
+            {
+                try (PDDocument doc = Loader.loadPDF(results.get(i).get()))
+                {
+                    PDAcroForm acroForm = doc.getDocumentCatalog().getAcroForm();
+                    assertEquals("value " + i, acroForm.getField("TextField").getValueAsString());
+                    // other fields are untouched
+                    assertEquals("DefaultValue",
+                            acroForm.getField("TextField-DefaultValue").getValueAsString());
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testFillAndFlatten() throws IOException
+    {
+        FormTemplate template = FormTemplate.compile(
+                Files.readAllBytes(new File(IN_DIR, "AlignmentTests.pdf").toPath()));
+        String name = template.getFieldNames().iterator().next();
+        try (PDDocument doc = template.fill(Collections.singletonMap(name, "flattened"), true))
+        {
+            PDAcroForm acroForm = doc.getDocumentCatalog().getAcroForm(null);
+            assertTrue(acroForm.getFields().isEmpty());
+            assertNull(acroForm.getField(name));
+        }
+    }
+}
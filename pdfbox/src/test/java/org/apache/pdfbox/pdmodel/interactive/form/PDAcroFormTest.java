@@ -31,6 +31,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
 import org.apache.pdfbox.cos.COSDictionary;
 import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -120,6 +122,36 @@ class PDAcroFormTest
         
     }
 
+    /*
+     * All widgets of a page shall be flattened into a single appended content stream.
+     */
+    @Test
+    void testFlattenSingleContentStreamPerPage() throws IOException
+    {
+        try (PDDocument testPdf = Loader.loadPDF(new File(IN_DIR, "AlignmentTests.pdf")))
+        {
+            PDPage page = testPdf.getPage(0);
+            int streamsBeforeFlatten = countContentStreams(page);
+            assertTrue(countWidgets(testPdf) > 1);
+
+            testPdf.getDocumentCatalog().getAcroForm().flatten();
+
+            // one stream with "q" in front of the original content and one with the widgets
+            assertEquals(streamsBeforeFlatten + 2, countContentStreams(page));
+            assertEquals(0, countWidgets(testPdf));
+        }
+    }
+
+    private int countContentStreams(PDPage page)
+    {
+        COSBase contents = page.getCOSObject().getDictionaryObject(COSName.CONTENTS);
+        if (contents instanceof COSArray)
+        {
+            return ((COSArray) contents).size();
+        }
+        return contents == null ? 0 : 1;
+    }
+
     /*
      * Same as above but remove the page reference from the widget annotation
      * before doing the flatten() to ensure that the widgets page reference is properly looked up
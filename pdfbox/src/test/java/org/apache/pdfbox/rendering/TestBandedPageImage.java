@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the rendering of pages in bands.
+ */
+class TestBandedPageImage
+{
+    @Test
+    void testBandsOfCreatedPages() throws IOException
+    {
+        try (PDDocument document = new PDDocument())
+        {
+            for (int rotation : new int[] { 0, 90, 180, 270 })
+            {
+                PDPage page = new PDPage(PDRectangle.A6);
+                page.setRotation(rotation);
+                document.addPage(page);
+                try (PDPageContentStream contents = new PDPageContentStream(document, page))
+                {
+                    contents.setNonStrokingColor(0.2f, 0.4f, 0.8f);
+                    contents.addRect(20, 30, 150, 200);
+                    contents.fill();
+                    contents.setLineWidth(3);
+                    contents.moveTo(0, 0);
+                    contents.lineTo(297, 420);
+                    contents.stroke();
+                    contents.beginText();
+                    contents.setFont(PDType1Font.HELVETICA, 24);
+                    contents.newLineAtOffset(30, 300);
+                    contents.showText("Bands " + rotation);
+                    contents.endText();
+                }
+            }
+            PDFRenderer renderer = new PDFRenderer(document);
+            for (int i = 0; i < document.getNumberOfPages(); i++)
+            {
+                for (ImageType imageType : new ImageType[] { ImageType.RGB, ImageType.BINARY })
+                {
+                    checkBands(renderer, i, 1.5f, imageType, 37);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testInvalidBands() throws IOException
+    {
+        try (PDDocument document = new PDDocument())
+        {
+            document.addPage(new PDPage(PDRectangle.A6));
+            PDFRenderer renderer = new PDFRenderer(document);
+            assertThrows(IllegalArgumentException.class, () -> renderer.renderImageBand(0, 1,
+                    ImageType.RGB, RenderDestination.EXPORT, 419, 10));
+            assertThrows(IllegalArgumentException.class, () -> renderer.renderImageBand(0, 1,
+                    ImageType.RGB, RenderDestination.EXPORT, -1, 10));
+            assertThrows(IllegalArgumentException.class, () -> renderer.renderImageBand(0, 1,
+                    ImageType.RGB, RenderDestination.EXPORT, 0, 0));
+            assertThrows(IllegalArgumentException.class, () -> new BandedPageImage(renderer, 0,
+                    1, ImageType.RGB, RenderDestination.EXPORT, 0));
+            // the last band is cut at the bottom of the page
+            assertEquals(1, renderer.renderImageBand(0, 1, ImageType.RGB,
+                    RenderDestination.EXPORT, 418, 10).getHeight());
+        }
+    }
+
+    private static void checkBands(PDFRenderer renderer, int pageIndex, float scale,
+            ImageType imageType, int bandHeight) throws IOException
+    {
+        BufferedImage expected = renderer.renderImage(pageIndex, scale, imageType,
+                RenderDestination.EXPORT);
+        BandedPageImage banded = new BandedPageImage(renderer, pageIndex, scale, imageType,
+                RenderDestination.EXPORT, bandHeight);
+        assertEquals(expected.getWidth(), banded.getWidth());
+        assertEquals(expected.getHeight(), banded.getHeight());
+        assertEquals(expected.getColorModel(), banded.getColorModel());
+        assertEquals((expected.getHeight() + bandHeight - 1) / bandHeight, banded.getNumYTiles());
+
+        // whole image, rows crossing the bands and single rows as read by image writers
+        assertSamePixels(expected.getRaster(), banded.getData());
+        Rectangle rect = new Rectangle(3, bandHeight - 5, expected.getWidth() - 6, bandHeight + 10);
+        assertSamePixels(expected.getData(rect), banded.getData(rect));
+        for (int y = 0; y < expected.getHeight(); y += 7)
+        {
+            rect = new Rectangle(0, y, expected.getWidth(), 1);
+            assertSamePixels(expected.getData(rect), banded.getData(rect));
+        }
+    }
+
+    private static void assertSamePixels(Raster expected, Raster actual)
+    {
+        assertEquals(expected.getMinX(), actual.getMinX());
+        assertEquals(expected.getMinY(), actual.getMinY());
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = expected.getMinY(); y < expected.getMinY() + expected.getHeight(); y++)
+        {
+            assertArrayEquals(
+                    expected.getPixels(expected.getMinX(), y, expected.getWidth(), 1, (int[]) null),
+                    actual.getPixels(actual.getMinX(), y, actual.getWidth(), 1, (int[]) null),
+                    "row " + y);
+        }
+    }
+}
@@ -39,23 +39,33 @@ import java.io.LineNumberReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.net.URISyntaxException;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.fontbox.util.BoundingBox;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.PDType3Font;
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.destination.PDPageDestination;
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+import org.apache.pdfbox.util.Matrix;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -619,6 +629,121 @@ class TestTextStripper
         assertFalse(bFail);
     }
 
+    /**
+     * Test that the text of each angle is the same as when the page is rotated for each angle and
+     * only the horizontal text is extracted.
+     */
+    @Test
+    void testSeparateByAngle() throws IOException
+    {
+        try (PDDocument doc = new PDDocument())
+        {
+            PDPage page = new PDPage(PDRectangle.A4);
+            doc.addPage(page);
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page))
+            {
+                cs.setFont(PDType1Font.HELVETICA, 12);
+                showText(cs, Matrix.getTranslateInstance(50, 700), "Horizontal line one");
+                showText(cs, Matrix.getTranslateInstance(50, 680), "Horizontal line two");
+                showText(cs, Matrix.getRotateInstance(Math.toRadians(90), 300, 100), "Upwards text");
+                showText(cs, Matrix.getRotateInstance(Math.toRadians(30), 100, 300), "Skewed line one");
+                showText(cs, Matrix.getRotateInstance(Math.toRadians(30.2), 110, 280), "Skewed line two");
+                showText(cs, Matrix.getRotateInstance(Math.toRadians(-45), 300, 600), "Downwards");
+            }
+            // empty page
+            doc.addPage(new PDPage());
+            PDPage rotatedPage = new PDPage(new PDRectangle(20, 30, 400, 500));
+            rotatedPage.setRotation(90);
+            doc.addPage(rotatedPage);
+            try (PDPageContentStream cs = new PDPageContentStream(doc, rotatedPage))
+            {
+                cs.setFont(PDType1Font.TIMES_ROMAN, 10);
+                showText(cs, Matrix.getTranslateInstance(50, 400), "Text on a rotated page");
+                showText(cs, Matrix.getRotateInstance(Math.toRadians(270), 200, 400), "Across");
+            }
+
+            for (boolean sort : new boolean[] { false, true })
+            {
+                PDFTextStripper stripper = new PDFTextStripper();
+                stripper.setSortByPosition(sort);
+                stripper.setSeparateByAngle(true);
+                String actual = stripper.getText(doc);
+                assertEquals(getTextByRotatingPages(doc, sort), actual);
+                assertTrue(actual.contains("Skewed line one"));
+                assertTrue(actual.contains("Skewed line two"));
+                assertTrue(actual.contains("Across"));
+            }
+        }
+    }
+
+    private static void showText(PDPageContentStream cs, Matrix matrix, String text)
+            throws IOException
+    {
+        cs.beginText();
+        cs.setTextMatrix(matrix);
+        cs.showText(text);
+        cs.endText();
+    }
+
+    /**
+     * The text of each angle, extracted by rotating each page once per angle.
+     */
+    private static String getTextByRotatingPages(PDDocument doc, boolean sort) throws IOException
+    {
+        StringWriter output = new StringWriter();
+        for (int p = 1; p <= doc.getNumberOfPages(); p++)
+        {
+            PDPage page = doc.getPage(p - 1);
+            int rotation = page.getRotation();
+            page.setRotation(0);
+            Set<Integer> angles = new TreeSet<>();
+            PDFTextStripper angleCollector = new PDFTextStripper()
+            {
+                @Override
+                protected void processTextPosition(TextPosition text)
+                {
+                    angles.add((getAngle(text) + 360) % 360);
+                }
+            };
+            angleCollector.setStartPage(p);
+            angleCollector.setEndPage(p);
+            angleCollector.getText(doc);
+            PDFTextStripper stripper = new PDFTextStripper()
+            {
+                @Override
+                protected void processTextPosition(TextPosition text)
+                {
+                    if (getAngle(text) == 0)
+                    {
+                        super.processTextPosition(text);
+                    }
+                }
+            };
+            stripper.setSortByPosition(sort);
+            stripper.setStartPage(p);
+            stripper.setEndPage(p);
+            for (int angle : angles)
+            {
+                try (PDPageContentStream cs = new PDPageContentStream(doc, page,
+                        PDPageContentStream.AppendMode.PREPEND, false))
+                {
+                    cs.transform(Matrix.getRotateInstance(-Math.toRadians(angle), 0, 0));
+                }
+                stripper.writeText(doc, output);
+                ((COSArray) page.getCOSObject().getItem(COSName.CONTENTS)).remove(0);
+            }
+            page.setRotation(rotation);
+        }
+        return output.toString();
+    }
+
+    private static int getAngle(TextPosition text)
+    {
+        Matrix m = text.getTextMatrix().clone();
+        m.concatenate(text.getFont().getFontMatrix());
+        return (int) Math.round(Math.toDegrees(Math.atan2(m.getShearY(), m.getScaleY())));
+    }
+
     private class PDFTabulaTextStripper extends PDFTextStripper
     {
         PDFTabulaTextStripper() throws IOException
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the small and the hashed storage of SmallMap.
+ */
+class SmallMapTest
+{
+    @Test
+    void testGrowAndShrink()
+    {
+        Map<String, Integer> map = new SmallMap<>();
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        int count = SmallMap.HASH_THRESHOLD * 10;
+        for (int i = 0; i < count; i++)
+        {
+            assertNull(map.put("key" + i, i));
+            expected.put("key" + i, i);
+            assertSameContent(expected, map);
+        }
+        assertEquals(Integer.valueOf(5), map.put("key5", 500));
+        expected.put("key5", 500);
+        assertSameContent(expected, map);
+
+        // remove in an order which moves items from the middle and the end
+        for (int i = 0; i < count; i += 2)
+        {
+            assertEquals(expected.remove("key" + i), map.remove("key" + i));
+            assertSameContent(expected, map);
+        }
+        for (int i = count - 1; i > 0; i -= 2)
+        {
+            assertEquals(expected.remove("key" + i), map.remove("key" + i));
+            assertSameContent(expected, map);
+        }
+        assertTrue(map.isEmpty());
+        assertNull(map.remove("key1"));
+    }
+
+    @Test
+    void testRandomOperations()
+    {
+        Random random = new Random(4711);
+        Map<Integer, Integer> map = new SmallMap<>();
+        Map<Integer, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 20000; i++)
+        {
+            Integer key = random.nextInt(100);
+            switch (random.nextInt(4))
+            {
+                case 0:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 1:
+                    Map<Integer, Integer> other = new LinkedHashMap<>();
+                    for (int j = random.nextInt(20); j > 0; j--)
+                    {
+                        other.put(random.nextInt(100), i);
+                    }
+                    expected.putAll(other);
+                    map.putAll(other);
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertSameContent(expected, map);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    void testPutAllLarge()
+    {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++)
+        {
+            expected.put("key" + i, i);
+        }
+        Map<String, Integer> map = new SmallMap<>();
+        map.put("key50", -1);
+        map.put("first", 0);
+        map.putAll(expected);
+        Map<String, Integer> expectedAll = new LinkedHashMap<>();
+        expectedAll.put("key50", -1);
+        expectedAll.put("first", 0);
+        expectedAll.putAll(expected);
+        assertSameContent(expectedAll, map);
+        assertSameContent(expected, new SmallMap<>(expected));
+        assertThrows(NullPointerException.class, () -> map.put("null", null));
+    }
+
+    /**
+     * Large dictionaries keep the order of insertion, which is the order in which they are
+     * written.
+     */
+    @Test
+    void testLargeDictionary()
+    {
+        COSDictionary dict = new COSDictionary();
+        List<COSName> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            COSName name = COSName.getPDFName("Im" + (1000 - i));
+            names.add(name);
+            dict.setInt(name, i);
+        }
+        assertEquals(names, new ArrayList<>(dict.keySet()));
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(i, dict.getInt(COSName.getPDFName("Im" + (1000 - i))));
+        }
+        dict.removeItem(names.get(10));
+        assertEquals(999, dict.size());
+        assertNull(dict.getDictionaryObject(names.get(10)));
+        List<COSBase> values = new ArrayList<>(dict.getValues());
+        assertEquals(COSInteger.get(11), values.get(10));
+    }
+
+    private static <K, V> void assertSameContent(Map<K, V> expected, Map<K, V> actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(actual.values()));
+        for (Map.Entry<K, V> entry : expected.entrySet())
+        {
+            assertTrue(actual.containsKey(entry.getKey()));
+            assertTrue(actual.containsValue(entry.getValue()));
+            assertEquals(entry.getValue(), actual.get(entry.getKey()));
+        }
+        List<K> entryKeys = new ArrayList<>();
+        actual.entrySet().forEach(entry -> entryKeys.add(entry.getKey()));
+        assertEquals(new ArrayList<>(expected.keySet()), entryKeys);
+    }
+}
@@ -67,6 +67,27 @@ class TestNumberFormatUtil
                           Arrays.copyOfRange(buffer, 0, 11));
     }
 
+    @Test
+    void testFormatOfLongValues()
+    {
+        assertEquals(1, NumberFormatUtil.formatLongFast(0, buffer));
+        assertArrayEquals(new byte[]{'0'}, Arrays.copyOfRange(buffer, 0, 1));
+
+        assertEquals(10, NumberFormatUtil.formatLongFast(Integer.MAX_VALUE, buffer));
+        assertArrayEquals("2147483647".getBytes(StandardCharsets.US_ASCII),
+                          Arrays.copyOfRange(buffer, 0, 10));
+
+        assertEquals(11, NumberFormatUtil.formatLongFast(Integer.MIN_VALUE, buffer));
+        assertArrayEquals("-2147483648".getBytes(StandardCharsets.US_ASCII),
+                          Arrays.copyOfRange(buffer, 0, 11));
+
+        assertEquals(19, NumberFormatUtil.formatLongFast(Long.MAX_VALUE, buffer));
+        assertArrayEquals("9223372036854775807".getBytes(StandardCharsets.US_ASCII),
+                          Arrays.copyOfRange(buffer, 0, 19));
+
+        assertEquals(-1, NumberFormatUtil.formatLongFast(Long.MIN_VALUE, buffer));
+    }
+
     @Test
     void testFormatOfRealValues()
     {
@@ -0,0 +1,293 @@
+/*****************************************************************************
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ ****************************************************************************/
+
+package org.apache.pdfbox.preflight;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.pdmodel.common.COSObjectable;
+import org.apache.pdfbox.preflight.ValidationResult.ValidationError;
+import org.apache.pdfbox.preflight.exception.ValidationException;
+import org.apache.pdfbox.preflight.font.container.FontContainer;
+import org.apache.pdfbox.preflight.graphic.ICCProfileWrapper;
+import org.apache.pdfbox.preflight.process.ValidationProcess;
+
+/**
+ * The context of a single page which is validated while the content streams of other pages are
+ * validated concurrently.
+ *
+ * <p>The page is validated in page order by the thread running the page tree validation, only the
+ * validations passed to {@link #validateConcurrently(ValidationProcess)} are run by a worker
+ * thread afterwards. The errors aren't added to the document at once but are kept in the order in
+ * which they occur, until the page is merged into the document context with {@link #merge()}. The
+ * errors of invalid fonts are reported by the first merged page using the font, so the validation
+ * result is the same as if the pages were validated one after the other.</p>
+ *
+ * <p>The font containers, the processed elements and the ICC profile are those of the document
+ * context.</p>
+ */
+public class PageValidationContext extends PreflightContext
+{
+    private final PreflightContext parent;
+
+    /**
+     * The results in the order in which they occurred, replayed on the document context by
+     * {@link #merge()}.
+     */
+    private final List<Runnable> results = new ArrayList<>();
+
+    private int errorCount = 0;
+
+    private final List<COSBase> addedFontContainers = new ArrayList<>();
+
+    private final List<COSObjectable> addedToProcessedSet = new ArrayList<>();
+
+    private final List<ValidationProcess> concurrentValidations = new ArrayList<>();
+
+    private Future<Void> future = null;
+
+    private Exception failure = null;
+
+    /**
+     * Create the context of a page.
+     *
+     * @param parent the context of the document.
+     * @param pageNumber the zero based page number.
+     */
+    public PageValidationContext(PreflightContext parent, int pageNumber)
+    {
+        super(parent.getConfig());
+        this.parent = parent;
+        setDocument(parent.getDocument());
+        setXrefTrailerResolver(parent.getXrefTrailerResolver());
+        setMetadata(parent.getMetadata());
+        setFileLen(parent.getFileLen());
+        setCurrentPageNumber(pageNumber);
+    }
+
+    /**
+     * Validate the page with this context and submit the concurrent validations to the given
+     * executor. If the page validation fails, the exception is thrown by {@link #merge()}.
+     *
+     * @param pageValidation the validation of the page.
+     * @param executor the executor running the concurrent validations.
+     * @return true if the page validation has finished, false if it failed.
+     */
+    public boolean validate(ValidationProcess pageValidation, ExecutorService executor)
+    {
+        try
+        {
+            pageValidation.validate(this);
+        }
+        catch (ValidationException | RuntimeException e)
+        {
+            failure = e;
+            return false;
+        }
+        if (!concurrentValidations.isEmpty())
+        {
+            future = executor.submit(() ->
+            {
+                for (ValidationProcess validation : concurrentValidations)
+                {
+                    validation.validate(this);
+                }
+                return null;
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of errors of the page validation, without the errors of invalid fonts and
+     * of the concurrent validations. Only the thread which has called
+     * {@link #validate(ValidationProcess, ExecutorService)} may call this method.
+     *
+     * @return the number of errors found so far.
+     */
+    public int getErrorCount()
+    {
+        return errorCount;
+    }
+
+    /**
+     * Wait for the concurrent validations of this page and add all errors to the document context.
+     *
+     * @throws ValidationException if the validation of the page failed.
+     */
+    public void merge() throws ValidationException
+    {
+        Throwable cause = failure;
+        if (future != null)
+        {
+            try
+            {
+                future.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new ValidationException("Interrupted while validating the page", e,
+                        getCurrentPageNumber());
+            }
+            catch (ExecutionException e)
+            {
+                cause = e.getCause();
+            }
+        }
+        results.forEach(Runnable::run);
+        if (cause instanceof ValidationException)
+        {
+            throw (ValidationException) cause;
+        }
+        if (cause instanceof RuntimeException)
+        {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error)
+        {
+            throw (Error) cause;
+        }
+        if (cause != null)
+        {
+            throw new ValidationException(cause.getMessage(), cause, getCurrentPageNumber());
+        }
+    }
+
+    /**
+     * Discard the validation of this page, e.g. because the validation of a previous page has been
+     * aborted. The font containers and the processed elements added by this page are removed from
+     * the document context.
+     */
+    public void discard()
+    {
+        if (future != null)
+        {
+            future.cancel(true);
+        }
+        addedFontContainers.forEach(parent::removeFontContainer);
+        addedToProcessedSet.forEach(parent::removeFromProcessedSet);
+    }
+
+    @Override
+    public void addValidationError(ValidationError error)
+    {
+        error.setPageNumber(getCurrentPageNumber());
+        results.add(() -> parent.getDocument().addValidationError(error));
+        errorCount++;
+    }
+
+    @Override
+    public void addValidationErrors(List<ValidationError> errors)
+    {
+        List<ValidationError> copy = new ArrayList<>(errors);
+        results.add(() -> copy.forEach(parent.getDocument()::addValidationError));
+        errorCount += copy.size();
+    }
+
+    @Override
+    public void addFontContainerErrors(FontContainer<?> fontContainer)
+    {
+        // the errors are reported by the first page using the font
+        results.add(() -> parent.addFontContainerErrors(fontContainer));
+    }
+
+    @Override
+    public void validateConcurrently(ValidationProcess validation) throws ValidationException
+    {
+        if (parent.getIccProfileWrapper() == null && !parent.isIccProfileAlreadySearched())
+        {
+            // the first search of the ICC profile may report errors, do it in page order
+            validation.validate(this);
+        }
+        else
+        {
+            concurrentValidations.add(validation);
+        }
+    }
+
+    @Override
+    public void addFontContainer(COSBase cBase, FontContainer<?> fc)
+    {
+        parent.addFontContainer(cBase, fc);
+        addedFontContainers.add(cBase);
+    }
+
+    @Override
+    public FontContainer<?> getFontContainer(COSBase cBase)
+    {
+        return parent.getFontContainer(cBase);
+    }
+
+    @Override
+    public ICCProfileWrapper getIccProfileWrapper()
+    {
+        return parent.getIccProfileWrapper();
+    }
+
+    @Override
+    public void setIccProfileWrapper(ICCProfileWrapper iccProfileWrapper)
+    {
+        parent.setIccProfileWrapper(iccProfileWrapper);
+    }
+
+    @Override
+    public boolean isIccProfileAlreadySearched()
+    {
+        return parent.isIccProfileAlreadySearched();
+    }
+
+    @Override
+    public void setIccProfileAlreadySearched(boolean iccProfileAlreadySearched)
+    {
+        parent.setIccProfileAlreadySearched(iccProfileAlreadySearched);
+    }
+
+    @Override
+    public void addToProcessedSet(COSObjectable cos)
+    {
+        if (!parent.isInProcessedSet(cos))
+        {
+            parent.addToProcessedSet(cos);
+            addedToProcessedSet.add(cos);
+        }
+    }
+
+    @Override
+    public boolean isInProcessedSet(COSObjectable cos)
+    {
+        return parent.isInProcessedSet(cos);
+    }
+
+    /**
+     * The document is closed by the document context.
+     */
+    @Override
+    public void close()
+    {
+        // nothing to close
+    }
+}
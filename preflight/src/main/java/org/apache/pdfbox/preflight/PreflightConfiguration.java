@@ -119,6 +119,16 @@ public class PreflightConfiguration
      */
     private int maxErrors = 10000;
 
+    /**
+     * Define the number of threads used to validate the content streams of the pages.
+     */
+    private int pageValidationThreads = 1;
+
+    /**
+     * The cache of the validation outcomes of fonts and ICC profiles, null if there is none.
+     */
+    private ResourceValidationCache resourceValidationCache;
+
     public static PreflightConfiguration createPdfA1BConfiguration()
     {
         PreflightConfiguration configuration = new PreflightConfiguration();
@@ -306,4 +316,54 @@ public class PreflightConfiguration
     {
         this.maxErrors = maxErrors;
     }
+
+    /**
+     * Get the number of threads used to validate the content streams of the pages.
+     *
+     * @return the number of threads, 1 if the pages are validated sequentially.
+     */
+    public int getPageValidationThreads()
+    {
+        return pageValidationThreads;
+    }
+
+    /**
+     * Set the number of threads used to validate the content streams of the pages. The other
+     * parts of a page are still validated in page order, the validation result is the same as with
+     * a single thread.
+     *
+     * @param pageValidationThreads the number of threads, 1 (the default) to validate the pages
+     * sequentially.
+     */
+    public void setPageValidationThreads(int pageValidationThreads)
+    {
+        if (pageValidationThreads < 1)
+        {
+            throw new IllegalArgumentException("At least one thread is needed: " + pageValidationThreads);
+        }
+        this.pageValidationThreads = pageValidationThreads;
+    }
+
+    /**
+     * Get the cache of the validation outcomes of fonts and ICC profiles.
+     *
+     * @return the cache, or null if every font and ICC profile is validated.
+     */
+    public ResourceValidationCache getResourceValidationCache()
+    {
+        return resourceValidationCache;
+    }
+
+    /**
+     * Set a cache of the validation outcomes of fonts and ICC profiles. The same cache can be set
+     * in the configurations of many validations, also of validations running at the same time, so
+     * that the fonts and ICC profiles embedded in many documents are validated once.
+     *
+     * @param resourceValidationCache the cache, or null (the default) to validate every font and
+     * ICC profile.
+     */
+    public void setResourceValidationCache(ResourceValidationCache resourceValidationCache)
+    {
+        this.resourceValidationCache = resourceValidationCache;
+    }
 }
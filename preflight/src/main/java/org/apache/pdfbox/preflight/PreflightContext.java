@@ -22,19 +22,21 @@
 package org.apache.pdfbox.preflight;
 
 import java.io.Closeable;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.pdfbox.cos.COSBase;
 import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.pdfparser.XrefTrailerResolver;
 import org.apache.pdfbox.pdmodel.common.COSObjectable;
 import org.apache.pdfbox.preflight.ValidationResult.ValidationError;
+import org.apache.pdfbox.preflight.exception.ValidationException;
 import org.apache.pdfbox.preflight.font.container.FontContainer;
 import org.apache.pdfbox.preflight.graphic.ICCProfileWrapper;
+import org.apache.pdfbox.preflight.process.ValidationProcess;
 import org.apache.xmpbox.XMPMetadata;
 
 public class PreflightContext implements Closeable
@@ -42,7 +44,7 @@ public class PreflightContext implements Closeable
     /**
      * Contains the list of font name embedded in the PDF document.
      */
-    private final Map<COSBase, FontContainer<?>> fontContainers = new HashMap<>();
+    private final Map<COSBase, FontContainer<?>> fontContainers = new ConcurrentHashMap<>();
 
     /**
      * The PDFbox object representation of the PDF source.
@@ -160,6 +162,44 @@ public class PreflightContext implements Closeable
         return this.fontContainers.get(cBase);
     }
 
+    /**
+     * Remove a FontContainer, used if the validation of a page is discarded.
+     *
+     * @param cBase the COSBase for the font container.
+     */
+    void removeFontContainer(COSBase cBase)
+    {
+        this.fontContainers.remove(cBase);
+    }
+
+    /**
+     * Add the errors of an invalid font, unless they have already been added. The errors are
+     * reported where the font is used first.
+     *
+     * @param fontContainer the font container.
+     */
+    public void addFontContainerErrors(FontContainer<?> fontContainer)
+    {
+        if (!fontContainer.errorsAleadyMerged())
+        {
+            addValidationErrors(fontContainer.getAllErrors());
+            fontContainer.setErrorsAlreadyMerged(true);
+        }
+    }
+
+    /**
+     * Run a validation which only reads the document and the font containers, e.g. the validation
+     * of a content stream. The validation is run at once, unless this context belongs to a page
+     * which is validated concurrently, see {@link PreflightConfiguration#setPageValidationThreads(int)}.
+     *
+     * @param validation the validation to be run with this context.
+     * @throws ValidationException
+     */
+    public void validateConcurrently(ValidationProcess validation) throws ValidationException
+    {
+        validation.validate(this);
+    }
+
     /**
      * @return the iccProfileWrapper
      */
@@ -286,4 +326,15 @@ public class PreflightContext implements Closeable
     {
         return processedSet.contains(cos);
     }
+
+    /**
+     * Remove the argument from the set of processed elements, used if the validation of a page is
+     * discarded.
+     *
+     * @param cos
+     */
+    void removeFromProcessedSet(COSObjectable cos)
+    {
+        processedSet.remove(cos);
+    }
 }
@@ -0,0 +1,387 @@
+/*****************************************************************************
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ ****************************************************************************/
+
+package org.apache.pdfbox.preflight;
+
+import java.awt.color.ICC_Profile;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSBoolean;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSFloat;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.preflight.ValidationResult.ValidationError;
+import org.apache.pdfbox.preflight.font.container.FontContainer;
+import org.apache.pdfbox.preflight.font.util.GlyphDetail;
+import org.apache.pdfbox.util.Hex;
+
+/**
+ * A cache of the validation outcomes of embedded fonts and of parsed ICC profiles, which can be
+ * shared by the validations of many documents, see
+ * {@link PreflightConfiguration#setResourceValidationCache(ResourceValidationCache)}. A font or a
+ * profile which is embedded in many documents is validated once.
+ *
+ * <p>The entries are keyed by a SHA-256 digest of the content of the resource, i.e. of the font
+ * dictionary with all the objects and streams it refers to, or of the bytes of the ICC profile.
+ * The number of entries is bounded, the least recently used entry is removed first. A cache can be
+ * used by several threads.</p>
+ */
+public class ResourceValidationCache
+{
+    private final int maxEntries;
+    private final Map<String, Object> entries;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Create a cache.
+     *
+     * @param maxEntries the maximum number of fonts and ICC profiles kept by the cache.
+     * @throws IllegalArgumentException if the maximum number of entries is less than 1.
+     */
+    public ResourceValidationCache(int maxEntries)
+    {
+        if (maxEntries < 1)
+        {
+            throw new IllegalArgumentException("At least one entry is needed: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, Object>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest)
+            {
+                return size() > ResourceValidationCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the ICC profile of a stream, which is parsed if no stream with the same bytes has
+     * been parsed before. A profile which can't be parsed is remembered as well.
+     *
+     * @param stream the stream of the ICC profile.
+     * @return the ICC profile, it must not be modified.
+     * @throws IOException if the stream can't be read.
+     * @throws IllegalArgumentException if the stream isn't a valid ICC profile.
+     */
+    public ICC_Profile getICCProfile(COSStream stream) throws IOException
+    {
+        byte[] bytes;
+        try (InputStream is = stream.createInputStream())
+        {
+            bytes = IOUtils.toByteArray(is);
+        }
+        MessageDigest md = createDigest();
+        md.update(bytes);
+        String key = "icc:" + Hex.getString(md.digest());
+        Object entry = get(key);
+        if (entry == null)
+        {
+            try
+            {
+                // PDFBOX-2819: load ICC profile as a stream, not as a byte array because of java error
+                entry = ICC_Profile.getInstance(new ByteArrayInputStream(bytes));
+            }
+            catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e)
+            {
+                entry = e.getMessage() == null ? e.toString() : e.getMessage();
+            }
+            put(key, entry);
+        }
+        if (entry instanceof ICC_Profile)
+        {
+            return (ICC_Profile) entry;
+        }
+        throw new IllegalArgumentException((String) entry);
+    }
+
+    /**
+     * Returns the outcome of the validation of a font with the same content as the given one.
+     *
+     * @param key the key of the font, see {@link #createFontKey(COSDictionary, String)}.
+     * @return the outcome or null if no such font has been validated.
+     */
+    public FontOutcome getFontOutcome(String key)
+    {
+        return (FontOutcome) get(key);
+    }
+
+    /**
+     * Keep the outcome of the validation of a font. The errors of the container are copied, the
+     * glyph checks are shared with the container, so that the glyphs checked later by the content
+     * streams of the document are known to the next documents as well.
+     *
+     * @param key the key of the font, see {@link #createFontKey(COSDictionary, String)}.
+     * @param fontContainer the container of the validated font.
+     */
+    public void putFontOutcome(String key, FontContainer<?> fontContainer)
+    {
+        FontOutcome outcome = new FontOutcome(fontContainer.getAllErrors(),
+                fontContainer.isEmbeddedFont());
+        fontContainer.shareGlyphDetails(outcome.glyphDetails);
+        put(key, outcome);
+    }
+
+    /**
+     * Create the key of a font from the digest of its content.
+     *
+     * @param fontDictionary the font dictionary.
+     * @param validation identifies the validation, fonts are only shared by the same validations.
+     * @return the key of the font.
+     * @throws IOException if a stream of the font can't be read.
+     */
+    public String createFontKey(COSDictionary fontDictionary, String validation) throws IOException
+    {
+        MessageDigest md = createDigest();
+        update(md, fontDictionary, new IdentityHashMap<>());
+        return "font:" + validation + ":" + Hex.getString(md.digest());
+    }
+
+    /**
+     * Returns the number of fonts and ICC profiles which were found in the cache.
+     *
+     * @return the number of hits.
+     */
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of fonts and ICC profiles which had to be validated or parsed.
+     *
+     * @return the number of misses.
+     */
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of fonts and ICC profiles kept by the cache.
+     *
+     * @return the number of entries.
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+    }
+
+    private synchronized Object get(String key)
+    {
+        Object entry = entries.get(key);
+        if (entry != null)
+        {
+            hitCount.incrementAndGet();
+        }
+        else
+        {
+            missCount.incrementAndGet();
+        }
+        return entry;
+    }
+
+    private synchronized void put(String key, Object entry)
+    {
+        entries.put(key, entry);
+    }
+
+    private static MessageDigest createDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            // every Java implementation has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Add an object to the digest. The keys of dictionaries are sorted, so that the digest doesn't
+     * depend on the order of the entries, and the raw data of the streams is used.
+     */
+    private static void update(MessageDigest md, COSBase base, Map<COSBase, Integer> visited)
+            throws IOException
+    {
+        if (base instanceof COSObject)
+        {
+            base = ((COSObject) base).getObject();
+        }
+        if (base instanceof COSDictionary || base instanceof COSArray)
+        {
+            Integer index = visited.get(base);
+            if (index != null)
+            {
+                // a cycle or an object which is used twice
+                update(md, "R" + index);
+                return;
+            }
+            visited.put(base, visited.size());
+        }
+        if (base == null)
+        {
+            update(md, "null");
+        }
+        else if (base instanceof COSDictionary)
+        {
+            COSDictionary dict = (COSDictionary) base;
+            Map<String, COSBase> sorted = new TreeMap<>();
+            for (Map.Entry<COSName, COSBase> entry : dict.entrySet())
+            {
+                sorted.put(entry.getKey().getName(), entry.getValue());
+            }
+            update(md, "<<" + sorted.size());
+            for (Map.Entry<String, COSBase> entry : sorted.entrySet())
+            {
+                update(md, "/" + entry.getKey());
+                update(md, entry.getValue(), visited);
+            }
+            if (base instanceof COSStream)
+            {
+                byte[] data;
+                try (InputStream is = ((COSStream) base).createRawInputStream())
+                {
+                    data = IOUtils.toByteArray(is);
+                }
+                update(md, "stream" + data.length);
+                md.update(data);
+            }
+        }
+        else if (base instanceof COSArray)
+        {
+            COSArray array = (COSArray) base;
+            update(md, "[" + array.size());
+            for (int i = 0; i < array.size(); i++)
+            {
+                update(md, array.get(i), visited);
+            }
+        }
+        else if (base instanceof COSName)
+        {
+            update(md, "/" + ((COSName) base).getName());
+        }
+        else if (base instanceof COSString)
+        {
+            byte[] bytes = ((COSString) base).getBytes();
+            update(md, "(" + bytes.length);
+            md.update(bytes);
+        }
+        else if (base instanceof COSInteger)
+        {
+            update(md, "i" + ((COSInteger) base).longValue());
+        }
+        else if (base instanceof COSFloat)
+        {
+            update(md, "f" + ((COSFloat) base).floatValue());
+        }
+        else if (base instanceof COSBoolean)
+        {
+            update(md, "b" + ((COSBoolean) base).getValue());
+        }
+        else
+        {
+            update(md, base.getClass().getSimpleName());
+        }
+    }
+
+    private static void update(MessageDigest md, String token)
+    {
+        md.update(token.getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+    }
+
+    /**
+     * The outcome of the validation of a font, which is given to the font containers of fonts with
+     * the same content.
+     */
+    public static final class FontOutcome
+    {
+        private final List<ValidationError> errors;
+        private final boolean embeddedFont;
+        private final Map<Integer, GlyphDetail> glyphDetails = new ConcurrentHashMap<>();
+
+        private FontOutcome(List<ValidationError> errors, boolean embeddedFont)
+        {
+            List<ValidationError> copies = new ArrayList<>(errors.size());
+            for (ValidationError error : errors)
+            {
+                copies.add(new ValidationError(error));
+            }
+            this.errors = Collections.unmodifiableList(copies);
+            this.embeddedFont = embeddedFont;
+        }
+
+        /**
+         * Give the outcome to the container of a font with the same content, instead of validating
+         * the font again.
+         *
+         * @param fontContainer the font container.
+         */
+        public void applyTo(FontContainer<?> fontContainer)
+        {
+            for (ValidationError error : errors)
+            {
+                // the errors of each document get their own page number
+                fontContainer.push(new ValidationError(error));
+            }
+            if (!embeddedFont)
+            {
+                fontContainer.notEmbedded();
+            }
+            fontContainer.shareGlyphDetails(glyphDetails);
+        }
+    }
+}
@@ -382,7 +382,21 @@ public class ValidationResult
         public ValidationError(String errorCode, String details)
         {
             this(errorCode, details, null);
-        }        
+        }
+
+        /**
+         * Create a copy of a validation error, without its page number.
+         *
+         * @param error the validation error to copy
+         */
+        public ValidationError(ValidationError error)
+        {
+            this.errorCode = error.errorCode;
+            this.details = error.details;
+            this.isWarning = error.isWarning;
+            this.cause = error.cause;
+            this.t = error.t;
+        }
 
         /**
          * @return the error code
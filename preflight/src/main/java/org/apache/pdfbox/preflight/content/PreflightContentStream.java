@@ -321,38 +321,37 @@ public class PreflightContentStream extends PreflightStreamEngine
             }
             return;
         }
-        else if (!fontContainer.isValid() && !fontContainer.errorsAleadyMerged())
+        else if (!fontContainer.isValid())
         {
-            context.addValidationErrors(fontContainer.getAllErrors());
-            fontContainer.setErrorsAlreadyMerged(true);
-            return;
-        }
-        if (!fontContainer.isValid() && fontContainer.errorsAleadyMerged())
-        {
-            // font already computed
+            // the errors are added once, if the font has already been used nothing is added
+            context.addFontContainerErrors(fontContainer);
             return;
         }
 
         InputStream in = new ByteArrayInputStream(string);
-        while (in.available() > 0)
+        // the font may be used by the content streams of other pages at the same time
+        synchronized (fontContainer)
         {
-            try
-            {
-                int code = font.readCode(in);
-                fontContainer.checkGlyphWidth(code);
-            }
-            catch (IOException e)
-            {
-                registerError("Encoding can't interpret the character code", ERROR_FONTS_ENCODING_ERROR, e);
-                return;
-            }
-            catch (GlyphException e)
+            while (in.available() > 0)
             {
-                if (renderingMode != RenderingMode.NEITHER)
+                try
+                {
+                    int code = font.readCode(in);
+                    fontContainer.checkGlyphWidth(code);
+                }
+                catch (IOException e)
                 {
-                    registerError(e.getMessage(), e.getErrorCode(), e);
+                    registerError("Encoding can't interpret the character code", ERROR_FONTS_ENCODING_ERROR, e);
                     return;
                 }
+                catch (GlyphException e)
+                {
+                    if (renderingMode != RenderingMode.NEITHER)
+                    {
+                        registerError(e.getMessage(), e.getErrorCode(), e);
+                        return;
+                    }
+                }
             }
         }
     }
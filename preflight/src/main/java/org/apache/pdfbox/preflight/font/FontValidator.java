@@ -43,6 +43,19 @@ public abstract class FontValidator<T extends FontContainer>
 
     public abstract void validate() throws ValidationException;
 
+    /**
+     * Prepare the font container for the glyph checks of the content streams without validating
+     * the font. This is called instead of {@link #validate()} if the outcome of the validation of a
+     * font with the same content is taken from a
+     * {@link org.apache.pdfbox.preflight.ResourceValidationCache}.
+     *
+     * @return true if the font container is prepared, false if the font has to be validated.
+     */
+    public boolean prepareWithoutValidation()
+    {
+        return true;
+    }
+
     protected void checkEncoding()
     {
         // nothing to check for PDF/A-1b
@@ -50,6 +50,8 @@ import org.apache.pdfbox.pdmodel.font.PDType0Font;
 import org.apache.pdfbox.preflight.PreflightContext;
 import org.apache.pdfbox.preflight.ValidationResult.ValidationError;
 import org.apache.pdfbox.preflight.exception.ValidationException;
+import org.apache.pdfbox.preflight.font.container.CIDType0Container;
+import org.apache.pdfbox.preflight.font.container.CIDType2Container;
 import org.apache.pdfbox.preflight.font.container.FontContainer;
 import org.apache.pdfbox.preflight.font.container.Type0Container;
 
@@ -133,6 +135,30 @@ public class Type0FontValidator extends FontValidator<Type0Container>
         }
     }
 
+    /**
+     * Use the descendant font of the Type0 font for the glyph checks, as the CIDFont isn't
+     * validated.
+     */
+    @Override
+    public boolean prepareWithoutValidation()
+    {
+        if (font instanceof PDType0Font)
+        {
+            PDCIDFont cidFont = ((PDType0Font) font).getDescendantFont();
+            if (cidFont instanceof PDCIDFontType0)
+            {
+                this.fontContainer.setDelegateFontContainer(new CIDType0Container((PDCIDFontType0) cidFont));
+                return true;
+            }
+            if (cidFont instanceof PDCIDFontType2)
+            {
+                this.fontContainer.setDelegateFontContainer(new CIDType2Container((PDCIDFontType2) cidFont));
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected FontValidator<? extends FontContainer<? extends PDCIDFont>> createDescendantValidator(COSDictionary cidFont)
     {
         COSName subtype = cidFont.getCOSName(COSName.SUBTYPE);
@@ -46,7 +46,7 @@ public abstract class FontContainer<T extends PDFontLike>
      */
     protected boolean embeddedFont = true;
 
-    private final Map<Integer, GlyphDetail> codeToDetail = new HashMap<>();
+    private Map<Integer, GlyphDetail> codeToDetail = new HashMap<>();
     private boolean errorsAlreadyMerged = false;
 
     /**
@@ -89,6 +89,19 @@ public abstract class FontContainer<T extends PDFontLike>
         this.errorsAlreadyMerged = errorsAlreadyMerged;
     }
 
+    /**
+     * Use the given map for the results of the glyph checks, so that they are shared with the
+     * containers of other fonts with the same content. The results of this container are added to
+     * the map.
+     *
+     * @param glyphDetails a thread safe map from the character code to the result of its check.
+     */
+    public void shareGlyphDetails(Map<Integer, GlyphDetail> glyphDetails)
+    {
+        glyphDetails.putAll(this.codeToDetail);
+        this.codeToDetail = glyphDetails;
+    }
+
     public boolean isEmbeddedFont()
     {
         return embeddedFont;
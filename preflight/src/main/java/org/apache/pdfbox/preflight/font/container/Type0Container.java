@@ -22,6 +22,7 @@
 package org.apache.pdfbox.preflight.font.container;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.pdfbox.pdmodel.font.PDFont;
@@ -46,7 +47,10 @@ public class Type0Container extends FontContainer<PDFont>
     {
         if (this.delegateFontContainer != null)
         {
-            this.errorBuffer.addAll(this.delegateFontContainer.getAllErrors());
+            // don't add the errors of the delegate to the buffer, this may be called more than once
+            List<ValidationError> errors = new ArrayList<>(this.errorBuffer);
+            errors.addAll(this.delegateFontContainer.getAllErrors());
+            return errors;
         }
         return this.errorBuffer;
     }
@@ -34,6 +34,7 @@ import org.apache.pdfbox.cos.COSStream;
 import org.apache.pdfbox.pdmodel.PDDocumentCatalog;
 import org.apache.pdfbox.preflight.PreflightContext;
 import org.apache.pdfbox.preflight.PreflightDocument;
+import org.apache.pdfbox.preflight.ResourceValidationCache;
 import org.apache.pdfbox.preflight.ValidationResult.ValidationError;
 import org.apache.pdfbox.preflight.exception.ValidationException;
 
@@ -134,9 +135,9 @@ public class ICCProfileWrapper
                     .getDictionaryObject(COSName.DEST_OUTPUT_PROFILE);
             if (destOutputProfile instanceof COSStream)
             {
-                try (InputStream is = ((COSStream) destOutputProfile).createInputStream())
+                try
                 {
-                    return new ICCProfileWrapper(ICC_Profile.getInstance(is));
+                    return new ICCProfileWrapper(readICCProfile(context, (COSStream) destOutputProfile));
                 }
                 catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e)
                 {
@@ -153,6 +154,30 @@ public class ICCProfileWrapper
         return null;
     }
 
+    /**
+     * Read the ICC profile of a stream. If the configuration has a {@link ResourceValidationCache},
+     * a profile with the same bytes is only parsed once.
+     *
+     * @param context the preflight context.
+     * @param stream the stream of the ICC profile.
+     * @return the ICC profile, it must not be modified.
+     * @throws IOException if the stream can't be read.
+     * @throws IllegalArgumentException if the stream isn't a valid ICC profile.
+     */
+    public static ICC_Profile readICCProfile(PreflightContext context, COSStream stream) throws IOException
+    {
+        ResourceValidationCache cache = context.getConfig().getResourceValidationCache();
+        if (cache != null)
+        {
+            return cache.getICCProfile(stream);
+        }
+        try (InputStream is = stream.createInputStream())
+        {
+            // PDFBOX-2819: load ICC profile as a stream, not as a byte array because of java error
+            return ICC_Profile.getInstance(is);
+        }
+    }
+
     public static ICCProfileWrapper getOrSearchICCProfile(PreflightContext context) throws ValidationException
     {
         ICCProfileWrapper profileWrapper = context.getIccProfileWrapper();
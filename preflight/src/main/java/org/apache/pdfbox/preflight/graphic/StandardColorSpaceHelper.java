@@ -23,7 +23,6 @@ package org.apache.pdfbox.preflight.graphic;
 
 import java.awt.color.ICC_Profile;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Map;
 import java.util.Objects;
 
@@ -244,13 +243,8 @@ public class StandardColorSpaceHelper implements ColorSpaceHelper
         PDICCBased iccBased = (PDICCBased) colorSpace;
         try
         {
-            ICC_Profile iccp;
-            try (InputStream is = iccBased.getPDStream().createInputStream())
-            {
-                // check that ICC profile loads (PDICCBased also does this, but catches the exception)
-                // PDFBOX-2819: load ICC profile as a stream, not as a byte array because of java error
-                iccp = ICC_Profile.getInstance(is);
-            }
+            // check that ICC profile loads (PDICCBased also does this, but catches the exception)
+            ICC_Profile iccp = ICCProfileWrapper.readICCProfile(context, iccBased.getPDStream().getCOSObject());
             PDColorSpace altpdcs = iccBased.getAlternateColorSpace();
             if (altpdcs != null)
             {
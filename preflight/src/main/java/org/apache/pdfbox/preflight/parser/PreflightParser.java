@@ -26,7 +26,10 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.Set;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.pdfbox.cos.COSArray;
@@ -40,6 +43,7 @@ import org.apache.pdfbox.cos.COSObject;
 import org.apache.pdfbox.cos.COSObjectKey;
 import org.apache.pdfbox.cos.COSStream;
 import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.io.RandomAccessRead;
 import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
 import org.apache.pdfbox.pdfparser.PDFParser;
 import org.apache.pdfbox.pdfparser.XrefTrailerResolver.XRefType;
@@ -83,6 +87,10 @@ public class PreflightParser extends PDFParser
      */
     private static final Charset ENCODING = StandardCharsets.ISO_8859_1;
 
+    private static final Pattern XREF_SUBSECTION_PATTERN = Pattern.compile("(\\d+)\\s(\\d+)(\\s*)");
+
+    private static final Pattern OBJ_PATTERN = Pattern.compile("(\\d+)\\s(\\d+)\\sobj");
+
     private Format format = null;
 
     private PreflightConfiguration config = null;
@@ -113,6 +121,21 @@ public class PreflightParser extends PDFParser
         this(new File(filename));
     }
 
+    /**
+     * Constructor. The objects are parsed in the order of their offsets, so the source is read
+     * from front to back. A source which reads ahead, e.g. a
+     * {@link org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile} or a
+     * {@link org.apache.pdfbox.io.RandomAccessReadBuffer} filled with one read, avoids many small
+     * reads if the file is on a network storage.
+     *
+     * @param source the source of the PDF, it has to be closed by the caller after the document.
+     * @throws IOException if there is a reading error.
+     */
+    public PreflightParser(RandomAccessRead source) throws IOException
+    {
+        super(source);
+    }
+
     /**
      * Add a validation error to the ValidationResult.
      * 
@@ -193,8 +216,15 @@ public class PreflightParser extends PDFParser
     protected void initialParse() throws IOException
     {
         super.initialParse();
-        // Dereference each object to trigger parser validation errors
-        Set<COSObjectKey> objectKeys = document.getXrefTable().keySet();
+        // Dereference each object to trigger parser validation errors. The objects are parsed in
+        // the order of their offsets to read the file from front to back, the compressed objects
+        // follow grouped by their object stream
+        List<COSObjectKey> objectKeys = document.getXrefTable().entrySet().stream() //
+                .sorted(Comparator.comparing((Entry<COSObjectKey, Long> e) -> e.getValue() < 0) //
+                        .thenComparing(e -> Math.abs(e.getValue())) //
+                        .thenComparing(Entry::getKey)) //
+                .map(Entry::getKey) //
+                .collect(Collectors.toList());
         objectKeys.forEach(key -> document.getObjectFromPool(key).getObject());
     }
 
@@ -295,8 +325,7 @@ public class PreflightParser extends PDFParser
 
             long offset = source.getPosition();
             String line = readLine();
-            Pattern pattern = Pattern.compile("(\\d+)\\s(\\d+)(\\s*)");
-            Matcher matcher = pattern.matcher(line);
+            Matcher matcher = XREF_SUBSECTION_PATTERN.matcher(line);
             if (matcher.matches())
             {
                 currObjID = Long.parseLong(matcher.group(1));
@@ -693,8 +722,7 @@ public class PreflightParser extends PDFParser
 
         long offset = source.getPosition();
         String line = readLine();
-        Pattern pattern = Pattern.compile("(\\d+)\\s(\\d+)\\sobj");
-        Matcher matcher = pattern.matcher(line);
+        Matcher matcher = OBJ_PATTERN.matcher(line);
         if (matcher.matches())
         {
             readObjNr = Long.parseLong(matcher.group(1));
@@ -21,9 +21,7 @@
 
 package org.apache.pdfbox.preflight.process;
 
-import java.awt.color.ICC_Profile;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -324,10 +322,7 @@ public class CatalogValidationProcess extends AbstractProcess
 
             if (ctx.getIccProfileWrapper() == null)
             {
-                try (InputStream is = stream.createInputStream())
-                {
-                    ctx.setIccProfileWrapper(new ICCProfileWrapper(ICC_Profile.getInstance(is)));
-                }
+                ctx.setIccProfileWrapper(new ICCProfileWrapper(ICCProfileWrapper.readICCProfile(ctx, stream)));
             }
         }
         catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e)
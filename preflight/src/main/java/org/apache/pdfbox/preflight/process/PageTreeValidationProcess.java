@@ -21,6 +21,11 @@
 
 package org.apache.pdfbox.preflight.process;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.apache.pdfbox.cos.COSDictionary;
 import org.apache.pdfbox.cos.COSName;
 import static org.apache.pdfbox.preflight.PreflightConfiguration.PAGE_PROCESS;
@@ -28,6 +33,7 @@ import static org.apache.pdfbox.preflight.PreflightConstants.ERROR_SYNTAX_NOCATA
 
 import org.apache.pdfbox.pdmodel.PDDocumentCatalog;
 import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.preflight.PageValidationContext;
 import org.apache.pdfbox.preflight.PreflightConstants;
 import static org.apache.pdfbox.preflight.PreflightConstants.ERROR_PDF_PROCESSING_MISSING;
 import org.apache.pdfbox.preflight.PreflightContext;
@@ -51,6 +57,11 @@ public class PageTreeValidationProcess extends AbstractProcess
                         "/Pages dictionary entry is missing in document catalog"));
                 return;
             }
+            if (context.getConfig().getPageValidationThreads() > 1)
+            {
+                validatePagesConcurrently(context);
+                return;
+            }
             int p = 0;
             for (PDPage page : context.getDocument().getPages())
             {
@@ -79,4 +90,79 @@ public class PageTreeValidationProcess extends AbstractProcess
     {
         ContextHelper.validateElement(context, page, PAGE_PROCESS);
     }
+
+    /**
+     * Validates the pages in page order, while the content streams of the pages are validated by
+     * a pool of threads. The errors of each page are added after those of the previous page, so
+     * that the result is the same as with the sequential validation.
+     *
+     * @param context the preflight context.
+     * @throws ValidationException
+     */
+    private void validatePagesConcurrently(PreflightContext context) throws ValidationException
+    {
+        int maxErrors = context.getConfig().getMaxErrors();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                context.getConfig().getPageValidationThreads(), runnable ->
+        {
+            Thread thread = new Thread(runnable, "PDFBox preflight page validation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<PageValidationContext> pageContexts = new ArrayList<>();
+        try
+        {
+            int errorCount = context.getDocument().getValidationErrors().size();
+            int p = 0;
+            for (PDPage page : context.getDocument().getPages())
+            {
+                PageValidationContext pageContext = new PageValidationContext(context, p);
+                pageContexts.add(pageContext);
+                if (!pageContext.validate(ctx -> validatePage(ctx, page), executor))
+                {
+                    break;
+                }
+                // the validation is aborted at this page or before, no need to validate more pages
+                errorCount += pageContext.getErrorCount();
+                if (errorCount > maxErrors)
+                {
+                    break;
+                }
+                ++p;
+            }
+            for (int i = 0; i < pageContexts.size(); i++)
+            {
+                context.setCurrentPageNumber(i);
+                try
+                {
+                    pageContexts.get(i).merge();
+                }
+                catch (ValidationException | RuntimeException e)
+                {
+                    discard(pageContexts, i + 1);
+                    throw e;
+                }
+                if (context.getDocument().getValidationErrors().size() > maxErrors)
+                {
+                    context.addValidationError(new ValidationError(PreflightConstants.ERROR_UNKNOWN_ERROR,
+                            "Over " + maxErrors + " errors, page tree validation process aborted"));
+                    discard(pageContexts, i + 1);
+                    break;
+                }
+                context.setCurrentPageNumber(null);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private void discard(List<PageValidationContext> pageContexts, int from)
+    {
+        for (int i = from; i < pageContexts.size(); i++)
+        {
+            pageContexts.get(i).discard();
+        }
+    }
 }
@@ -31,6 +31,8 @@ import static org.apache.pdfbox.preflight.PreflightConstants.FONT_DICTIONARY_VAL
 import static org.apache.pdfbox.preflight.PreflightConstants.FONT_DICTIONARY_VALUE_TYPE2;
 import static org.apache.pdfbox.preflight.PreflightConstants.FONT_DICTIONARY_VALUE_TYPE3;
 
+import java.io.IOException;
+
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDSimpleFont;
 import org.apache.pdfbox.pdmodel.font.PDTrueTypeFont;
@@ -38,6 +40,7 @@ import org.apache.pdfbox.pdmodel.font.PDType3Font;
 import org.apache.pdfbox.preflight.PreflightConstants;
 import org.apache.pdfbox.preflight.PreflightContext;
 import org.apache.pdfbox.preflight.PreflightPath;
+import org.apache.pdfbox.preflight.ResourceValidationCache;
 import org.apache.pdfbox.preflight.exception.ValidationException;
 import org.apache.pdfbox.preflight.font.FontValidator;
 import org.apache.pdfbox.preflight.font.TrueTypeFontValidator;
@@ -75,12 +78,50 @@ public class FontValidationProcess extends AbstractProcess
                 FontValidator<? extends FontContainer<? extends PDFont>> validator = getFontValidator(context, font);
                 if (validator != null)
                 {
-                    validator.validate();
+                    validate(context, font, validator);
                 }
             }
         }
     }
 
+    /**
+     * Validate a font, or take the outcome of the validation of a font with the same content from
+     * the {@link ResourceValidationCache} of the configuration. Type3 fonts aren't cached, their
+     * validation also checks the resources of the glyphs.
+     */
+    private void validate(PreflightContext context, PDFont font,
+            FontValidator<? extends FontContainer<? extends PDFont>> validator) throws ValidationException
+    {
+        ResourceValidationCache cache = context.getConfig().getResourceValidationCache();
+        if (cache == null || font instanceof PDType3Font)
+        {
+            validator.validate();
+            return;
+        }
+        String key;
+        try
+        {
+            key = cache.createFontKey(font.getCOSObject(),
+                    getClass().getName() + ":" + context.getConfig().isLazyValidation());
+        }
+        catch (IOException e)
+        {
+            // the streams of the font will be reported by the validation
+            validator.validate();
+            return;
+        }
+        ResourceValidationCache.FontOutcome outcome = cache.getFontOutcome(key);
+        if (outcome != null && validator.prepareWithoutValidation())
+        {
+            outcome.applyTo(validator.getFontContainer());
+        }
+        else
+        {
+            validator.validate();
+            cache.putFontOutcome(key, validator.getFontContainer());
+        }
+    }
+
     /**
      * Create the right "Validator" object for the given font type
      * 
@@ -184,17 +184,21 @@ public class SinglePageValidationProcess extends AbstractProcess
      */
     protected void validateContent(PreflightContext context, PDPage page) throws ValidationException
     {
-        // TODO add this wrapper in the config object ?
-        try
-        {
-            PreflightContentStream csWrapper = new PreflightContentStream(context, page);
-            csWrapper.validatePageContentStream();
-        }
-        catch (IOException e)
+        // the content stream only reads the document, it can be validated concurrently
+        context.validateConcurrently(ctx ->
         {
-            LOGGER.debug("Unable to read page content stream", e);
-            context.addValidationError(new ValidationError(ERROR_UNKNOWN_ERROR, e.getMessage(), e));
-        }
+            // TODO add this wrapper in the config object ?
+            try
+            {
+                PreflightContentStream csWrapper = new PreflightContentStream(ctx, page);
+                csWrapper.validatePageContentStream();
+            }
+            catch (IOException e)
+            {
+                LOGGER.debug("Unable to read page content stream", e);
+                ctx.addValidationError(new ValidationError(ERROR_UNKNOWN_ERROR, e.getMessage(), e));
+            }
+        });
     }
 
     /**
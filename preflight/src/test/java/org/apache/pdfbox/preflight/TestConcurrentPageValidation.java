@@ -0,0 +1,134 @@
+/*****************************************************************************
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ ****************************************************************************/
+
+package org.apache.pdfbox.preflight;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.pdfbox.pdfparser.ParserTestSupport;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDPageContentStream.AppendMode;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationText;
+import org.apache.pdfbox.preflight.ValidationResult.ValidationError;
+import org.apache.pdfbox.preflight.parser.PreflightParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test that the concurrent validation of the pages gives the same result as the sequential one.
+ */
+class TestConcurrentPageValidation
+{
+    private static final File TARGET_DIR = new File("target/test-output/preflight");
+
+    private static File file;
+
+    @BeforeAll
+    static void createDocument() throws IOException
+    {
+        TARGET_DIR.mkdirs();
+        file = new File(TARGET_DIR, "concurrent-pages.pdf");
+        try (PDDocument document = ParserTestSupport.createDocument(24))
+        {
+            for (int i = 0; i < 24; i++)
+            {
+                PDPage page = document.getPage(i);
+                try (PDPageContentStream cs = new PDPageContentStream(document, page,
+                        AppendMode.PREPEND, false))
+                {
+                    // the font isn't embedded and the color needs an output intent
+                    cs.setNonStrokingColor(1f, 0f, 0f);
+                }
+                if (i % 3 == 1)
+                {
+                    // the print flag is missing
+                    PDAnnotationText annotation = new PDAnnotationText();
+                    annotation.setRectangle(new PDRectangle(50, 50, 20, 20));
+                    page.getAnnotations().add(annotation);
+                }
+            }
+            document.save(file);
+        }
+    }
+
+    @Test
+    void testSameResult() throws IOException
+    {
+        ValidationResult expected = validate(1, 10000);
+        assertFalse(expected.isValid());
+        assertTrue(expected.getErrorsList().size() > 24);
+        for (int threads : new int[] { 2, 4, 8 })
+        {
+            ValidationResult actual = validate(threads, 10000);
+            assertSameErrors(expected.getErrorsList(), actual.getErrorsList());
+        }
+    }
+
+    @Test
+    void testSameResultWithMaxErrors() throws IOException
+    {
+        for (int maxErrors : new int[] { 0, 3, 10, 25 })
+        {
+            ValidationResult expected = validate(1, maxErrors);
+            ValidationResult actual = validate(4, maxErrors);
+            assertSameErrors(expected.getErrorsList(), actual.getErrorsList());
+        }
+    }
+
+    @Test
+    void testInvalidThreadCount()
+    {
+        PreflightConfiguration config = PreflightConfiguration.createPdfA1BConfiguration();
+        assertThrows(IllegalArgumentException.class, () -> config.setPageValidationThreads(0));
+    }
+
+    private static void assertSameErrors(List<ValidationError> expected, List<ValidationError> actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            // equals() compares the error code, the details, the page number and the warning flag
+            assertEquals(expected.get(i), actual.get(i), "error " + i);
+        }
+    }
+
+    private static ValidationResult validate(int threads, int maxErrors) throws IOException
+    {
+        PreflightConfiguration config = PreflightConfiguration.createPdfA1BConfiguration();
+        config.setPageValidationThreads(threads);
+        config.setMaxErrors(maxErrors);
+        PreflightParser parser = new PreflightParser(file);
+        try (PreflightDocument document = (PreflightDocument) parser.parse(Format.PDF_A1B, config))
+        {
+            return document.validate();
+        }
+    }
+}
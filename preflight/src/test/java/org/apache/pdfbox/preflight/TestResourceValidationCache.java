@@ -0,0 +1,187 @@
+/*****************************************************************************
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ ****************************************************************************/
+
+package org.apache.pdfbox.preflight;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.color.ICC_Profile;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDTrueTypeFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.encoding.WinAnsiEncoding;
+import org.apache.pdfbox.pdmodel.graphics.color.PDOutputIntent;
+import org.apache.pdfbox.preflight.ValidationResult.ValidationError;
+import org.apache.pdfbox.preflight.parser.PreflightParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test that a validation with a shared cache of fonts and ICC profiles gives the same result as
+ * a validation without cache.
+ */
+class TestResourceValidationCache
+{
+    private static final File TARGET_DIR = new File("target/test-output/preflight");
+    private static final String FONT = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+    private static final String PROFILE = "/org/apache/pdfbox/resources/icc/ISOcoated_v2_300_bas.icc";
+
+    private static File[] files;
+
+    @BeforeAll
+    static void createDocuments() throws IOException
+    {
+        TARGET_DIR.mkdirs();
+        files = new File[2];
+        for (int i = 0; i < files.length; i++)
+        {
+            files[i] = new File(TARGET_DIR, "resource-cache-" + i + ".pdf");
+            try (PDDocument document = new PDDocument())
+            {
+                PDFont type0Font;
+                PDFont trueTypeFont;
+                try (InputStream is = TestResourceValidationCache.class.getResourceAsStream(FONT))
+                {
+                    type0Font = PDType0Font.load(document, is);
+                }
+                try (InputStream is = TestResourceValidationCache.class.getResourceAsStream(FONT))
+                {
+                    trueTypeFont = PDTrueTypeFont.load(document, is, WinAnsiEncoding.INSTANCE);
+                }
+                try (InputStream is = TestResourceValidationCache.class.getResourceAsStream(PROFILE))
+                {
+                    PDOutputIntent intent = new PDOutputIntent(document, is);
+                    intent.setOutputConditionIdentifier("FOGRA39");
+                    document.getDocumentCatalog().addOutputIntent(intent);
+                }
+                for (int j = 0; j <= i; j++)
+                {
+                    PDPage page = new PDPage(PDRectangle.A4);
+                    document.addPage(page);
+                    try (PDPageContentStream cs = new PDPageContentStream(document, page))
+                    {
+                        cs.setNonStrokingColor(0f, 0.5f, 1f, 0f);
+                        cs.beginText();
+                        cs.setFont(type0Font, 12);
+                        cs.newLineAtOffset(50, 700);
+                        cs.showText("Same fonts, same profile");
+                        cs.setFont(trueTypeFont, 12);
+                        cs.newLineAtOffset(0, -20);
+                        cs.showText("Page " + (j + 1));
+                        cs.endText();
+                    }
+                }
+                document.save(files[i]);
+            }
+        }
+    }
+
+    @Test
+    void testSameResult() throws IOException
+    {
+        ResourceValidationCache cache = new ResourceValidationCache(100);
+        for (int run = 0; run < 2; run++)
+        {
+            for (File file : files)
+            {
+                ValidationResult expected = validate(file, null);
+                ValidationResult actual = validate(file, cache);
+                assertFalse(expected.getErrorsList().isEmpty());
+                assertSameErrors(expected.getErrorsList(), actual.getErrorsList());
+            }
+        }
+        // both documents embed the same fonts and the same profile
+        assertEquals(3, cache.size());
+        assertTrue(cache.getHitCount() > cache.getMissCount());
+    }
+
+    @Test
+    void testICCProfiles() throws IOException
+    {
+        ResourceValidationCache cache = new ResourceValidationCache(1);
+        byte[] bytes;
+        try (InputStream is = TestResourceValidationCache.class.getResourceAsStream(PROFILE))
+        {
+            bytes = IOUtils.toByteArray(is);
+        }
+        ICC_Profile profile = cache.getICCProfile(createStream(bytes));
+        assertSame(profile, cache.getICCProfile(createStream(bytes)));
+        assertEquals(1, cache.getHitCount());
+
+        // invalid profiles are kept as well, the least recently used entry is removed
+        COSStream invalid = createStream(new byte[] { 1, 2, 3 });
+        assertThrows(IllegalArgumentException.class, () -> cache.getICCProfile(invalid));
+        assertThrows(IllegalArgumentException.class, () -> cache.getICCProfile(invalid));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.size());
+        cache.getICCProfile(createStream(bytes));
+        assertEquals(3, cache.getMissCount());
+
+        assertThrows(IllegalArgumentException.class, () -> new ResourceValidationCache(0));
+    }
+
+    private static COSStream createStream(byte[] bytes) throws IOException
+    {
+        COSStream stream = new COSStream();
+        try (OutputStream os = stream.createOutputStream())
+        {
+            os.write(bytes);
+        }
+        return stream;
+    }
+
+    private static void assertSameErrors(List<ValidationError> expected, List<ValidationError> actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            // equals() compares the error code, the details, the page number and the warning flag
+            assertEquals(expected.get(i), actual.get(i), "error " + i);
+        }
+    }
+
+    private static ValidationResult validate(File file, ResourceValidationCache cache) throws IOException
+    {
+        PreflightConfiguration config = PreflightConfiguration.createPdfA1BConfiguration();
+        config.setResourceValidationCache(cache);
+        PreflightParser parser = new PreflightParser(file);
+        try (PreflightDocument document = (PreflightDocument) parser.parse(Format.PDF_A1B, config))
+        {
+            return document.validate();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*****************************************************************************
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ ****************************************************************************/
+
+package org.apache.pdfbox.preflight.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.pdfbox.pdfparser.ParserTestSupport;
+import org.apache.pdfbox.pdfparser.ParserTestSupport.PageRecordingBuffer;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.preflight.Format;
+import org.apache.pdfbox.preflight.PreflightDocument;
+import org.apache.pdfbox.preflight.ValidationResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test that the objects are parsed from front to back.
+ */
+class TestPreflightParser
+{
+    private static final File TARGET_DIR = new File("target/test-output/preflight");
+
+    private static File file;
+    private static byte[] bytes;
+
+    @BeforeAll
+    static void createDocument() throws IOException
+    {
+        TARGET_DIR.mkdirs();
+        file = new File(TARGET_DIR, "sequential-parse.pdf");
+        try (PDDocument document = ParserTestSupport.createDocument(100))
+        {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            document.save(baos, CompressParameters.NO_COMPRESSION);
+            bytes = baos.toByteArray();
+            document.save(file, CompressParameters.NO_COMPRESSION);
+        }
+    }
+
+    @Test
+    void testSequentialParse() throws IOException
+    {
+        PageRecordingBuffer source = new PageRecordingBuffer(bytes);
+        ValidationResult actual;
+        try (PreflightDocument document = (PreflightDocument) new PreflightParser(source).parse(Format.PDF_A1B))
+        {
+            actual = document.validate();
+        }
+        finally
+        {
+            source.close();
+        }
+        // the header, the trailer and the xref table, then the objects from front to back
+        assertTrue(source.getBackwardReads() <= 2, "backward reads: " + source.getBackwardReads());
+
+        ValidationResult expected = PreflightParser.validate(file);
+        assertFalse(expected.isValid());
+        assertEquals(expected.getErrorsList(), actual.getErrorsList());
+    }
+}
@@ -18,6 +18,7 @@ package org.apache.pdfbox.tools;
 
 import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -52,6 +53,7 @@ import org.apache.pdfbox.pdmodel.graphics.pattern.PDTilingPattern;
 import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
 import org.apache.pdfbox.pdmodel.graphics.state.PDSoftMask;
 import org.apache.pdfbox.pdmodel.graphics.state.RenderingMode;
+import org.apache.pdfbox.tools.imageio.ImageEncodingPipeline;
 import org.apache.pdfbox.tools.imageio.ImageIOUtil;
 import org.apache.pdfbox.util.Matrix;
 import org.apache.pdfbox.util.Vector;
@@ -92,11 +94,16 @@ public final class ExtractImages implements Callable<Integer>
         "original colorspace if possible.")    
     private boolean noColorConvert;
 
+    @Option(names = "-threads", description = "the number of threads encoding the images while " +
+        "they are decoded (default: ${DEFAULT-VALUE})")
+    private int threads = 1;
+
     @Option(names = {"-i", "--input"}, description = "the PDF file", required = true)
     private File infile;
 
     private final Set<COSStream> seen = new HashSet<>();
     private int imageCounter = 1;
+    private ImageEncodingPipeline pipeline;
 
     /**
      * Entry point for the application.
@@ -114,7 +121,14 @@ public final class ExtractImages implements Callable<Integer>
 
     public Integer call()
     {
-        try (PDDocument document = Loader.loadPDF(infile, password))
+        if (threads < 1)
+        {
+            SYSERR.println("Error: Invalid number of threads " + threads);
+            return 2;
+        }
+
+        try (PDDocument document = Loader.loadPDF(infile, password);
+             ImageEncodingPipeline imagePipeline = new ImageEncodingPipeline(threads))
         {
             AccessPermission ap = document.getCurrentAccessPermission();
             if (!ap.canExtractContent())
@@ -128,11 +142,14 @@ public final class ExtractImages implements Callable<Integer>
                 prefix = FilenameUtils.removeExtension(infile.getAbsolutePath());
             }
 
+            // the images are decoded by this thread and written by the pipeline
+            pipeline = imagePipeline;
             for (PDPage page : document.getPages())
             {
                 ImageGraphicsEngine extractor = new ImageGraphicsEngine(page);
                 extractor.run();
             }
+            pipeline.finish();
         }
         catch (IOException ioe)
         {
@@ -314,7 +331,7 @@ public final class ExtractImages implements Callable<Integer>
         /**
          * Writes the image to a file with the filename prefix + an appropriate suffix, like
          * "Image.jpg". The suffix is automatically set depending on the image compression in the
-         * PDF.
+         * PDF. The image is decoded by this thread, but encoded and written by the pipeline.
          *
          * @param pdImage the image.
          * @param prefix the filename prefix.
@@ -358,98 +375,97 @@ public final class ExtractImages implements Callable<Integer>
                         // but a TIFF codec must be in the class path for this to work.
                         suffix = "tiff";
                     }
-                    try (FileOutputStream imageOutput = new FileOutputStream(prefix + "." + suffix))
-                    {
-                        SYSOUT.println("Writing image: " + prefix + "." + suffix);
-                        ImageIOUtil.writeImage(image, suffix, imageOutput);
-                        imageOutput.flush();
-                    }
+                    String fileName = prefix + "." + suffix;
+                    SYSOUT.println("Writing image: " + fileName);
+                    writeImage(image, suffix, fileName, false);
                     return;
                 }
             }
 
-            try (FileOutputStream imageOutput = new FileOutputStream(prefix + "." + suffix))
-            {
-                SYSOUT.println("Writing image: " + prefix + "." + suffix);
+            String fileName = prefix + "." + suffix;
+            SYSOUT.println("Writing image: " + fileName);
 
-                if ("jpg".equals(suffix))
+            if ("jpg".equals(suffix))
+            {
+                String colorSpaceName = pdImage.getColorSpace().getName();
+                if (directJPEG || 
+                    (PDDeviceGray.INSTANCE.getName().equals(colorSpaceName) ||
+                     PDDeviceRGB.INSTANCE.getName().equals(colorSpaceName)))
                 {
-                    String colorSpaceName = pdImage.getColorSpace().getName();
-                    if (directJPEG || 
-                        (PDDeviceGray.INSTANCE.getName().equals(colorSpaceName) ||
-                         PDDeviceRGB.INSTANCE.getName().equals(colorSpaceName)))
-                    {
-                        // RGB or Gray colorspace: get and write the unmodified JPEG stream
-                        InputStream data = pdImage.createInputStream(JPEG);
-                        IOUtils.copy(data, imageOutput);
-                        IOUtils.closeQuietly(data);
-                    }
-                    else
-                    {
-                        // for CMYK and other "unusual" colorspaces, the JPEG will be converted
-                        BufferedImage image = pdImage.getImage();
-                        if (image != null)
-                        {
-                            ImageIOUtil.writeImage(image, suffix, imageOutput);
-                        }
-                    }
+                    // RGB or Gray colorspace: get and write the unmodified JPEG stream
+                    copyStream(pdImage, JPEG, fileName);
                 }
-                else if ("jp2".equals(suffix))
+                else
                 {
-                    String colorSpaceName = pdImage.getColorSpace().getName();
-                    if (directJPEG
-                            || (PDDeviceGray.INSTANCE.getName().equals(colorSpaceName)
-                            || PDDeviceRGB.INSTANCE.getName().equals(colorSpaceName)))
-                    {
-                        // RGB or Gray colorspace: get and write the unmodified JPEG2000 stream
-                        InputStream data = pdImage.createInputStream(
-                                Arrays.asList(COSName.JPX_DECODE.getName()));
-                        IOUtils.copy(data, imageOutput);
-                        IOUtils.closeQuietly(data);
-                    }
-                    else
-                    {
-                        // for CMYK and other "unusual" colorspaces, the image will be converted
-                        BufferedImage image = pdImage.getImage();
-                        if (image != null)
-                        {
-                            ImageIOUtil.writeImage(image, "jpeg2000", imageOutput);
-                        }
-                    }
+                    // for CMYK and other "unusual" colorspaces, the JPEG will be converted
+                    writeImage(pdImage.getImage(), suffix, fileName, false);
                 }
-                else if ("tiff".equals(suffix) && pdImage.getColorSpace().equals(PDDeviceGray.INSTANCE))
+            }
+            else if ("jp2".equals(suffix))
+            {
+                String colorSpaceName = pdImage.getColorSpace().getName();
+                if (directJPEG
+                        || (PDDeviceGray.INSTANCE.getName().equals(colorSpaceName)
+                        || PDDeviceRGB.INSTANCE.getName().equals(colorSpaceName)))
                 {
-                    BufferedImage image = pdImage.getImage();
-                    if (image == null)
-                    {
-                        return;
-                    }
-                    // CCITT compressed images can have a different colorspace, but this one is B/W
-                    // This is a bitonal image, so copy to TYPE_BYTE_BINARY
-                    // so that a G4 compressed TIFF image is created by ImageIOUtil.writeImage()
-                    int w = image.getWidth();
-                    int h = image.getHeight();
-                    BufferedImage bitonalImage = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_BINARY);
-                    // copy image the old fashioned way - ColorConvertOp is slower!
-                    for (int y = 0; y < h; y++)
-                    {
-                        for (int x = 0; x < w; x++)
-                        {
-                            bitonalImage.setRGB(x, y, image.getRGB(x, y));
-                        }
-                    }
-                    ImageIOUtil.writeImage(bitonalImage, suffix, imageOutput);
+                    // RGB or Gray colorspace: get and write the unmodified JPEG2000 stream
+                    copyStream(pdImage, Arrays.asList(COSName.JPX_DECODE.getName()), fileName);
                 }
                 else
                 {
-                    BufferedImage image = pdImage.getImage();
+                    // for CMYK and other "unusual" colorspaces, the image will be converted
+                    writeImage(pdImage.getImage(), "jpeg2000", fileName, false);
+                }
+            }
+            else if ("tiff".equals(suffix) && pdImage.getColorSpace().equals(PDDeviceGray.INSTANCE))
+            {
+                // CCITT compressed images can have a different colorspace, but this one is B/W
+                // This is a bitonal image, so copy to TYPE_BYTE_BINARY
+                // so that a G4 compressed TIFF image is created by ImageIOUtil.writeImage()
+                writeImage(pdImage.getImage(), suffix, fileName, true);
+            }
+            else
+            {
+                writeImage(pdImage.getImage(), suffix, fileName, false);
+            }
+        }
+
+        /**
+         * Copies the stream of the image to a file, this is done by the current thread because it
+         * reads from the document.
+         */
+        private void copyStream(PDImage pdImage, List<String> stopFilters, String fileName)
+                throws IOException
+        {
+            try (FileOutputStream imageOutput = new FileOutputStream(fileName))
+            {
+                InputStream data = pdImage.createInputStream(stopFilters);
+                IOUtils.copy(data, imageOutput);
+                IOUtils.closeQuietly(data);
+                imageOutput.flush();
+            }
+        }
+
+        /**
+         * Encodes the decoded image with the pipeline. The file is created even if there is no
+         * image.
+         */
+        private void writeImage(BufferedImage image, String formatName, String fileName,
+                boolean bitonal) throws IOException
+        {
+            pipeline.submit(() ->
+            {
+                try (FileOutputStream imageOutput = new FileOutputStream(fileName))
+                {
                     if (image != null)
                     {
-                        ImageIOUtil.writeImage(image, suffix, imageOutput);
+                        ImageIOUtil.writeImage(bitonal ? toBitonal(image) : image, formatName,
+                                imageOutput);
                     }
+                    imageOutput.flush();
                 }
-                imageOutput.flush();
-            }
+                return true;
+            });
         }
 
         private boolean hasMasks(PDImage pdImage) throws IOException
@@ -462,4 +478,36 @@ public final class ExtractImages implements Callable<Integer>
             return false;
         }
     }
+
+    /**
+     * Copies the image to a TYPE_BYTE_BINARY image. The pixels are mapped to black or white like
+     * {@link BufferedImage#setRGB(int, int, int)} does, but one row at a time and without the
+     * color model lookup for each pixel. ColorConvertOp is slower.
+     */
+    static BufferedImage toBitonal(BufferedImage image)
+    {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        BufferedImage bitonalImage = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_BINARY);
+        byte[] data = ((DataBufferByte) bitonalImage.getRaster().getDataBuffer()).getData();
+        int stride = (w + 7) / 8;
+        int[] row = new int[w];
+        for (int y = 0; y < h; y++)
+        {
+            image.getRGB(0, y, w, 1, row, 0, w);
+            int offset = y * stride;
+            for (int x = 0; x < w; x++)
+            {
+                int rgb = row[x];
+                // same weights and rounding as the gray palette lookup of IndexColorModel
+                int gray = (((rgb >> 16) & 0xff) * 77 + ((rgb >> 8) & 0xff) * 150
+                        + (rgb & 0xff) * 29 + 128) / 256;
+                if (gray >= 128)
+                {
+                    data[offset + (x >> 3)] |= (byte) (0x80 >> (x & 7));
+                }
+            }
+        }
+        return bitonalImage;
+    }
 }
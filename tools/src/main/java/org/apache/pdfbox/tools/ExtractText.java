@@ -24,28 +24,20 @@ import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.Writer;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.Callable;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.cos.COSArray;
-import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentCatalog;
 import org.apache.pdfbox.pdmodel.PDDocumentNameDictionary;
 import org.apache.pdfbox.pdmodel.PDEmbeddedFilesNameTreeNode;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.filespecification.PDComplexFileSpecification;
 import org.apache.pdfbox.pdmodel.common.filespecification.PDEmbeddedFile;
 import org.apache.pdfbox.pdmodel.encryption.AccessPermission;
 import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.pdfbox.text.TextPosition;
-import org.apache.pdfbox.util.Matrix;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -97,7 +89,7 @@ public final class ExtractText  implements Callable<Integer>
     private String password = "";
 
     @Option(names = "-rotationMagic", description = "Analyze each page for rotated/skewed text, rotate to 0° " +
-        "and extract separately (slower, and ignored when -html)" )
+        "and extract separately (ignored when -html)" )
     private boolean rotationMagic = false;
 
     @Option(names = "-sort", description = "Sort the text before writing of every stage")
@@ -183,20 +175,14 @@ public final class ExtractText  implements Callable<Integer>
             }
             else
             {
-                if (rotationMagic)
-                {
-                    stripper = new FilteredTextStripper();
-                }
-                else
-                {
-                    stripper = new PDFTextStripper();
-                }
+                stripper = new PDFTextStripper();
                 stripper.setSortByPosition(sort);
                 stripper.setShouldSeparateByBeads(!ignoreBeads);
+                stripper.setSeparateByAngle(rotationMagic);
 
                 // Extract text for main document:
                 extractPages(startPage, Math.min(endPage, document.getNumberOfPages()), 
-                             stripper, document, output, rotationMagic, alwaysNext);
+                             stripper, document, output, alwaysNext);
             }
 
             // ... also for any embedded PDFs:
@@ -235,7 +221,7 @@ public final class ExtractText  implements Callable<Integer>
                                     else
                                     {
                                         extractPages(1, subDoc.getNumberOfPages(),
-                                                     stripper, subDoc, output, rotationMagic, alwaysNext);
+                                                     stripper, subDoc, output, alwaysNext);
                                     }
                                 } 
                             }
@@ -256,7 +242,7 @@ public final class ExtractText  implements Callable<Integer>
 
     private void extractPages(int startPage, int endPage,
             PDFTextStripper stripper, PDDocument document, Writer output,
-            boolean rotationMagic, boolean alwaysNext) throws IOException
+            boolean alwaysNext) throws IOException
     {
         for (int p = startPage; p <= endPage; ++p)
         {
@@ -264,37 +250,7 @@ public final class ExtractText  implements Callable<Integer>
             stripper.setEndPage(p);
             try
             {
-                if (rotationMagic)
-                {
-                    PDPage page = document.getPage(p - 1);
-                    int rotation = page.getRotation();
-                    page.setRotation(0);
-                    AngleCollector angleCollector = new AngleCollector();
-                    angleCollector.setStartPage(p);
-                    angleCollector.setEndPage(p);
-                    angleCollector.writeText(document, new NullWriter());
-                    // rotation magic
-                    for (int angle : angleCollector.getAngles())
-                    {
-                        // prepend a transformation
-                        // (we could skip these parts for angle 0, but it doesn't matter much)
-                        try (PDPageContentStream cs = new PDPageContentStream(document, page, 
-                                PDPageContentStream.AppendMode.PREPEND, false))
-                        {
-                            cs.transform(Matrix.getRotateInstance(-Math.toRadians(angle), 0, 0));
-                        }
-
-                        stripper.writeText(document, output);
-
-                        // remove prepended transformation
-                        ((COSArray) page.getCOSObject().getItem(COSName.CONTENTS)).remove(0);
-                    }
-                    page.setRotation(rotation);
-                }
-                else
-                {
-                    stripper.writeText(document, output);
-                }
+                stripper.writeText(document, output);
             }
             catch (IOException ex)
             {
@@ -325,84 +281,4 @@ public final class ExtractText  implements Callable<Integer>
             SYSERR.println(message + elapsedTime + " seconds");
         }
     }
-
-    static int getAngle(TextPosition text)
-    {
-        // should this become a part of TextPosition?
-        Matrix m = text.getTextMatrix().clone();
-        m.concatenate(text.getFont().getFontMatrix());
-        return (int) Math.round(Math.toDegrees(Math.atan2(m.getShearY(), m.getScaleY())));
-    }
-}
-
-/**
- * Collect all angles while doing text extraction. Angles are in degrees and rounded to the closest
- * integer (to avoid slight differences from floating point arithmetic resulting in similarly
- * angled glyphs being treated separately). This class must be constructed for each page so that the
- * angle set is initialized.
- */
-class AngleCollector extends PDFTextStripper
-{
-    private final Set<Integer> angles = new TreeSet<>();
-
-    AngleCollector() throws IOException
-    {
-    }
-
-    Set<Integer> getAngles()
-    {
-        return angles;
-    }
-
-    @Override
-    protected void processTextPosition(TextPosition text)
-    {
-        int angle = ExtractText.getAngle(text);
-        angle = (angle + 360) % 360;
-        angles.add(angle);
-    }
-}
-
-/**
- * TextStripper that only processes glyphs that have angle 0.
- */
-class FilteredTextStripper extends PDFTextStripper
-{
-    FilteredTextStripper() throws IOException
-    {
-    }
-
-    @Override
-    protected void processTextPosition(TextPosition text)
-    {
-        int angle = ExtractText.getAngle(text);
-        if (angle == 0)
-        {
-            super.processTextPosition(text);
-        }
-    }
-}
-
-/**
- * Dummy output.
- */
-class NullWriter extends Writer
-{
-    @Override
-    public void write(char[] cbuf, int off, int len) throws IOException
-    {
-        // do nothing
-    }
-
-    @Override
-    public void flush() throws IOException
-    {
-        // do nothing
-    }
-
-    @Override
-    public void close() throws IOException
-    {
-        // do nothing
-    }
 }
@@ -18,9 +18,12 @@ package org.apache.pdfbox.tools;
 
 import java.awt.HeadlessException;
 import java.awt.Toolkit;
-import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.util.concurrent.Callable;
 
@@ -32,9 +35,13 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
+import org.apache.pdfbox.rendering.BandedPageImage;
 import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.RenderDestination;
+import org.apache.pdfbox.tools.imageio.ImageEncodingPipeline;
 import org.apache.pdfbox.tools.imageio.ImageIOUtil;
+import org.apache.pdfbox.tools.imageio.MultiPageTIFFWriter;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -89,6 +96,16 @@ public final class PDFToImage implements Callable<Integer>
     @Option(names = "-subsampling", description = "activate subsampling (for PDFs with huge images)")
     private boolean subsampling;
 
+    @Option(names = "-threads", description = "the number of threads encoding the images while the pages are rendered (default: ${DEFAULT-VALUE})")
+    private int threads = 1;
+
+    @Option(names = "-bandHeight", description = "render and write the pages in bands of this number of rows, "
+        + "to save memory with large pages (only with one thread)")
+    private int bandHeight;
+
+    @Option(names = "-multiPage", description = "write all pages to one TIFF file, named after the prefix")
+    private boolean multiPage;
+
     @Option(names = {"-i", "--input"}, description = "the PDF files to convert.", required = true)
     private File infile;
 
@@ -119,6 +136,24 @@ public final class PDFToImage implements Callable<Integer>
             return 2;
         }
 
+        if (threads < 1)
+        {
+            SYSERR.println( "Error: Invalid number of threads " + threads);
+            return 2;
+        }
+
+        if (bandHeight < 0 || (bandHeight > 0 && threads > 1))
+        {
+            SYSERR.println( "Error: Invalid band height " + bandHeight + ", bands can only be used with one thread");
+            return 2;
+        }
+
+        if (multiPage && (!imageFormat.toLowerCase().startsWith("tif") || threads > 1))
+        {
+            SYSERR.println( "Error: Multiple pages can only be written to a TIFF file with one thread");
+            return 2;
+        }
+
         if (quality < 0)
         {
             quality = "png".equals(imageFormat) ? 0f : 1f;
@@ -151,16 +186,36 @@ public final class PDFToImage implements Callable<Integer>
 
             long startTime = System.nanoTime();
 
-            // render the pages
-            boolean success = true;
+            // render the pages, the images are written by the pipeline
+            boolean success;
             endPage = Math.min(endPage, document.getNumberOfPages());
             PDFRenderer renderer = new PDFRenderer(document);
             renderer.setSubsamplingAllowed(subsampling);
-            for (int i = startPage - 1; i < endPage; i++)
+            if (multiPage)
             {
-                BufferedImage image = renderer.renderImageWithDPI(i, dpi, imageType);
-                String fileName = outputPrefix + "-" + (i + 1) + "." + imageFormat;
-                success &= ImageIOUtil.writeImage(image, fileName, dpi, quality);
+                try (OutputStream output = new BufferedOutputStream(
+                        new FileOutputStream(outputPrefix + "." + imageFormat));
+                     MultiPageTIFFWriter writer = new MultiPageTIFFWriter(output, dpi, quality, ""))
+                {
+                    for (int i = startPage - 1; i < endPage; i++)
+                    {
+                        writer.writePage(renderPage(renderer, i));
+                    }
+                }
+                success = true;
+            }
+            else
+            {
+                try (ImageEncodingPipeline pipeline = new ImageEncodingPipeline(threads))
+                {
+                    for (int i = startPage - 1; i < endPage; i++)
+                    {
+                        RenderedImage image = renderPage(renderer, i);
+                        String fileName = outputPrefix + "-" + (i + 1) + "." + imageFormat;
+                        pipeline.submit(() -> ImageIOUtil.writeImage(image, fileName, dpi, quality));
+                    }
+                    success = pipeline.finish();
+                }
             }
 
             // performance stats
@@ -187,6 +242,20 @@ public final class PDFToImage implements Callable<Integer>
         return 0;
     }
 
+    /**
+     * Renders a page, or returns an image which is rendered in bands while it is written.
+     */
+    private RenderedImage renderPage(PDFRenderer renderer, int pageIndex) throws IOException
+    {
+        float scale = dpi / 72f;
+        if (bandHeight > 0)
+        {
+            return new BandedPageImage(renderer, pageIndex, scale, imageType,
+                    RenderDestination.EXPORT, bandHeight);
+        }
+        return renderer.renderImage(pageIndex, scale, imageType);
+    }
+
     private static String getImageFormats()
     {
         StringBuilder retval = new StringBuilder();
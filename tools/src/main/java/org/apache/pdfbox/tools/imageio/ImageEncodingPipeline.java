@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.tools.imageio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Encodes and writes images on a pool of worker threads, while the images are rendered or decoded
+ * by the calling thread. A PDDocument can't be used by several threads, but the encoding of the
+ * images is independent of the document.
+ *
+ * <p>The number of images which have been submitted but not yet written is bounded, so that the
+ * memory needed doesn't depend on the number of pages. The file names are chosen by the caller,
+ * so they don't depend on the order in which the images are written. Failures are reported in
+ * the order in which the images have been submitted.</p>
+ *
+ * <p>With one thread the images are written by the calling thread when they are submitted, as if
+ * there was no pipeline.</p>
+ *
+ * <p>An instance must only be used by one thread.</p>
+ */
+public final class ImageEncodingPipeline implements Closeable
+{
+    /**
+     * Writes one image.
+     */
+    @FunctionalInterface
+    public interface EncodingTask
+    {
+        /**
+         * Encodes and writes the image.
+         *
+         * @return true if the image has been written, false if there is no writer for the format.
+         * @throws IOException if the image can't be written.
+         */
+        boolean encode() throws IOException;
+    }
+
+    private final ExecutorService executor;
+    private final Semaphore pending;
+    private final Deque<Future<Boolean>> futures = new ArrayDeque<>();
+    private boolean success = true;
+
+    /**
+     * Creates a pipeline with at most two pending images per thread.
+     *
+     * @param threads the number of encoding threads.
+     * @throws IllegalArgumentException if the number of threads is less than 1.
+     */
+    public ImageEncodingPipeline(int threads)
+    {
+        this(threads, threads * 2);
+    }
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param threads the number of encoding threads.
+     * @param maxPending the maximum number of images which have been submitted but not yet
+     * written. {@link #submit(EncodingTask)} blocks until an image has been written if the
+     * maximum is reached.
+     * @throws IllegalArgumentException if the number of threads or the maximum number of pending
+     * images is less than 1.
+     */
+    public ImageEncodingPipeline(int threads, int maxPending)
+    {
+        if (threads < 1)
+        {
+            throw new IllegalArgumentException("The number of threads must be at least 1: " + threads);
+        }
+        if (maxPending < 1)
+        {
+            throw new IllegalArgumentException(
+                    "The number of pending images must be at least 1: " + maxPending);
+        }
+        pending = new Semaphore(maxPending);
+        if (threads == 1)
+        {
+            executor = null;
+        }
+        else
+        {
+            executor = Executors.newFixedThreadPool(threads, runnable ->
+            {
+                Thread thread = new Thread(runnable, "PDFBox image encoder");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Submits an image to be written. Blocks while the maximum number of pending images is
+     * reached.
+     *
+     * @param task the task encoding and writing the image.
+     * @throws IOException if writing this or a previously submitted image has failed.
+     */
+    public void submit(EncodingTask task) throws IOException
+    {
+        if (executor == null)
+        {
+            success &= task.encode();
+            return;
+        }
+        try
+        {
+            pending.acquire();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the image encoder");
+        }
+        try
+        {
+            futures.add(executor.submit(() ->
+            {
+                try
+                {
+                    return task.encode();
+                }
+                finally
+                {
+                    pending.release();
+                }
+            }));
+        }
+        catch (RejectedExecutionException e)
+        {
+            pending.release();
+            throw e;
+        }
+        collect(false);
+    }
+
+    /**
+     * Waits until all submitted images have been written.
+     *
+     * @return true if all images have been written, false if there was no writer for the format
+     * of an image.
+     * @throws IOException if writing an image has failed.
+     */
+    public boolean finish() throws IOException
+    {
+        collect(true);
+        return success;
+    }
+
+    /**
+     * Collects the results of the written images in the order of submission.
+     *
+     * @param wait true if all images are to be waited for, false to stop at the first image which
+     * hasn't been written yet.
+     */
+    private void collect(boolean wait) throws IOException
+    {
+        while (!futures.isEmpty() && (wait || futures.peekFirst().isDone()))
+        {
+            Future<Boolean> future = futures.pollFirst();
+            try
+            {
+                success &= future.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the image encoder");
+            }
+            catch (ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException)
+                {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException)
+                {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error)
+                {
+                    throw (Error) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    /**
+     * Stops the encoding threads. Images which haven't been written yet are discarded, call
+     * {@link #finish()} before to write all images.
+     */
+    @Override
+    public void close()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+        }
+    }
+}
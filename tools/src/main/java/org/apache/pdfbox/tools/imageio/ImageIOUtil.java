@@ -20,15 +20,20 @@ import java.awt.color.ColorSpace;
 import java.awt.color.ICC_ColorSpace;
 import java.awt.color.ICC_Profile;
 import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
 
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.DeflaterOutputStream;
 
 import javax.imageio.IIOImage;
@@ -39,6 +44,7 @@ import javax.imageio.ImageWriter;
 import javax.imageio.metadata.IIOInvalidTreeException;
 import javax.imageio.metadata.IIOMetadata;
 import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.spi.ImageWriterSpi;
 import javax.imageio.stream.ImageOutputStream;
 
 import org.apache.commons.logging.Log;
@@ -57,14 +63,20 @@ public final class ImageIOUtil
      */
     private static final Log LOG = LogFactory.getLog(ImageIOUtil.class);
 
+    /**
+     * The provider of the first writer of each format, to avoid searching the registry for each
+     * image. The search is only done if the first writer doesn't support the metadata.
+     */
+    private static final Map<String, ImageWriterSpi> FIRST_WRITERS = new ConcurrentHashMap<>();
+
     private ImageIOUtil()
     {
     }
 
     /**
-     * Writes a buffered image to a file using the given image format. The compression is set for
+     * Writes an image to a file using the given image format. The compression is set for
      * maximum compression for PNG and maximum quality for all other file formats. See
-     * {@link #writeImage(BufferedImage image, String formatName, OutputStream output, int dpi, float compressionQuality)}
+     * {@link #writeImage(RenderedImage image, String formatName, OutputStream output, int dpi, float compressionQuality)}
      * for more details.
      *
      * @param image the image to be written
@@ -74,7 +86,7 @@ public final class ImageIOUtil
      * @return true if the image file was produced, false if there was an error.
      * @throws IOException if an I/O error occurs
      */
-    public static boolean writeImage(BufferedImage image, String filename,
+    public static boolean writeImage(RenderedImage image, String filename,
             int dpi) throws IOException
     {
         float compressionQuality = 1f;
@@ -88,8 +100,8 @@ public final class ImageIOUtil
     }
 
     /**
-     * Writes a buffered image to a file using the given image format.
-     * See {@link #writeImage(BufferedImage image, String formatName,
+     * Writes an image to a file using the given image format.
+     * See {@link #writeImage(RenderedImage image, String formatName,
      * OutputStream output, int dpi, float compressionQuality)} for more details.
      *
      * @param image the image to be written
@@ -102,7 +114,7 @@ public final class ImageIOUtil
      * @return true if the image file was produced, false if there was an error.
      * @throws IOException if an I/O error occurs
      */
-    public static boolean writeImage(BufferedImage image, String filename,
+    public static boolean writeImage(RenderedImage image, String filename,
             int dpi, float compressionQuality) throws IOException
     {
         try (OutputStream output = new BufferedOutputStream(new FileOutputStream(filename)))
@@ -113,9 +125,9 @@ public final class ImageIOUtil
     }
 
     /**
-     * Writes a buffered image to a file using the given image format. The compression is set for
+     * Writes an image to a file using the given image format. The compression is set for
      * maximum compression for PNG and maximum quality for all other file formats. See
-     * {@link #writeImage(BufferedImage image, String formatName, OutputStream output, int dpi, float compressionQuality)}
+     * {@link #writeImage(RenderedImage image, String formatName, OutputStream output, int dpi, float compressionQuality)}
      * for more details.
      *
      * @param image the image to be written
@@ -124,16 +136,16 @@ public final class ImageIOUtil
      * @return true if the image file was produced, false if there was an error.
      * @throws IOException if an I/O error occurs
      */
-    public static boolean writeImage(BufferedImage image, String formatName, OutputStream output)
+    public static boolean writeImage(RenderedImage image, String formatName, OutputStream output)
             throws IOException
     {
         return writeImage(image, formatName, output, 72);
     }
 
     /**
-     * Writes a buffered image to a file using the given image format. The compression is set for
+     * Writes an image to a file using the given image format. The compression is set for
      * maximum compression for PNG and maximum quality for all other file formats. See
-     * {@link #writeImage(BufferedImage image, String formatName, OutputStream output, int dpi, float compressionQuality)}
+     * {@link #writeImage(RenderedImage image, String formatName, OutputStream output, int dpi, float compressionQuality)}
      * for more details.
      *
      * @param image the image to be written
@@ -143,7 +155,7 @@ public final class ImageIOUtil
      * @return true if the image file was produced, false if there was an error.
      * @throws IOException if an I/O error occurs
      */
-    public static boolean writeImage(BufferedImage image, String formatName, OutputStream output,
+    public static boolean writeImage(RenderedImage image, String formatName, OutputStream output,
             int dpi) throws IOException
     {
         float compressionQuality = 1f;
@@ -156,7 +168,7 @@ public final class ImageIOUtil
     }
 
     /**
-     * Writes a buffered image to a file using the given image format.
+     * Writes an image to a file using the given image format.
      * Compression is fixed for PNG, GIF, BMP and WBMP, dependent of the compressionQuality
      * parameter for JPG, and dependent of bit count for TIFF (a bitonal image
      * will be compressed with CCITT G4, a color image with LZW). Creating a
@@ -173,19 +185,24 @@ public final class ImageIOUtil
      * @return true if the image file was produced, false if there was an error.
      * @throws IOException if an I/O error occurs
      */
-    public static boolean writeImage(BufferedImage image, String formatName, OutputStream output,
+    public static boolean writeImage(RenderedImage image, String formatName, OutputStream output,
             int dpi, float compressionQuality) throws IOException
     {
         return writeImage(image, formatName, output, dpi, compressionQuality, "");
     }
 
     /**
-     * Writes a buffered image to a file using the given image format.
+     * Writes an image to a file using the given image format.
      * Compression is fixed for PNG, GIF, BMP and WBMP, dependent of the compressionQuality
      * parameter for JPG, and dependent of bit count for TIFF (a bitonal image
      * will be compressed with CCITT G4, a color image with LZW). Creating a
      * TIFF image is only supported if the jai_imageio library is in the class
      * path.
+     * <p>
+     * The image doesn't need to be a BufferedImage. PNG and TIFF writers read the pixels row by
+     * row or strip by strip, so an image which is rendered while it is read, like a
+     * {@link org.apache.pdfbox.rendering.BandedPageImage}, doesn't need to be in memory at once.
+     * A TIFF image is written in strips of the height of the tiles of the image.
      *
      * @param image the image to be written
      * @param formatName the target format (ex. "png")
@@ -201,7 +218,7 @@ public final class ImageIOUtil
      * @return true if the image file was produced, false if there was an error.
      * @throws IOException if an I/O error occurs
      */
-    public static boolean writeImage(BufferedImage image, String formatName, OutputStream output,
+    public static boolean writeImage(RenderedImage image, String formatName, OutputStream output,
             int dpi, float compressionQuality, String compressionType) throws IOException
     {
         ImageOutputStream imageOutput = null;
@@ -209,28 +226,48 @@ public final class ImageIOUtil
         try
         {
             // find suitable image writer
-            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+            ImageTypeSpecifier imageType = new ImageTypeSpecifier(image);
             ImageWriteParam param = null;
             IIOMetadata metadata = null;
-            // Loop until we get the best driver, i.e. one that supports
-            // setting dpi in the standard metadata format; however we'd also 
-            // accept a driver that can't, if a better one can't be found
-            while (writers.hasNext())
+            String key = formatName.toLowerCase(Locale.US);
+            ImageWriterSpi firstWriter = FIRST_WRITERS.get(key);
+            if (firstWriter != null)
             {
-                if (writer != null)
+                writer = firstWriter.createWriterInstance();
+                param = writer.getDefaultWriteParam();
+                metadata = writer.getDefaultImageMetadata(imageType, param);
+                if (!isSuitable(metadata))
                 {
                     writer.dispose();
+                    writer = null;
                 }
-                writer = writers.next();
-                if (writer != null)
+            }
+            if (writer == null)
+            {
+                Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+                // Loop until we get the best driver, i.e. one that supports
+                // setting dpi in the standard metadata format; however we'd also
+                // accept a driver that can't, if a better one can't be found
+                while (writers.hasNext())
                 {
-                    param = writer.getDefaultWriteParam();
-                    metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(image), param);
-                    if (metadata != null
-                            && !metadata.isReadOnly()
-                            && metadata.isStandardMetadataFormatSupported())
+                    if (writer != null)
                     {
-                        break;
+                        writer.dispose();
+                    }
+                    writer = writers.next();
+                    if (writer != null)
+                    {
+                        if (firstWriter == null && writer.getOriginatingProvider() != null)
+                        {
+                            firstWriter = writer.getOriginatingProvider();
+                            FIRST_WRITERS.put(key, firstWriter);
+                        }
+                        param = writer.getDefaultWriteParam();
+                        metadata = writer.getDefaultImageMetadata(imageType, param);
+                        if (isSuitable(metadata))
+                        {
+                            break;
+                        }
                     }
                 }
             }
@@ -240,35 +277,11 @@ public final class ImageIOUtil
                 LOG.error("Supported formats: " + Arrays.toString(ImageIO.getWriterFormatNames()));
                 return false;
             }
-            
-            boolean isTifFormat = formatName.toLowerCase().startsWith("tif");
+
+            boolean isTifFormat = key.startsWith("tif");
 
             // compression
-            if (param != null && param.canWriteCompressed())
-            {
-                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-                if (isTifFormat)
-                {
-                    if ("".equals(compressionType))
-                    {
-                        // default logic
-                        TIFFUtil.setCompressionType(param, image);
-                    }
-                    else
-                    {
-                        param.setCompressionType(compressionType);
-                        if (compressionType != null)
-                        {
-                            param.setCompressionQuality(compressionQuality);
-                        }
-                    }
-                }
-                else
-                {
-                    param.setCompressionType(param.getCompressionTypes()[0]);
-                    param.setCompressionQuality(compressionQuality);
-                }
-            }
+            setCompression(param, image, isTifFormat, compressionQuality, compressionType);
 
             if (metadata != null)
             {
@@ -314,6 +327,11 @@ public final class ImageIOUtil
             writer.setOutput(imageOutput);
             writer.write(null, new IIOImage(image, null, metadata), param);
         }
+        catch (UncheckedIOException e)
+        {
+            // an image which is rendered while it is written, e.g. a BandedPageImage
+            throw e.getCause();
+        }
         finally
         {
             if (writer != null)
@@ -328,12 +346,166 @@ public final class ImageIOUtil
         return true;
     }
 
+    /**
+     * Writes a buffered image, the same as
+     * {@link #writeImage(RenderedImage, String, int)}.
+     *
+     * @param image the image to be written
+     * @param filename used to construct the filename for the individual image. Its suffix will be
+     * used as the image format.
+     * @param dpi the resolution in dpi (dots per inch) to be used in metadata
+     * @return true if the image file was produced, false if there was an error.
+     * @throws IOException if an I/O error occurs
+     */
+    public static boolean writeImage(BufferedImage image, String filename,
+            int dpi) throws IOException
+    {
+        return writeImage((RenderedImage) image, filename, dpi);
+    }
+
+    /**
+     * Writes a buffered image, the same as
+     * {@link #writeImage(RenderedImage, String, int, float)}.
+     *
+     * @param image the image to be written
+     * @param filename used to construct the filename for the individual image. Its suffix will be
+     * used as the image format.
+     * @param dpi the resolution in dpi (dots per inch) to be used in metadata
+     * @param compressionQuality quality to be used when compressing the image (0 &lt;
+     * compressionQuality &lt; 1.0f). See {@link ImageWriteParam#setCompressionQuality(float)} for
+     * more details.
+     * @return true if the image file was produced, false if there was an error.
+     * @throws IOException if an I/O error occurs
+     */
+    public static boolean writeImage(BufferedImage image, String filename,
+            int dpi, float compressionQuality) throws IOException
+    {
+        return writeImage((RenderedImage) image, filename, dpi, compressionQuality);
+    }
+
+    /**
+     * Writes a buffered image, the same as
+     * {@link #writeImage(RenderedImage, String, OutputStream)}.
+     *
+     * @param image the image to be written
+     * @param formatName the target format (ex. "png")
+     * @param output the output stream to be used for writing
+     * @return true if the image file was produced, false if there was an error.
+     * @throws IOException if an I/O error occurs
+     */
+    public static boolean writeImage(BufferedImage image, String formatName, OutputStream output)
+            throws IOException
+    {
+        return writeImage((RenderedImage) image, formatName, output);
+    }
+
+    /**
+     * Writes a buffered image, the same as
+     * {@link #writeImage(RenderedImage, String, OutputStream, int)}.
+     *
+     * @param image the image to be written
+     * @param formatName the target format (ex. "png")
+     * @param output the output stream to be used for writing
+     * @param dpi the resolution in dpi (dots per inch) to be used in metadata
+     * @return true if the image file was produced, false if there was an error.
+     * @throws IOException if an I/O error occurs
+     */
+    public static boolean writeImage(BufferedImage image, String formatName, OutputStream output,
+            int dpi) throws IOException
+    {
+        return writeImage((RenderedImage) image, formatName, output, dpi);
+    }
+
+    /**
+     * Writes a buffered image, the same as
+     * {@link #writeImage(RenderedImage, String, OutputStream, int, float)}.
+     *
+     * @param image the image to be written
+     * @param formatName the target format (ex. "png")
+     * @param output the output stream to be used for writing
+     * @param dpi the resolution in dpi (dots per inch) to be used in metadata
+     * @param compressionQuality quality to be used when compressing the image (0 &lt;
+     * compressionQuality &lt; 1.0f). See {@link ImageWriteParam#setCompressionQuality(float)} for
+     * more details.
+     * @return true if the image file was produced, false if there was an error.
+     * @throws IOException if an I/O error occurs
+     */
+    public static boolean writeImage(BufferedImage image, String formatName, OutputStream output,
+            int dpi, float compressionQuality) throws IOException
+    {
+        return writeImage((RenderedImage) image, formatName, output, dpi, compressionQuality);
+    }
+
+    /**
+     * Writes a buffered image, the same as
+     * {@link #writeImage(RenderedImage, String, OutputStream, int, float, String)}.
+     *
+     * @param image the image to be written
+     * @param formatName the target format (ex. "png")
+     * @param output the output stream to be used for writing
+     * @param dpi the resolution in dpi (dots per inch) to be used in metadata
+     * @param compressionQuality quality to be used when compressing the image (0 &lt;
+     * compressionQuality &lt; 1.0f). See {@link ImageWriteParam#setCompressionQuality(float)} for
+     * more details.
+     * @param compressionType Advanced users only, and only relevant for TIFF files, see
+     * {@link #writeImage(RenderedImage, String, OutputStream, int, float, String)}.
+     * @return true if the image file was produced, false if there was an error.
+     * @throws IOException if an I/O error occurs
+     */
+    public static boolean writeImage(BufferedImage image, String formatName, OutputStream output,
+            int dpi, float compressionQuality, String compressionType) throws IOException
+    {
+        return writeImage((RenderedImage) image, formatName, output, dpi,
+                compressionQuality, compressionType);
+    }
+
+    private static boolean isSuitable(IIOMetadata metadata)
+    {
+        return metadata != null
+                && !metadata.isReadOnly()
+                && metadata.isStandardMetadataFormatSupported();
+    }
+
+    /**
+     * Sets the compression of the given write parameters, as described in
+     * {@link #writeImage(RenderedImage, String, OutputStream, int, float, String)}.
+     */
+    static void setCompression(ImageWriteParam param, RenderedImage image, boolean isTifFormat,
+            float compressionQuality, String compressionType)
+    {
+        if (param != null && param.canWriteCompressed())
+        {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            if (isTifFormat)
+            {
+                if ("".equals(compressionType))
+                {
+                    // default logic
+                    TIFFUtil.setCompressionType(param, image);
+                }
+                else
+                {
+                    param.setCompressionType(compressionType);
+                    if (compressionType != null)
+                    {
+                        param.setCompressionQuality(compressionQuality);
+                    }
+                }
+            }
+            else
+            {
+                param.setCompressionType(param.getCompressionTypes()[0]);
+                param.setCompressionQuality(compressionQuality);
+            }
+        }
+    }
+
     /**
      * Determine if the given image has a ICC profile that should be embedded.
      * @param image the image to analyse
      * @return true if this image has an ICC profile, that is different from sRGB.
      */
-    private static boolean hasICCProfile(BufferedImage image)
+    private static boolean hasICCProfile(RenderedImage image)
     {
         ColorSpace colorSpace = image.getColorModel().getColorSpace();
         // We can only export ICC color spaces
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.tools.imageio;
+
+import java.awt.image.RenderedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Writes images as the pages of one TIFF file. Each page is written when it is added, so only the
+ * current page needs to be in memory. If the page is a
+ * {@link org.apache.pdfbox.rendering.BandedPageImage}, only one band of it is in memory, as each
+ * strip of the TIFF image is written from one band.
+ *
+ * <p>The compression and the metadata of the pages are those of
+ * {@link ImageIOUtil#writeImage(RenderedImage, String, OutputStream, int, float, String)}, a
+ * bitonal page is compressed with CCITT G4 and a color page with LZW. One image writer is used for
+ * all pages. An instance must only be used by one thread.</p>
+ */
+public final class MultiPageTIFFWriter implements Closeable
+{
+    private final ImageWriter writer;
+    private final ImageOutputStream imageOutput;
+    private final int dpi;
+    private final float compressionQuality;
+    private final String compressionType;
+    private int pageCount;
+
+    /**
+     * Creates a writer which uses the default compression.
+     *
+     * @param output the output stream, it isn't closed by {@link #close()}.
+     * @param dpi the resolution in dpi (dots per inch) to be used in the metadata of the pages.
+     * @throws IOException if there is no TIFF writer which can write several pages, or if an I/O
+     * error occurs.
+     */
+    public MultiPageTIFFWriter(OutputStream output, int dpi) throws IOException
+    {
+        this(output, dpi, 1f, "");
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param output the output stream, it isn't closed by {@link #close()}.
+     * @param dpi the resolution in dpi (dots per inch) to be used in the metadata of the pages.
+     * @param compressionQuality quality to be used when compressing the pages (0 &lt;
+     * compressionQuality &lt; 1.0f).
+     * @param compressionType if null, save uncompressed; if empty string, use the default
+     * compression; see
+     * {@link ImageIOUtil#writeImage(RenderedImage, String, OutputStream, int, float, String)}.
+     * @throws IOException if there is no TIFF writer which can write several pages, or if an I/O
+     * error occurs.
+     */
+    public MultiPageTIFFWriter(OutputStream output, int dpi, float compressionQuality,
+            String compressionType) throws IOException
+    {
+        this.writer = findWriter();
+        this.dpi = dpi;
+        this.compressionQuality = compressionQuality;
+        this.compressionType = compressionType;
+        ImageOutputStream stream = null;
+        try
+        {
+            stream = ImageIO.createImageOutputStream(output);
+            writer.setOutput(stream);
+            writer.prepareWriteSequence(null);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            writer.dispose();
+            if (stream != null)
+            {
+                stream.close();
+            }
+            throw e;
+        }
+        this.imageOutput = stream;
+    }
+
+    private static ImageWriter findWriter() throws IOException
+    {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("tiff");
+        while (writers.hasNext())
+        {
+            ImageWriter writer = writers.next();
+            if (writer != null)
+            {
+                if (writer.canWriteSequence())
+                {
+                    return writer;
+                }
+                writer.dispose();
+            }
+        }
+        throw new IOException("No ImageWriter found which can write several pages to a TIFF file");
+    }
+
+    /**
+     * Appends a page.
+     *
+     * @param image the image of the page. A TIFF image is written in strips of the height of the
+     * tiles of the image.
+     * @throws IOException if the page can't be written.
+     */
+    public void writePage(RenderedImage image) throws IOException
+    {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        ImageIOUtil.setCompression(param, image, true, compressionQuality, compressionType);
+        IIOMetadata metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(image), param);
+        if (metadata != null)
+        {
+            TIFFUtil.updateMetadata(metadata, image, dpi);
+        }
+        try
+        {
+            writer.writeToSequence(new IIOImage(image, null, metadata), param);
+        }
+        catch (UncheckedIOException e)
+        {
+            // an image which is rendered while it is written, e.g. a BandedPageImage
+            throw e.getCause();
+        }
+        pageCount++;
+    }
+
+    /**
+     * Returns the number of pages written so far.
+     *
+     * @return the number of pages.
+     */
+    public int getPageCount()
+    {
+        return pageCount;
+    }
+
+    /**
+     * Completes the TIFF file and releases the image writer. The output stream isn't closed.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            writer.endWriteSequence();
+        }
+        finally
+        {
+            writer.dispose();
+            imageOutput.close();
+        }
+    }
+}
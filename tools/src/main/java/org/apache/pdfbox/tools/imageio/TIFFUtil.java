@@ -23,7 +23,9 @@ import javax.imageio.ImageWriteParam;
 import javax.imageio.metadata.IIOInvalidTreeException;
 import javax.imageio.metadata.IIOMetadata;
 import javax.imageio.metadata.IIOMetadataNode;
-import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.RenderedImage;
 import static org.apache.pdfbox.tools.imageio.MetaUtil.debugLogMetadata;
 
 /**
@@ -40,15 +42,14 @@ final class TIFFUtil
 
     /**
      * Sets the ImageIO parameter compression type based on the given image.
-     * @param image buffered image used to decide compression type
+     * @param image image used to decide compression type
      * @param param ImageIO write parameter to update
      */
-    public static void setCompressionType(ImageWriteParam param, BufferedImage image)
+    public static void setCompressionType(ImageWriteParam param, RenderedImage image)
     {
         // avoid error: first compression type is RLE, not optimal and incorrect for color images
         // TODO expose this choice to the user?
-        if (image.getType() == BufferedImage.TYPE_BYTE_BINARY &&
-            image.getColorModel().getPixelSize() == 1)
+        if (isBitonal(image))
         {
             param.setCompressionType("CCITT T.6");
         }
@@ -58,6 +59,17 @@ final class TIFFUtil
         }
     }
 
+    /**
+     * Tells whether the image is a bitonal image like those of type
+     * {@link java.awt.image.BufferedImage#TYPE_BYTE_BINARY} with one bit per pixel.
+     */
+    private static boolean isBitonal(RenderedImage image)
+    {
+        return image.getColorModel() instanceof IndexColorModel &&
+               image.getColorModel().getPixelSize() == 1 &&
+               image.getSampleModel() instanceof MultiPixelPackedSampleModel;
+    }
+
     /**
      * Updates the given ImageIO metadata with Sun's custom TIFF tags, as described in
      * the <a href="https://svn.apache.org/repos/asf/xmlgraphics/commons/tags/commons-1_3_1/src/java/org/apache/xmlgraphics/image/writer/imageio/ImageIOTIFFImageWriter.java">org.apache.xmlgraphics.image.writer.imageio.ImageIOTIFFImageWriter
@@ -67,12 +79,15 @@ final class TIFFUtil
      * and the <a href="http://partners.adobe.com/public/developer/tiff/index.html">TIFF
      * specification</a>.
      *
-     * @param image buffered image which will be written
+     * The image is written in strips of the height of its tiles, i.e. in one strip for a
+     * BufferedImage.
+     *
+     * @param image image which will be written
      * @param metadata ImageIO metadata
      * @param dpi image dots per inch
      * @throws IIOInvalidTreeException if something goes wrong
      */
-    static void updateMetadata(IIOMetadata metadata, BufferedImage image, int dpi)
+    static void updateMetadata(IIOMetadata metadata, RenderedImage image, int dpi)
             throws IIOInvalidTreeException
     {
         String metaDataFormat = metadata.getNativeMetadataFormatName();
@@ -101,11 +116,10 @@ final class TIFFUtil
         ifd.appendChild(createRationalField(283, "YResolution", dpi, 1));
         ifd.appendChild(createShortField(296, "ResolutionUnit", 2)); // Inch
 
-        ifd.appendChild(createLongField(278, "RowsPerStrip", image.getHeight()));
+        ifd.appendChild(createLongField(278, "RowsPerStrip", image.getTileHeight()));
         ifd.appendChild(createAsciiField(305, "Software", "PDFBOX"));
 
-        if (image.getType() == BufferedImage.TYPE_BYTE_BINARY && 
-                image.getColorModel().getPixelSize() == 1)
+        if (isBitonal(image))
         {
             // set PhotometricInterpretation WhiteIsZero
             // because of bug in Windows XP preview
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.tools;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of the image extraction.
+ */
+class TestExtractImages
+{
+    /**
+     * The bitonal copy must be the same as when copied pixel by pixel with setRGB().
+     */
+    @Test
+    void testToBitonal()
+    {
+        Random random = new Random(1234);
+        for (int type : new int[] { BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_INT_RGB })
+        {
+            // odd width to test the padding at the end of the rows
+            BufferedImage image = new BufferedImage(37, 23, type);
+            for (int y = 0; y < image.getHeight(); y++)
+            {
+                for (int x = 0; x < image.getWidth(); x++)
+                {
+                    image.setRGB(x, y, random.nextInt());
+                }
+            }
+            BufferedImage expected = new BufferedImage(image.getWidth(), image.getHeight(),
+                    BufferedImage.TYPE_BYTE_BINARY);
+            for (int y = 0; y < image.getHeight(); y++)
+            {
+                for (int x = 0; x < image.getWidth(); x++)
+                {
+                    expected.setRGB(x, y, image.getRGB(x, y));
+                }
+            }
+            BufferedImage actual = ExtractImages.toBitonal(image);
+            assertArrayEquals(((DataBufferByte) expected.getRaster().getDataBuffer()).getData(),
+                    ((DataBufferByte) actual.getRaster().getDataBuffer()).getData());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.tools.imageio;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of the pipeline writing images on several threads.
+ */
+class TestImageEncodingPipeline
+{
+    @Test
+    void testWriteImages() throws IOException
+    {
+        File dir = new File("target/test-output/pipeline");
+        dir.mkdirs();
+        try (ImageEncodingPipeline pipeline = new ImageEncodingPipeline(4, 3))
+        {
+            for (int i = 0; i < 20; i++)
+            {
+                BufferedImage image = createImage(i);
+                String fileName = new File(dir, "image-" + i + ".png").getPath();
+                pipeline.submit(() -> ImageIOUtil.writeImage(image, fileName, 72));
+            }
+            assertTrue(pipeline.finish());
+        }
+        for (int i = 0; i < 20; i++)
+        {
+            BufferedImage expected = createImage(i);
+            BufferedImage actual = ImageIO.read(new File(dir, "image-" + i + ".png"));
+            assertArrayEquals(expected.getRGB(0, 0, 40, 30, null, 0, 40),
+                    actual.getRGB(0, 0, 40, 30, null, 0, 40), "image " + i);
+        }
+    }
+
+    @Test
+    void testBoundedPending() throws IOException
+    {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try (ImageEncodingPipeline pipeline = new ImageEncodingPipeline(4, 2))
+        {
+            for (int i = 0; i < 50; i++)
+            {
+                pipeline.submit(() ->
+                {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try
+                    {
+                        Thread.sleep(2);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    return true;
+                });
+            }
+            assertTrue(pipeline.finish());
+        }
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    void testFailureInSubmissionOrder()
+    {
+        try (ImageEncodingPipeline pipeline = new ImageEncodingPipeline(3))
+        {
+            IOException ex = assertThrows(IOException.class, () ->
+            {
+                for (int i = 0; i < 10; i++)
+                {
+                    int number = i;
+                    pipeline.submit(() ->
+                    {
+                        if (number >= 4)
+                        {
+                            throw new IOException("image " + number);
+                        }
+                        return number != 2;
+                    });
+                }
+                pipeline.finish();
+            });
+            assertEquals("image 4", ex.getMessage());
+        }
+    }
+
+    @Test
+    void testSequential() throws IOException
+    {
+        Thread caller = Thread.currentThread();
+        try (ImageEncodingPipeline pipeline = new ImageEncodingPipeline(1))
+        {
+            pipeline.submit(() -> Thread.currentThread() == caller);
+            pipeline.submit(() -> false);
+            assertFalse(pipeline.finish());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ImageEncodingPipeline(0));
+    }
+
+    private static BufferedImage createImage(int number)
+    {
+        BufferedImage image = new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 40, 30);
+        g.setColor(new Color(number * 10, 255 - number * 10, 128));
+        g.fillRect(number, 5, 10, 20);
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.pdfbox.tools.imageio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.BandedPageImage;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.RenderDestination;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the streaming of pages which are rendered in bands to TIFF and PNG files.
+ */
+class TestMultiPageTIFFWriter
+{
+    private static final int BAND_HEIGHT = 32;
+
+    @Test
+    void testMultiPageTIFF() throws IOException
+    {
+        try (PDDocument document = createDocument())
+        {
+            PDFRenderer renderer = new PDFRenderer(document);
+            for (ImageType imageType : new ImageType[] { ImageType.BINARY, ImageType.RGB })
+            {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                try (MultiPageTIFFWriter writer = new MultiPageTIFFWriter(output, 144))
+                {
+                    for (int i = 0; i < document.getNumberOfPages(); i++)
+                    {
+                        writer.writePage(new BandedPageImage(renderer, i, 2, imageType,
+                                RenderDestination.EXPORT, BAND_HEIGHT));
+                    }
+                    assertEquals(document.getNumberOfPages(), writer.getPageCount());
+                }
+
+                try (ImageInputStream input = ImageIO.createImageInputStream(
+                        new ByteArrayInputStream(output.toByteArray())))
+                {
+                    Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+                    assertTrue(readers.hasNext());
+                    ImageReader reader = readers.next();
+                    reader.setInput(input);
+                    assertEquals(document.getNumberOfPages(), reader.getNumImages(true));
+                    for (int i = 0; i < document.getNumberOfPages(); i++)
+                    {
+                        BufferedImage expected = renderer.renderImage(i, 2, imageType);
+                        assertSameImage(expected, reader.read(i));
+                    }
+                    reader.dispose();
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBandedPNG() throws IOException
+    {
+        try (PDDocument document = createDocument())
+        {
+            PDFRenderer renderer = new PDFRenderer(document);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            assertTrue(ImageIOUtil.writeImage(new BandedPageImage(renderer, 1, 2, ImageType.RGB,
+                    RenderDestination.EXPORT, BAND_HEIGHT), "png", output, 144));
+            BufferedImage expected = renderer.renderImage(1, 2, ImageType.RGB);
+            assertSameImage(expected, ImageIO.read(new ByteArrayInputStream(output.toByteArray())));
+        }
+    }
+
+    private static PDDocument createDocument() throws IOException
+    {
+        PDDocument document = new PDDocument();
+        for (int i = 0; i < 3; i++)
+        {
+            PDPage page = new PDPage(new PDRectangle(100 + 20 * i, 150));
+            page.setRotation(90 * i);
+            document.addPage(page);
+            try (PDPageContentStream contents = new PDPageContentStream(document, page))
+            {
+                contents.setNonStrokingColor(0.8f, 0.1f * i, 0.3f);
+                contents.addRect(10, 10 + 20 * i, 60, 70);
+                contents.fill();
+            }
+        }
+        return document;
+    }
+
+    private static void assertSameImage(BufferedImage expected, BufferedImage actual)
+    {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++)
+        {
+            for (int x = 0; x < expected.getWidth(); x++)
+            {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "pixel " + x + ", " + y);
+            }
+        }
+    }
+}
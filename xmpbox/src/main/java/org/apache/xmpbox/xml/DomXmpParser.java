@@ -68,7 +68,15 @@ import org.xml.sax.SAXException;
 
 public class DomXmpParser
 {
-    private DocumentBuilder dBuilder;
+    /**
+     * The number of idle document builders which are kept for reuse.
+     */
+    private static final int MAX_POOLED_BUILDERS = Runtime.getRuntime().availableProcessors();
+
+    // the factory lookup and the builder creation cost much more than parsing a small XMP packet,
+    // so both are shared by all parsers
+    private static DocumentBuilderFactory dbFactory;
+    private static final Deque<DocumentBuilder> BUILDER_POOL = new ArrayDeque<>();
 
     private NamespaceFinder nsFinder;
 
@@ -76,23 +84,53 @@ public class DomXmpParser
 
     public DomXmpParser() throws XmpParsingException
     {
-        try
+        // fail early if the XML parser can't be configured
+        releaseDocumentBuilder(acquireDocumentBuilder());
+        nsFinder = new NamespaceFinder();
+    }
+
+    private static DocumentBuilder acquireDocumentBuilder() throws XmpParsingException
+    {
+        synchronized (BUILDER_POOL)
         {
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            dbFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-            dbFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-            dbFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-            dbFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-            dbFactory.setXIncludeAware(false);
-            dbFactory.setExpandEntityReferences(false);
-            dbFactory.setIgnoringComments(true);
-            dbFactory.setNamespaceAware(true);
-            dBuilder = dbFactory.newDocumentBuilder();
-            nsFinder = new NamespaceFinder();
+            DocumentBuilder builder = BUILDER_POOL.poll();
+            if (builder != null)
+            {
+                return builder;
+            }
+            try
+            {
+                if (dbFactory == null)
+                {
+                    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+                    factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+                    factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+                    factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+                    factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+                    factory.setXIncludeAware(false);
+                    factory.setExpandEntityReferences(false);
+                    factory.setIgnoringComments(true);
+                    factory.setNamespaceAware(true);
+                    dbFactory = factory;
+                }
+                return dbFactory.newDocumentBuilder();
+            }
+            catch (ParserConfigurationException e)
+            {
+                throw new XmpParsingException(ErrorType.Configuration, "Failed to initialize", e);
+            }
         }
-        catch (ParserConfigurationException e)
+    }
+
+    private static void releaseDocumentBuilder(DocumentBuilder builder)
+    {
+        builder.reset();
+        synchronized (BUILDER_POOL)
         {
-            throw new XmpParsingException(ErrorType.Configuration, "Failed to initialize", e);
+            if (BUILDER_POOL.size() < MAX_POOLED_BUILDERS)
+            {
+                BUILDER_POOL.push(builder);
+            }
         }
     }
 
@@ -115,6 +153,7 @@ public class DomXmpParser
     public XMPMetadata parse(InputStream input) throws XmpParsingException
     {
         Document document = null;
+        DocumentBuilder dBuilder = acquireDocumentBuilder();
         try
         {
             // prevents validation messages polluting the console
@@ -125,6 +164,10 @@ public class DomXmpParser
         {
             throw new XmpParsingException(ErrorType.Undefined, "Failed to parse", e);
         }
+        finally
+        {
+            releaseDocumentBuilder(dBuilder);
+        }
 
         XMPMetadata xmp = null;
 
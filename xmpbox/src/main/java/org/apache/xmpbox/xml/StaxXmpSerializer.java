@@ -0,0 +1,334 @@
+/*****************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ ****************************************************************************/
+
+package org.apache.xmpbox.xml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.xmpbox.XMPMetadata;
+import org.apache.xmpbox.XmpConstants;
+import org.apache.xmpbox.schema.XMPSchema;
+import org.apache.xmpbox.type.AbstractComplexProperty;
+import org.apache.xmpbox.type.AbstractField;
+import org.apache.xmpbox.type.AbstractSimpleProperty;
+import org.apache.xmpbox.type.AbstractStructuredType;
+import org.apache.xmpbox.type.ArrayProperty;
+import org.apache.xmpbox.type.Attribute;
+
+/**
+ * Serializes XMP metadata with a StAX stream writer, without building a DOM document and without
+ * a transformer. The output is the same indented XML as written by {@link XmpSerializer}.
+ *
+ * <p>Instances are thread-safe and can be shared.</p>
+ */
+public class StaxXmpSerializer
+{
+    private static final String XMP_META_NAMESPACE = "adobe:ns:meta/";
+
+    private static final String INDENT = "  ";
+
+    private final XMLOutputFactory outputFactory;
+
+    /**
+     * Default constructor.
+     */
+    public StaxXmpSerializer()
+    {
+        this(XMLOutputFactory.newInstance());
+    }
+
+    /**
+     * Constructor to be used if another factory than the default one is needed. The factory must
+     * not be reconfigured while this serializer is used.
+     *
+     * @param outputFactory the StAX output factory to be used.
+     */
+    public StaxXmpSerializer(XMLOutputFactory outputFactory)
+    {
+        this.outputFactory = outputFactory;
+    }
+
+    /**
+     * Serializes the metadata as UTF-8 encoded XML. The output stream is not closed.
+     *
+     * @param metadata the metadata to be serialized.
+     * @param os the stream to write to.
+     * @param withXpacket true if the xpacket processing instructions are to be written.
+     * @throws XmpSerializationException if the XML can't be written.
+     */
+    public void serialize(XMPMetadata metadata, OutputStream os, boolean withXpacket)
+            throws XmpSerializationException
+    {
+        try
+        {
+            // the writer of the JDK encodes much faster when given a character stream
+            Writer out = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+            XMLStreamWriter writer = outputFactory.createXMLStreamWriter(out);
+            if (withXpacket)
+            {
+                writer.writeProcessingInstruction("xpacket",
+                        "begin=\"" + metadata.getXpacketBegin() + "\" id=\"" + metadata.getXpacketId() + "\"");
+            }
+            writer.writeStartElement("x:xmpmeta");
+            writer.writeNamespace("x", XMP_META_NAMESPACE);
+            newLine(writer, 1);
+            List<XMPSchema> schemas = metadata.getAllSchemas();
+            Map<String, String> attributes = new LinkedHashMap<>();
+            attributes.put(XMLConstants.XMLNS_ATTRIBUTE + ":" + XmpConstants.DEFAULT_RDF_PREFIX,
+                    XmpConstants.RDF_NAMESPACE);
+            if (startElement(writer, XmpConstants.DEFAULT_RDF_PREFIX + ":" + XmpConstants.DEFAULT_RDF_LOCAL_NAME,
+                    attributes, !schemas.isEmpty()))
+            {
+                for (XMPSchema schema : schemas)
+                {
+                    newLine(writer, 2);
+                    serializeSchema(writer, schema);
+                }
+                newLine(writer, 1);
+                writer.writeEndElement();
+            }
+            newLine(writer, 0);
+            writer.writeEndElement();
+            if (withXpacket)
+            {
+                writer.writeProcessingInstruction("xpacket", "end=\"" + metadata.getEndXPacket() + "\"");
+            }
+            writer.writeCharacters("\n");
+            writer.close();
+            out.flush();
+        }
+        catch (XMLStreamException | IOException e)
+        {
+            throw new XmpSerializationException("Failed to serialize XMP metadata", e);
+        }
+    }
+
+    private void serializeSchema(XMLStreamWriter writer, XMPSchema schema) throws XMLStreamException
+    {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put(XMLConstants.XMLNS_ATTRIBUTE + ":" + schema.getPrefix(), schema.getNamespace());
+        attributes.put(XmpConstants.DEFAULT_RDF_PREFIX + ":" + XmpConstants.ABOUT_NAME, schema.getAboutValue());
+        collectAttributes(attributes, schema);
+        List<AbstractField> fields = schema.getAllProperties();
+        String name = XmpConstants.DEFAULT_RDF_PREFIX + ":" + XmpConstants.DESCRIPTION_NAME;
+        if (startElement(writer, name, attributes, hasContent(fields)))
+        {
+            serializeFields(writer, fields, schema.getPrefix(), null, true, 3);
+            newLine(writer, 2);
+            writer.writeEndElement();
+        }
+    }
+
+    private void serializeFields(XMLStreamWriter writer, List<AbstractField> fields, String resourceNS,
+            String prefix, boolean wrapWithProperty, int depth) throws XMLStreamException
+    {
+        for (AbstractField field : fields)
+        {
+            if (field instanceof AbstractSimpleProperty)
+            {
+                AbstractSimpleProperty simple = (AbstractSimpleProperty) field;
+                String localPrefix = prefix != null && !prefix.isEmpty() ? prefix : simple.getPrefix();
+                Map<String, String> attributes = new LinkedHashMap<>();
+                for (Attribute attribute : simple.getAllAttributes())
+                {
+                    attributes.put(getQualifiedName(attribute), attribute.getValue());
+                }
+                String value = simple.getStringValue();
+                newLine(writer, depth);
+                if (startElement(writer, localPrefix + ":" + simple.getPropertyName(), attributes,
+                        value != null && !value.isEmpty()))
+                {
+                    writer.writeCharacters(value);
+                    writer.writeEndElement();
+                }
+            }
+            else if (field instanceof ArrayProperty)
+            {
+                ArrayProperty array = (ArrayProperty) field;
+                Map<String, String> attributes = new LinkedHashMap<>();
+                collectAttributes(attributes, array);
+                newLine(writer, depth);
+                // the property always contains the array definition
+                startElement(writer, array.getPrefix() + ":" + array.getPropertyName(), attributes, true);
+                newLine(writer, depth + 1);
+                List<AbstractField> innerFields = array.getAllProperties();
+                if (startElement(writer, XmpConstants.DEFAULT_RDF_PREFIX + ":" + array.getArrayType(), null,
+                        hasContent(innerFields)))
+                {
+                    serializeFields(writer, innerFields, resourceNS, XmpConstants.DEFAULT_RDF_PREFIX, false,
+                            depth + 2);
+                    newLine(writer, depth + 1);
+                    writer.writeEndElement();
+                }
+                newLine(writer, depth);
+                writer.writeEndElement();
+            }
+            else if (field instanceof AbstractStructuredType)
+            {
+                AbstractStructuredType structured = (AbstractStructuredType) field;
+                int listDepth = depth;
+                if (wrapWithProperty)
+                {
+                    newLine(writer, depth);
+                    startElement(writer, resourceNS + ":" + structured.getPropertyName(), null, true);
+                    listDepth++;
+                }
+                Map<String, String> attributes = new LinkedHashMap<>();
+                attributes.put(XmpConstants.DEFAULT_RDF_PREFIX + ":" + XmpConstants.PARSE_TYPE,
+                        XmpConstants.RESOURCE_NAME);
+                List<AbstractField> innerFields = structured.getAllProperties();
+                newLine(writer, listDepth);
+                if (startElement(writer, XmpConstants.DEFAULT_RDF_PREFIX + ":" + XmpConstants.LIST_NAME,
+                        attributes, hasContent(innerFields)))
+                {
+                    serializeFields(writer, innerFields, resourceNS, null, true, listDepth + 1);
+                    newLine(writer, listDepth);
+                    writer.writeEndElement();
+                }
+                if (wrapWithProperty)
+                {
+                    newLine(writer, depth);
+                    writer.writeEndElement();
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells whether any of the fields produces an element, the other field types are skipped by
+     * the serializer.
+     */
+    private static boolean hasContent(List<AbstractField> fields)
+    {
+        for (AbstractField field : fields)
+        {
+            if (field instanceof AbstractSimpleProperty || field instanceof ArrayProperty
+                    || field instanceof AbstractStructuredType)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the attributes and namespaces of a complex property. Attributes which match a property
+     * are serialized as child elements and are skipped.
+     */
+    private static void collectAttributes(Map<String, String> target, AbstractComplexProperty property)
+    {
+        List<AbstractField> fields = property.getAllProperties();
+        for (Attribute attribute : property.getAllAttributes())
+        {
+            boolean matchesField = false;
+            for (AbstractField field : fields)
+            {
+                if (attribute.getName().equals(field.getPropertyName()))
+                {
+                    matchesField = true;
+                    break;
+                }
+            }
+            if (!matchesField)
+            {
+                String name = XmpConstants.RDF_NAMESPACE.equals(attribute.getNamespace())
+                        ? XmpConstants.DEFAULT_RDF_PREFIX + ":" + attribute.getName()
+                        : attribute.getName();
+                target.put(name, attribute.getValue());
+            }
+        }
+        property.getAllNamespacesWithPrefix().forEach((namespace, prefix) ->
+                target.put(XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix, namespace));
+    }
+
+    private static String getQualifiedName(Attribute attribute)
+    {
+        String name = attribute.getName();
+        if (XMLConstants.XML_NS_URI.equals(attribute.getNamespace()) && name.indexOf(':') < 0)
+        {
+            return XMLConstants.XML_NS_PREFIX + ":" + name;
+        }
+        return name;
+    }
+
+    /**
+     * Writes a start tag, or an empty element if there is no content. Namespace declarations are
+     * written before the other attributes.
+     *
+     * @return true if the element has content and must be ended by the caller.
+     */
+    private static boolean startElement(XMLStreamWriter writer, String name, Map<String, String> attributes,
+            boolean hasContent) throws XMLStreamException
+    {
+        if (hasContent)
+        {
+            writer.writeStartElement(name);
+        }
+        else
+        {
+            writer.writeEmptyElement(name);
+        }
+        if (attributes != null)
+        {
+            for (Map.Entry<String, String> attribute : attributes.entrySet())
+            {
+                String key = attribute.getKey();
+                if (key.startsWith(XMLConstants.XMLNS_ATTRIBUTE + ":"))
+                {
+                    writer.writeNamespace(key.substring(XMLConstants.XMLNS_ATTRIBUTE.length() + 1),
+                            attribute.getValue());
+                }
+            }
+            for (Map.Entry<String, String> attribute : attributes.entrySet())
+            {
+                String key = attribute.getKey();
+                if (!key.startsWith(XMLConstants.XMLNS_ATTRIBUTE + ":") && attribute.getValue() != null)
+                {
+                    writer.writeAttribute(key, attribute.getValue());
+                }
+            }
+        }
+        return hasContent;
+    }
+
+    private static void newLine(XMLStreamWriter writer, int depth) throws XMLStreamException
+    {
+        StringBuilder sb = new StringBuilder(1 + depth * INDENT.length());
+        sb.append('\n');
+        for (int i = 0; i < depth; i++)
+        {
+            sb.append(INDENT);
+        }
+        writer.writeCharacters(sb.toString());
+    }
+}
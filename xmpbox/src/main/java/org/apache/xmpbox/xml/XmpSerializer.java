@@ -56,6 +56,9 @@ public class XmpSerializer
     private final TransformerFactory transformerFactory;
     private final DocumentBuilder documentBuilder;
 
+    // created on first use and reused, like the document builder
+    private Transformer transformer;
+
     /**
      * Default constructor.
      */
@@ -285,14 +288,17 @@ public class XmpSerializer
      */
     private void save(Node doc, OutputStream outStream, String encoding) throws TransformerException
     {
-        Transformer transformer = transformerFactory.newTransformer();
-        // human readable
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        // indent elements
-        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
+        if (transformer == null)
+        {
+            transformer = transformerFactory.newTransformer();
+            // human readable
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            // indent elements
+            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        }
         // encoding
         transformer.setOutputProperty(OutputKeys.ENCODING, encoding);
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
         // initialize StreamResult with File object to save to file
         Result result = new StreamResult(outStream);
         DOMSource source = new DOMSource(doc);
@@ -0,0 +1,110 @@
+/*****************************************************************************
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ ****************************************************************************/
+
+package org.apache.xmpbox.xml;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import org.apache.xmpbox.XMPMetadata;
+import org.apache.xmpbox.schema.DublinCoreSchema;
+import org.apache.xmpbox.schema.PDFAIdentificationSchema;
+import org.apache.xmpbox.schema.XMPBasicSchema;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+
+class StaxXmpSerializerTest
+{
+
+    /**
+     * The StAX serializer must write the same bytes as the DOM serializer.
+     *
+     * @param resource the XMP resource to be parsed and serialized
+     * @throws Exception
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "/validxmp/Notepad++_A1b.xmp", "/validxmp/attr_as_props.xml",
+            "/validxmp/emptyli.xml", "/validxmp/exif.xmp", "/validxmp/ghost2.xmp",
+            "/validxmp/history2.rdf", "/validxmp/metadata.rdf", "/validxmp/only_space_fields.xmp",
+            "/validxmp/override_ns.rdf" })
+    void testSameOutputAsDom(String resource) throws Exception
+    {
+        XMPMetadata metadata;
+        try (InputStream is = StaxXmpSerializerTest.class.getResourceAsStream(resource))
+        {
+            metadata = new DomXmpParser().parse(is);
+        }
+        assertArrayEquals(serializeDom(metadata, true), serializeStax(metadata, true));
+        assertArrayEquals(serializeDom(metadata, false), serializeStax(metadata, false));
+    }
+
+    @Test
+    void testRoundTrip() throws Exception
+    {
+        XMPMetadata metadata = XMPMetadata.createXMPMetadata();
+        DublinCoreSchema dc = metadata.createAndAddDublinCoreSchema();
+        dc.setTitle("Title & <markup>");
+        dc.addTitle("de", "Titel");
+        dc.addCreator("First");
+        dc.addCreator("Second");
+        dc.setFormat("application/pdf");
+        XMPBasicSchema basic = metadata.createAndAddXMPBasicSchema();
+        Calendar date = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        date.clear();
+        date.set(2020, Calendar.FEBRUARY, 2, 10, 20, 30);
+        basic.setCreateDate(date);
+        PDFAIdentificationSchema pdfaId = metadata.createAndAddPFAIdentificationSchema();
+        pdfaId.setPart(1);
+        pdfaId.setConformance("B");
+
+        byte[] stax = serializeStax(metadata, true);
+        assertArrayEquals(serializeDom(metadata, true), stax);
+
+        XMPMetadata parsed = new DomXmpParser().parse(stax);
+        assertEquals("Title & <markup>", parsed.getDublinCoreSchema().getTitle());
+        assertEquals("Titel", parsed.getDublinCoreSchema().getTitle("de"));
+        assertEquals(2, parsed.getDublinCoreSchema().getCreators().size());
+        assertEquals(date.getTimeInMillis(),
+                parsed.getXMPBasicSchema().getCreateDate().getTimeInMillis());
+        assertEquals(Integer.valueOf(1), parsed.getPDFIdentificationSchema().getPart());
+    }
+
+    private static byte[] serializeDom(XMPMetadata metadata, boolean withXpacket) throws Exception
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new XmpSerializer().serialize(metadata, baos, withXpacket);
+        return baos.toByteArray();
+    }
+
+    private static byte[] serializeStax(XMPMetadata metadata, boolean withXpacket) throws Exception
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new StaxXmpSerializer().serialize(metadata, baos, withXpacket);
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,83 @@
+/*****************************************************************************
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ ****************************************************************************/
+
+package org.apache.xmpbox.xml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.xmpbox.XMPMetadata;
+
+/**
+ * Compares the time needed to parse an XMP packet and to serialize it with the DOM serializer and
+ * the StAX serializer. Each parse uses a new parser, as done when processing many PDF files.
+ */
+public class XmpBenchmark
+{
+
+    public static void main(String[] args) throws Exception
+    {
+        if (args.length < 2)
+        {
+            System.err.println("Usage : XmpBenchmark loop <xmp file>");
+            System.exit(255);
+        }
+
+        int loop = Integer.parseInt(args[0]);
+        byte[] xmp = Files.readAllBytes(new File(args[1]).toPath());
+        XMPMetadata metadata = new DomXmpParser().parse(xmp);
+        XmpSerializer domSerializer = new XmpSerializer();
+        StaxXmpSerializer staxSerializer = new StaxXmpSerializer();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        // two rounds, the first one warms up the JIT
+        for (int round = 0; round < 2; round++)
+        {
+            long start = System.nanoTime();
+            for (int i = 0; i < loop; i++)
+            {
+                new DomXmpParser().parse(xmp);
+            }
+            long parseTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < loop; i++)
+            {
+                baos.reset();
+                domSerializer.serialize(metadata, baos, true);
+            }
+            long domTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < loop; i++)
+            {
+                baos.reset();
+                staxSerializer.serialize(metadata, baos, true);
+            }
+            long staxTime = System.nanoTime() - start;
+
+            System.out.println("Parse (us/op) : " + parseTime / 1000 / loop);
+            System.out.println("DOM serialize (us/op) : " + domTime / 1000 / loop);
+            System.out.println("StAX serialize (us/op) : " + staxTime / 1000 / loop);
+        }
+    }
+}